@@ -0,0 +1,75 @@
+package be.uclouvain.solvercheck.checkers;
+
+import be.uclouvain.solvercheck.core.data.Assignment;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.CheckerTraits;
+import be.uclouvain.solvercheck.core.task.PartialChecker;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static be.uclouvain.solvercheck.core.task.PartialChecker.PartialCheckResult.ACCEPT;
+import static be.uclouvain.solvercheck.core.task.PartialChecker.PartialCheckResult.I_DONT_KNOW;
+import static be.uclouvain.solvercheck.core.task.PartialChecker.PartialCheckResult.REJECT;
+
+/**
+ * A checker that tells whether all variables of the given assignment
+ * satisfy the allDifferent constraint. In other words, this checker
+ * evaluates an assignment to true iff all the variables of the
+ * assignment take a different value.
+ *
+ * Because allDiff is anti-monotonic, this checker is also able to examine
+ * partial assignments: any partial assignment where two fixed variables
+ * share the same value (or where the variables are more numerous than the
+ * values they can take) can be rejected without looking any further.
+ */
+public final class AllDiffChecker implements PartialChecker {
+    /** The variables and the values of allDiff are interchangeable. */
+    private static final CheckerTraits TRAITS = CheckerTraits.builder()
+            .variableSymmetric()
+            .valueSymmetric()
+            .build();
+
+    /** {@inheritDoc} */
+    @Override
+    public CheckerTraits traits() {
+        return TRAITS;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean test(final Assignment assignment) {
+        return Set.copyOf(assignment).size() == assignment.size();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PartialCheckResult test(final PartialAssignment partial) {
+        if (partial.isError()) {
+            return REJECT;
+        }
+
+        final Set<Integer> fixed  = new HashSet<>();
+        final Set<Integer> values = new HashSet<>();
+        boolean complete = true;
+
+        for (Domain domain : partial) {
+            if (domain.isFixed()) {
+                if (!fixed.add(domain.minimum())) {
+                    return REJECT;
+                }
+            } else {
+                complete = false;
+            }
+            values.addAll(domain);
+        }
+
+        // pigeonhole: there are not enough values to go around
+        if (values.size() < partial.size()) {
+            return REJECT;
+        }
+
+        return complete ? ACCEPT : I_DONT_KNOW;
+    }
+}
@@ -0,0 +1,252 @@
+package be.uclouvain.solvercheck.checkers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable deterministic finite automaton (DFA). Its states are the
+ * integers [0, nbStates) and its symbols are plain integers (the values of
+ * the variables).
+ *
+ * .. Representation::
+ *    The transitions are stored in an int table indexed by state and by
+ *    symbol (offset by the smallest symbol having some transition). A
+ *    missing transition is denoted by -1, which means that the word is
+ *    rejected as soon as it reads the corresponding symbol. When the
+ *    alphabet is sparse (its symbols spread over a range more than
+ *    `MAX_SPREAD` times wider than the alphabet), each state rather maps its
+ *    symbols onto its successors.
+ *
+ * .. Example::
+ *    // accepts the words of the form 0* 1 0*
+ *    Automaton.builder(2)
+ *        .initial(0)
+ *        .accepting(1)
+ *        .transition(0, 0, 0)
+ *        .transition(0, 1, 1)
+ *        .transition(1, 0, 1)
+ *        .build();
+ *
+ * @see Checkers#regular(Automaton)
+ */
+public final class Automaton {
+    /** The state denoting a missing transition. */
+    public static final int NONE = -1;
+    /**
+     * The largest ratio between the range spanned by the alphabet and the
+     * size of the alphabet for which the transitions are stored in a table.
+     */
+    private static final long MAX_SPREAD = 8;
+
+    /** The number of states. */
+    private final int nbStates;
+    /** The initial state. */
+    private final int initial;
+    /** Tells whether each state is accepting. */
+    private final boolean[] accepting;
+    /** The smallest symbol having some transition. */
+    private final int minSymbol;
+    /**
+     * transitions[state][symbol - minSymbol] is the next state (or NONE).
+     * Null when the alphabet is sparse.
+     */
+    private final int[][] transitions;
+    /** The successors of each state (only when the alphabet is sparse). */
+    private final List<Map<Integer, Integer>> successors;
+
+    /**
+     * Creates a new automaton from its builder.
+     *
+     * @param builder the builder describing the automaton
+     */
+    private Automaton(final Builder builder) {
+        this.nbStates  = builder.nbStates;
+        this.initial   = builder.initial;
+        this.accepting = builder.accepting.clone();
+
+        final Set<Integer> alphabet = new HashSet<>();
+        for (Map<Integer, Integer> out : builder.transitions) {
+            alphabet.addAll(out.keySet());
+        }
+        final int  min   = alphabet.stream().min(Integer::compare).orElse(0);
+        final int  max   = alphabet.stream().max(Integer::compare).orElse(-1);
+        final long width = (long) max - min + 1;
+
+        this.minSymbol = min;
+        if (width > MAX_SPREAD * alphabet.size()) {
+            this.transitions = null;
+            this.successors  = new ArrayList<>(nbStates);
+            for (Map<Integer, Integer> out : builder.transitions) {
+                successors.add(new HashMap<>(out));
+            }
+        } else {
+            this.successors  = null;
+            this.transitions = new int[nbStates][(int) width];
+            for (int state = 0; state < nbStates; state++) {
+                Arrays.fill(transitions[state], NONE);
+                for (Map.Entry<Integer, Integer> e
+                        : builder.transitions.get(state).entrySet()) {
+                    transitions[state][e.getKey() - minSymbol] = e.getValue();
+                }
+            }
+        }
+    }
+
+    /**
+     * @param nbStates the number of states of the automaton
+     * @return a builder for an automaton having the given number of states
+     */
+    public static Builder builder(final int nbStates) {
+        return new Builder(nbStates);
+    }
+
+    /** @return the number of states of this automaton */
+    public int nbStates() {
+        return nbStates;
+    }
+
+    /** @return the initial state of this automaton */
+    public int initial() {
+        return initial;
+    }
+
+    /**
+     * @param state some state
+     * @return true iff the given state is accepting
+     */
+    public boolean isAccepting(final int state) {
+        return accepting[state];
+    }
+
+    /**
+     * @param state some state
+     * @param symbol some symbol
+     * @return the state reached when reading `symbol` from `state` (NONE when
+     * there is no such transition)
+     */
+    public int next(final int state, final int symbol) {
+        if (transitions == null) {
+            return successors.get(state).getOrDefault(symbol, NONE);
+        }
+        final long offset = (long) symbol - minSymbol;
+        if (offset < 0 || offset >= transitions[state].length) {
+            return NONE;
+        }
+        return transitions[state][(int) offset];
+    }
+
+    /**
+     * @param word some sequence of symbols
+     * @return true iff this automaton accepts the given word
+     */
+    public boolean accepts(final List<Integer> word) {
+        int state = initial;
+        for (int symbol : word) {
+            state = next(state, symbol);
+            if (state == NONE) {
+                return false;
+            }
+        }
+        return accepting[state];
+    }
+
+    /** A builder to describe some automaton. */
+    public static final class Builder {
+        /** The number of states. */
+        private final int nbStates;
+        /** The initial state. */
+        private int initial;
+        /** Tells whether each state is accepting. */
+        private final boolean[] accepting;
+        /** The outgoing transitions of each state (symbol to next state). */
+        private final List<Map<Integer, Integer>> transitions;
+
+        /**
+         * Creates a new builder.
+         *
+         * @param nbStates the number of states of the automaton
+         */
+        private Builder(final int nbStates) {
+            if (nbStates <= 0) {
+                throw new IllegalArgumentException(
+                        "An automaton must have at least one state");
+            }
+            this.nbStates    = nbStates;
+            this.initial     = 0;
+            this.accepting   = new boolean[nbStates];
+            this.transitions = new ArrayList<>(nbStates);
+            for (int state = 0; state < nbStates; state++) {
+                transitions.add(new HashMap<>());
+            }
+        }
+
+        /**
+         * Sets the initial state (0 by default).
+         *
+         * @param state the initial state
+         * @return this builder
+         */
+        public Builder initial(final int state) {
+            this.initial = checkState(state);
+            return this;
+        }
+
+        /**
+         * Marks the given states as accepting.
+         *
+         * @param states some states
+         * @return this builder
+         */
+        public Builder accepting(final int... states) {
+            for (int state : states) {
+                accepting[checkState(state)] = true;
+            }
+            return this;
+        }
+
+        /**
+         * Adds a transition to the automaton.
+         *
+         * @param from the source state
+         * @param symbol the symbol being read
+         * @param to the target state
+         * @return this builder
+         * @throws IllegalArgumentException when `from` already has a
+         *         different transition on `symbol` (the automaton must be
+         *         deterministic)
+         */
+        public Builder transition(final int from, final int symbol, final int to) {
+            checkState(to);
+            final Integer previous = transitions.get(checkState(from)).put(symbol, to);
+            if (previous != null && previous != to) {
+                throw new IllegalArgumentException(String.format(
+                    "State %d already has a transition on symbol %d", from, symbol));
+            }
+            return this;
+        }
+
+        /** @return the automaton described by this builder */
+        public Automaton build() {
+            return new Automaton(this);
+        }
+
+        /**
+         * @param state some state
+         * @return the given state
+         * @throws IllegalArgumentException when the state does not exist
+         */
+        private int checkState(final int state) {
+            if (state < 0 || state >= nbStates) {
+                throw new IllegalArgumentException(String.format(
+                    "There is no state %d in an automaton of %d states",
+                    state, nbStates));
+            }
+            return state;
+        }
+    }
+}
@@ -2,13 +2,17 @@ package be.uclouvain.solvercheck.checkers;
 
 import be.uclouvain.solvercheck.core.data.Assignment;
 import be.uclouvain.solvercheck.core.data.Operator;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
 import be.uclouvain.solvercheck.core.task.Checker;
+import be.uclouvain.solvercheck.core.task.CheckerTraits;
+import be.uclouvain.solvercheck.core.task.CheckerTraits.Part;
+import be.uclouvain.solvercheck.core.task.PartialChecker;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.stream.IntStream;
 
 import static be.uclouvain.solvercheck.utils.Utils.isValidIndex;
@@ -22,7 +26,19 @@ import static be.uclouvain.solvercheck.utils.Utils.isValidIndex;
  *                               :: same value
  *   - allDiff(x_1, ..., x_n),   ::
  *   - sum(op, var)              :: sumEq, sumNe, sumLe, sumGe, sumLt, sumGt
+ *   - weightedSum(ws, op, var)  :: same as sum, each variable being scaled
+ *                               :: by its weight
  *   - element(xs, index, value) ::
+ *   - regular(automaton)        :: the sequence of values is a word accepted
+ *                               :: by some DFA
+ *   - cumulative, disjunctive   :: the variables are the start times of tasks
+ *                               :: sharing some resource
+ *   - circuit, subcircuit       :: the variables are the successors of the
+ *                               :: nodes of a (sub) tour
+ *   - lexLess, lexLessEq        :: the first half of the variables precedes
+ *                               :: the second half in lexicographic order
+ *   - conjunction(parts)        :: each part is a checker applied to its own
+ *                               :: (disjoint) subset of the variables
  *   - table,                    ::
  *   - gcc, gccVar               :: The nuance between the two being that gcc
  *                               :: requires values and cardinalities to be
@@ -41,14 +57,106 @@ public final class Checkers {
     /** A utility class has no public constructor. */
     private Checkers() { }
 
+    /** The traits of the checkers that ignore their assignment. */
+    private static final CheckerTraits CONSTANT = CheckerTraits.builder()
+            .variableSymmetric()
+            .valueSymmetric()
+            .build();
+
     /** @return a fake checker evaluates any given assignment to true. */
     public static Checker alwaysTrue() {
-        return s -> true;
+        return withTraits(s -> true, CONSTANT);
     }
 
     /** @return a fake checker evaluates any given assignment to false. */
     public static Checker alwaysFalse() {
-        return s -> false;
+        return withTraits(s -> false, CONSTANT);
+    }
+
+    /**
+     * Decorates the given checker so that it declares the given traits (see
+     * CheckerTraits). This is how the traits of a checker written as a
+     * lambda can be declared. When the given checker is a `PartialChecker`,
+     * so is the returned one.
+     *
+     * .. Warning::
+     *    The consistencies trust the declared traits. A wrong declaration
+     *    yields wrong filterings: use `CheckerTraits#holdFor` to validate
+     *    them on some sample assignments.
+     *
+     * @param checker the checker whose traits are being declared
+     * @param traits the traits of that checker
+     * @return a checker equivalent to `checker` which declares `traits`
+     */
+    public static Checker withTraits(
+            final Checker checker,
+            final CheckerTraits traits) {
+
+        if (checker instanceof PartialChecker) {
+            final PartialChecker partial = (PartialChecker) checker;
+            return new PartialChecker() {
+                @Override
+                public boolean test(final Assignment assignment) {
+                    return partial.test(assignment);
+                }
+
+                @Override
+                public PartialCheckResult test(final PartialAssignment pa) {
+                    return partial.test(pa);
+                }
+
+                @Override
+                public CheckerTraits traits() {
+                    return traits;
+                }
+            };
+        }
+        return new Checker() {
+            @Override
+            public boolean test(final Assignment assignment) {
+                return checker.test(assignment);
+            }
+
+            @Override
+            public CheckerTraits traits() {
+                return traits;
+            }
+        };
+    }
+
+    /**
+     * A checker that tells whether the given assignment satisfies all the
+     * given parts, each part being a checker applied to its own (disjoint)
+     * subset of the variables. The returned checker declares itself as
+     * decomposable: the arc consistency filters each part separately.
+     *
+     * .. Example::
+     *    conjunction(new Part(allDiff(), 0, 1, 2), new Part(sum(LE, 3), 3, 4))
+     *    accepts [1, 2, 3, 1, 2] but rejects [1, 1, 3, 1, 2].
+     *
+     * @param parts the parts of the conjunction
+     * @return a checker verifying that all the parts are satisfied
+     * @throws IllegalArgumentException when the scopes of the parts are not
+     *         disjoint
+     */
+    public static Checker conjunction(final Part... parts) {
+        final List<Part> all = Arrays.asList(parts);
+        final CheckerTraits traits = CheckerTraits.builder()
+                .conjunctionOf(all)
+                .build();
+        final int arity = all.stream().mapToInt(Part::maxVariable).max().orElse(-1) + 1;
+
+        return withTraits(assignment -> {
+            if (assignment.size() < arity) {
+                return false;
+            }
+            for (Part part : all) {
+                if (!part.checker().test(Assignment.from(part.project(assignment)))) {
+                    return false;
+                }
+            }
+            return true;
+        }, traits);
     }
 
     /**
@@ -57,11 +165,14 @@ public final class Checkers {
      * evaluates an assignment to true iff all the variables of the
      * assignment take a different value.
      *
+     * The returned checker is a `PartialChecker`: it is able to reject the
+     * partial assignments where two fixed variables share the same value.
+     *
      * @return a checker validating if a solution satisfies the alldiff
      *         constraint
      */
-    public static Checker allDiff() {
-        return s -> Set.copyOf(s).size() == s.size();
+    public static PartialChecker allDiff() {
+        return new AllDiffChecker();
     }
 
     /**
@@ -82,6 +193,9 @@ public final class Checkers {
      *    $\otimes$ is one of the following operators: $&lt;, \le, =, \ne,
      *    \ge, &gt;$
      *
+     * The returned checker is a `PartialChecker`: it decides partial
+     * assignments based on the smallest and largest reachable sums.
+     *
      * @param op the operator determining the condition that applies to the
      *           total of the sum
      * @param constant the constant that imposes some value constraint
@@ -89,10 +203,36 @@ public final class Checkers {
      * @return checker that tells whether the sum of the values of all variables
      *      of the given assignment satisfy some given linear condition.
      */
-    public static Checker sum(final Operator op, final int constant) {
-        return s -> op.check(
-                        s.stream().mapToLong(Integer::longValue).sum(),
-                        constant);
+    public static PartialChecker sum(final Operator op, final int constant) {
+        return new SumChecker(op, constant);
+    }
+
+    /**
+     * A checker that tells whether the weighted sum of the values of all
+     * variables of the given assignment satisfy some given linear condition.
+     * That is, this checker evaluates true iff the assignment satisfies the
+     * given expression:
+     * $$
+     * \sum_{i = 0}^{|assignment|} weights[i] * assignment[i] \otimes constant
+     * $$
+     *
+     * The returned checker is a `PartialChecker`: it decides partial
+     * assignments based on the smallest and largest reachable sums.
+     *
+     * @param weights the weight of each variable. The checker may only be
+     *                used with assignments of `weights.length` variables.
+     * @param op the operator determining the condition that applies to the
+     *           total of the sum
+     * @param constant the constant that imposes some value constraint
+     *                 on the sum
+     * @return checker that tells whether the weighted sum of the values of all
+     *      variables of the given assignment satisfy some linear condition.
+     */
+    public static PartialChecker weightedSum(
+            final int[] weights,
+            final Operator op,
+            final int constant) {
+        return new SumChecker(weights, op, constant);
     }
 
     /**
@@ -155,17 +295,141 @@ public final class Checkers {
             && variables.get(index) == value;
     }
 
+    /**
+     * A checker that tells whether the sequence of the values of all the
+     * variables of the given assignment is a word accepted by the given
+     * deterministic finite automaton.
+     *
+     * The returned checker is a `PartialChecker`: it rejects the partial
+     * assignments from which no accepting state can be reached.
+     *
+     * @param automaton the automaton recognizing the solutions
+     * @return a checker verifying that the regular constraint is satisfied by
+     *         the given assignment.
+     */
+    public static PartialChecker regular(final Automaton automaton) {
+        return new RegularChecker(automaton);
+    }
+
+    /**
+     * A checker that tells whether the tasks starting at the values of the
+     * variables of the given assignment can share a cumulative resource.
+     * That is, the i-th task runs during [x_i, x_i + durations[i][ and the
+     * checker evaluates true iff:
+     * $$
+     * \forall t : \sum_{i | x_i \le t < x_i + durations[i]} demands[i]
+     *   \le capacity
+     * $$
+     *
+     * The returned checker is a `PartialChecker`: it rejects the partial
+     * assignments whose compulsory parts overload the resource.
+     *
+     * @param durations the duration of each task
+     * @param demands the demand of each task
+     * @param capacity the capacity of the resource
+     * @return a checker verifying that the cumulative constraint is satisfied
+     *         by the given assignment.
+     */
+    public static PartialChecker cumulative(
+            final int[] durations,
+            final int[] demands,
+            final int capacity) {
+        return new CumulativeChecker(durations, demands, capacity);
+    }
+
+    /**
+     * A checker that tells whether the tasks starting at the values of the
+     * variables of the given assignment can share a disjunctive resource.
+     * That is, the i-th task runs during [x_i, x_i + durations[i][ and no
+     * two tasks may overlap.
+     *
+     * @param durations the duration of each task
+     * @return a checker verifying that the disjunctive constraint is
+     *         satisfied by the given assignment.
+     */
+    public static PartialChecker disjunctive(final int[] durations) {
+        return CumulativeChecker.disjunctive(durations);
+    }
+
+    /**
+     * A checker that tells whether the values of the variables of the given
+     * assignment form a Hamiltonian circuit: the value of the i-th variable
+     * is the successor of node i, and following the successors from any node
+     * visits all the nodes before coming back to it.
+     *
+     * The returned checker is a `PartialChecker`: it rejects the partial
+     * assignments whose fixed nodes close a premature sub-tour.
+     *
+     * @return a checker verifying that the circuit constraint is satisfied
+     *         by the given assignment.
+     */
+    public static PartialChecker circuit() {
+        return new CircuitChecker(false);
+    }
+
+    /**
+     * A checker that tells whether the values of the variables of the given
+     * assignment form a sub-circuit: the nodes which are their own successor
+     * are left out, and all the other nodes form one single circuit.
+     *
+     * The returned checker is a `PartialChecker`: it rejects the partial
+     * assignments whose fixed nodes close a premature sub-tour.
+     *
+     * @return a checker verifying that the subcircuit constraint is
+     *         satisfied by the given assignment.
+     */
+    public static PartialChecker subcircuit() {
+        return new CircuitChecker(true);
+    }
+
+    /**
+     * A checker that tells whether the first n variables of the given
+     * assignment (vector x) strictly precede the last n ones (vector y) in
+     * the lexicographic order: x <_lex y.
+     *
+     * The returned checker is a `PartialChecker`: it rejects the partial
+     * assignments whose domains leave no room for x to precede y.
+     *
+     * @param n the length of each of the two vectors
+     * @return a checker verifying that the lexLess constraint is satisfied
+     *         by the given assignment.
+     */
+    public static PartialChecker lexLess(final int n) {
+        return new LexChecker(n, true);
+    }
+
+    /**
+     * A checker that tells whether the first n variables of the given
+     * assignment (vector x) precede or equal the last n ones (vector y) in
+     * the lexicographic order: x <=_lex y.
+     *
+     * The returned checker is a `PartialChecker`: it rejects the partial
+     * assignments whose domains leave no room for x to precede y.
+     *
+     * @param n the length of each of the two vectors
+     * @return a checker verifying that the lexLessEq constraint is satisfied
+     *         by the given assignment.
+     */
+    public static PartialChecker lexLessEq(final int n) {
+        return new LexChecker(n, false);
+    }
+
     /**
      * A checker that returns true iff the given assignment belongs to the given
      * table of possible assignments (This is the typical case of an
      * extensional constraint).
      *
+     * The returned checker is a `PartialChecker`: the table is compiled into
+     * a hash set (constant time membership) and an implicit trie which lets
+     * it reject the partial assignments whose leading fixed variables match
+     * no row of the table.
+     *
      * @param table the table comprising all possible solutions.
      * @return true iff the given assignment belongs to the given table of
      *         assignments
      */
-    public static Checker table(final List<Assignment> table) {
-        return table::contains;
+    public static PartialChecker table(final List<Assignment> table) {
+        return new TableChecker(table);
     }
 
     /**
@@ -203,7 +467,9 @@ public final class Checkers {
                   + "different");
         }
 
-        return x -> uncheckedGcc(x, cardinalities, values);
+        return withTraits(
+                x -> uncheckedGcc(x, cardinalities, values),
+                CheckerTraits.builder().variableSymmetric().build());
     }
 
     /**
@@ -232,9 +498,13 @@ public final class Checkers {
                             + "different");
         }
 
-        return x -> gcc(x.subList(0, x.size() - values.size()),        // vars.
-                        x.subList(x.size() - values.size(), x.size()), // cardin
-                        values);                                       // values
+        return withTraits(
+                x -> gcc(x.subList(0, x.size() - values.size()),        // vars.
+                         x.subList(x.size() - values.size(), x.size()), // cardin
+                         values),                                       // values
+                CheckerTraits.builder()
+                        .symmetricVariables(arity -> arity - values.size())
+                        .build());
     }
 
     /**
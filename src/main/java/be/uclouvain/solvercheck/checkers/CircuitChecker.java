@@ -0,0 +1,153 @@
+package be.uclouvain.solvercheck.checkers;
+
+import be.uclouvain.solvercheck.core.data.Assignment;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.PartialChecker;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import static be.uclouvain.solvercheck.core.task.PartialChecker.PartialCheckResult.ACCEPT;
+import static be.uclouvain.solvercheck.core.task.PartialChecker.PartialCheckResult.I_DONT_KNOW;
+import static be.uclouvain.solvercheck.core.task.PartialChecker.PartialCheckResult.REJECT;
+
+/**
+ * A checker for the circuit and subcircuit constraints (successor
+ * representation). The value of the i-th variable is the successor of node
+ * i, nodes being numbered from 0 to n-1.
+ *
+ * - circuit: the successors form one single cycle visiting all the nodes.
+ * - subcircuit: the nodes which are their own successor are left out, and
+ *   all the other ones form one single cycle (which may be empty).
+ *
+ * Both checks run in O(n): the cycle is followed from one of its nodes.
+ *
+ * This checker is also able to examine partial assignments: a partial
+ * assignment is rejected as soon as two fixed nodes share the same
+ * successor, or the fixed nodes close a cycle which is bound to be a
+ * premature sub-tour.
+ */
+public final class CircuitChecker implements PartialChecker {
+    /** True for subcircuit, false for circuit. */
+    private final boolean sub;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param sub true for the subcircuit constraint, false for circuit
+     */
+    public CircuitChecker(final boolean sub) {
+        this.sub = sub;
+    }
+
+    /** @return true iff this checker tests subcircuit (rather than circuit) */
+    public boolean isSubcircuit() {
+        return sub;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean test(final Assignment assignment) {
+        final int n = assignment.size();
+
+        int start  = 0;
+        int length = n;
+        if (sub) {
+            start  = -1;
+            length = 0;
+            for (int i = 0; i < n; i++) {
+                if (assignment.get(i) != i) {
+                    start = start < 0 ? i : start;
+                    length++;
+                }
+            }
+            if (start < 0) {
+                return true;
+            }
+        }
+        if (n == 0) {
+            return true;
+        }
+
+        final boolean[] seen = new boolean[n];
+        int node = start;
+        for (int k = 0; k < length; k++) {
+            if (node < 0 || node >= n || seen[node]) {
+                return false;
+            }
+            seen[node] = true;
+            node = assignment.get(node);
+        }
+        return node == start;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PartialCheckResult test(final PartialAssignment partial) {
+        if (partial.isError()) {
+            return REJECT;
+        }
+
+        final int n = partial.size();
+        final int[] succ = new int[n];
+        final int[] pred = new int[n];
+        Arrays.fill(pred, -1);
+
+        boolean complete = true;
+        for (int i = 0; i < n; i++) {
+            final Domain dom = partial.get(i);
+            if (!dom.isFixed()) {
+                succ[i]  = -1;
+                complete = false;
+                continue;
+            }
+            final int j = dom.minimum();
+            if (j < 0 || j >= n || pred[j] >= 0 || (!sub && j == i && n > 1)) {
+                return REJECT;
+            }
+            succ[i] = j;
+            pred[j] = i;
+        }
+
+        if (complete) {
+            return test(Assignment.from(partial.stream()
+                    .map(Domain::minimum)
+                    .collect(Collectors.toList())))
+                    ? ACCEPT : REJECT;
+        }
+
+        // look for the cycles closed by the fixed nodes
+        final boolean[] inCycle = new boolean[n];
+        final int[]     visit   = new int[n];
+        for (int i = 0; i < n; i++) {
+            if (visit[i] != 0 || succ[i] < 0 || succ[i] == i) {
+                continue;
+            }
+            int node = i;
+            while (node >= 0 && visit[node] == 0) {
+                visit[node] = i + 1;
+                node = succ[node];
+            }
+            if (node < 0 || visit[node] != i + 1) {
+                continue;
+            }
+            // a cycle of fixed nodes goes through `node`
+            int cur = node;
+            do {
+                inCycle[cur] = true;
+                cur = succ[cur];
+            } while (cur != node);
+
+            if (!sub) {
+                return REJECT; // the circuit is incomplete (some node is free)
+            }
+            for (int k = 0; k < n; k++) {
+                if (!inCycle[k] && !partial.get(k).contains(k)) {
+                    return REJECT;
+                }
+            }
+        }
+        return I_DONT_KNOW;
+    }
+}
@@ -0,0 +1,212 @@
+package be.uclouvain.solvercheck.checkers;
+
+import be.uclouvain.solvercheck.core.data.Assignment;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.PartialChecker;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+import static be.uclouvain.solvercheck.core.task.PartialChecker.PartialCheckResult.ACCEPT;
+import static be.uclouvain.solvercheck.core.task.PartialChecker.PartialCheckResult.I_DONT_KNOW;
+import static be.uclouvain.solvercheck.core.task.PartialChecker.PartialCheckResult.REJECT;
+
+/**
+ * A checker that tells whether a set of tasks can be executed on a
+ * cumulative resource. The i-th variable of the assignment is the start time
+ * of the i-th task, which then executes during [start, start + duration[ and
+ * consumes `demand` units of the resource. At any point in time, the total
+ * consumption of the running tasks may not exceed the capacity of the
+ * resource. (A disjunctive resource is a cumulative resource of capacity 1
+ * where each task demands 1 unit).
+ *
+ * .. Sweep::
+ *    The feasibility is checked by sweeping over the sorted start and end
+ *    events of the tasks: this costs O(n log n) whatever the span of the
+ *    time horizon (the time points are never enumerated).
+ *
+ * This checker is also able to examine partial assignments: a task whose
+ * latest start precedes its earliest end necessarily executes during
+ * [latest start, earliest end[ (its compulsory part). A partial assignment is
+ * rejected as soon as the compulsory parts overload the resource.
+ */
+public final class CumulativeChecker implements PartialChecker {
+    /** The duration of each task. */
+    private final int[] durations;
+    /** The demand of each task. */
+    private final int[] demands;
+    /** The capacity of the resource. */
+    private final int capacity;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param durations the duration of each task
+     * @param demands the demand of each task
+     * @param capacity the capacity of the resource
+     * @throws IllegalArgumentException when durations and demands do not
+     *         have the same length or when some of them is negative
+     */
+    public CumulativeChecker(
+            final int[] durations,
+            final int[] demands,
+            final int capacity) {
+
+        if (durations.length != demands.length) {
+            throw new IllegalArgumentException(
+                    "The number of given durations does not match the "
+                  + "number of given demands");
+        }
+        if (Arrays.stream(durations).anyMatch(d -> d < 0)
+                || Arrays.stream(demands).anyMatch(d -> d < 0)) {
+            throw new IllegalArgumentException(
+                    "The durations and demands must be non negative");
+        }
+
+        this.durations = durations.clone();
+        this.demands   = demands.clone();
+        this.capacity  = capacity;
+    }
+
+    /**
+     * Creates a disjunctive resource: a resource of capacity 1 on which each
+     * task demands 1 unit.
+     *
+     * @param durations the duration of each task
+     * @return a checker for the disjunctive resource
+     */
+    public static CumulativeChecker disjunctive(final int[] durations) {
+        final int[] demands = new int[durations.length];
+        Arrays.fill(demands, 1);
+        return new CumulativeChecker(durations, demands, 1);
+    }
+
+    /** @return the number of tasks */
+    public int nbTasks() {
+        return durations.length;
+    }
+
+    /**
+     * @param task some task
+     * @return the duration of that task
+     */
+    public int duration(final int task) {
+        return durations[task];
+    }
+
+    /**
+     * @param task some task
+     * @return the demand of that task
+     */
+    public int demand(final int task) {
+        return demands[task];
+    }
+
+    /** @return the capacity of the resource */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Checks that this checker can be used with the given number of variables.
+     *
+     * @param arity the number of variables of some (partial) assignment
+     * @throws IllegalArgumentException when there is not one variable per task
+     */
+    public void checkArity(final int arity) {
+        if (arity != durations.length) {
+            throw new IllegalArgumentException(String.format(
+                "This resource has %d tasks but was given %d variables",
+                durations.length, arity));
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean test(final Assignment assignment) {
+        checkArity(assignment.size());
+
+        final long[] starts = new long[durations.length];
+        final long[] ends   = new long[durations.length];
+        for (int task = 0; task < durations.length; task++) {
+            starts[task] = assignment.get(task);
+            ends[task]   = starts[task] + durations[task];
+        }
+        return !overloads(starts, ends);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PartialCheckResult test(final PartialAssignment partial) {
+        if (partial.isError()) {
+            return REJECT;
+        }
+        checkArity(partial.size());
+
+        boolean complete = true;
+        final long[] starts = new long[durations.length];
+        final long[] ends   = new long[durations.length];
+        for (int task = 0; task < durations.length; task++) {
+            final Domain domain = partial.get(task);
+            complete &= domain.isFixed();
+
+            // the compulsory part (empty when lst >= ect)
+            starts[task] = domain.maximum();
+            ends[task]   = (long) domain.minimum() + durations[task];
+        }
+
+        if (overloads(starts, ends)) {
+            return REJECT;
+        }
+        return complete ? ACCEPT : I_DONT_KNOW;
+    }
+
+    /**
+     * Sweeps over the given intervals and tells whether they overload the
+     * resource. The empty intervals (start >= end) are ignored.
+     *
+     * @param starts the start of each interval
+     * @param ends the (excluded) end of each interval
+     * @return true iff the load of the resource exceeds its capacity at some
+     * point in time
+     */
+    private boolean overloads(final long[] starts, final long[] ends) {
+        final Integer[] byStart = sortedTasks(starts, ends, starts);
+        final Integer[] byEnd   = sortedTasks(starts, ends, ends);
+
+        long load = 0;
+        int  e    = 0;
+        for (int task : byStart) {
+            // the tasks ending at some time t no longer run at time t
+            while (e < byEnd.length && ends[byEnd[e]] <= starts[task]) {
+                load -= demands[byEnd[e++]];
+            }
+            load += demands[task];
+            if (load > capacity) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param starts the start of each interval
+     * @param ends the end of each interval
+     * @param key the time used to sort the intervals
+     * @return the tasks having a non empty interval and a positive demand,
+     * sorted by increasing `key`
+     */
+    private Integer[] sortedTasks(
+            final long[] starts,
+            final long[] ends,
+            final long[] key) {
+
+        return IntStream.range(0, starts.length)
+                .filter(t -> starts[t] < ends[t] && demands[t] > 0)
+                .boxed()
+                .sorted(Comparator.comparingLong(t -> key[t]))
+                .toArray(Integer[]::new);
+    }
+}
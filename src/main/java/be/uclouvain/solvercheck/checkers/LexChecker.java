@@ -0,0 +1,151 @@
+package be.uclouvain.solvercheck.checkers;
+
+import be.uclouvain.solvercheck.core.data.Assignment;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.CheckerTraits;
+import be.uclouvain.solvercheck.core.task.CheckerTraits.Monotonicity;
+import be.uclouvain.solvercheck.core.task.PartialChecker;
+
+import java.util.stream.Collectors;
+
+import static be.uclouvain.solvercheck.core.task.PartialChecker.PartialCheckResult.ACCEPT;
+import static be.uclouvain.solvercheck.core.task.PartialChecker.PartialCheckResult.I_DONT_KNOW;
+import static be.uclouvain.solvercheck.core.task.PartialChecker.PartialCheckResult.REJECT;
+
+/**
+ * A checker for the lexicographic ordering of two vectors of n variables.
+ * The (partial) assignments it examines are the concatenation of both
+ * vectors: the first n variables form the vector x, and the last n ones
+ * form the vector y. The constraint holds iff x <_lex y (strict ordering)
+ * or x <=_lex y (non strict ordering).
+ *
+ * This checker is also able to examine partial assignments: a partial
+ * assignment is rejected as soon as the domains leave no room for x to
+ * precede y. This is detected in O(n) by scanning the positions from left
+ * to right until one of them can (or must not) tell the vectors apart.
+ */
+public final class LexChecker implements PartialChecker {
+    /** The length of each vector. */
+    private final int n;
+    /** True iff the vectors may not be equal. */
+    private final boolean strict;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param n the length of each of the two vectors
+     * @param strict true for x <_lex y, false for x <=_lex y
+     * @throws IllegalArgumentException when n is negative
+     */
+    public LexChecker(final int n, final boolean strict) {
+        if (n < 0) {
+            throw new IllegalArgumentException(
+                    "The length of the vectors must be non negative");
+        }
+        this.n      = n;
+        this.strict = strict;
+    }
+
+    /** @return the length of each of the two vectors */
+    public int length() {
+        return n;
+    }
+
+    /** @return true iff the vectors may not be equal */
+    public boolean isStrict() {
+        return strict;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The ordering is preserved when some variable of x decreases or when
+     * some variable of y increases.
+     */
+    @Override
+    public CheckerTraits traits() {
+        return CheckerTraits.builder()
+                .monotone(var -> var < n
+                        ? Monotonicity.DECREASING
+                        : Monotonicity.INCREASING)
+                .build();
+    }
+
+    /**
+     * Checks that this checker can be used with the given number of variables.
+     *
+     * @param arity the number of variables of some (partial) assignment
+     * @throws IllegalArgumentException when there are not 2n variables
+     */
+    public void checkArity(final int arity) {
+        if (arity != 2 * n) {
+            throw new IllegalArgumentException(String.format(
+                "This constraint orders two vectors of %d variables but was "
+              + "given %d variables", n, arity));
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean test(final Assignment assignment) {
+        checkArity(assignment.size());
+
+        for (int i = 0; i < n; i++) {
+            final int x = assignment.get(i);
+            final int y = assignment.get(n + i);
+            if (x != y) {
+                return x < y;
+            }
+        }
+        return !strict;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PartialCheckResult test(final PartialAssignment partial) {
+        if (partial.isError()) {
+            return REJECT;
+        }
+        checkArity(partial.size());
+
+        boolean complete = true;
+        for (int i = 0; i < n && complete; i++) {
+            complete = partial.get(i).isFixed() && partial.get(n + i).isFixed();
+        }
+        if (complete) {
+            return test(Assignment.from(partial.stream()
+                    .map(Domain::minimum)
+                    .collect(Collectors.toList())))
+                    ? ACCEPT : REJECT;
+        }
+
+        for (int i = 0; i < n; i++) {
+            final Domain x = partial.get(i);
+            final Domain y = partial.get(n + i);
+            if (x.minimum() < y.maximum()) {
+                return I_DONT_KNOW;
+            }
+            if (!canBeEqual(x, y)) {
+                return REJECT;
+            }
+        }
+        return strict ? REJECT : I_DONT_KNOW;
+    }
+
+    /**
+     * @param x the domain of some variable
+     * @param y the domain of some other variable
+     * @return true iff both variables can take the same value
+     */
+    public static boolean canBeEqual(final Domain x, final Domain y) {
+        final Domain smaller = x.size() <= y.size() ? x : y;
+        final Domain larger  = smaller == x ? y : x;
+        for (int value : smaller) {
+            if (larger.contains(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,335 @@
+package be.uclouvain.solvercheck.checkers;
+
+import be.uclouvain.solvercheck.core.data.Assignment;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.PartialChecker;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+import static be.uclouvain.solvercheck.core.task.PartialChecker.PartialCheckResult.ACCEPT;
+import static be.uclouvain.solvercheck.core.task.PartialChecker.PartialCheckResult.I_DONT_KNOW;
+import static be.uclouvain.solvercheck.core.task.PartialChecker.PartialCheckResult.REJECT;
+
+/**
+ * A table constraint whose rows live in a memory-mapped file rather than on
+ * the heap. Opening a table thus costs (almost) nothing whatever its number
+ * of rows, and the pages of the file are shared by all the JVMs (eg. the
+ * forked test runners) which use the same table.
+ *
+ * .. Layout::
+ *    The file is a sequence of (big endian) ints:
+ *    - a magic number, the arity and the number of rows;
+ *    - for each column, the number of distinct values of that column
+ *      followed by these values in increasing order (the column index);
+ *    - the rows themselves, `arity` ints each, sorted in lexicographic order
+ *      and free from duplicates.
+ *
+ * The checks are performed directly on the mapped buffer: no `Assignment`
+ * is ever built for the rows. Testing an assignment is a binary search over
+ * the sorted rows, and a partial assignment is rejected as soon as some of
+ * its domains shares no value with the corresponding column, or no row
+ * starts with the values of its leading fixed variables.
+ *
+ * .. Note::
+ *    A mapped region may not exceed 2 GB. Hence, a table may comprise at most
+ *    some 500 million ints (eg. 50 million rows of arity 10).
+ */
+public final class MappedTable implements PartialChecker {
+    /** The magic number identifying a saved table. */
+    private static final int MAGIC = 0x5C7AB1E;
+    /** The number of ints in the header of the file. */
+    private static final int HEADER = 3;
+
+    /** The number of variables of each row. */
+    private final int arity;
+    /** The number of rows of the table. */
+    private final int nbRows;
+    /** The sorted distinct values of each column. */
+    private final IntBuffer[] columns;
+    /** The sorted rows, packed one after the other. */
+    private final IntBuffer rows;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param arity the number of variables of each row
+     * @param nbRows the number of rows of the table
+     * @param columns the sorted distinct values of each column
+     * @param rows the sorted rows, packed one after the other
+     */
+    private MappedTable(
+            final int arity,
+            final int nbRows,
+            final IntBuffer[] columns,
+            final IntBuffer rows) {
+
+        this.arity   = arity;
+        this.nbRows  = nbRows;
+        this.columns = columns;
+        this.rows    = rows;
+    }
+
+    /**
+     * Writes the given rows to the given file in the layout expected by
+     * `open`. The rows are sorted and freed from their duplicates.
+     *
+     * @param file the file where to write the table
+     * @param table the rows of the table
+     * @throws IOException whenever the file cannot be written
+     * @throws IllegalArgumentException when the rows of the table do not all
+     *         have the same arity
+     */
+    public static void write(
+            final Path file,
+            final List<Assignment> table) throws IOException {
+
+        final int arity = table.isEmpty() ? 0 : table.get(0).size();
+        final int[][] sorted = new int[table.size()][];
+        for (int r = 0; r < sorted.length; r++) {
+            final Assignment row = table.get(r);
+            if (row.size() != arity) {
+                throw new IllegalArgumentException(
+                        "All the rows of a table must have the same arity");
+            }
+            sorted[r] = row.stream().mapToInt(Integer::intValue).toArray();
+        }
+        Arrays.sort(sorted, Arrays::compare);
+
+        int nbRows = 0;
+        for (int r = 0; r < sorted.length; r++) {
+            if (nbRows == 0 || !Arrays.equals(sorted[nbRows - 1], sorted[r])) {
+                sorted[nbRows++] = sorted[r];
+            }
+        }
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file)))) {
+
+            out.writeInt(MAGIC);
+            out.writeInt(arity);
+            out.writeInt(nbRows);
+            for (int c = 0; c < arity; c++) {
+                final TreeSet<Integer> values = new TreeSet<>();
+                for (int r = 0; r < nbRows; r++) {
+                    values.add(sorted[r][c]);
+                }
+                out.writeInt(values.size());
+                for (int value : values) {
+                    out.writeInt(value);
+                }
+            }
+            for (int r = 0; r < nbRows; r++) {
+                for (int value : sorted[r]) {
+                    out.writeInt(value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Maps the table stored in the given file (see `write`) into memory.
+     *
+     * @param file the file where the table was written
+     * @return the mapped table
+     * @throws IOException whenever the file cannot be read or does not hold
+     * a valid table
+     */
+    public static MappedTable open(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(file + " is too large to be mapped");
+            }
+            final IntBuffer ints = channel
+                    .map(FileChannel.MapMode.READ_ONLY, 0, size)
+                    .asIntBuffer();
+
+            if (size % Integer.BYTES != 0
+                    || ints.limit() < HEADER
+                    || ints.get(0) != MAGIC) {
+                throw new IOException(file + " does not hold a mapped table");
+            }
+            final int arity  = ints.get(1);
+            final int nbRows = ints.get(2);
+            if (arity < 0 || nbRows < 0 || arity > ints.limit() - HEADER) {
+                throw new IOException(file + " has a corrupt header");
+            }
+
+            long offset = HEADER;
+            final IntBuffer[] columns = new IntBuffer[arity];
+            for (int c = 0; c < arity; c++) {
+                final int nbValues = ints.get((int) offset);
+                if (nbValues < 0 || nbValues > nbRows
+                        || offset + 1 + nbValues > ints.limit()) {
+                    throw new IOException(file + " has a corrupt column index");
+                }
+                columns[c] = slice(ints, (int) offset + 1, nbValues);
+                offset    += 1 + nbValues;
+            }
+            if (offset + (long) nbRows * arity != ints.limit()) {
+                throw new IOException(file + " does not hold a mapped table");
+            }
+            return new MappedTable(
+                    arity, nbRows, columns, slice(ints, (int) offset, nbRows * arity));
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException(file + " does not hold a mapped table", e);
+        }
+    }
+
+    /**
+     * @param ints some buffer
+     * @param from the index of the first int of the slice
+     * @param length the number of ints in the slice
+     * @return a view of ints[from, from + length[
+     */
+    private static IntBuffer slice(final IntBuffer ints, final int from, final int length) {
+        return ints.duplicate().position(from).limit(from + length).slice();
+    }
+
+    /** @return the number of variables of each row */
+    public int arity() {
+        return arity;
+    }
+
+    /** @return the number of rows of the table */
+    public int nbRows() {
+        return nbRows;
+    }
+
+    /**
+     * @param row the index of some row
+     * @param column some column
+     * @return the value of that row in that column
+     */
+    public int value(final int row, final int column) {
+        return rows.get(row * arity + column);
+    }
+
+    /**
+     * @param column some column
+     * @param value some value
+     * @return true iff the given value occurs in the given column of the table
+     */
+    public boolean occurs(final int column, final int value) {
+        final IntBuffer values = columns[column];
+        int low  = 0;
+        int high = values.limit() - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int v   = values.get(mid);
+            if (v == value) {
+                return true;
+            } else if (v < value) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Binary search of the rows in [lo, hi[ (which share the same prefix of
+     * length `column`).
+     *
+     * @param lo the first row of the range
+     * @param hi the last row (excluded) of the range
+     * @param column the column being searched
+     * @param value the searched value
+     * @param after true to look for the first row whose column is greater
+     *              than value, false to look for the first row whose column
+     *              is greater or equal to it
+     * @return the index of the first matching row (hi when there is none)
+     */
+    public int firstRow(
+            final int lo,
+            final int hi,
+            final int column,
+            final int value,
+            final boolean after) {
+
+        int low  = lo;
+        int high = hi;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            final int v   = value(mid, column);
+            if (v < value || (after && v == value)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Checks that this table can be used with the given number of variables.
+     *
+     * @param size the number of variables of some (partial) assignment
+     * @throws IllegalArgumentException when the arity does not match
+     */
+    public void checkArity(final int size) {
+        if (size != arity) {
+            throw new IllegalArgumentException(String.format(
+                "This table has an arity of %d but was given %d variables",
+                arity, size));
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean test(final Assignment assignment) {
+        if (assignment.size() != arity) {
+            return false;
+        }
+        int lo = 0;
+        int hi = nbRows;
+        for (int c = 0; c < arity && lo < hi; c++) {
+            final int value = assignment.get(c);
+            lo = firstRow(lo, hi, c, value, false);
+            hi = firstRow(lo, hi, c, value, true);
+        }
+        return lo < hi;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PartialCheckResult test(final PartialAssignment partial) {
+        if (partial.isError() || partial.size() != arity) {
+            return REJECT;
+        }
+        for (int c = 0; c < arity; c++) {
+            final int column = c;
+            final Domain dom = partial.get(c);
+            if (dom.stream().noneMatch(v -> occurs(column, v))) {
+                return REJECT;
+            }
+        }
+
+        // descend the (implicit) trie along the leading fixed variables
+        int lo    = 0;
+        int hi    = nbRows;
+        int depth = 0;
+        while (depth < arity && partial.get(depth).isFixed() && lo < hi) {
+            final int value = partial.get(depth).minimum();
+            lo = firstRow(lo, hi, depth, value, false);
+            hi = firstRow(lo, hi, depth, value, true);
+            depth++;
+        }
+        if (lo == hi) {
+            return REJECT;
+        }
+        return depth == arity ? ACCEPT : I_DONT_KNOW;
+    }
+}
@@ -0,0 +1,96 @@
+package be.uclouvain.solvercheck.checkers;
+
+import be.uclouvain.solvercheck.core.data.Assignment;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.PartialChecker;
+import be.uclouvain.solvercheck.core.task.PrefixChecker;
+
+import static be.uclouvain.solvercheck.core.task.PartialChecker.PartialCheckResult.ACCEPT;
+import static be.uclouvain.solvercheck.core.task.PartialChecker.PartialCheckResult.I_DONT_KNOW;
+import static be.uclouvain.solvercheck.core.task.PartialChecker.PartialCheckResult.REJECT;
+
+/**
+ * A checker that tells whether the sequence of the values of the variables
+ * of the given assignment is a word accepted by some automaton.
+ *
+ * This checker is also able to examine partial assignments: the states
+ * which can be reached after reading the domains of all the variables are
+ * computed, and a partial assignment is rejected as soon as none of them is
+ * accepting. The state of a prefix is the state reached by the automaton
+ * after reading it (NONE when it is rejected).
+ *
+ * @see Automaton
+ */
+public final class RegularChecker implements PartialChecker, PrefixChecker {
+    /** The automaton recognizing the solutions. */
+    private final Automaton automaton;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param automaton the automaton recognizing the solutions
+     */
+    public RegularChecker(final Automaton automaton) {
+        this.automaton = automaton;
+    }
+
+    /** @return the automaton recognizing the solutions */
+    public Automaton automaton() {
+        return automaton;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean test(final Assignment assignment) {
+        return automaton.accepts(assignment);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long prefixState(final int[] prefix, final int length) {
+        int state = automaton.initial();
+        for (int var = 0; var < length && state != Automaton.NONE; var++) {
+            state = automaton.next(state, prefix[var]);
+        }
+        return state;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PartialCheckResult test(final PartialAssignment partial) {
+        if (partial.isError()) {
+            return REJECT;
+        }
+
+        final int nbStates = automaton.nbStates();
+        boolean[] reached  = new boolean[nbStates];
+        boolean   complete = true;
+        reached[automaton.initial()] = true;
+
+        for (Domain domain : partial) {
+            complete &= domain.isFixed();
+
+            final boolean[] next = new boolean[nbStates];
+            for (int state = 0; state < nbStates; state++) {
+                if (!reached[state]) {
+                    continue;
+                }
+                for (int value : domain) {
+                    final int target = automaton.next(state, value);
+                    if (target != Automaton.NONE) {
+                        next[target] = true;
+                    }
+                }
+            }
+            reached = next;
+        }
+
+        for (int state = 0; state < nbStates; state++) {
+            if (reached[state] && automaton.isAccepting(state)) {
+                return complete ? ACCEPT : I_DONT_KNOW;
+            }
+        }
+        return REJECT;
+    }
+}
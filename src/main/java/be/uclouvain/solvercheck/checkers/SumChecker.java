@@ -0,0 +1,211 @@
+package be.uclouvain.solvercheck.checkers;
+
+import be.uclouvain.solvercheck.core.data.Assignment;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.Operator;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.CheckerTraits;
+import be.uclouvain.solvercheck.core.task.CheckerTraits.Monotonicity;
+import be.uclouvain.solvercheck.core.task.PartialChecker;
+import be.uclouvain.solvercheck.core.task.PrefixChecker;
+
+import static be.uclouvain.solvercheck.core.task.PartialChecker.PartialCheckResult.ACCEPT;
+import static be.uclouvain.solvercheck.core.task.PartialChecker.PartialCheckResult.I_DONT_KNOW;
+import static be.uclouvain.solvercheck.core.task.PartialChecker.PartialCheckResult.REJECT;
+
+/**
+ * A checker that tells whether the (possibly weighted) sum of the values of
+ * all variables of the given assignment satisfy some given linear condition.
+ *
+ * This checker is also able to examine partial assignments: the smallest
+ * and largest sums that can still be reached are bounded by the sums of the
+ * domains minima and maxima. Whenever these bounds suffice to decide the
+ * condition, the partial assignment is accepted (or rejected) as a whole.
+ * The state of a prefix is its (weighted) partial sum.
+ */
+public final class SumChecker implements PartialChecker, PrefixChecker {
+    /** The operator determining the condition that applies to the sum. */
+    private final Operator op;
+    /** The constant that imposes some value constraint on the sum. */
+    private final int constant;
+    /** The weight of each variable (null when all weights are 1). */
+    private final int[] weights;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param op the operator determining the condition that applies to the
+     *           total of the sum
+     * @param constant the constant that imposes some value constraint
+     *                 on the sum
+     */
+    public SumChecker(final Operator op, final int constant) {
+        this(null, op, constant);
+    }
+
+    /**
+     * Creates a new instance of a weighted sum.
+     *
+     * @param weights the weight of each variable (null when all the weights
+     *                are 1). The checker may then only be used with
+     *                assignments of `weights.length` variables.
+     * @param op the operator determining the condition that applies to the
+     *           total of the sum
+     * @param constant the constant that imposes some value constraint
+     *                 on the sum
+     */
+    public SumChecker(final int[] weights, final Operator op, final int constant) {
+        this.weights  = weights == null ? null : weights.clone();
+        this.op       = op;
+        this.constant = constant;
+    }
+
+    /** @return the operator determining the condition applied to the sum */
+    public Operator operator() {
+        return op;
+    }
+
+    /** @return the constant the sum is being compared with */
+    public int constant() {
+        return constant;
+    }
+
+    /** @return true iff some variables have a weight other than 1 */
+    public boolean isWeighted() {
+        return weights != null;
+    }
+
+    /**
+     * @param var some variable
+     * @return the weight of that variable in the sum
+     */
+    public int weight(final int var) {
+        return weights == null ? 1 : weights[var];
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The variables of an unweighted sum are interchangeable. Besides, the
+     * inequalities are monotonic in every variable: eg. sum(LE, c) remains
+     * satisfied when some variable having a positive weight decreases.
+     */
+    @Override
+    public CheckerTraits traits() {
+        final CheckerTraits.Builder traits = CheckerTraits.builder();
+        if (weights == null) {
+            traits.variableSymmetric();
+        }
+        final boolean upward;
+        switch (op) {
+            case GE:
+            case GT:
+                upward = true;
+                break;
+            case LE:
+            case LT:
+                upward = false;
+                break;
+            default:
+                return traits.build();
+        }
+        return traits.monotone(var -> {
+            final int weight = weights == null || var >= weights.length
+                    ? 1 : weights[var];
+            if (weight == 0) {
+                return Monotonicity.NONE;
+            }
+            return (weight > 0) == upward
+                    ? Monotonicity.INCREASING
+                    : Monotonicity.DECREASING;
+        }).build();
+    }
+
+    /**
+     * Checks that this checker can be used with the given number of variables.
+     *
+     * @param arity the number of variables of some (partial) assignment
+     * @throws IllegalArgumentException when the weights do not match `arity`
+     */
+    public void checkArity(final int arity) {
+        if (weights != null && weights.length != arity) {
+            throw new IllegalArgumentException(String.format(
+                "This sum has %d weights but was given %d variables",
+                weights.length, arity));
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean test(final Assignment assignment) {
+        checkArity(assignment.size());
+
+        long total = 0;
+        for (int var = 0; var < assignment.size(); var++) {
+            total += (long) weight(var) * assignment.get(var);
+        }
+        return op.check(total, constant);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long prefixState(final int[] prefix, final int length) {
+        long total = 0;
+        for (int var = 0; var < length; var++) {
+            total += (long) weight(var) * prefix[var];
+        }
+        return total;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PartialCheckResult test(final PartialAssignment partial) {
+        if (partial.isError()) {
+            return REJECT;
+        }
+
+        checkArity(partial.size());
+
+        long min = 0;
+        long max = 0;
+        for (int var = 0; var < partial.size(); var++) {
+            final Domain domain = partial.get(var);
+            final long   weight = weight(var);
+            final long   lo     = weight * domain.minimum();
+            final long   hi     = weight * domain.maximum();
+            min += Math.min(lo, hi);
+            max += Math.max(lo, hi);
+        }
+
+        // when all reachable sums agree on the condition, the verdict is known
+        final boolean minOk = op.check(min, constant);
+        final boolean maxOk = op.check(max, constant);
+
+        switch (op) {
+            case EQ:
+                if (constant < min || constant > max) {
+                    return REJECT;
+                }
+                return min == max ? ACCEPT : I_DONT_KNOW;
+            case NE:
+                if (constant < min || constant > max) {
+                    return ACCEPT;
+                }
+                return min == max ? REJECT : I_DONT_KNOW;
+            case LE:
+            case LT:
+            case GE:
+            case GT:
+                // these operators are monotonic: the extreme sums decide
+                if (minOk && maxOk) {
+                    return ACCEPT;
+                }
+                if (!minOk && !maxOk) {
+                    return REJECT;
+                }
+                return I_DONT_KNOW;
+            default:
+                throw new RuntimeException("This should be unreachable");
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package be.uclouvain.solvercheck.checkers;
+
+import be.uclouvain.solvercheck.core.data.Assignment;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.PartialChecker;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static be.uclouvain.solvercheck.core.task.PartialChecker.PartialCheckResult.ACCEPT;
+import static be.uclouvain.solvercheck.core.task.PartialChecker.PartialCheckResult.I_DONT_KNOW;
+import static be.uclouvain.solvercheck.core.task.PartialChecker.PartialCheckResult.REJECT;
+
+/**
+ * A checker that returns true iff the given assignment belongs to some table
+ * of possible assignments (extensional constraint).
+ *
+ * The rows of the table are compiled once and for all into a packed array of
+ * ints (one row after the other), sorted in lexicographic order and freed
+ * from their duplicates. This array is indexed twice:
+ *
+ * - by an open-addressing hash set (linear probing) of the rows. Hence,
+ *   testing the membership of an assignment takes O(arity) in expectation
+ *   whatever the number of rows.
+ * - by the sorted order itself, which forms an implicit trie of the rows:
+ *   the rows sharing some prefix are contiguous, and the children of a
+ *   prefix are found by binary search on the next column.
+ *
+ * This checker is also able to examine partial assignments: a partial
+ * assignment is rejected as soon as no row of the table starts with the
+ * values of its leading fixed variables.
+ */
+public final class TableChecker implements PartialChecker {
+    /** The value marking an empty slot of the hash set. */
+    private static final int EMPTY = -1;
+
+    /** The number of variables of each row. */
+    private final int arity;
+    /** The number of (distinct) rows of the table. */
+    private final int nbRows;
+    /** The rows, packed one after the other in lexicographic order. */
+    private final int[] rows;
+    /** The slots of the hash set: the index of some row or EMPTY. */
+    private final int[] slots;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param table the table comprising all possible solutions.
+     * @throws IllegalArgumentException when the rows of the table do not all
+     *         have the same arity
+     */
+    public TableChecker(final List<Assignment> table) {
+        this.arity = table.isEmpty() ? 0 : table.get(0).size();
+
+        final int[] packed = new int[table.size() * arity];
+        for (int r = 0; r < table.size(); r++) {
+            final Assignment row = table.get(r);
+            if (row.size() != arity) {
+                throw new IllegalArgumentException(
+                        "All the rows of a table must have the same arity");
+            }
+            for (int i = 0; i < arity; i++) {
+                packed[r * arity + i] = row.get(i);
+            }
+        }
+
+        final int[] order = IntStream.range(0, table.size())
+                .boxed()
+                .sorted((x, y) -> compare(packed, x, packed, y))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        final int[] sorted = new int[packed.length];
+        int size = 0;
+        for (int r : order) {
+            if (size > 0 && compare(sorted, size - 1, packed, r) == 0) {
+                continue;
+            }
+            System.arraycopy(packed, r * arity, sorted, size * arity, arity);
+            size++;
+        }
+        this.nbRows = size;
+        this.rows   = sorted;
+
+        int capacity = 2;
+        while (capacity < 2 * nbRows) {
+            capacity <<= 1;
+        }
+        this.slots = new int[capacity];
+        Arrays.fill(slots, EMPTY);
+        for (int r = 0; r < nbRows; r++) {
+            int slot = hash(r) & (capacity - 1);
+            while (slots[slot] != EMPTY) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            slots[slot] = r;
+        }
+    }
+
+    /** @return the number of variables of each row */
+    public int arity() {
+        return arity;
+    }
+
+    /** @return the number of distinct rows of the table */
+    public int nbRows() {
+        return nbRows;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean test(final Assignment assignment) {
+        if (assignment.size() != arity || nbRows == 0) {
+            return false;
+        }
+
+        final int[] tuple = new int[arity];
+        int hash = 1;
+        for (int i = 0; i < arity; i++) {
+            tuple[i] = assignment.get(i);
+            hash     = 31 * hash + tuple[i];
+        }
+
+        final int mask = slots.length - 1;
+        for (int slot = spread(hash) & mask;
+             slots[slot] != EMPTY;
+             slot = (slot + 1) & mask) {
+
+            if (compare(rows, slots[slot], tuple, 0) == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PartialCheckResult test(final PartialAssignment partial) {
+        if (partial.isError() || partial.size() != arity) {
+            return REJECT;
+        }
+
+        // descend the trie along the leading fixed variables
+        int lo    = 0;
+        int hi    = nbRows;
+        int depth = 0;
+        while (depth < arity && partial.get(depth).isFixed()) {
+            final int value = partial.get(depth).minimum();
+            lo = firstRow(lo, hi, depth, value, false);
+            hi = firstRow(lo, hi, depth, value, true);
+            if (lo == hi) {
+                return REJECT;
+            }
+            depth++;
+        }
+        if (lo == hi) {
+            return REJECT;
+        }
+        return depth == arity ? ACCEPT : I_DONT_KNOW;
+    }
+
+    /**
+     * Binary search of the rows in [lo, hi[ (which share the same prefix of
+     * length `column`).
+     *
+     * @param lo the first row of the range
+     * @param hi the last row (excluded) of the range
+     * @param column the column being searched
+     * @param value the searched value
+     * @param after true to look for the first row whose column is greater
+     *              than value, false to look for the first row whose column
+     *              is greater or equal to it
+     * @return the index of the first matching row (hi when there is none)
+     */
+    private int firstRow(
+            final int lo,
+            final int hi,
+            final int column,
+            final int value,
+            final boolean after) {
+
+        int low  = lo;
+        int high = hi;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            final int v   = rows[mid * arity + column];
+            if (v < value || (after && v == value)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param row the index of some row
+     * @return the hash code of that row
+     */
+    private int hash(final int row) {
+        int hash = 1;
+        for (int i = 0; i < arity; i++) {
+            hash = 31 * hash + rows[row * arity + i];
+        }
+        return spread(hash);
+    }
+
+    /**
+     * Spreads the bits of the given hash so that the low order bits (used to
+     * pick a slot) depend on all of them.
+     *
+     * @param hash some hash code
+     * @return the spread hash code
+     */
+    private static int spread(final int hash) {
+        final int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Lexicographically compares the x-th row of `xs` with the y-th row of
+     * `ys`.
+     *
+     * @param xs some packed rows
+     * @param x the index of some row of xs
+     * @param ys some other packed rows
+     * @param y the index of some row of ys
+     * @return a negative, null or positive value when row x is smaller,
+     * equal or greater than row y
+     */
+    private int compare(final int[] xs, final int x, final int[] ys, final int y) {
+        for (int i = 0; i < arity; i++) {
+            final int c = Integer.compare(xs[x * arity + i], ys[y * arity + i]);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+}
@@ -3,6 +3,9 @@ package be.uclouvain.solvercheck.checkers;
 import be.uclouvain.solvercheck.core.data.Assignment;
 import be.uclouvain.solvercheck.core.data.Operator;
 import be.uclouvain.solvercheck.core.task.Checker;
+import be.uclouvain.solvercheck.core.task.CheckerTraits;
+import be.uclouvain.solvercheck.core.task.CheckerTraits.Part;
+import be.uclouvain.solvercheck.core.task.PartialChecker;
 
 import java.util.List;
 
@@ -23,16 +26,57 @@ public interface WithCheckers {
     default Checker alwaysFalse() {
         return Checkers.alwaysFalse();
     }
+    /**
+     * Decorates the given checker so that it declares the given traits
+     * (variable or value symmetry, monotonicity, decomposition) which the
+     * consistencies may exploit. See CheckerTraits.
+     *
+     * @param checker the checker whose traits are being declared
+     * @param traits the traits of that checker
+     * @return a checker equivalent to `checker` which declares `traits`
+     */
+    default Checker withTraits(final Checker checker, final CheckerTraits traits) {
+        return Checkers.withTraits(checker, traits);
+    }
+    /**
+     * Creates one part of a conjunction: the given checker applied to the
+     * given variables.
+     *
+     * @param checker the checker of the part
+     * @param scope the variables on which the checker is applied
+     * @return a part that can be given to `conjunction`
+     */
+    default Part part(final Checker checker, final int... scope) {
+        return new Part(checker, scope);
+    }
+    /**
+     * A checker that tells whether the given assignment satisfies all the
+     * given parts, each part being a checker applied to its own (disjoint)
+     * subset of the variables.
+     *
+     * .. Example::
+     *    conjunction(part(allDiff(), 0, 1), part(sum(LE, 3), 2, 3))
+     *    accepts [1, 2, 1, 2] but rejects [1, 1, 1, 2].
+     *
+     * @param parts the parts of the conjunction
+     * @return a checker verifying that all the parts are satisfied
+     */
+    default Checker conjunction(final Part... parts) {
+        return Checkers.conjunction(parts);
+    }
     /**
      * A checker that tells whether all variables of the given assignment
      * satisfy the allDifferent constraint. In other words, this checker
      * evaluates an assignment to true iff all the variables of the
      * assignment take a different value.
      *
+     * The returned checker is a `PartialChecker`: it is able to reject the
+     * partial assignments where two fixed variables share the same value.
+     *
      * @return a checker validating if a solution satisfies the alldiff
      *         constraint
      */
-    default Checker allDiff() {
+    default PartialChecker allDiff() {
         return Checkers.allDiff();
     }
     /**
@@ -53,6 +97,9 @@ public interface WithCheckers {
      *    $\otimes$ is one of the following operators: $&lt;, \le, =, \ne,
      *    \ge, &gt;$
      *
+     * The returned checker is a `PartialChecker`: it decides partial
+     * assignments based on the smallest and largest reachable sums.
+     *
      * @param operator the operator determining the condition that applies to
      *                 the total of the sum
      * @param value the constant that imposes some value constraint
@@ -60,9 +107,34 @@ public interface WithCheckers {
      * @return checker that tells whether the sum of the values of all variables
      *      of the given assignment satisfies some given linear condition.
      */
-    default Checker sum(final Operator operator, final int value) {
+    default PartialChecker sum(final Operator operator, final int value) {
         return Checkers.sum(operator, value);
     }
+    /**
+     * A checker that tells whether the weighted sum of the values of all
+     * variables of the given assignment satisfies some given linear
+     * condition.
+     *
+     * .. Example::
+     *    weightedSum(new int[]{2, -1}, EQ, 0) evaluates an assignment to true
+     *    iff the value of the second variable is twice that of the first one.
+     *
+     * @param weights the weight of each variable. The checker may only be
+     *                used with assignments of `weights.length` variables.
+     * @param operator the operator determining the condition that applies to
+     *                 the total of the sum
+     * @param value the constant that imposes some value constraint
+     *              on the sum
+     * @return checker that tells whether the weighted sum of the values of
+     *      all variables of the given assignment satisfies some given linear
+     *      condition.
+     */
+    default PartialChecker weightedSum(
+            final int[] weights,
+            final Operator operator,
+            final int value) {
+        return Checkers.weightedSum(weights, operator, value);
+    }
     /**
      * This checker assumes the following structure:
      *  - variables in [0;size-3] constitute the array from plain variables
@@ -77,16 +149,127 @@ public interface WithCheckers {
     default Checker element() {
         return Checkers.element();
     }
+    /**
+     * A checker that tells whether the sequence of the values of all the
+     * variables of the given assignment is a word accepted by the given
+     * deterministic finite automaton.
+     *
+     * .. Example::
+     *    regular(Automaton.builder(2).initial(0).accepting(1)
+     *               .transition(0, 0, 0).transition(0, 1, 1)
+     *               .transition(1, 0, 1).build())
+     *    evaluates an assignment to true iff exactly one of its variables
+     *    takes the value 1 (and all the others take the value 0).
+     *
+     * @param automaton the automaton recognizing the solutions
+     * @return a checker verifying that the regular constraint is satisfied by
+     *         the given assignment.
+     */
+    default PartialChecker regular(final Automaton automaton) {
+        return Checkers.regular(automaton);
+    }
+    /**
+     * A checker that tells whether the tasks starting at the values of the
+     * variables of the given assignment can share a cumulative resource:
+     * the i-th task runs during [x_i, x_i + durations[i][ and, at any point
+     * in time, the demands of the running tasks may not exceed the capacity.
+     *
+     * @param durations the duration of each task
+     * @param demands the demand of each task
+     * @param capacity the capacity of the resource
+     * @return a checker verifying that the cumulative constraint is satisfied
+     *         by the given assignment.
+     */
+    default PartialChecker cumulative(
+            final int[] durations,
+            final int[] demands,
+            final int capacity) {
+        return Checkers.cumulative(durations, demands, capacity);
+    }
+    /**
+     * A checker that tells whether the tasks starting at the values of the
+     * variables of the given assignment can share a disjunctive resource:
+     * the i-th task runs during [x_i, x_i + durations[i][ and no two tasks
+     * may overlap.
+     *
+     * @param durations the duration of each task
+     * @return a checker verifying that the disjunctive constraint is
+     *         satisfied by the given assignment.
+     */
+    default PartialChecker disjunctive(final int[] durations) {
+        return Checkers.disjunctive(durations);
+    }
+    /**
+     * A checker that tells whether the values of the variables of the given
+     * assignment form a Hamiltonian circuit (the value of the i-th variable
+     * being the successor of node i).
+     *
+     * .. Example::
+     *    circuit() accepts [1, 2, 0] but rejects [1, 0, 2].
+     *
+     * @return a checker verifying that the circuit constraint is satisfied
+     *         by the given assignment.
+     */
+    default PartialChecker circuit() {
+        return Checkers.circuit();
+    }
+    /**
+     * A checker that tells whether the values of the variables of the given
+     * assignment form a sub-circuit: the nodes which are their own successor
+     * are left out, and all the other ones form one single circuit.
+     *
+     * .. Example::
+     *    subcircuit() accepts [1, 0, 2] but rejects [1, 0, 3, 2].
+     *
+     * @return a checker verifying that the subcircuit constraint is
+     *         satisfied by the given assignment.
+     */
+    default PartialChecker subcircuit() {
+        return Checkers.subcircuit();
+    }
+    /**
+     * A checker that tells whether the first n variables of the given
+     * assignment strictly precede the last n ones in lexicographic order.
+     *
+     * .. Example::
+     *    lexLess(2) accepts [1, 2, 1, 3] but rejects [1, 2, 1, 2].
+     *
+     * @param n the length of each of the two vectors
+     * @return a checker verifying that the lexLess constraint is satisfied
+     *         by the given assignment.
+     */
+    default PartialChecker lexLess(final int n) {
+        return Checkers.lexLess(n);
+    }
+    /**
+     * A checker that tells whether the first n variables of the given
+     * assignment precede or equal the last n ones in lexicographic order.
+     *
+     * .. Example::
+     *    lexLessEq(2) accepts [1, 2, 1, 2] but rejects [2, 0, 1, 3].
+     *
+     * @param n the length of each of the two vectors
+     * @return a checker verifying that the lexLessEq constraint is satisfied
+     *         by the given assignment.
+     */
+    default PartialChecker lexLessEq(final int n) {
+        return Checkers.lexLessEq(n);
+    }
     /**
      * A checker that returns true iff the given assignment belongs to the given
      * table of possible assignments (This is the typical case of an
      * extensional constraint).
      *
+     * The returned checker is a `PartialChecker`: the table is compiled into
+     * a hash set (constant time membership) and an implicit trie which lets
+     * it reject the partial assignments whose leading fixed variables match
+     * no row of the table.
+     *
      * @param table the table comprising all possible solutions.
      * @return true iff the given assignment belongs to the given table of
      *         assignments
      */
-    default Checker table(final List<Assignment> table) {
+    default PartialChecker table(final List<Assignment> table) {
         return Checkers.table(table);
     }
     /**
@@ -0,0 +1,319 @@
+package be.uclouvain.solvercheck.consistencies;
+
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Checker;
+import be.uclouvain.solvercheck.core.task.Filter;
+import be.uclouvain.solvercheck.core.task.PartialChecker;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This class lets an user build a Filter enforcing some consistency level of
+ * a given checker, which adapts the way it computes that level to the size of
+ * the partial assignment it is given. Before filtering, the cost of each of
+ * the applicable strategies is estimated and the cheapest one is used.
+ *
+ * .. Cost Model::
+ *    The costs are expressed as a number of checker evaluations and derive
+ *    from the size of the cartesian product of the domains and from the size
+ *    of the product of the ranges they span (the bound support).
+ *    <ul>
+ *      <li>BRUTE_FORCE costs the size of the product it enumerates (the
+ *      bound support for the range and bound consistencies);</li>
+ *      <li>BOUND_PROBING (bound consistencies only) costs two probes per
+ *      variable, each of which enumerates the product with that variable
+ *      fixed;</li>
+ *      <li>PRUNED_SEARCH (partial checkers only) is assumed to prune most of
+ *      the search space;</li>
+ *      <li>PARALLEL divides the cheapest sequential enumeration by the
+ *      parallelism of the pool but pays a fixed overhead;</li>
+ *      <li>COMPILED_TABLE (arc consistency only) is almost free when a table
+ *      covering the partial assignment is available. Otherwise, the
+ *      compilation cost is amortized over the calls which are expected to
+ *      reuse the table (the typical case of the stateful dives).</li>
+ *    </ul>
+ *
+ * .. Note::
+ *    The strategy that was picked for the last call is reported by
+ *    `lastStrategy()`. The strategy that would be picked for some partial
+ *    assignment (and the estimated cost of each strategy) can be queried
+ *    beforehand with `strategyFor()` and `estimate()`.
+ *
+ * @see Strategy
+ * @see ConsistencyLevel
+ */
+public final class AdaptiveConsistency implements Filter {
+    /** Below that size, no strategy is worth its setup overhead. */
+    private static final double SMALL = 1 << 10;
+    /** The fraction of the search space assumed to be explored by a DFS. */
+    private static final double PRUNING = 0.1;
+    /** The fixed overhead of a parallel enumeration (in checker calls). */
+    private static final double FORK_OVERHEAD = 1 << 14;
+    /** The largest product of domains that is compiled into a table. */
+    private static final double MAX_TABLE = 1 << 16;
+    /** The number of calls expected to reuse a compiled table. */
+    private static final double TABLE_REUSE = 4;
+
+    /** The consistency level that is enforced. */
+    private final ConsistencyLevel level;
+    /** Whether a partial checker is available. */
+    private final boolean partial;
+    /** The parallelism of the pool. */
+    private final int parallelism;
+    /** The compiled table (only used for arc consistency). */
+    private final TableConsistency table;
+    /** The filter implementing each of the applicable strategies. */
+    private final Map<Strategy, Filter> backends;
+
+    /** The strategy that was used during the last call (null at first). */
+    private volatile Strategy last;
+
+    /**
+     * Creates a new adaptive filter using the common pool for the parallel
+     * enumerations.
+     *
+     * @param level the consistency level to enforce
+     * @param checker the checker whose consistency is enforced
+     */
+    public AdaptiveConsistency(
+            final ConsistencyLevel level,
+            final Checker checker) {
+        this(level, checker, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new adaptive filter.
+     *
+     * @param level the consistency level to enforce
+     * @param checker the checker whose consistency is enforced
+     * @param pool the pool used for the parallel enumerations
+     */
+    public AdaptiveConsistency(
+            final ConsistencyLevel level,
+            final Checker checker,
+            final ForkJoinPool pool) {
+
+        // a checker hiding its partial checking abilities (if any): it forces
+        // the reference filters to enumerate the supports.
+        final Checker plain = assignment -> checker.test(assignment);
+
+        this.level       = level;
+        this.partial     = checker instanceof PartialChecker;
+        this.parallelism = pool.getParallelism();
+        this.table       = level == ConsistencyLevel.ARC
+                         ? new TableConsistency(checker) : null;
+        this.backends    = new EnumMap<>(Strategy.class);
+        this.last        = null;
+
+        switch (level) {
+            case FORWARD_CHECKING:
+                backends.put(Strategy.BRUTE_FORCE, new ForwardChecking(plain));
+                backends.put(Strategy.PARALLEL, new ForwardChecking(plain, pool));
+                break;
+            case ARC:
+                backends.put(Strategy.BRUTE_FORCE, new ArcConsitency(plain));
+                backends.put(Strategy.PARALLEL, new ArcConsitency(plain, pool));
+                backends.put(Strategy.COMPILED_TABLE, table);
+                break;
+            case RANGE:
+                backends.put(Strategy.BRUTE_FORCE, new RangeConsistency(plain));
+                backends.put(Strategy.PARALLEL, new RangeConsistency(plain, pool));
+                break;
+            case BOUND_D:
+                backends.put(Strategy.BRUTE_FORCE,
+                        new ConsistencyOracle(plain).level(level));
+                backends.put(Strategy.BOUND_PROBING, new BoundDConsistency(plain));
+                backends.put(Strategy.PARALLEL, new BoundDConsistency(plain, pool));
+                break;
+            case BOUND_Z:
+                backends.put(Strategy.BRUTE_FORCE,
+                        new ConsistencyOracle(plain).level(level));
+                backends.put(Strategy.BOUND_PROBING, new BoundZConsistency(plain));
+                backends.put(Strategy.PARALLEL, new BoundZConsistency(plain, pool));
+                break;
+            default:
+                throw new RuntimeException("This should be unreachable");
+        }
+
+        if (partial && level != ConsistencyLevel.FORWARD_CHECKING) {
+            backends.put(Strategy.PRUNED_SEARCH, reference(level, checker));
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PartialAssignment filter(final PartialAssignment partialAssignment) {
+        final Strategy strategy = strategyFor(partialAssignment);
+        last = strategy;
+        return backends.get(strategy).filter(partialAssignment);
+    }
+
+    /**
+     * @return the strategy that was used during the last call to `filter`
+     * (null when the filter has not been used yet).
+     */
+    public Strategy lastStrategy() {
+        return last;
+    }
+
+    /**
+     * @param partialAssignment some partial assignment
+     * @return the strategy that would be used to filter the given partial
+     * assignment: the one having the lowest estimated cost.
+     */
+    public Strategy strategyFor(final PartialAssignment partialAssignment) {
+        Strategy best = Strategy.BRUTE_FORCE;
+        double   cost = Double.POSITIVE_INFINITY;
+
+        for (Map.Entry<Strategy, Double> e : estimate(partialAssignment).entrySet()) {
+            if (e.getValue() < cost) {
+                best = e.getKey();
+                cost = e.getValue();
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Estimates the cost of each applicable strategy.
+     *
+     * @param partialAssignment some partial assignment
+     * @return a map associating each applicable strategy with its estimated
+     * cost (expressed as a number of checker evaluations).
+     */
+    public Map<Strategy, Double> estimate(final PartialAssignment partialAssignment) {
+        final Map<Strategy, Double> costs = new EnumMap<>(Strategy.class);
+
+        if (partialAssignment.isError()) {
+            costs.put(Strategy.BRUTE_FORCE, 0.0);
+            return Collections.unmodifiableMap(costs);
+        }
+
+        final double product = product(partialAssignment, false);
+        final double bounds  = product(partialAssignment, true);
+
+        final double brute;
+        switch (level) {
+            case FORWARD_CHECKING:
+                brute = isForwardCheckable(partialAssignment) ? product : 0;
+                break;
+            case ARC:
+                brute = product;
+                break;
+            default:
+                brute = bounds;
+                break;
+        }
+        costs.put(Strategy.BRUTE_FORCE, brute);
+
+        double sequential = brute;
+        if (backends.containsKey(Strategy.BOUND_PROBING)) {
+            final boolean relaxed = level == ConsistencyLevel.BOUND_Z;
+            final double probing  = probing(partialAssignment, relaxed);
+
+            costs.put(Strategy.BOUND_PROBING, probing);
+            sequential = Math.min(sequential, probing);
+        }
+
+        if (brute > SMALL) {
+            if (backends.containsKey(Strategy.PRUNED_SEARCH)) {
+                costs.put(Strategy.PRUNED_SEARCH, SMALL + PRUNING * sequential);
+            }
+            if (parallelism > 1) {
+                costs.put(Strategy.PARALLEL,
+                        FORK_OVERHEAD + sequential / parallelism);
+            }
+        }
+
+        if (table != null) {
+            if (table.isCompiledFor(partialAssignment)) {
+                costs.put(Strategy.COMPILED_TABLE, 1.0);
+            } else if (product <= MAX_TABLE) {
+                final double compile = partial
+                        ? Math.min(product, SMALL + PRUNING * product)
+                        : product;
+                costs.put(Strategy.COMPILED_TABLE, SMALL + compile / TABLE_REUSE);
+            }
+        }
+
+        return Collections.unmodifiableMap(costs);
+    }
+
+    /**
+     * @param domains some non empty domains
+     * @param relaxed true iff the product of the ranges must be computed
+     * @return the size of the cartesian product of the domains (or of their
+     * ranges)
+     */
+    private static double product(
+            final List<Domain> domains,
+            final boolean relaxed) {
+
+        double size = 1;
+        for (Domain dom : domains) {
+            size *= relaxed
+                  ? (double) dom.maximum() - dom.minimum() + 1
+                  : dom.size();
+        }
+        return size;
+    }
+
+    /**
+     * @param domains some non empty domains
+     * @param relaxed true iff the bound supports are looked for
+     * @return the estimated cost of probing the two bounds of each variable
+     * once.
+     */
+    private static double probing(
+            final List<Domain> domains,
+            final boolean relaxed) {
+
+        final double size = product(domains, relaxed);
+
+        double cost = 0;
+        for (Domain dom : domains) {
+            final double width = relaxed
+                    ? (double) dom.maximum() - dom.minimum() + 1
+                    : dom.size();
+            cost += Math.min(2, dom.size()) * size / width;
+        }
+        return cost;
+    }
+
+    /**
+     * @param domains some domains
+     * @return true iff forward checking would actually filter these domains
+     * (that is, iff all but at most one variable are fixed).
+     */
+    private static boolean isForwardCheckable(final List<Domain> domains) {
+        return domains.stream().filter(d -> d.size() > 1).count() <= 1;
+    }
+
+    /**
+     * @param level some consistency level
+     * @param checker some checker
+     * @return the reference filter enforcing that level of consistency
+     */
+    private static Filter reference(
+            final ConsistencyLevel level,
+            final Checker checker) {
+
+        switch (level) {
+            case BOUND_Z:
+                return new BoundZConsistency(checker);
+            case BOUND_D:
+                return new BoundDConsistency(checker);
+            case RANGE:
+                return new RangeConsistency(checker);
+            case ARC:
+                return new ArcConsitency(checker);
+            default:
+                throw new RuntimeException("This should be unreachable");
+        }
+    }
+}
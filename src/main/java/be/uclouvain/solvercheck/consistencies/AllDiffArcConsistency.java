@@ -0,0 +1,241 @@
+package be.uclouvain.solvercheck.consistencies;
+
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Filter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class implements an arc consistent filter dedicated to the allDiff
+ * constraint (Régin's algorithm). The matching is found by augmenting paths
+ * in O(n.e) time for n variables and e (variable, value) pairs, and the
+ * graph is then traversed in O(n + e).
+ *
+ * .. Algorithm::
+ *    The variables and values form a bipartite graph whose maximum matching
+ *    covers all the variables iff the constraint is satisfiable. Given such a
+ *    matching, the edges of the graph are oriented (matched edges from the
+ *    variable to the value, the other ones from the value to the variable).
+ *    An edge belongs to some solution iff it is matched, or its two ends lie
+ *    in the same strongly connected component, or its value can be reached
+ *    from a free (unmatched) value.
+ *
+ * .. Note::
+ *    This filter is equivalent to `new ArcConsitency(Checkers.allDiff())`.
+ *
+ * @see AllDiffBoundConsistency
+ */
+public final class AllDiffArcConsistency implements Filter {
+
+    /** {@inheritDoc} */
+    @Override
+    public PartialAssignment filter(final PartialAssignment partial) {
+        final int arity = partial.size();
+        if (partial.isError()) {
+            return PartialAssignment.error(arity);
+        }
+        if (arity == 0) {
+            return partial;
+        }
+
+        final Graph graph = new Graph(partial);
+        if (!graph.maximumMatching()) {
+            return PartialAssignment.error(arity);
+        }
+        return graph.consistentDomains();
+    }
+
+    /**
+     * The bipartite variable-value graph of some partial assignment. Nodes
+     * [0, n) are the variables and nodes [n, n+m) are the values.
+     */
+    private static final class Graph {
+        /** The number of variables. */
+        private final int n;
+        /** The number of distinct values. */
+        private final int m;
+        /** The value (not its index) corresponding to each value index. */
+        private final int[] valueOf;
+        /** The indices of the values of each variable. */
+        private final int[][] adjVar;
+        /** The variables having each value in their domain. */
+        private final int[][] adjVal;
+        /** The value index matched to each variable (-1 if none). */
+        private final int[] matchVar;
+        /** The variable matched to each value index (-1 if none). */
+        private final int[] matchVal;
+
+        /**
+         * Builds the variable-value graph of the given partial assignment.
+         *
+         * @param partial some partial assignment (which is not an error)
+         */
+        Graph(final PartialAssignment partial) {
+            this.n = partial.size();
+
+            final Map<Integer, Integer> index = new HashMap<>();
+            final List<Integer>         values = new ArrayList<>();
+
+            this.adjVar = new int[n][];
+            for (int x = 0; x < n; x++) {
+                adjVar[x] = new int[partial.get(x).size()];
+                int i = 0;
+                for (int v : partial.get(x)) {
+                    Integer idx = index.get(v);
+                    if (idx == null) {
+                        idx = values.size();
+                        index.put(v, idx);
+                        values.add(v);
+                    }
+                    adjVar[x][i++] = idx;
+                }
+            }
+
+            this.m       = values.size();
+            this.valueOf = values.stream().mapToInt(Integer::intValue).toArray();
+
+            final int[] degree = new int[m];
+            for (int[] adj : adjVar) {
+                for (int v : adj) {
+                    degree[v]++;
+                }
+            }
+            this.adjVal = new int[m][];
+            for (int v = 0; v < m; v++) {
+                adjVal[v] = new int[degree[v]];
+                degree[v] = 0;
+            }
+            for (int x = 0; x < n; x++) {
+                for (int v : adjVar[x]) {
+                    adjVal[v][degree[v]++] = x;
+                }
+            }
+
+            this.matchVar = new int[n];
+            this.matchVal = new int[m];
+            Arrays.fill(matchVar, -1);
+            Arrays.fill(matchVal, -1);
+        }
+
+        /**
+         * Computes a maximum matching (greedy initialization followed by
+         * augmenting paths).
+         *
+         * @return true iff the matching covers all the variables
+         */
+        boolean maximumMatching() {
+            for (int x = 0; x < n; x++) {
+                for (int v : adjVar[x]) {
+                    if (matchVal[v] < 0) {
+                        matchVal[v] = x;
+                        matchVar[x] = v;
+                        break;
+                    }
+                }
+            }
+            for (int x = 0; x < n; x++) {
+                if (matchVar[x] < 0 && !augment(x, new boolean[m])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Looks for an augmenting path starting at the given variable.
+         *
+         * @param x some variable
+         * @param seen the values which were already visited
+         * @return true iff the matching was augmented
+         */
+        private boolean augment(final int x, final boolean[] seen) {
+            for (int v : adjVar[x]) {
+                if (!seen[v]) {
+                    seen[v] = true;
+                    if (matchVal[v] < 0 || augment(matchVal[v], seen)) {
+                        matchVal[v] = x;
+                        matchVar[x] = v;
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return the domains where only the edges belonging to some maximum
+         * matching are kept.
+         */
+        PartialAssignment consistentDomains() {
+            final boolean[] reached   = reachableFromFreeValues();
+            final int[]     component =
+                    StronglyConnectedComponents.of(n + m, this::successors);
+
+            final List<Domain> domains = new ArrayList<>(n);
+            for (int x = 0; x < n; x++) {
+                final List<Integer> kept = new ArrayList<>(adjVar[x].length);
+                for (int v : adjVar[x]) {
+                    if (matchVar[x] == v
+                            || reached[n + v]
+                            || component[x] == component[n + v]) {
+                        kept.add(valueOf[v]);
+                    }
+                }
+                domains.add(Domain.from(kept));
+            }
+            return PartialAssignment.from(domains);
+        }
+
+        /**
+         * @param node some node of the oriented graph
+         * @return the successors of that node
+         */
+        private int[] successors(final int node) {
+            if (node < n) {
+                return new int[] {n + matchVar[node]};
+            }
+
+            final int   v   = node - n;
+            final int[] adj = adjVal[v];
+            final int[] out = new int[adj.length];
+            int size = 0;
+            for (int x : adj) {
+                if (matchVal[v] != x) {
+                    out[size++] = x;
+                }
+            }
+            return size == out.length ? out : Arrays.copyOf(out, size);
+        }
+
+        /**
+         * @return a flag for each node telling whether it can be reached from
+         * some free value in the oriented graph.
+         */
+        private boolean[] reachableFromFreeValues() {
+            final boolean[]           reached = new boolean[n + m];
+            final ArrayDeque<Integer> queue   = new ArrayDeque<>();
+
+            for (int v = 0; v < m; v++) {
+                if (matchVal[v] < 0) {
+                    reached[n + v] = true;
+                    queue.add(n + v);
+                }
+            }
+            while (!queue.isEmpty()) {
+                for (int next : successors(queue.poll())) {
+                    if (!reached[next]) {
+                        reached[next] = true;
+                        queue.add(next);
+                    }
+                }
+            }
+            return reached;
+        }
+    }
+}
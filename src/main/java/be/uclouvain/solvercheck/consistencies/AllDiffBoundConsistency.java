@@ -0,0 +1,141 @@
+package be.uclouvain.solvercheck.consistencies;
+
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.Operator;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class implements a Bound(Z) consistent filter dedicated to the
+ * allDiff constraint. It pushes the bounds of the variables out of the Hall
+ * intervals, which takes O(n^3) time per round for n variables.
+ *
+ * .. Algorithm::
+ *    An interval [a, b] is a Hall interval iff exactly b - a + 1 variables
+ *    have their range included in [a, b]: these variables consume all the
+ *    values of the interval. The bounds of all the other variables are thus
+ *    pushed out of every Hall interval (and the constraint fails as soon as
+ *    more than b - a + 1 ranges are included in [a, b]). This is repeated
+ *    until no bound changes (Leconte's rule), then the domains are shrunk to
+ *    their new bounds. Since a new bound may fall in a hole of the domain,
+ *    the whole process is repeated until a fixpoint is reached.
+ *
+ * .. Note::
+ *    This filter is equivalent to `new BoundZConsistency(Checkers.allDiff())`.
+ *    The candidate intervals are those spanning from some lower bound to some
+ *    upper bound.
+ *
+ * @see AllDiffArcConsistency
+ */
+public final class AllDiffBoundConsistency implements Filter {
+
+    /** {@inheritDoc} */
+    @Override
+    public PartialAssignment filter(final PartialAssignment partial) {
+        final int arity = partial.size();
+        if (partial.isError()) {
+            return PartialAssignment.error(arity);
+        }
+
+        final List<Domain> domains = new ArrayList<>(partial);
+        final long[] lo = new long[arity];
+        final long[] hi = new long[arity];
+
+        boolean fixpoint = false;
+        while (!fixpoint) {
+            fixpoint = true;
+
+            for (int x = 0; x < arity; x++) {
+                lo[x] = domains.get(x).minimum();
+                hi[x] = domains.get(x).maximum();
+            }
+            if (!pushOutOfHallIntervals(lo, hi)) {
+                return PartialAssignment.error(arity);
+            }
+
+            for (int x = 0; x < arity; x++) {
+                final Domain dom = domains.get(x);
+                if (lo[x] == dom.minimum() && hi[x] == dom.maximum()) {
+                    continue;
+                }
+
+                final Domain reduced = Domain.restrict(
+                        Domain.restrict(dom, Operator.GE, (int) lo[x]),
+                        Operator.LE,
+                        (int) hi[x]);
+                if (reduced.isEmpty()) {
+                    return PartialAssignment.error(arity);
+                }
+                domains.set(x, reduced);
+                fixpoint = false;
+            }
+        }
+        return PartialAssignment.from(domains);
+    }
+
+    /**
+     * Pushes the bounds of the ranges out of the Hall intervals until a
+     * fixpoint is reached.
+     *
+     * @param lo the lower bounds of the ranges (updated in place)
+     * @param hi the upper bounds of the ranges (updated in place)
+     * @return false iff the ranges cannot satisfy the constraint
+     */
+    private static boolean pushOutOfHallIntervals(final long[] lo, final long[] hi) {
+        final int arity = lo.length;
+
+        boolean fixpoint = false;
+        while (!fixpoint) {
+            fixpoint = true;
+
+            final long[] starts = Arrays.stream(lo).distinct().sorted().toArray();
+            final long[] ends   = Arrays.stream(hi).distinct().sorted().toArray();
+
+            for (long a : starts) {
+                for (long b : ends) {
+                    if (b < a) {
+                        continue;
+                    }
+
+                    int inside = 0;
+                    for (int x = 0; x < arity; x++) {
+                        if (a <= lo[x] && hi[x] <= b) {
+                            inside++;
+                        }
+                    }
+
+                    final long capacity = b - a + 1;
+                    if (inside > capacity) {
+                        return false;
+                    }
+                    if (inside < capacity) {
+                        continue;
+                    }
+
+                    // [a, b] is a Hall interval
+                    for (int x = 0; x < arity; x++) {
+                        if (a <= lo[x] && hi[x] <= b) {
+                            continue;
+                        }
+                        if (a <= lo[x] && lo[x] <= b) {
+                            lo[x]    = b + 1;
+                            fixpoint = false;
+                        }
+                        if (a <= hi[x] && hi[x] <= b) {
+                            hi[x]    = a - 1;
+                            fixpoint = false;
+                        }
+                        if (lo[x] > hi[x]) {
+                            return false;
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+}
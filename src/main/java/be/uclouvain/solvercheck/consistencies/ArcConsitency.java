@@ -4,10 +4,16 @@ import be.uclouvain.solvercheck.core.data.Assignment;
 import be.uclouvain.solvercheck.core.data.Domain;
 import be.uclouvain.solvercheck.core.data.PartialAssignment;
 import be.uclouvain.solvercheck.core.task.Checker;
+import be.uclouvain.solvercheck.core.task.CheckerTraits;
+import be.uclouvain.solvercheck.core.task.CheckerTraits.Part;
 import be.uclouvain.solvercheck.core.task.DomainFilter;
 import be.uclouvain.solvercheck.core.task.Filter;
+import be.uclouvain.solvercheck.core.task.PartialChecker;
 import be.uclouvain.solvercheck.utils.collections.CartesianProduct;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 import static be.uclouvain.solvercheck.consistencies.ConsistencyUtil.exists;
@@ -25,6 +31,31 @@ import static be.uclouvain.solvercheck.consistencies.ConsistencyUtil.support;
  *    designing new tests, one should account for the fact that 10 variables
  *    each having a ten valued domain is roughly-intractable (10^10
  *    possibilities).
+ *
+ * .. Note::
+ *    When the given checker is a `PartialChecker`, the cartesian product is
+ *    not brute-forced. Instead, the supports are searched for depth-first and
+ *    the subtrees rejected by the partial checker are pruned
+ *    (see SupportSearch).
+ *
+ * .. Note::
+ *    Otherwise, the cartesian product can be enumerated in parallel when the
+ *    filter is given a `ForkJoinPool` (see ParallelSupport).
+ *
+ * .. Note::
+ *    When the checker declares itself as a conjunction of parts having
+ *    disjoint scopes (see CheckerTraits), each part is filtered on its own.
+ *    The product of the domains of the parts is enumerated rather than the
+ *    product of all the domains.
+ *
+ * .. Note::
+ *    When the leading variables of the checker are interchangeable (see
+ *    CheckerTraits), each multiset of their values is checked once instead
+ *    of each of its orderings (see SymmetricSupport).
+ *
+ * @see SupportSearch
+ * @see ParallelSupport
+ * @see SymmetricSupport
  */
 public final class ArcConsitency implements Filter {
     /**
@@ -32,6 +63,8 @@ public final class ArcConsitency implements Filter {
      * is satisfied.
      */
     private final Checker checker;
+    /** The pool used to enumerate the supports in parallel (if any). */
+    private final ForkJoinPool pool;
 
     /**
      * Creates a new arc consistent filter from the given checker.
@@ -39,12 +72,41 @@ public final class ArcConsitency implements Filter {
      *                some constraint is satisfied
      */
     public ArcConsitency(final Checker checker) {
+        this(checker, null);
+    }
+
+    /**
+     * Creates a new arc consistent filter from the given checker which
+     * enumerates the cartesian product of the domains in parallel on the
+     * given pool (see ParallelSupport).
+     *
+     * @param checker the checker implementing a test to verify whether or not
+     *                some constraint is satisfied
+     * @param pool the pool on which the supports are enumerated. A null
+     *             value means the enumeration is sequential.
+     */
+    public ArcConsitency(final Checker checker, final ForkJoinPool pool) {
         this.checker = checker;
+        this.pool    = pool;
     }
 
     /** {@inheritDoc} */
     @Override
     public PartialAssignment filter(final PartialAssignment partial) {
+        final CheckerTraits traits = checker.traits();
+        if (traits.isDecomposable()) {
+            return filterParts(traits.parts(), partial);
+        }
+        if (traits.nbSymmetricVariables(partial.size()) >= 2) {
+            return new SymmetricSupport(checker).supports(partial);
+        }
+        if (checker instanceof PartialChecker) {
+            return new SupportSearch((PartialChecker) checker).supports(partial);
+        }
+        if (pool != null) {
+            return new ParallelSupport(checker, pool).supports(partial);
+        }
+
         return PartialAssignment.unionOf(
                 partial.size(),
                 CartesianProduct.of(partial).stream()
@@ -54,6 +116,44 @@ public final class ArcConsitency implements Filter {
         );
     }
 
+    /**
+     * Filters each part of a decomposable checker separately. Because the
+     * scopes of the parts are disjoint, the union of the supports of the
+     * parts is exactly the set of supports of the conjunction.
+     *
+     * @param parts the parts of the conjunction
+     * @param partial the partial assignment to filter
+     * @return the arc consistent version of `partial`
+     */
+    private PartialAssignment filterParts(
+            final List<Part> parts,
+            final PartialAssignment partial) {
+
+        final int arity = partial.size();
+        if (partial.isError()) {
+            return PartialAssignment.error(arity);
+        }
+
+        final List<Domain> domains = new ArrayList<>(partial);
+        for (Part part : parts) {
+            if (part.maxVariable() >= arity) {
+                return PartialAssignment.error(arity);
+            }
+            final PartialAssignment filtered =
+                    new ArcConsitency(part.checker(), pool)
+                        .filter(PartialAssignment.from(part.project(domains)));
+            if (filtered.isError()) {
+                return PartialAssignment.error(arity);
+            }
+
+            final int[] scope = part.scope();
+            for (int i = 0; i < scope.length; i++) {
+                domains.set(scope[i], filtered.get(i));
+            }
+        }
+        return PartialAssignment.from(domains);
+    }
+
     /**
      * This is a convenience method which can be used to build hybrid
      * consistencies. It returns a domain checker that ensures that all the
@@ -65,6 +165,17 @@ public final class ArcConsitency implements Filter {
      * checker for some variable domain.
      */
     public static DomainFilter domainFilter(final Checker checker) {
+        if (checker instanceof PartialChecker) {
+            final SupportSearch search =
+                    new SupportSearch((PartialChecker) checker);
+
+            return (var, context) ->
+                context.get(var)
+                    .stream()
+                    .filter(value -> search.hasSupport(context, var, value))
+                    .collect(Domain.collector());
+        }
+
         return (var, context) ->
                 context.get(var)
                     .stream()
@@ -1,15 +1,40 @@
 package be.uclouvain.solvercheck.consistencies;
 
+import be.uclouvain.solvercheck.checkers.SumChecker;
+import be.uclouvain.solvercheck.core.data.Domain;
 import be.uclouvain.solvercheck.core.task.Checker;
+import be.uclouvain.solvercheck.core.task.CheckerTraits;
 import be.uclouvain.solvercheck.core.task.DomainFilter;
+import be.uclouvain.solvercheck.core.task.PartialChecker;
 
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static be.uclouvain.solvercheck.consistencies.ConsistencyUtil.hasSupport;
+import static be.uclouvain.solvercheck.consistencies.ConsistencyUtil.monotoneCorner;
 import static be.uclouvain.solvercheck.consistencies.ConsistencyUtil.shrinkBounds;
-import static be.uclouvain.solvercheck.consistencies.ConsistencyUtil.support;
 
 /**
  * This class lets an user build a Bound(D) consistent Filter from some given
  * Checker. This means that domains will be filtered to only contain values
  * between the bounds that actually belong to some support of the constraint.
+ *
+ * The bounds are probed alternately and only the assignments extending the
+ * probed (variable, value) pair are enumerated. Hence, the cost of filtering
+ * is proportional to the number of bound values being removed rather than to
+ * the size of the domain. When the given checker is a `PartialChecker`, the
+ * supports of the bounds are searched for depth-first (see SupportSearch).
+ * Otherwise, they can be enumerated in parallel when the filter is given a
+ * `ForkJoinPool` (see ParallelSupport).
+ *
+ * .. Note::
+ *    The sums (see SumChecker) are filtered without any enumeration at all
+ *    (see SumConsistency).
+ *
+ * .. Note::
+ *    The monotone variables declared by the checker (see CheckerTraits) are
+ *    collapsed onto their most favorable bound before looking for a support
+ *    (see ConsistencyUtil#monotoneCorner).
  */
 public final class BoundDConsistency extends AbstractUniformConsistency {
     /**
@@ -22,6 +47,20 @@ public final class BoundDConsistency extends AbstractUniformConsistency {
         super(domainFilter(checker));
     }
 
+    /**
+     * Creates a new instance based on the given checker which enumerates the
+     * supports of the bounds in parallel on the given pool
+     * (see ParallelSupport).
+     *
+     * @param checker the predicate testing whether an assignment satisfies some
+     *                given constraint.
+     * @param pool the pool on which the supports are enumerated. A null value
+     *             means the enumeration is sequential.
+     */
+    public BoundDConsistency(final Checker checker, final ForkJoinPool pool) {
+        super(domainFilter(checker, pool));
+    }
+
     /**
      * This is a convenience method which can be used to build hybrid
      * consistencies. It returns a domain filter that ensures that both the
@@ -33,8 +72,54 @@ public final class BoundDConsistency extends AbstractUniformConsistency {
      * checker for some variable domain.
      */
     public static DomainFilter domainFilter(final Checker checker) {
-        return (var, domains) ->
-                shrinkBounds(var, domains.get(var), checker, support(domains));
+        return domainFilter(checker, null);
+    }
+
+    /**
+     * Same as `domainFilter(checker)` except that the supports of the bounds
+     * are enumerated in parallel on the given pool (see ParallelSupport).
+     *
+     * @param checker the checker testing the satisfaction of the constraint
+     * @param pool the pool on which the supports are enumerated. A null value
+     *             means the enumeration is sequential.
+     * @return a DomainFilter that ensures the Bound(D) consistency of the given
+     * checker for some variable domain.
+     */
+    public static DomainFilter domainFilter(
+            final Checker checker,
+            final ForkJoinPool pool) {
+
+        if (checker instanceof SumChecker) {
+            return SumConsistency.domainFilter((SumChecker) checker, false);
+        }
+
+        final CheckerTraits traits = checker.traits();
+        if (checker instanceof PartialChecker) {
+            final SupportSearch search =
+                    new SupportSearch((PartialChecker) checker);
+
+            return (var, domains) -> {
+                final List<Domain> corner = monotoneCorner(traits, domains, var);
+                return shrinkBounds(domains.get(var),
+                        value -> search.hasSupport(corner, var, value));
+            };
+        }
+
+        if (pool != null) {
+            final ParallelSupport parallel = new ParallelSupport(checker, pool);
+
+            return (var, domains) -> {
+                final List<Domain> corner = monotoneCorner(traits, domains, var);
+                return shrinkBounds(domains.get(var),
+                        value -> parallel.hasSupport(corner, var, value));
+            };
+        }
+
+        return (var, domains) -> {
+            final List<Domain> corner = monotoneCorner(traits, domains, var);
+            return shrinkBounds(domains.get(var),
+                    value -> hasSupport(checker, corner, var, value));
+        };
     }
 
 }
@@ -1,16 +1,45 @@
 package be.uclouvain.solvercheck.consistencies;
 
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.checkers.SumChecker;
 import be.uclouvain.solvercheck.core.task.Checker;
+import be.uclouvain.solvercheck.core.task.CheckerTraits;
 import be.uclouvain.solvercheck.core.task.DomainFilter;
+import be.uclouvain.solvercheck.core.task.PartialChecker;
 
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static be.uclouvain.solvercheck.consistencies.ConsistencyUtil.boundDomains;
+import static be.uclouvain.solvercheck.consistencies.ConsistencyUtil.hasSupport;
+import static be.uclouvain.solvercheck.consistencies.ConsistencyUtil.monotoneCorner;
 import static be.uclouvain.solvercheck.consistencies.ConsistencyUtil.shrinkBounds;
-import static be.uclouvain.solvercheck.consistencies.ConsistencyUtil.boundSupport;
 
 /**
  * This class lets an user build a Bound(Z) consistent Filter from some given
  * Checker. This means that domains will be filtered to only contain values
  * between the bounds that actually belong to some **bound support** of the
  * constraint.
+ *
+ * The bounds are probed alternately and only the bound supports extending
+ * the probed (variable, value) pair are enumerated. Hence, the cost of
+ * filtering is proportional to the number of bound values being removed
+ * rather than to the size of the domain. When the given checker is a
+ * `PartialChecker`, the bound supports of the bounds are searched for
+ * depth-first (see SupportSearch).
+ * Otherwise, they can be enumerated in parallel when the filter is given a
+ * `ForkJoinPool` (see ParallelSupport).
+ *
+ * .. Note::
+ *    The sums (see SumChecker) are filtered without any enumeration at all
+ *    (see SumConsistency).
+ *
+ * .. Note::
+ *    When the checker declares some monotone variables (see CheckerTraits),
+ *    these are collapsed onto their most favorable bound before looking for
+ *    a support (see ConsistencyUtil#monotoneCorner). When all the other
+ *    variables are monotone, one single corner tuple of the bound support is
+ *    thus checked per probed value.
  */
 public final class BoundZConsistency extends AbstractUniformConsistency {
     /**
@@ -23,6 +52,20 @@ public final class BoundZConsistency extends AbstractUniformConsistency {
         super(domainFilter(checker));
     }
 
+    /**
+     * Creates a new instance based on the given checker which enumerates the
+     * supports of the bounds in parallel on the given pool
+     * (see ParallelSupport).
+     *
+     * @param checker the predicate testing whether an assignment satisfies some
+     *                given constraint.
+     * @param pool the pool on which the supports are enumerated. A null value
+     *             means the enumeration is sequential.
+     */
+    public BoundZConsistency(final Checker checker, final ForkJoinPool pool) {
+        super(domainFilter(checker, pool));
+    }
+
     /**
      * This is a convenience method which can be used to build hybrid
      * consistencies. It returns a domain filter that ensures that both the
@@ -34,7 +77,56 @@ public final class BoundZConsistency extends AbstractUniformConsistency {
      * checker for some variable domain.
      */
     public static DomainFilter domainFilter(final Checker checker) {
-        return (var, domns) ->
-                shrinkBounds(var, domns.get(var), checker, boundSupport(domns));
+        return domainFilter(checker, null);
+    }
+
+    /**
+     * Same as `domainFilter(checker)` except that the supports of the bounds
+     * are enumerated in parallel on the given pool (see ParallelSupport).
+     *
+     * @param checker the checker testing the satisfaction of the constraint
+     * @param pool the pool on which the supports are enumerated. A null value
+     *             means the enumeration is sequential.
+     * @return a DomainFilter that ensures the Bound(Z) consistency of the given
+     * checker for some variable domain.
+     */
+    public static DomainFilter domainFilter(
+            final Checker checker,
+            final ForkJoinPool pool) {
+
+        if (checker instanceof SumChecker) {
+            return SumConsistency.domainFilter((SumChecker) checker, true);
+        }
+
+        final CheckerTraits traits = checker.traits();
+        if (checker instanceof PartialChecker) {
+            final SupportSearch search =
+                    new SupportSearch((PartialChecker) checker);
+
+            return (var, domns) -> {
+                final List<Domain> ranges =
+                        monotoneCorner(traits, boundDomains(domns), var);
+                return shrinkBounds(domns.get(var),
+                        value -> search.hasSupport(ranges, var, value));
+            };
+        }
+
+        if (pool != null) {
+            final ParallelSupport parallel = new ParallelSupport(checker, pool);
+
+            return (var, domns) -> {
+                final List<Domain> ranges =
+                        monotoneCorner(traits, boundDomains(domns), var);
+                return shrinkBounds(domns.get(var),
+                        value -> parallel.hasSupport(ranges, var, value));
+            };
+        }
+
+        return (var, domns) -> {
+            final List<Domain> ranges =
+                        monotoneCorner(traits, boundDomains(domns), var);
+            return shrinkBounds(domns.get(var),
+                    value -> hasSupport(checker, ranges, var, value));
+        };
     }
 }
@@ -0,0 +1,224 @@
+package be.uclouvain.solvercheck.consistencies;
+
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Filter;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class decorates some filter with a size-bounded, least recently used
+ * (LRU) cache of its results. It is meant to be used with the reference
+ * filters, which are expensive to evaluate and often called repeatedly on
+ * the very same partial assignments (think of the idempotency and
+ * monotonicity properties, or of the states that are revisited after a
+ * `popState()` during a dive).
+ *
+ * .. Concurrency::
+ *    The cache is split in several segments, each of which is guarded by its
+ *    own lock. The decorated filter itself is evaluated outside of any lock:
+ *    two threads missing the same entry at the same time may thus both
+ *    evaluate the filter (which is harmless since filters are functions).
+ *
+ * .. Memory::
+ *    The capacity of the cache is spread over its segments in such a way that
+ *    the cache never holds more than `maxEntries` results. Each key is a
+ *    compact int array encoding of the partial assignment, along with its
+ *    precomputed hash.
+ *
+ * .. Note::
+ *    The decorated filter **must** be a pure function of its input (which is
+ *    the case of all the filters of this package).
+ */
+public final class CachedFilter implements Filter {
+    /** The default number of segments (upper bound). */
+    private static final int NB_SEGMENTS = 16;
+
+    /** The decorated filter. */
+    private final Filter filter;
+    /** The segments of the cache. */
+    private final Segment[] segments;
+    /** The number of calls that were answered from the cache. */
+    private final LongAdder hits;
+    /** The number of calls that required the evaluation of the filter. */
+    private final LongAdder misses;
+    /** The number of entries which were evicted from the cache. */
+    private final LongAdder evictions;
+
+    /**
+     * Creates a new cached filter.
+     *
+     * @param filter the filter whose results are to be cached
+     * @param maxEntries the maximum number of results held by the cache
+     */
+    public CachedFilter(final Filter filter, final int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+
+        this.filter    = filter;
+        this.hits      = new LongAdder();
+        this.misses    = new LongAdder();
+        this.evictions = new LongAdder();
+
+        final int nbSegments = Math.min(NB_SEGMENTS, maxEntries);
+        this.segments = new Segment[nbSegments];
+        for (int i = 0; i < nbSegments; i++) {
+            final int capacity = maxEntries / nbSegments
+                               + (i < maxEntries % nbSegments ? 1 : 0);
+            segments[i] = new Segment(capacity);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PartialAssignment filter(final PartialAssignment partial) {
+        final Key     key     = new Key(partial);
+        final Segment segment = segments[Math.floorMod(key.hash, segments.length)];
+
+        PartialAssignment result;
+        synchronized (segment) {
+            result = segment.get(key);
+        }
+        if (result != null) {
+            hits.increment();
+            return result;
+        }
+
+        misses.increment();
+        result = filter.filter(partial);
+        synchronized (segment) {
+            segment.put(key, result);
+        }
+        return result;
+    }
+
+    /** @return the number of calls that were answered from the cache. */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /** @return the number of calls that required to evaluate the filter. */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /** @return the number of entries that were evicted from the cache. */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /** @return the number of results currently held in the cache. */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /** Removes all the entries from the cache (the statistics are kept). */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return String.format(
+                "CachedFilter{hits=%d, misses=%d, evictions=%d, size=%d}",
+                hits(), misses(), evictions(), size());
+    }
+
+    /**
+     * One segment of the cache: a bounded map in access order.
+     */
+    private final class Segment extends LinkedHashMap<Key, PartialAssignment> {
+        /** Serialization id (maps are serializable). */
+        private static final long serialVersionUID = 1L;
+
+        /** The maximum number of entries of this segment. */
+        private final int capacity;
+
+        /**
+         * Creates a new segment.
+         *
+         * @param capacity the maximum number of entries of this segment
+         */
+        Segment(final int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected boolean removeEldestEntry(
+                final Map.Entry<Key, PartialAssignment> eldest) {
+
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The key identifying some partial assignment in the cache. It is an int
+     * array comprising, for each variable, the size of its domain followed by
+     * the values of that domain (in increasing order).
+     */
+    private static final class Key {
+        /** The encoded partial assignment. */
+        private final int[] data;
+        /** The precomputed hash of `data`. */
+        private final int hash;
+
+        /**
+         * Encodes the given partial assignment.
+         *
+         * @param partial the partial assignment to encode
+         */
+        Key(final PartialAssignment partial) {
+            int length = 0;
+            for (Domain domain : partial) {
+                length += 1 + domain.size();
+            }
+
+            this.data = new int[length];
+            int i = 0;
+            for (Domain domain : partial) {
+                data[i++] = domain.size();
+                for (int value : domain) {
+                    data[i++] = value;
+                }
+            }
+            this.hash = Arrays.hashCode(data);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean equals(final Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            final Key that = (Key) other;
+            return hash == that.hash && Arrays.equals(data, that.data);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package be.uclouvain.solvercheck.consistencies;
+
+import be.uclouvain.solvercheck.checkers.CircuitChecker;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.Operator;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class implements a filter for the circuit and subcircuit constraints
+ * (successor representation). It is weaker than arc consistency (which is
+ * NP-hard to achieve for these constraints). Each round of its fixpoint
+ * costs one allDiff filtering plus O(n + e) time for n nodes and e arcs.
+ *
+ * .. Algorithm::
+ *    The following rules are applied until a fixpoint is reached:
+ *    - the successors must be nodes (and not the node itself for circuit);
+ *    - the successors must all be different (arc consistency of allDiff,
+ *      by matching);
+ *    - each arc of the tour lies on a cycle of the successor graph: the arcs
+ *      joining two strongly connected components are removed, and all the
+ *      nodes which must be visited must lie in the same component;
+ *    - the last node of a chain of fixed successors may not go back to the
+ *      first one when that would close a premature sub-tour.
+ *
+ * .. Note::
+ *    Since all the rules are monotonic, the result of this filter does not
+ *    depend on the order in which the domains were restricted. It can thus
+ *    be used incrementally (eg. through a `StatefulFilterAdapter`): filtering
+ *    a restriction of some filtered state yields the same result as
+ *    filtering the restriction of the original state.
+ *
+ * @see CircuitChecker
+ */
+public final class CircuitConsistency implements Filter {
+    /** The allDiff filter enforcing that the successors are all different. */
+    private static final Filter ALL_DIFF = new AllDiffArcConsistency();
+
+    /** True for subcircuit, false for circuit. */
+    private final boolean sub;
+
+    /**
+     * Creates a new filter.
+     *
+     * @param circuit the circuit (or subcircuit) constraint to filter
+     */
+    public CircuitConsistency(final CircuitChecker circuit) {
+        this.sub = circuit.isSubcircuit();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PartialAssignment filter(final PartialAssignment partial) {
+        final int n = partial.size();
+        if (partial.isError()) {
+            return PartialAssignment.error(n);
+        }
+
+        PartialAssignment current = partial;
+        while (true) {
+            final List<Domain> domains = successorDomains(current);
+            if (domains == null) {
+                return PartialAssignment.error(n);
+            }
+
+            final PartialAssignment distinct =
+                    ALL_DIFF.filter(PartialAssignment.from(domains));
+            if (distinct.isError()) {
+                return distinct;
+            }
+
+            final List<Domain> filtered = new ArrayList<>(distinct);
+            if (!cutBetweenComponents(filtered) || !eliminateSubTours(filtered)) {
+                return PartialAssignment.error(n);
+            }
+
+            final PartialAssignment next = PartialAssignment.from(filtered);
+            if (next.equals(current)) {
+                return next;
+            }
+            current = next;
+        }
+    }
+
+    /**
+     * @param partial some partial assignment
+     * @return the domains where all the values which are not valid successors
+     * have been removed (null when some domain becomes empty)
+     */
+    private List<Domain> successorDomains(final PartialAssignment partial) {
+        final int n = partial.size();
+        final List<Domain> domains = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Domain dom = Domain.restrict(partial.get(i), Operator.GE, 0);
+            dom = Domain.restrict(dom, Operator.LT, n);
+            if (!sub && n > 1) {
+                dom = Domain.restrict(dom, Operator.NE, i);
+            }
+            if (dom.isEmpty()) {
+                return null;
+            }
+            domains.add(dom);
+        }
+        return domains;
+    }
+
+    /**
+     * Removes the arcs joining two strongly connected components of the
+     * successor graph.
+     *
+     * @param domains the successor domains (updated in place)
+     * @return false iff the nodes which must be visited are not all in the
+     * same component
+     */
+    private boolean cutBetweenComponents(final List<Domain> domains) {
+        final int n = domains.size();
+        final int[] component = StronglyConnectedComponents.of(n,
+                i -> domains.get(i).stream().mapToInt(Integer::intValue).toArray());
+
+        int tour = -1;
+        for (int i = 0; i < n; i++) {
+            final Domain dom = domains.get(i);
+            if (mustBeVisited(i, dom)) {
+                if (tour >= 0 && component[i] != tour) {
+                    return false;
+                }
+                tour = component[i];
+            }
+
+            final List<Integer> kept = new ArrayList<>(dom.size());
+            for (int v : dom) {
+                if (component[v] == component[i]) {
+                    kept.add(v);
+                }
+            }
+            if (kept.isEmpty()) {
+                return false;
+            }
+            if (kept.size() != dom.size()) {
+                domains.set(i, Domain.from(kept));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Forbids the arcs which would close a premature sub-tour.
+     *
+     * @param domains the successor domains (updated in place)
+     * @return false iff the fixed successors already close a premature
+     * sub-tour
+     */
+    private boolean eliminateSubTours(final List<Domain> domains) {
+        final int n = domains.size();
+        final int[] succ = new int[n];
+        final int[] pred = new int[n];
+        Arrays.fill(pred, -1);
+
+        int mandatory = 0;
+        for (int i = 0; i < n; i++) {
+            final Domain dom = domains.get(i);
+            succ[i] = dom.isFixed() ? dom.minimum() : -1;
+            if (succ[i] >= 0 && succ[i] != i) {
+                pred[succ[i]] = i;
+            }
+            if (mustBeVisited(i, dom)) {
+                mandatory++;
+            }
+        }
+
+        final boolean[] inChain = new boolean[n];
+        for (int s = 0; s < n; s++) {
+            if (pred[s] >= 0 || succ[s] == s) {
+                continue;
+            }
+
+            // follow the chain of fixed successors starting at s
+            int end       = s;
+            int length    = 1;
+            int visited   = mustBeVisited(s, domains.get(s)) ? 1 : 0;
+            inChain[s] = true;
+            while (succ[end] >= 0) {
+                end = succ[end];
+                inChain[end] = true;
+                visited += mustBeVisited(end, domains.get(end)) ? 1 : 0;
+                length++;
+            }
+            if (end == s) {
+                continue;
+            }
+
+            final boolean premature = sub
+                    ? visited < mandatory
+                    : length < n;
+            if (premature && domains.get(end).contains(s)) {
+                final Domain dom = Domain.restrict(domains.get(end), Operator.NE, s);
+                if (dom.isEmpty()) {
+                    return false;
+                }
+                domains.set(end, dom);
+            }
+        }
+
+        // the fixed successors that were not reached form closed cycles
+        for (int i = 0; i < n; i++) {
+            if (inChain[i] || succ[i] < 0 || succ[i] == i) {
+                continue;
+            }
+            int length = 0;
+            int cur    = i;
+            do {
+                inChain[cur] = true;
+                cur = succ[cur];
+                length++;
+            } while (cur != i);
+
+            if (length == n) {
+                return true;
+            }
+            if (!sub) {
+                return false;
+            }
+            // every node outside of the sub-tour must be left out
+            for (int k = 0; k < n; k++) {
+                if (inChain[k]) {
+                    continue;
+                }
+                if (!domains.get(k).contains(k)) {
+                    return false;
+                }
+                domains.set(k, Domain.singleton(k));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param node some node
+     * @param dom the successor domain of that node
+     * @return true iff the node is necessarily part of the tour
+     */
+    private boolean mustBeVisited(final int node, final Domain dom) {
+        return !sub || !dom.contains(node);
+    }
+}
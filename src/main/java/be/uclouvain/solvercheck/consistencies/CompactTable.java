@@ -0,0 +1,240 @@
+package be.uclouvain.solvercheck.consistencies;
+
+import be.uclouvain.solvercheck.core.data.Assignment;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Checker;
+import be.uclouvain.solvercheck.core.task.PartialChecker;
+import be.uclouvain.solvercheck.utils.collections.CartesianProduct;
+import be.uclouvain.solvercheck.utils.collections.ReversibleSparseBitSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A compact table is the compiled form of the solutions of some `Checker`
+ * over some root partial assignment. The satisfying tuples are enumerated
+ * once (at compilation time) and, for each (variable, value) pair, the set of
+ * tuples assigning that value to the variable is stored as a bitset: the
+ * support of the value.
+ *
+ * Once compiled, the table can be used to make any partial assignment
+ * *covered* by the root (that is, any partial assignment whose domains are
+ * subsets of the root domains) arc consistent with a handful of bitwise
+ * operations. No enumeration of the cartesian product is required.
+ *
+ * .. Note::
+ *    The current table (the set of tuples which are still valid given some
+ *    partial assignment) is represented by a `ReversibleSparseBitSet`. This
+ *    means that it can either be computed from scratch (stateless filtering)
+ *    or maintained incrementally along a dive in the search tree.
+ *
+ * @see ReversibleSparseBitSet
+ */
+public final class CompactTable {
+    /** The root domains over which this table has been compiled. */
+    private final PartialAssignment root;
+    /** The values of the root domains (in increasing order) per variable. */
+    private final int[][] values;
+    /** The supports of each value: supports[var][pos] is a bitset. */
+    private final long[][][] supports;
+    /** The index of the last word where some support was found. */
+    private final int[][] residues;
+    /** The number of tuples in the table. */
+    private final int nbTuples;
+
+    /**
+     * Creates a new table from the given tuples.
+     *
+     * @param root the root domains over which this table is compiled
+     * @param tuples the satisfying tuples of the constraint
+     */
+    private CompactTable(final PartialAssignment root, final List<int[]> tuples) {
+        final int arity = root.size();
+
+        this.root     = root;
+        this.nbTuples = tuples.size();
+        this.values   = new int[arity][];
+        this.supports = new long[arity][][];
+        this.residues = new int[arity][];
+
+        final int nbWords = ReversibleSparseBitSet.nbWords(nbTuples);
+        for (int var = 0; var < arity; var++) {
+            values[var]   = root.get(var).increasingStream()
+                                .mapToInt(Integer::intValue).toArray();
+            supports[var] = new long[values[var].length][nbWords];
+            residues[var] = new int[values[var].length];
+            Arrays.fill(residues[var], -1);
+        }
+
+        for (int t = 0; t < nbTuples; t++) {
+            final int[] tuple = tuples.get(t);
+            for (int var = 0; var < arity; var++) {
+                final int pos = Arrays.binarySearch(values[var], tuple[var]);
+                supports[var][pos][t / Long.SIZE] |= 1L << (t % Long.SIZE);
+            }
+        }
+    }
+
+    /**
+     * Enumerates all the solutions of the given checker over the given root
+     * domains and compiles them into a compact table.
+     *
+     * .. Note::
+     *    When the checker is a `PartialChecker`, the solutions are enumerated
+     *    with a pruned depth-first search (see SupportSearch) rather than by
+     *    brute-forcing the cartesian product of the domains.
+     *
+     * @param checker the checker whose solutions are compiled
+     * @param root the root domains over which the solutions are enumerated
+     * @return a compact table comprising all the solutions of `checker` in
+     * the cartesian product of the `root` domains.
+     */
+    public static CompactTable compile(
+            final Checker checker,
+            final PartialAssignment root) {
+
+        final List<int[]> tuples = new ArrayList<>();
+
+        if (checker instanceof PartialChecker) {
+            new SupportSearch((PartialChecker) checker)
+                    .forEachSolution(root, tuples::add);
+        } else {
+            for (List<Integer> tuple : CartesianProduct.of(root)) {
+                if (checker.test(Assignment.from(tuple))) {
+                    tuples.add(tuple.stream().mapToInt(x -> x).toArray());
+                }
+            }
+        }
+
+        return new CompactTable(root, tuples);
+    }
+
+    /** @return the root domains over which this table was compiled. */
+    public PartialAssignment root() {
+        return root;
+    }
+
+    /** @return the number of tuples (solutions) in this table. */
+    public int size() {
+        return nbTuples;
+    }
+
+    /**
+     * Tells whether this table is able to filter the given partial
+     * assignment. It is the case iff the partial assignment has the same
+     * arity as the root and all of its domains are subsets of those of the
+     * root.
+     *
+     * @param partial the partial assignment that needs to be filtered
+     * @return true iff the given partial assignment is covered by the root
+     */
+    public boolean covers(final List<Domain> partial) {
+        return ConsistencyUtil.covers(root, partial);
+    }
+
+    /** @return a new current table initially comprising all the tuples. */
+    public ReversibleSparseBitSet newCurrentTable() {
+        return new ReversibleSparseBitSet(nbTuples);
+    }
+
+    /**
+     * Removes from the current table all the tuples that are invalidated by
+     * the given domain of `variable`.
+     *
+     * @param table the current table to update
+     * @param variable the variable whose domain has been restricted
+     * @param domain the new domain of the variable (must be covered by the
+     *               root domain of `variable`)
+     * @return true iff some tuple was removed from the current table
+     */
+    public boolean restrict(
+            final ReversibleSparseBitSet table,
+            final int variable,
+            final Domain domain) {
+
+        if (domain.size() == values[variable].length) {
+            return false;
+        }
+
+        table.clearMask();
+        for (int value : domain) {
+            final int pos = Arrays.binarySearch(values[variable], value);
+            table.addToMask(supports[variable][pos]);
+        }
+        return table.intersectWithMask();
+    }
+
+    /**
+     * Filters the domain of some variable so that it only retains the values
+     * having a support in the current table.
+     *
+     * @param table the current table
+     * @param variable the variable whose domain is to be filtered
+     * @param domain the current domain of `variable`
+     * @return the values of `domain` having some support in the current table.
+     */
+    public Domain supported(
+            final ReversibleSparseBitSet table,
+            final int variable,
+            final Domain domain) {
+
+        final int[] kept = new int[domain.size()];
+        int size = 0;
+        for (int value : domain) {
+            final int pos = Arrays.binarySearch(values[variable], value);
+            final int res = table.intersectIndex(
+                    supports[variable][pos],
+                    residues[variable][pos]);
+
+            if (res >= 0) {
+                residues[variable][pos] = res;
+                kept[size++] = value;
+            }
+        }
+
+        if (size == domain.size()) {
+            return domain;
+        }
+        return Domain.from(Arrays.copyOf(kept, size));
+    }
+
+    /**
+     * Makes the given partial assignment arc consistent.
+     *
+     * @param partial the partial assignment to filter. It must be covered
+     *                by the root of this table.
+     * @return the arc consistent version of the given partial assignment
+     */
+    public PartialAssignment filter(final PartialAssignment partial) {
+        final ReversibleSparseBitSet table = newCurrentTable();
+        for (int var = 0; var < partial.size(); var++) {
+            restrict(table, var, partial.get(var));
+        }
+        return filter(table, partial);
+    }
+
+    /**
+     * Computes the arc consistent version of the given domains, assuming that
+     * the given current table has been restricted to them.
+     *
+     * @param table the current table (restricted to `domains`)
+     * @param domains the domains to filter
+     * @return the arc consistent version of the given partial assignment
+     */
+    public PartialAssignment filter(
+            final ReversibleSparseBitSet table,
+            final List<Domain> domains) {
+
+        if (table.isEmpty()) {
+            return PartialAssignment.error(domains.size());
+        }
+
+        final List<Domain> filtered = new ArrayList<>(domains.size());
+        for (int var = 0; var < domains.size(); var++) {
+            filtered.add(supported(table, var, domains.get(var)));
+        }
+        return PartialAssignment.from(filtered);
+    }
+}
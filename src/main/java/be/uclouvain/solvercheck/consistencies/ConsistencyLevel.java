@@ -0,0 +1,21 @@
+package be.uclouvain.solvercheck.consistencies;
+
+/**
+ * This enumeration describes the consistency levels that can be computed by
+ * the `ConsistencyOracle` (from the weakest to the strongest one, even though
+ * these levels are only partially ordered).
+ *
+ * @see ConsistencyOracle
+ */
+public enum ConsistencyLevel {
+    /** Forward checking (see ForwardChecking). */
+    FORWARD_CHECKING,
+    /** Bound(Z) consistency (see BoundZConsistency). */
+    BOUND_Z,
+    /** Bound(D) consistency (see BoundDConsistency). */
+    BOUND_D,
+    /** Range consistency (see RangeConsistency). */
+    RANGE,
+    /** Generalized arc consistency (see ArcConsitency). */
+    ARC
+}
@@ -0,0 +1,358 @@
+package be.uclouvain.solvercheck.consistencies;
+
+import be.uclouvain.solvercheck.core.data.Assignment;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Checker;
+import be.uclouvain.solvercheck.core.task.Filter;
+import be.uclouvain.solvercheck.core.task.PartialChecker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static be.uclouvain.solvercheck.consistencies.ConsistencyUtil.boundDomains;
+import static be.uclouvain.solvercheck.consistencies.ConsistencyUtil.shrinkBounds;
+
+/**
+ * This class computes several consistency levels of one same checker at
+ * once. All the solutions of the checker lying in the bound support of the
+ * given partial assignment (that is, in the cartesian product of the ranges
+ * spanned by its domains) are enumerated once. Since the supports of all the
+ * levels (FC, Bound(Z), Bound(D), range and arc) are subsets of that bound
+ * support, all of these levels can then be computed from the enumerated
+ * solutions only, without ever calling the checker again.
+ *
+ * .. Shared Cache::
+ *    The filters returned by `level()` share the enumeration of the last
+ *    partial assignment they were given. Hence, comparing a propagator
+ *    against several consistency levels (e.g. checking that it is stronger
+ *    than Bound(Z) and weaker than arc consistency) costs roughly the same as
+ *    comparing it against one single level.
+ *
+ * .. Note::
+ *    When the given checker is a `PartialChecker`, the bound supports are
+ *    enumerated depth-first (see SupportSearch).
+ *
+ * @see ConsistencyLevel
+ */
+public final class ConsistencyOracle {
+    /** The checker whose consistency levels are computed. */
+    private final Checker checker;
+    /** The enumeration of the last partial assignment (may be null). */
+    private volatile Enumeration last;
+
+    /**
+     * Creates a new oracle for the given checker.
+     *
+     * @param checker the checker whose consistency levels are computed
+     */
+    public ConsistencyOracle(final Checker checker) {
+        this.checker = checker;
+        this.last    = null;
+    }
+
+    /**
+     * Returns a filter enforcing the given consistency level. All the filters
+     * obtained from this oracle share the enumeration of the last partial
+     * assignment they were given.
+     *
+     * @param level the desired consistency level
+     * @return a filter enforcing the given level of consistency
+     */
+    public Filter level(final ConsistencyLevel level) {
+        return partial -> enumerationOf(partial).result(level);
+    }
+
+    /**
+     * Computes the given consistency levels of the given partial assignment.
+     *
+     * @param partial the partial assignment to filter
+     * @param levels the levels to compute. All the levels are computed when
+     *               none is given.
+     * @return a map associating each of the requested levels to the filtered
+     * version of the given partial assignment.
+     */
+    public Map<ConsistencyLevel, PartialAssignment> filter(
+            final PartialAssignment partial,
+            final ConsistencyLevel... levels) {
+
+        final Enumeration enumeration = enumerationOf(partial);
+        final ConsistencyLevel[] requested = levels.length == 0
+                ? ConsistencyLevel.values() : levels;
+
+        final Map<ConsistencyLevel, PartialAssignment> result =
+                new EnumMap<>(ConsistencyLevel.class);
+        for (ConsistencyLevel level : requested) {
+            result.put(level, enumeration.result(level));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the enumeration of the bound supports of the given partial
+     * assignment (the last one is reused whenever possible).
+     *
+     * @param partial the partial assignment whose supports are enumerated
+     * @return the enumeration of the bound supports of `partial`
+     */
+    private Enumeration enumerationOf(final PartialAssignment partial) {
+        Enumeration current = last;
+        if (current == null || !current.partial.equals(partial)) {
+            current = new Enumeration(partial);
+            last    = current;
+        }
+        return current;
+    }
+
+    /**
+     * The solutions lying in the bound support of some partial assignment,
+     * and the consistency levels computed from them.
+     */
+    private final class Enumeration {
+        /** The partial assignment whose bound supports were enumerated. */
+        private final PartialAssignment partial;
+        /** The solutions of the checker in the bound support of `partial`. */
+        private final List<int[]> solutions;
+        /** The levels which have been computed so far. */
+        private final Map<ConsistencyLevel, PartialAssignment> results;
+
+        /**
+         * Enumerates the solutions in the bound support of the given partial
+         * assignment.
+         *
+         * @param partial the partial assignment whose supports are enumerated
+         */
+        Enumeration(final PartialAssignment partial) {
+            this.partial   = partial;
+            this.solutions = new ArrayList<>();
+            this.results   = new EnumMap<>(ConsistencyLevel.class);
+
+            if (!partial.isError()) {
+                enumerate();
+            }
+        }
+
+        /**
+         * @param level some consistency level
+         * @return the given level of consistency of the partial assignment
+         */
+        synchronized PartialAssignment result(final ConsistencyLevel level) {
+            return results.computeIfAbsent(level, this::compute);
+        }
+
+        /** Enumerates the solutions lying in the bound support. */
+        private void enumerate() {
+            final List<Domain> ranges = boundDomains(partial);
+
+            if (checker instanceof PartialChecker) {
+                new SupportSearch((PartialChecker) checker)
+                        .forEachSolution(ranges, solutions::add);
+                return;
+            }
+
+            final int   arity = ranges.size();
+            final int[] lb    = new int[arity];
+            final int[] ub    = new int[arity];
+            for (int var = 0; var < arity; var++) {
+                lb[var] = ranges.get(var).minimum();
+                ub[var] = ranges.get(var).maximum();
+            }
+
+            final int[] tuple = Arrays.copyOf(lb, arity);
+            while (true) {
+                if (checker.test(Assignment.from(tuple))) {
+                    solutions.add(tuple.clone());
+                }
+
+                int var = arity - 1;
+                while (var >= 0 && tuple[var] == ub[var]) {
+                    tuple[var] = lb[var];
+                    var--;
+                }
+                if (var < 0) {
+                    return;
+                }
+                tuple[var]++;
+            }
+        }
+
+        /**
+         * Computes the given level of consistency.
+         *
+         * @param level some consistency level
+         * @return the given level of consistency of the partial assignment
+         */
+        private PartialAssignment compute(final ConsistencyLevel level) {
+            switch (level) {
+                case FORWARD_CHECKING:
+                    return forwardChecking();
+                case BOUND_Z:
+                    return bounds(true);
+                case BOUND_D:
+                    return bounds(false);
+                case RANGE:
+                    return range();
+                case ARC:
+                    return arc(partial);
+                default:
+                    throw new RuntimeException("This should be unreachable");
+            }
+        }
+
+        /** @return the forward checking version of the partial assignment. */
+        private PartialAssignment forwardChecking() {
+            final long nbUnassigned =
+                    partial.stream().filter(d -> d.size() > 1).count();
+
+            if (nbUnassigned > 1) {
+                return partial;
+            }
+            return arc(partial);
+        }
+
+        /**
+         * @param domains some domains covered by the partial assignment
+         * @return the arc consistent version of the given domains
+         */
+        private PartialAssignment arc(final List<Domain> domains) {
+            if (domains.stream().anyMatch(Domain::isEmpty)) {
+                return PartialAssignment.error(domains.size());
+            }
+            return finish(supported(domains, false));
+        }
+
+        /** @return the range consistent version of the partial assignment. */
+        private PartialAssignment range() {
+            if (partial.isError()) {
+                return PartialAssignment.error(partial.size());
+            }
+
+            List<Domain> domains = partial;
+            while (true) {
+                final List<Domain> reduced = supported(domains, true);
+                if (reduced.stream().anyMatch(Domain::isEmpty)) {
+                    return PartialAssignment.error(partial.size());
+                }
+                if (reduced.equals(domains)) {
+                    return PartialAssignment.from(reduced);
+                }
+                domains = reduced;
+            }
+        }
+
+        /**
+         * Computes the Bound(Z) or Bound(D) consistent version of the partial
+         * assignment.
+         *
+         * @param relaxed true iff the supports are looked for in the bound
+         *                support (Bound(Z)) rather than in the plain one.
+         * @return the bound consistent version of the partial assignment.
+         */
+        private PartialAssignment bounds(final boolean relaxed) {
+            if (partial.isError()) {
+                return PartialAssignment.error(partial.size());
+            }
+
+            final List<Domain> domains = new ArrayList<>(partial);
+            boolean fixpoint = false;
+            while (!fixpoint) {
+                fixpoint = true;
+
+                final List<Domain> supported = supported(domains, relaxed);
+                for (int var = 0; var < domains.size(); var++) {
+                    final Domain support = supported.get(var);
+                    final Domain reduced =
+                            shrinkBounds(domains.get(var), support::contains);
+
+                    if (reduced.isEmpty()) {
+                        return PartialAssignment.error(partial.size());
+                    }
+                    if (reduced.size() != domains.get(var).size()) {
+                        domains.set(var, reduced);
+                        fixpoint = false;
+                    }
+                }
+            }
+            return PartialAssignment.from(domains);
+        }
+
+        /**
+         * Computes the values of the given domains having a support among
+         * the enumerated solutions.
+         *
+         * @param domains some domains covered by the partial assignment
+         * @param relaxed true iff the supports are looked for in the bound
+         *                support of the domains rather than in the plain one
+         * @return a list where the ith domain comprises the values of the ith
+         * given domain having a (bound) support.
+         */
+        private List<Domain> supported(
+                final List<Domain> domains,
+                final boolean relaxed) {
+
+            final int arity = domains.size();
+            final List<Set<Integer>> values = new ArrayList<>(arity);
+            for (int var = 0; var < arity; var++) {
+                values.add(new HashSet<>());
+            }
+
+            for (int[] solution : solutions) {
+                if (isCandidate(solution, domains, relaxed)) {
+                    for (int var = 0; var < arity; var++) {
+                        if (domains.get(var).contains(solution[var])) {
+                            values.get(var).add(solution[var]);
+                        }
+                    }
+                }
+            }
+
+            final List<Domain> result = new ArrayList<>(arity);
+            for (Set<Integer> value : values) {
+                result.add(Domain.from(value));
+            }
+            return result;
+        }
+
+        /**
+         * @param solution one of the enumerated solutions
+         * @param domains some domains covered by the partial assignment
+         * @param relaxed true iff the bound support is considered
+         * @return true iff the given solution belongs to the (bound) support
+         * of the given domains.
+         */
+        private boolean isCandidate(
+                final int[] solution,
+                final List<Domain> domains,
+                final boolean relaxed) {
+
+            for (int var = 0; var < solution.length; var++) {
+                final Domain dom = domains.get(var);
+                final boolean ok = relaxed
+                        ? dom.minimum() <= solution[var]
+                          && solution[var] <= dom.maximum()
+                        : dom.contains(solution[var]);
+                if (!ok) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @param domains the supported domains
+         * @return a partial assignment holding the given domains, or an error
+         * when one of them is empty.
+         */
+        private PartialAssignment finish(final List<Domain> domains) {
+            if (domains.stream().anyMatch(Domain::isEmpty)) {
+                return PartialAssignment.error(domains.size());
+            }
+            return PartialAssignment.from(domains);
+        }
+    }
+}
@@ -3,12 +3,17 @@ package be.uclouvain.solvercheck.consistencies;
 import be.uclouvain.solvercheck.core.data.Assignment;
 import be.uclouvain.solvercheck.core.data.Domain;
 import be.uclouvain.solvercheck.core.task.Checker;
+import be.uclouvain.solvercheck.core.task.CheckerTraits;
+import be.uclouvain.solvercheck.core.task.PartialChecker;
 import be.uclouvain.solvercheck.utils.collections.CartesianProduct;
 import be.uclouvain.solvercheck.utils.collections.Range;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.function.IntPredicate;
 import java.util.stream.Collectors;
 
 /**
@@ -51,6 +56,90 @@ public final class ConsistencyUtil {
         );
     }
 
+    /**
+     * @param domains the domains whose holes must be filled
+     * @return a list of domains where each of the given `domains` has been
+     * replaced by the range spanning from its minimum to its maximum. The
+     * cartesian product of the returned domains is the bound support of
+     * the given `domains`.
+     */
+    public static List<Domain> boundDomains(final List<Domain> domains) {
+        return domains.stream()
+                .map(dom -> Domain.from(Range.between(
+                        (long) dom.minimum(),
+                        (long) dom.maximum() + 1)))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Collapses the domain of each monotone variable (other than `var`) onto
+     * the bound which is the most favorable to the constraint: the maximum
+     * of the variables whose solutions are preserved when they increase and
+     * the minimum of those whose solutions are preserved when they decrease.
+     * Some value of `var` has a support in the given domains iff it has one
+     * in the returned domains. Hence, when all the other variables are
+     * monotone, one single corner tuple needs to be checked.
+     *
+     * @param traits the traits of some checker
+     * @param domains the domains where the supports are looked for
+     * @param var the variable whose values are being supported
+     * @return the domains where the monotone variables are collapsed onto
+     * their most favorable bound (`domains` itself when there is none)
+     */
+    public static List<Domain> monotoneCorner(
+            final CheckerTraits traits,
+            final List<Domain> domains,
+            final int var) {
+
+        List<Domain> corner = domains;
+        for (int other = 0; other < domains.size(); other++) {
+            final Domain dom = domains.get(other);
+            if (other == var || dom.isEmpty() || dom.isFixed()) {
+                continue;
+            }
+            final int bound;
+            switch (traits.monotonicity(other)) {
+                case INCREASING:
+                    bound = dom.maximum();
+                    break;
+                case DECREASING:
+                    bound = dom.minimum();
+                    break;
+                default:
+                    continue;
+            }
+            if (corner == domains) {
+                corner = new ArrayList<>(domains);
+            }
+            corner.set(other, Domain.singleton(bound));
+        }
+        return corner;
+    }
+
+    /**
+     * Tells whether some partial assignment is covered by some root. It is
+     * the case iff both have the same arity and all the domains of the
+     * partial assignment are subsets of the corresponding root domains.
+     *
+     * @param root the root domains
+     * @param partial the domains that may (or not) be covered by the root
+     * @return true iff `partial` is covered by `root`
+     */
+    public static boolean covers(
+            final List<Domain> root,
+            final List<Domain> partial) {
+
+        if (partial.size() != root.size()) {
+            return false;
+        }
+        for (int var = 0; var < partial.size(); var++) {
+            if (!root.get(var).containsAll(partial.get(var))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * This method produces a new domain corresponding to the domain `dom`
      * filtered to only contain values between bounds having some support in
@@ -71,25 +160,145 @@ public final class ConsistencyUtil {
             final Checker checker,
             final Collection<List<Integer>> context) {
 
-        // crop falsifying lower bounds
-        Domain withCorrectLB = dom.increasingStream()
-                .dropWhile(value ->
-                        !exists(context)
-                            .satisfying(checker)
-                            .forVariable(var)
-                            .assignedTo(value)
-                ).collect(Domain.collector());
-
-        // crop falsifying upper bounds
-        Domain withCorrectUB = withCorrectLB.decreasingStream()
-                .dropWhile(value ->
-                        !exists(context)
-                            .satisfying(checker)
-                            .forVariable(var)
-                            .assignedTo(value)
-                ).collect(Domain.collector());
-
-        return withCorrectUB;
+        return shrinkBounds(dom, value ->
+                exists(context)
+                    .satisfying(checker)
+                    .forVariable(var)
+                    .assignedTo(value));
+    }
+
+    /**
+     * This method produces a new domain corresponding to the domain `dom`
+     * filtered to only contain values between bounds for which the given
+     * `hasSupport` predicate holds.
+     *
+     * .. Note::
+     *    The lower and upper bounds are probed alternately, and the probing
+     *    stops as soon as both bounds have a support. The predicate is thus
+     *    only called for the values that end up being removed plus the two
+     *    final bounds (a singleton being probed only once). No intermediate
+     *    domain is ever built: the result is either `dom` itself (when
+     *    nothing is pruned) or one slice of its values.
+     *
+     * @param dom the domain to filter
+     * @param hasSupport a predicate telling whether some value of `dom` has
+     *                   a support (whatever that means in the context of the
+     *                   caller)
+     * @return a new domain corresponding to the domain `dom` filtered to only
+     * contain values between bounds having some support.
+     */
+    public static Domain shrinkBounds(
+            final Domain dom,
+            final IntPredicate hasSupport) {
+
+        if (dom.isEmpty()) {
+            return dom;
+        }
+
+        final int[] values = dom.increasingStream()
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        int     lo   = 0;
+        int     hi   = values.length - 1;
+        boolean loOk = false;
+        boolean hiOk = false;
+
+        // a bound known to be supported is never probed twice: when both
+        // bounds meet, the support of one is also that of the other.
+        while (lo <= hi && !(loOk && hiOk)) {
+            if (!loOk) {
+                if (hiOk && lo == hi) {
+                    loOk = true;
+                } else if (hasSupport.test(values[lo])) {
+                    loOk = true;
+                } else {
+                    lo++;
+                }
+            }
+            if (!hiOk && lo <= hi) {
+                if (loOk && lo == hi) {
+                    hiOk = true;
+                } else if (hasSupport.test(values[hi])) {
+                    hiOk = true;
+                } else {
+                    hi--;
+                }
+            }
+        }
+
+        if (lo > hi) {
+            return Domain.emptyDomain();
+        }
+        if (lo == 0 && hi == values.length - 1) {
+            return dom;
+        }
+        return Domain.from(Arrays.copyOfRange(values, lo, hi + 1));
+    }
+
+    /**
+     * Tells whether the given value of the given variable has a support in
+     * the given domains. Only the assignments where `var` is assigned to
+     * `value` are enumerated (rather than the complete cartesian product of
+     * the domains).
+     *
+     * @param checker the checker testing the acceptability of some assignment
+     * @param domains the domains in which a support is looked for
+     * @param var the variable whose value must be supported
+     * @param value the value that must be supported
+     * @return true iff there exists an assignment in the cartesian product of
+     * the `domains` where `var` is assigned to `value` and which satisfies
+     * the `checker`.
+     */
+    public static boolean hasSupport(
+            final Checker checker,
+            final List<Domain> domains,
+            final int var,
+            final int value) {
+
+        final List<Domain> fixed = new ArrayList<>(domains);
+        fixed.set(var, Domain.singleton(value));
+
+        return exists(support(fixed))
+                .satisfying(checker)
+                .forVariable(var)
+                .assignedTo(value);
+    }
+
+    /**
+     * Looks for a support of the given value of the given variable in the
+     * given domains. Only the assignments where `var` is assigned to `value`
+     * are enumerated (rather than the complete cartesian product of the
+     * domains). When the checker is a `PartialChecker`, these assignments
+     * are explored depth-first (see SupportSearch).
+     *
+     * @param checker the checker testing the acceptability of some assignment
+     * @param domains the domains in which a support is looked for
+     * @param var the variable whose value must be supported
+     * @param value the value that must be supported
+     * @return an assignment of the cartesian product of the `domains` where
+     * `var` is assigned to `value` and which satisfies the `checker`, or null
+     * when there is no such assignment.
+     */
+    public static int[] findSupport(
+            final Checker checker,
+            final List<Domain> domains,
+            final int var,
+            final int value) {
+
+        if (checker instanceof PartialChecker) {
+            return new SupportSearch((PartialChecker) checker)
+                    .findSupport(domains, var, value);
+        }
+
+        final List<Domain> fixed = new ArrayList<>(domains);
+        fixed.set(var, Domain.singleton(value));
+
+        return support(fixed).stream()
+                .filter(tuple -> checker.test(Assignment.from(tuple)))
+                .findFirst()
+                .map(tuple -> tuple.stream().mapToInt(Integer::intValue).toArray())
+                .orElse(null);
     }
 
     /**
@@ -0,0 +1,365 @@
+package be.uclouvain.solvercheck.consistencies;
+
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Checker;
+import be.uclouvain.solvercheck.core.task.Filter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A constraint network is a conjunction of checkers, each of which bears on
+ * its own subset (scope) of the variables of the partial assignments. The
+ * network enforces the arc consistency of each of its constraints and
+ * propagates them to a common fixpoint (AC-3). This lets an user test a
+ * global constraint against its decomposition without enumerating the
+ * cartesian product of all the variables: only the product of the domains of
+ * one scope is ever enumerated.
+ *
+ * <pre>
+ *     ConstraintNetwork decomposition = network()
+ *         .post(notEqual, 0, 1)
+ *         .post(notEqual, 0, 2)
+ *         .post(notEqual, 1, 2);
+ *
+ *     a(arcConsistent(allDiff())).isStrongerThan(decomposition)
+ * </pre>
+ *
+ * .. Residual Supports::
+ *    Each time a support is found for some value, it is remembered as the
+ *    residual support of every value it comprises (AC-3rm). As long as a
+ *    residual support is still valid (all its values are still present in
+ *    the domains), the support of that value is not looked for again. The
+ *    residual supports are kept between the rounds of one propagation and,
+ *    when the network is made stateful, between the successive states of a
+ *    dive.
+ *
+ * .. Note::
+ *    A network is immutable: `post()` returns a new network comprising one
+ *    more constraint. Hence, networks can safely be shared between threads.
+ *
+ * @see be.uclouvain.solvercheck.stateful.StatefulConstraintNetwork
+ */
+public final class ConstraintNetwork implements Filter {
+    /** The constraints of the network. */
+    private final List<Constraint> constraints;
+
+    /** Creates an empty network (which does not filter anything). */
+    public ConstraintNetwork() {
+        this(Collections.emptyList());
+    }
+
+    /**
+     * Creates a network holding the given constraints.
+     *
+     * @param constraints the constraints of the network
+     */
+    private ConstraintNetwork(final List<Constraint> constraints) {
+        this.constraints = constraints;
+    }
+
+    /**
+     * Returns a new network comprising all the constraints of this one plus
+     * the given checker posted on the given scope.
+     *
+     * @param checker the checker to post. The ith variable of the assignments
+     *                it is given is the ith variable of the scope.
+     * @param scope the (distinct) variables the checker bears on
+     * @return a new network comprising the given constraint
+     */
+    public ConstraintNetwork post(final Checker checker, final int... scope) {
+        if (scope.length == 0) {
+            throw new IllegalArgumentException("The scope may not be empty");
+        }
+        if (Arrays.stream(scope).anyMatch(var -> var < 0)
+                || Arrays.stream(scope).distinct().count() != scope.length) {
+            throw new IllegalArgumentException(
+                    "The scope must comprise distinct variables: "
+                    + Arrays.toString(scope));
+        }
+
+        final List<Constraint> extended = new ArrayList<>(constraints);
+        extended.add(new Constraint(checker, scope.clone()));
+        return new ConstraintNetwork(Collections.unmodifiableList(extended));
+    }
+
+    /** @return the number of constraints in the network. */
+    public int nbConstraints() {
+        return constraints.size();
+    }
+
+    /** @return a fresh (empty) store of residual supports for this network */
+    public Residues newResidues() {
+        return new Residues(constraints.size());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PartialAssignment filter(final PartialAssignment partial) {
+        return propagate(partial, newResidues());
+    }
+
+    /**
+     * Propagates the constraints of the network to a common fixpoint.
+     *
+     * @param partial the partial assignment to filter
+     * @param residues the residual supports to use and maintain
+     * @param changed the variables whose domain changed since `partial` was
+     *                last known to be a fixpoint. Only the constraints
+     *                bearing on these variables are initially queued. All
+     *                constraints are queued when no variable is given.
+     * @return the arc consistent fixpoint of the network
+     */
+    public PartialAssignment propagate(
+            final PartialAssignment partial,
+            final Residues residues,
+            final int... changed) {
+
+        final int arity = partial.size();
+        if (partial.isError()) {
+            return PartialAssignment.error(arity);
+        }
+
+        final List<List<Integer>> watchers = watchers(arity);
+        final List<Domain>        domains  = new ArrayList<>(partial);
+        final ArrayDeque<Integer> queue    = new ArrayDeque<>();
+        final boolean[]           queued   = new boolean[constraints.size()];
+
+        if (changed.length == 0) {
+            for (int c = 0; c < constraints.size(); c++) {
+                queue.add(c);
+                queued[c] = true;
+            }
+        } else {
+            for (int var : changed) {
+                enqueue(watchers.get(var), -1, queue, queued);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            final int c = queue.poll();
+            queued[c] = false;
+
+            final List<Integer> modified =
+                    constraints.get(c).revise(domains, residues.of(c));
+            if (modified == null) {
+                return PartialAssignment.error(arity);
+            }
+            for (int var : modified) {
+                enqueue(watchers.get(var), c, queue, queued);
+            }
+        }
+        return PartialAssignment.from(domains);
+    }
+
+    /**
+     * @param arity the number of variables of the partial assignment
+     * @return a list where the ith item lists the constraints bearing on the
+     * ith variable.
+     */
+    private List<List<Integer>> watchers(final int arity) {
+        final List<List<Integer>> watchers = new ArrayList<>(arity);
+        for (int var = 0; var < arity; var++) {
+            watchers.add(new ArrayList<>());
+        }
+
+        for (int c = 0; c < constraints.size(); c++) {
+            for (int var : constraints.get(c).scope) {
+                if (var >= arity) {
+                    throw new IllegalArgumentException(String.format(
+                       "Variable %d is out of the partial assignment (size %d)",
+                       var, arity));
+                }
+                watchers.get(var).add(c);
+            }
+        }
+        return watchers;
+    }
+
+    /**
+     * Enqueues the given constraints (unless they already are in the queue).
+     *
+     * @param toQueue the constraints to enqueue
+     * @param except a constraint which must not be enqueued (the one which
+     *               has just been revised)
+     * @param queue the propagation queue
+     * @param queued flags telling which constraints are in the queue
+     */
+    private static void enqueue(
+            final List<Integer> toQueue,
+            final int except,
+            final ArrayDeque<Integer> queue,
+            final boolean[] queued) {
+
+        for (int c : toQueue) {
+            if (c != except && !queued[c]) {
+                queue.add(c);
+                queued[c] = true;
+            }
+        }
+    }
+
+    /**
+     * The residual supports of all the constraints of some network.
+     * Instances of this class are not thread safe: each propagation (or each
+     * stateful filter) must use its own.
+     */
+    public static final class Residues {
+        /**
+         * The residual supports of each constraint. These are indexed by the
+         * position of the variable in the scope and by the value.
+         */
+        private final List<Map<Long, int[]>> residues;
+
+        /**
+         * Creates an empty store.
+         *
+         * @param nbConstraints the number of constraints of the network
+         */
+        private Residues(final int nbConstraints) {
+            this.residues = new ArrayList<>(nbConstraints);
+            for (int c = 0; c < nbConstraints; c++) {
+                residues.add(new HashMap<>());
+            }
+        }
+
+        /**
+         * @param constraint the index of some constraint
+         * @return the residual supports of that constraint
+         */
+        private Map<Long, int[]> of(final int constraint) {
+            return residues.get(constraint);
+        }
+    }
+
+    /** A checker posted on some scope. */
+    private static final class Constraint {
+        /** The checker. */
+        private final Checker checker;
+        /** The variables the checker bears on. */
+        private final int[] scope;
+
+        /**
+         * Creates a new constraint.
+         *
+         * @param checker the checker
+         * @param scope the variables the checker bears on
+         */
+        Constraint(final Checker checker, final int[] scope) {
+            this.checker = checker;
+            this.scope   = scope;
+        }
+
+        /**
+         * Makes this constraint arc consistent.
+         *
+         * @param domains the domains of all the variables (updated in place)
+         * @param residues the residual supports of this constraint
+         * @return the variables whose domain was reduced, or null when some
+         * domain was wiped out.
+         */
+        List<Integer> revise(
+                final List<Domain> domains,
+                final Map<Long, int[]> residues) {
+
+            final List<Domain> local = new ArrayList<>(scope.length);
+            for (int var : scope) {
+                local.add(domains.get(var));
+            }
+
+            final boolean[] modified = new boolean[scope.length];
+            boolean fixpoint = false;
+            while (!fixpoint) {
+                fixpoint = true;
+
+                for (int i = 0; i < scope.length; i++) {
+                    final int    pos = i;
+                    final Domain dom = local.get(i);
+                    final Domain reduced = dom.stream()
+                            .filter(v -> isSupported(local, residues, pos, v))
+                            .collect(Domain.collector());
+
+                    if (reduced.isEmpty()) {
+                        return null;
+                    }
+                    if (reduced.size() != dom.size()) {
+                        local.set(i, reduced);
+                        domains.set(scope[i], reduced);
+                        modified[i] = true;
+                        fixpoint    = false;
+                    }
+                }
+            }
+
+            final List<Integer> result = new ArrayList<>();
+            for (int i = 0; i < scope.length; i++) {
+                if (modified[i]) {
+                    result.add(scope[i]);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Tells whether the given value has a support in the given domains.
+         * The residual support of that value is checked first, and a new
+         * support is looked for only when it is no longer valid.
+         *
+         * @param local the domains of the variables of the scope
+         * @param residues the residual supports of this constraint
+         * @param pos the position of the variable in the scope
+         * @param value the value that must be supported
+         * @return true iff `scope[pos] = value` has a support
+         */
+        private boolean isSupported(
+                final List<Domain> local,
+                final Map<Long, int[]> residues,
+                final int pos,
+                final int value) {
+
+            final int[] residue = residues.get(key(pos, value));
+            if (residue != null && isValid(residue, local)) {
+                return true;
+            }
+
+            final int[] support =
+                    ConsistencyUtil.findSupport(checker, local, pos, value);
+            if (support == null) {
+                return false;
+            }
+            for (int i = 0; i < support.length; i++) {
+                residues.put(key(i, support[i]), support);
+            }
+            return true;
+        }
+
+        /**
+         * @param tuple some tuple over the scope
+         * @param local the domains of the variables of the scope
+         * @return true iff all the values of the tuple are still present
+         */
+        private static boolean isValid(final int[] tuple, final List<Domain> local) {
+            for (int i = 0; i < tuple.length; i++) {
+                if (!local.get(i).contains(tuple[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @param pos the position of a variable in the scope
+         * @param value some value
+         * @return the key of the residual support of `scope[pos] = value`
+         */
+        private static long key(final int pos, final int value) {
+            return ((long) pos << Integer.SIZE) | (value & 0xFFFFFFFFL);
+        }
+    }
+}
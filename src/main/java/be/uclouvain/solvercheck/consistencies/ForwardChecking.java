@@ -6,6 +6,7 @@ import be.uclouvain.solvercheck.core.task.Checker;
 import be.uclouvain.solvercheck.core.task.Filter;
 import be.uclouvain.solvercheck.utils.collections.CartesianProduct;
 
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 /**
@@ -28,6 +29,8 @@ public final class ForwardChecking implements Filter {
      * is satisfied.
      */
     private final Checker checker;
+    /** The pool used to enumerate the supports in parallel (if any). */
+    private final ForkJoinPool pool;
 
     /**
      * Creates a new arc consistent filter from the given checker.
@@ -35,7 +38,22 @@ public final class ForwardChecking implements Filter {
      *                some constraint is satisfied
      */
     public ForwardChecking(final Checker checker) {
+        this(checker, null);
+    }
+
+    /**
+     * Creates a new forward checking filter from the given checker which
+     * enumerates the extensions of the fixed variables in parallel on the
+     * given pool (see ParallelSupport).
+     *
+     * @param checker the checker implementing a test to verify whether or not
+     *                some constraint is satisfied
+     * @param pool the pool on which the extensions are enumerated. A null
+     *             value means the enumeration is sequential.
+     */
+    public ForwardChecking(final Checker checker, final ForkJoinPool pool) {
         this.checker = checker;
+        this.pool    = pool;
     }
 
     /** {@inheritDoc} */
@@ -46,6 +64,8 @@ public final class ForwardChecking implements Filter {
         if (nbUnassigned > 1) {
             // do nothing when there is more than one unassigned variable.
             return partial;
+        } else if (pool != null) {
+            return new ParallelSupport(checker, pool).supports(partial);
         } else {
             // else return all possible extensions of the fixed variables that
             // satisfy the constraint
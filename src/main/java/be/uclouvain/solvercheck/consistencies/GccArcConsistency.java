@@ -0,0 +1,72 @@
+package be.uclouvain.solvercheck.consistencies;
+
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Filter;
+
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * This class implements an arc consistent (GAC) filter dedicated to the
+ * global cardinality constraint with fixed cardinalities. It computes one
+ * feasible flow in the network of the constraint (see GccFlow) and removes
+ * each (variable, value) edge which is neither used by that flow nor inside
+ * some strongly connected component of its residual graph. The flow takes
+ * one augmenting path per variable, each in O(n + e) time for n variables
+ * and e (variable, value) pairs, and the components take O(n + e) more.
+ *
+ * .. Note::
+ *    This filter is equivalent to
+ *    `new ArcConsitency(Checkers.gcc(cardinalities, values))`.
+ *
+ * @see GccVarConsistency
+ */
+public final class GccArcConsistency implements Filter {
+    /** The values whose number of occurrences is constrained. */
+    private final List<Integer> values;
+    /** The number of occurrences of each of the values. */
+    private final int[] cardinalities;
+
+    /**
+     * Creates a new filter.
+     *
+     * @param cardinalities the number of times each value[i] must occur in
+     *                      the solutions
+     * @param values the values whose number of occurrences is constrained
+     */
+    public GccArcConsistency(
+            final List<Integer> cardinalities,
+            final List<Integer> values) {
+
+        if (cardinalities.size() != values.size()) {
+            throw new IllegalArgumentException(
+                    "The number of given cardinalities does not match the "
+                  + "number of given values");
+        }
+        if (new HashSet<>(values).size() != values.size()) {
+            throw new IllegalArgumentException(
+                    "All the values specified in the `values` list must be "
+                  + "different");
+        }
+
+        this.values        = List.copyOf(values);
+        this.cardinalities =
+                cardinalities.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PartialAssignment filter(final PartialAssignment partial) {
+        final int arity = partial.size();
+        if (partial.isError()) {
+            return PartialAssignment.error(arity);
+        }
+
+        final GccFlow flow =
+                new GccFlow(partial, values, cardinalities, cardinalities);
+        if (!flow.isFeasible()) {
+            return PartialAssignment.error(arity);
+        }
+        return PartialAssignment.from(flow.consistentDomains());
+    }
+}
@@ -0,0 +1,367 @@
+package be.uclouvain.solvercheck.consistencies;
+
+import be.uclouvain.solvercheck.core.data.Domain;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * The flow network of a global cardinality constraint. Each variable sends
+ * one unit of flow to one of the values of its domain, and each value `v`
+ * forwards between `lower(v)` and `upper(v)` units of flow to the sink. The
+ * values which are not constrained by the gcc accept any number of units.
+ *
+ * A feasible flow is computed in two phases (Régin, 1996): the lower bounds
+ * are saturated first, then the remaining variables are assigned without
+ * exceeding the upper bounds. Since an augmenting path never decreases the
+ * flow reaching the sink through some value, the lower bounds remain
+ * satisfied during the second phase.
+ *
+ * .. Residual Graph::
+ *    Nodes [0, n) are the variables, nodes [n, n+m) are the values and node
+ *    n+m is the sink. An edge (x, v) belongs to some feasible flow iff it is
+ *    used by the current flow or x and v lie in the same strongly connected
+ *    component of the residual graph.
+ */
+final class GccFlow {
+    /** The number of variables. */
+    private final int n;
+    /** The number of distinct values in the domains of the variables. */
+    private final int m;
+    /** The value (not its index) corresponding to each value index. */
+    private final int[] valueOf;
+    /** The index of each value appearing in some domain. */
+    private final Map<Integer, Integer> index;
+    /** The indices of the values of each variable. */
+    private final int[][] adjVar;
+    /** The variables having each value in their domain. */
+    private final int[][] adjVal;
+    /** The least number of variables which must take each value. */
+    private final int[] lower;
+    /** The largest number of variables which may take each value. */
+    private final int[] upper;
+    /** The value index assigned to each variable (-1 if none). */
+    private final int[] matchVar;
+    /** The number of variables assigned to each value index. */
+    private final int[] count;
+    /** False when some lower bound can obviously not be met. */
+    private boolean feasible;
+
+    /**
+     * Builds the flow network of a gcc and computes a feasible flow.
+     *
+     * @param variables the domains of the variables
+     * @param values the values whose number of occurrences is constrained
+     * @param lowers the least number of occurrences of each of the `values`
+     * @param uppers the largest number of occurrences of each of the `values`
+     */
+    GccFlow(final List<Domain> variables,
+            final List<Integer> values,
+            final int[] lowers,
+            final int[] uppers) {
+
+        this.n        = variables.size();
+        this.index    = new HashMap<>();
+        this.feasible = true;
+
+        final List<Integer> distinct = new ArrayList<>();
+        this.adjVar = new int[n][];
+        for (int x = 0; x < n; x++) {
+            adjVar[x] = new int[variables.get(x).size()];
+            int i = 0;
+            for (int v : variables.get(x)) {
+                Integer idx = index.get(v);
+                if (idx == null) {
+                    idx = distinct.size();
+                    index.put(v, idx);
+                    distinct.add(v);
+                }
+                adjVar[x][i++] = idx;
+            }
+        }
+
+        this.m       = distinct.size();
+        this.valueOf = distinct.stream().mapToInt(Integer::intValue).toArray();
+        this.adjVal  = transpose(adjVar, m);
+
+        this.lower = new int[m];
+        this.upper = new int[m];
+        Arrays.fill(upper, n);
+        for (int i = 0; i < values.size(); i++) {
+            final int lo = Math.max(0, lowers[i]);
+            final int hi = Math.min(n, uppers[i]);
+            if (lo > hi) {
+                feasible = false;
+            }
+
+            final Integer idx = index.get(values.get(i));
+            if (idx == null) {
+                feasible &= lo == 0;
+            } else {
+                lower[idx] = lo;
+                upper[idx] = hi;
+            }
+        }
+
+        this.matchVar = new int[n];
+        this.count    = new int[m];
+        Arrays.fill(matchVar, -1);
+
+        if (feasible) {
+            feasible = computeFlow();
+        }
+    }
+
+    /** @return true iff the gcc admits some solution. */
+    boolean isFeasible() {
+        return feasible;
+    }
+
+    /**
+     * @return the domains where only the edges belonging to some feasible
+     * flow are kept. This is only meaningful when the flow is feasible.
+     */
+    List<Domain> consistentDomains() {
+        final int[] component =
+                StronglyConnectedComponents.of(n + m + 1, this::successors);
+
+        final List<Domain> domains = new ArrayList<>(n);
+        for (int x = 0; x < n; x++) {
+            final List<Integer> kept = new ArrayList<>(adjVar[x].length);
+            for (int v : adjVar[x]) {
+                if (matchVar[x] == v || component[x] == component[n + v]) {
+                    kept.add(valueOf[v]);
+                }
+            }
+            domains.add(Domain.from(kept));
+        }
+        return domains;
+    }
+
+    /**
+     * @param value some value
+     * @return the least number of variables taking that value in a feasible
+     * flow. This is only meaningful when the flow is feasible.
+     */
+    int minCount(final int value) {
+        final Integer v = index.get(value);
+        if (v == null) {
+            return 0;
+        }
+        final int[] savedMatch = matchVar.clone();
+        final int[] savedCount = count.clone();
+
+        while (count[v] > lower[v]
+                && moveOne(w -> w == v, w -> w != v && count[w] < upper[w])) {
+            // one variable was moved away from v
+        }
+        final int result = count[v];
+
+        System.arraycopy(savedMatch, 0, matchVar, 0, n);
+        System.arraycopy(savedCount, 0, count, 0, m);
+        return result;
+    }
+
+    /**
+     * @param value some value
+     * @return the largest number of variables taking that value in a
+     * feasible flow. This is only meaningful when the flow is feasible.
+     */
+    int maxCount(final int value) {
+        final Integer v = index.get(value);
+        if (v == null) {
+            return 0;
+        }
+        final int[] savedMatch = matchVar.clone();
+        final int[] savedCount = count.clone();
+
+        while (count[v] < upper[v]
+                && moveOne(w -> w != v && count[w] > lower[w], w -> w == v)) {
+            // one variable was moved towards v
+        }
+        final int result = count[v];
+
+        System.arraycopy(savedMatch, 0, matchVar, 0, n);
+        System.arraycopy(savedCount, 0, count, 0, m);
+        return result;
+    }
+
+    /**
+     * Computes a feasible flow: the lower bounds are met first, then all the
+     * variables are assigned.
+     *
+     * @return true iff a feasible flow exists
+     */
+    private boolean computeFlow() {
+        for (int x = 0; x < n; x++) {
+            augment(x, lower, new boolean[m]);
+        }
+        for (int v = 0; v < m; v++) {
+            if (count[v] < lower[v]) {
+                return false;
+            }
+        }
+        for (int x = 0; x < n; x++) {
+            if (matchVar[x] < 0 && !augment(x, upper, new boolean[m])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Looks for an augmenting path starting at the given variable.
+     *
+     * @param x some variable
+     * @param capacity the capacity of the edge from each value to the sink
+     * @param seen the values which were already visited
+     * @return true iff the flow was augmented
+     */
+    private boolean augment(final int x, final int[] capacity, final boolean[] seen) {
+        for (int v : adjVar[x]) {
+            if (seen[v] || v == matchVar[x]) {
+                continue;
+            }
+            seen[v] = true;
+            if (count[v] < capacity[v]) {
+                assign(x, v);
+                return true;
+            }
+            for (int y : adjVal[v]) {
+                if (matchVar[y] == v && augment(y, capacity, seen)) {
+                    assign(x, v);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves one unit of flow from some source value to some target value
+     * along an alternating path (the counts of the intermediate values are
+     * left unchanged).
+     *
+     * @param isSource tells whether a value may lose one variable
+     * @param isTarget tells whether a value may gain one variable
+     * @return true iff some unit of flow was moved
+     */
+    private boolean moveOne(final IntPredicate isSource, final IntPredicate isTarget) {
+        final int[] parentVar = new int[m];
+        final int[] parentVal = new int[m];
+        final boolean[] seen  = new boolean[m];
+        Arrays.fill(parentVar, -1);
+
+        final ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int w = 0; w < m; w++) {
+            if (isSource.test(w)) {
+                seen[w] = true;
+                queue.add(w);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            final int u = queue.poll();
+            for (int x : adjVal[u]) {
+                if (matchVar[x] != u) {
+                    continue;
+                }
+                for (int w : adjVar[x]) {
+                    if (seen[w]) {
+                        continue;
+                    }
+                    seen[w]      = true;
+                    parentVar[w] = x;
+                    parentVal[w] = u;
+
+                    if (isTarget.test(w)) {
+                        for (int t = w; parentVar[t] >= 0; t = parentVal[t]) {
+                            assign(parentVar[t], t);
+                        }
+                        return true;
+                    }
+                    queue.add(w);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Assigns the given variable to the given value index.
+     *
+     * @param x some variable
+     * @param v some value index
+     */
+    private void assign(final int x, final int v) {
+        if (matchVar[x] >= 0) {
+            count[matchVar[x]]--;
+        }
+        matchVar[x] = v;
+        count[v]++;
+    }
+
+    /**
+     * @param node some node of the residual graph
+     * @return the successors of that node
+     */
+    private int[] successors(final int node) {
+        final int sink = n + m;
+        final List<Integer> out = new ArrayList<>();
+
+        if (node < n) {
+            for (int v : adjVar[node]) {
+                if (v != matchVar[node]) {
+                    out.add(n + v);
+                }
+            }
+        } else if (node < sink) {
+            final int v = node - n;
+            for (int x : adjVal[v]) {
+                if (matchVar[x] == v) {
+                    out.add(x);
+                }
+            }
+            if (count[v] < upper[v]) {
+                out.add(sink);
+            }
+        } else {
+            for (int v = 0; v < m; v++) {
+                if (count[v] > lower[v]) {
+                    out.add(n + v);
+                }
+            }
+        }
+        return out.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * @param adjVar the value indices of each variable
+     * @param m the number of value indices
+     * @return the variables having each value index in their domain
+     */
+    private static int[][] transpose(final int[][] adjVar, final int m) {
+        final int[] degree = new int[m];
+        for (int[] adj : adjVar) {
+            for (int v : adj) {
+                degree[v]++;
+            }
+        }
+        final int[][] adjVal = new int[m][];
+        for (int v = 0; v < m; v++) {
+            adjVal[v] = new int[degree[v]];
+            degree[v] = 0;
+        }
+        for (int x = 0; x < adjVar.length; x++) {
+            for (int v : adjVar[x]) {
+                adjVal[v][degree[v]++] = x;
+            }
+        }
+        return adjVal;
+    }
+}
@@ -0,0 +1,117 @@
+package be.uclouvain.solvercheck.consistencies;
+
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.Operator;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Filter;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * This class implements a polynomial time filter dedicated to the global
+ * cardinality constraint whose cardinalities are variables. It assumes the
+ * same structure as `Checkers.gccVar(values)`: the cardinalities are the
+ * last |values| variables of the partial assignment.
+ *
+ * .. Algorithm::
+ *    The ranges of the cardinality variables bound the number of
+ *    occurrences of each value in the flow network of the constraint. Then:
+ *    - the plain variables are made arc consistent w.r.t. these ranges
+ *      (same as `GccArcConsistency`);
+ *    - the bounds of each cardinality variable are shrunk to the least and
+ *      largest number of occurrences of its value among the feasible flows.
+ *    This is repeated until a fixpoint is reached.
+ *
+ * .. Note::
+ *    Whenever the domains of the cardinality variables have no hole, this
+ *    filter is equivalent to `new ArcConsitency(Checkers.gccVar(values))`.
+ *    Otherwise, it is weaker than arc consistency (the holes are ignored)
+ *    but stronger than Bound(Z) consistency.
+ *
+ * @see GccArcConsistency
+ */
+public final class GccVarConsistency implements Filter {
+    /** The values whose number of occurrences is constrained. */
+    private final List<Integer> values;
+
+    /**
+     * Creates a new filter.
+     *
+     * @param values the values whose number of occurrences is constrained
+     */
+    public GccVarConsistency(final List<Integer> values) {
+        if (new HashSet<>(values).size() != values.size()) {
+            throw new IllegalArgumentException(
+                    "All the values specified in the `values` list must be "
+                  + "different");
+        }
+        this.values = List.copyOf(values);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PartialAssignment filter(final PartialAssignment partial) {
+        final int arity = partial.size();
+        final int k     = values.size();
+        if (arity < k) {
+            throw new IllegalArgumentException(String.format(
+                "This gcc has %d cardinalities but was given %d variables",
+                k, arity));
+        }
+        if (partial.isError()) {
+            return PartialAssignment.error(arity);
+        }
+
+        final int          n     = arity - k;
+        final List<Domain> vars  = new ArrayList<>(partial.subList(0, n));
+        final List<Domain> cards = new ArrayList<>(partial.subList(n, arity));
+
+        boolean fixpoint = false;
+        while (!fixpoint) {
+            fixpoint = true;
+
+            final int[] lowers = new int[k];
+            final int[] uppers = new int[k];
+            for (int i = 0; i < k; i++) {
+                lowers[i] = cards.get(i).minimum();
+                uppers[i] = cards.get(i).maximum();
+            }
+
+            final GccFlow flow = new GccFlow(vars, values, lowers, uppers);
+            if (!flow.isFeasible()) {
+                return PartialAssignment.error(arity);
+            }
+
+            final List<Domain> filtered = flow.consistentDomains();
+            if (!filtered.equals(vars)) {
+                vars.clear();
+                vars.addAll(filtered);
+                fixpoint = false;
+            }
+
+            // the pruned edges belong to no feasible flow: the numbers of
+            // occurrences can be computed on the original network
+            for (int i = 0; i < k; i++) {
+                final Domain card = cards.get(i);
+                final Domain shrunk = Domain.restrict(
+                        Domain.restrict(card, Operator.GE, flow.minCount(values.get(i))),
+                        Operator.LE,
+                        flow.maxCount(values.get(i)));
+
+                if (shrunk.isEmpty()) {
+                    return PartialAssignment.error(arity);
+                }
+                if (shrunk.size() != card.size()) {
+                    cards.set(i, shrunk);
+                    fixpoint = false;
+                }
+            }
+        }
+
+        final List<Domain> domains = new ArrayList<>(vars);
+        domains.addAll(cards);
+        return PartialAssignment.from(domains);
+    }
+}
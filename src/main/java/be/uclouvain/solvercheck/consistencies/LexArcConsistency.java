@@ -0,0 +1,113 @@
+package be.uclouvain.solvercheck.consistencies;
+
+import be.uclouvain.solvercheck.checkers.LexChecker;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.Operator;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Filter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class implements an arc consistent (GAC) filter for the
+ * lexicographic ordering constraints (lexLess and lexLessEq). It makes one
+ * pass over the vectors, linear in their length (plus the time needed to
+ * intersect the domains of x_i and y_i), and yields the same domains as
+ * `ArcConsitency` over a `LexChecker`.
+ *
+ * .. Algorithm::
+ *    Let `alpha` be the first position where x_i and y_i cannot be equal
+ *    and let `beta` be the first position (not after alpha) where x_i can
+ *    be smaller than y_i: the ordering can only be decided at some position
+ *    in [beta, alpha]. Besides, `suffix[i]` tells whether x[i..] and y[i..]
+ *    can still satisfy the ordering on their own (this is computed from
+ *    right to left in a single pass).
+ *
+ *    - When there is no such beta (and the vectors cannot be equal), the
+ *      constraint is violated.
+ *    - The positions after beta are unconstrained: the ordering can always
+ *      be decided at beta.
+ *    - At any position i <= beta, all the previous positions must be equal.
+ *      Hence x_i must be smaller than y_i, or equal to it when suffix[i+1]
+ *      holds. That is: x_i <= max(y_i) and y_i >= min(x_i), these
+ *      inequalities being strict when suffix[i+1] does not hold.
+ *
+ * .. Note::
+ *    Since the constraint is monotonic in each variable, the values it
+ *    supports always form a prefix (for x) or a suffix (for y) of the
+ *    domains. The holes of the domains are thus left untouched.
+ *
+ * @see LexChecker
+ */
+public final class LexArcConsistency implements Filter {
+    /** The ordering being filtered. */
+    private final LexChecker lex;
+
+    /**
+     * Creates a new filter.
+     *
+     * @param lex the lexicographic ordering to filter
+     */
+    public LexArcConsistency(final LexChecker lex) {
+        this.lex = lex;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PartialAssignment filter(final PartialAssignment partial) {
+        final int arity = partial.size();
+        if (partial.isError()) {
+            return PartialAssignment.error(arity);
+        }
+        lex.checkArity(arity);
+
+        final int n = lex.length();
+
+        // alpha and beta
+        int alpha = n;
+        int beta  = n;
+        for (int i = 0; i < n; i++) {
+            final Domain x = partial.get(i);
+            final Domain y = partial.get(n + i);
+            if (beta == n && x.minimum() < y.maximum()) {
+                beta = i;
+            }
+            if (!LexChecker.canBeEqual(x, y)) {
+                alpha = i;
+                break;
+            }
+        }
+        if (beta == n && (alpha < n || lex.isStrict())) {
+            return PartialAssignment.error(arity);
+        }
+
+        // suffix[i] iff x[i..] can precede y[i..]
+        final boolean[] suffix = new boolean[n + 1];
+        suffix[n] = !lex.isStrict();
+        for (int i = n - 1; i > 0; i--) {
+            final Domain x = partial.get(i);
+            final Domain y = partial.get(n + i);
+            suffix[i] = x.minimum() < y.maximum()
+                    || (suffix[i + 1] && LexChecker.canBeEqual(x, y));
+        }
+
+        final List<Domain> domains = new ArrayList<>(partial);
+        for (int i = 0; i <= beta && i < n; i++) {
+            final boolean orEqual = suffix[i + 1];
+            final Domain  x       = partial.get(i);
+            final Domain  y       = partial.get(n + i);
+
+            final Domain fx = Domain.restrict(x,
+                    orEqual ? Operator.LE : Operator.LT, y.maximum());
+            final Domain fy = Domain.restrict(y,
+                    orEqual ? Operator.GE : Operator.GT, x.minimum());
+            if (fx.isEmpty() || fy.isEmpty()) {
+                return PartialAssignment.error(arity);
+            }
+            domains.set(i, fx);
+            domains.set(n + i, fy);
+        }
+        return PartialAssignment.from(domains);
+    }
+}
@@ -0,0 +1,110 @@
+package be.uclouvain.solvercheck.consistencies;
+
+import be.uclouvain.solvercheck.checkers.MappedTable;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Filter;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This class implements an arc consistent (GAC) filter for a table
+ * constraint whose rows are stored in a memory-mapped file. The rows are
+ * read straight from the mapped buffer: neither the rows nor the cartesian
+ * product of the domains are ever materialized.
+ *
+ * .. Algorithm::
+ *    The values which do not occur in their column are first removed by
+ *    means of the column indexes. Then, since the rows are sorted, the rows
+ *    starting with any given value of the first variable are contiguous: for
+ *    each remaining value of the first variable, only that range of rows is
+ *    scanned. Every row whose values all belong to the domains (which are
+ *    hashed once per call) supports each of its values. The domains are
+ *    eventually restricted to the supported values.
+ *
+ * @see MappedTable
+ */
+public final class MappedTableConsistency implements Filter {
+    /** The mapped table constraint. */
+    private final MappedTable table;
+
+    /**
+     * Creates a new filter.
+     *
+     * @param table the mapped table whose rows are the solutions of the
+     *              constraint
+     */
+    public MappedTableConsistency(final MappedTable table) {
+        this.table = table;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PartialAssignment filter(final PartialAssignment partial) {
+        final int arity = partial.size();
+        if (partial.isError()) {
+            return PartialAssignment.error(arity);
+        }
+        table.checkArity(arity);
+        if (arity == 0) {
+            return table.nbRows() > 0 ? partial : PartialAssignment.error(0);
+        }
+
+        final List<Domain> domains = new ArrayList<>(arity);
+        for (int c = 0; c < arity; c++) {
+            final int column = c;
+            final Domain dom = partial.get(c).stream()
+                    .filter(v -> table.occurs(column, v))
+                    .collect(Domain.collector());
+            if (dom.isEmpty()) {
+                return PartialAssignment.error(arity);
+            }
+            domains.add(dom);
+        }
+
+        final List<Set<Integer>> allowed   = new ArrayList<>(arity);
+        final List<Set<Integer>> supported = new ArrayList<>(arity);
+        for (int c = 0; c < arity; c++) {
+            allowed.add(new HashSet<>(domains.get(c)));
+            supported.add(new HashSet<>());
+        }
+
+        for (int first : domains.get(0)) {
+            final int from = table.firstRow(0, table.nbRows(), 0, first, false);
+            final int to   = table.firstRow(from, table.nbRows(), 0, first, true);
+            for (int row = from; row < to; row++) {
+                if (isValid(row, allowed)) {
+                    for (int c = 0; c < arity; c++) {
+                        supported.get(c).add(table.value(row, c));
+                    }
+                }
+            }
+        }
+
+        final List<Domain> filtered = new ArrayList<>(arity);
+        for (Set<Integer> values : supported) {
+            if (values.isEmpty()) {
+                return PartialAssignment.error(arity);
+            }
+            filtered.add(Domain.from(values));
+        }
+        return PartialAssignment.from(filtered);
+    }
+
+    /**
+     * @param row the index of some row of the table
+     * @param allowed the values of the current domains
+     * @return true iff all the values of that row belong to the domains
+     */
+    private boolean isValid(final int row, final List<Set<Integer>> allowed) {
+        for (int c = 1; c < allowed.size(); c++) {
+            if (!allowed.get(c).contains(table.value(row, c))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
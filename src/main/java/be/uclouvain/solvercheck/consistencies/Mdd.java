@@ -0,0 +1,417 @@
+package be.uclouvain.solvercheck.consistencies;
+
+import be.uclouvain.solvercheck.core.data.Assignment;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Checker;
+import be.uclouvain.solvercheck.core.task.PartialChecker;
+import be.uclouvain.solvercheck.core.task.PartialChecker.PartialCheckResult;
+import be.uclouvain.solvercheck.core.task.PrefixChecker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class implements a reduced multi-valued decision diagram (MDD)
+ * representing the solutions of some `Checker` over some root partial
+ * assignment. The MDD has one layer per variable (in the order of the
+ * variables) and one terminal node. Each path from the root node to the
+ * terminal corresponds to one solution of the checker.
+ *
+ * .. Reduction::
+ *    The diagram is reduced on the fly while it is being compiled: two nodes
+ *    of the same layer having the exact same outgoing arcs are merged. The
+ *    memory footprint of the compiled MDD is thus proportional to the size of
+ *    the reduced MDD rather than to the number of solutions.
+ *
+ * .. Compilation::
+ *    Because a checker is a black box, the compilation has no other choice
+ *    than to explore the prefixes of the solutions depth first. When the
+ *    checker is a `PartialChecker`, the subtrees it rejects are pruned and
+ *    those it accepts are directly mapped onto a (shared) 'all true' node.
+ *    Still, the compilation time of a plain checker is that of enumerating
+ *    the solutions (exponential in the arity): the MDD then only saves
+ *    memory and the cost of filtering its restrictions again.
+ *
+ *    When the checker is a `PrefixChecker`, the sub-diagram rooted at some
+ *    prefix only depends on the layer and on the state of that prefix. It
+ *    is thus built once per (layer, state) pair, so that the compilation
+ *    time is proportional to the number of such pairs times the size of the
+ *    domains (eg. O(n.|Q|.d) for a regular constraint).
+ *
+ * .. Filtering::
+ *    Once compiled, any partial assignment covered by the root can be made
+ *    arc consistent with one forward and one backward reachability pass over
+ *    the diagram.
+ */
+public final class Mdd {
+    /** The identifier of the 'false' terminal node (no outgoing path). */
+    private static final int FALSE = 0;
+    /** The identifier of the 'true' terminal node. */
+    private static final int TRUE  = 1;
+
+    /** The root domains over which this MDD has been compiled. */
+    private final PartialAssignment root;
+    /** The values of the root domains (in increasing order) per variable. */
+    private final int[][] values;
+    /** The outgoing arcs of each node: children[node][pos] is a node id. */
+    private final int[][] children;
+    /** The nodes of each layer. */
+    private final int[][] layers;
+    /** The root node of the diagram. */
+    private final int source;
+
+    /**
+     * Creates a new MDD.
+     *
+     * @param builder the builder used to compile the MDD
+     * @param source the root node of the diagram
+     */
+    private Mdd(final Builder builder, final int source) {
+        this.root     = builder.root;
+        this.values   = builder.values;
+        this.children = builder.children.toArray(new int[0][]);
+        this.source   = source;
+        this.layers   = new int[values.length][];
+
+        final int[] count = new int[values.length];
+        for (int layer : builder.layerOf) {
+            if (layer >= 0) {
+                count[layer]++;
+            }
+        }
+        for (int l = 0; l < values.length; l++) {
+            layers[l] = new int[count[l]];
+            count[l]  = 0;
+        }
+        for (int node = 0; node < builder.layerOf.size(); node++) {
+            final int layer = builder.layerOf.get(node);
+            if (layer >= 0) {
+                layers[layer][count[layer]++] = node;
+            }
+        }
+    }
+
+    /**
+     * Compiles the solutions of the given checker over the given root
+     * domains into a reduced MDD.
+     *
+     * @param checker the checker whose solutions are compiled
+     * @param root the root domains over which the solutions are enumerated
+     * @return a reduced MDD representing all the solutions of `checker` in
+     * the cartesian product of the `root` domains.
+     */
+    public static Mdd compile(final Checker checker, final PartialAssignment root) {
+        final Builder builder = new Builder(checker, root);
+        return new Mdd(builder, builder.build(0));
+    }
+
+    /** @return the root domains over which this MDD was compiled. */
+    public PartialAssignment root() {
+        return root;
+    }
+
+    /** @return the number of (non terminal) nodes in this MDD. */
+    public int size() {
+        return Arrays.stream(layers).mapToInt(l -> l.length).sum();
+    }
+
+    /** @return the number of arcs in this MDD. */
+    public int nbArcs() {
+        int arcs = 0;
+        for (int[] layer : layers) {
+            for (int node : layer) {
+                for (int child : children[node]) {
+                    arcs += child == FALSE ? 0 : 1;
+                }
+            }
+        }
+        return arcs;
+    }
+
+    /**
+     * Tells whether this MDD is able to filter the given partial assignment.
+     *
+     * @param partial the partial assignment that needs to be filtered
+     * @return true iff the given partial assignment is covered by the root
+     */
+    public boolean covers(final List<Domain> partial) {
+        return ConsistencyUtil.covers(root, partial);
+    }
+
+    /**
+     * Makes the given partial assignment arc consistent.
+     *
+     * @param partial the partial assignment to filter. It must be covered
+     *                by the root of this MDD.
+     * @return the arc consistent version of the given partial assignment
+     */
+    public PartialAssignment filter(final PartialAssignment partial) {
+        final int arity = values.length;
+        if (source == FALSE) {
+            return PartialAssignment.error(arity);
+        }
+
+        // which arcs are still allowed by the domains
+        final boolean[][] allowed = new boolean[arity][];
+        for (int var = 0; var < arity; var++) {
+            allowed[var] = new boolean[values[var].length];
+            for (int pos = 0; pos < values[var].length; pos++) {
+                allowed[var][pos] = partial.get(var).contains(values[var][pos]);
+            }
+        }
+
+        // forward pass: which nodes are reachable from the source
+        final boolean[] reached = new boolean[children.length];
+        reached[source] = true;
+        for (int layer = 0; layer < arity; layer++) {
+            for (int node : layers[layer]) {
+                if (reached[node]) {
+                    for (int pos = 0; pos < allowed[layer].length; pos++) {
+                        if (allowed[layer][pos]) {
+                            reached[children[node][pos]] = true;
+                        }
+                    }
+                }
+            }
+        }
+
+        // backward pass: which nodes can reach the true terminal
+        final boolean[] alive = new boolean[children.length];
+        alive[TRUE] = true;
+        for (int layer = arity - 1; layer >= 0; layer--) {
+            for (int node : layers[layer]) {
+                for (int pos = 0; pos < allowed[layer].length; pos++) {
+                    if (allowed[layer][pos] && alive[children[node][pos]]) {
+                        alive[node] = true;
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (!alive[source]) {
+            return PartialAssignment.error(arity);
+        }
+
+        // collect the values lying on some source-terminal path
+        final List<Domain> filtered = new ArrayList<>(arity);
+        for (int layer = 0; layer < arity; layer++) {
+            final boolean[] supported = new boolean[values[layer].length];
+            for (int node : layers[layer]) {
+                if (reached[node]) {
+                    for (int pos = 0; pos < supported.length; pos++) {
+                        supported[pos] |= allowed[layer][pos]
+                                && alive[children[node][pos]];
+                    }
+                }
+            }
+
+            final int[] kept = new int[supported.length];
+            int size = 0;
+            for (int pos = 0; pos < supported.length; pos++) {
+                if (supported[pos]) {
+                    kept[size++] = values[layer][pos];
+                }
+            }
+            filtered.add(Domain.from(Arrays.copyOf(kept, size)));
+        }
+        return PartialAssignment.from(filtered);
+    }
+
+    /**
+     * The builder compiling the reduced MDD with a depth first traversal.
+     */
+    private static final class Builder {
+        /** The checker whose solutions are compiled. */
+        private final Checker checker;
+        /** The root domains over which the solutions are enumerated. */
+        private final PartialAssignment root;
+        /** The values of the root domains (in increasing order). */
+        private final int[][] values;
+        /** The domains at the current node of the traversal. */
+        private final Domain[] current;
+        /** The values of the variables assigned so far. */
+        private final int[] prefix;
+        /** The outgoing arcs of all the nodes created so far. */
+        private final List<int[]> children;
+        /** The layer of all the nodes created so far (-1 for terminals). */
+        private final List<Integer> layerOf;
+        /** The unique table used to merge isomorphic nodes. */
+        private final Map<Signature, Integer> unique;
+        /** The 'all true' node of each layer (FALSE when not created yet). */
+        private final int[] allTrue;
+        /** The node built for each prefix state, per layer (if any). */
+        private final List<Map<Long, Integer>> memo;
+
+        /**
+         * Creates a new builder.
+         *
+         * @param checker the checker whose solutions are compiled
+         * @param root the root domains over which the solutions are enumerated
+         */
+        Builder(final Checker checker, final PartialAssignment root) {
+            final int arity = root.size();
+
+            this.checker  = checker;
+            this.root     = root;
+            this.current  = root.toArray(new Domain[0]);
+            this.prefix   = new int[arity];
+            this.values   = new int[arity][];
+            this.children = new ArrayList<>();
+            this.layerOf  = new ArrayList<>();
+            this.unique   = new HashMap<>();
+            this.allTrue  = new int[arity + 1];
+            this.memo     = new ArrayList<>(arity);
+
+            for (int var = 0; var < arity; var++) {
+                memo.add(new HashMap<>());
+                values[var] = root.get(var).increasingStream()
+                                  .mapToInt(Integer::intValue).toArray();
+            }
+
+            // the terminal nodes
+            children.add(new int[0]);
+            layerOf.add(-1);
+            children.add(new int[0]);
+            layerOf.add(-1);
+            allTrue[arity] = TRUE;
+        }
+
+        /**
+         * Builds the sub-diagram rooted at the current prefix.
+         *
+         * @param layer the number of variables assigned so far
+         * @return the identifier of the node rooting the sub-diagram
+         */
+        int build(final int layer) {
+            if (layer == values.length) {
+                return checker.test(Assignment.from(prefix)) ? TRUE : FALSE;
+            }
+            if (checker instanceof PrefixChecker) {
+                final long state = ((PrefixChecker) checker).prefixState(prefix, layer);
+                final Integer known = memo.get(layer).get(state);
+                if (known != null) {
+                    return known;
+                }
+                final int node = expand(layer);
+                memo.get(layer).put(state, node);
+                return node;
+            }
+            return expand(layer);
+        }
+
+        /**
+         * Builds the sub-diagram rooted at the current prefix without
+         * looking it up in the memo.
+         *
+         * @param layer the number of variables assigned so far
+         * @return the identifier of the node rooting the sub-diagram
+         */
+        private int expand(final int layer) {
+
+            if (checker instanceof PartialChecker) {
+                final PartialCheckResult verdict = ((PartialChecker) checker)
+                        .test(PartialAssignment.from(current));
+
+                switch (verdict) {
+                    case REJECT:
+                        return FALSE;
+                    case ACCEPT:
+                        return allTrue(layer);
+                    default:
+                        break;
+                }
+            }
+
+            final int[] arcs = new int[values[layer].length];
+            for (int pos = 0; pos < arcs.length; pos++) {
+                prefix[layer]  = values[layer][pos];
+                current[layer] = Domain.singleton(prefix[layer]);
+                arcs[pos]      = build(layer + 1);
+            }
+            current[layer] = root.get(layer);
+
+            return intern(layer, arcs);
+        }
+
+        /**
+         * @param layer some layer of the diagram
+         * @return the node of the given layer from which all the paths lead
+         * to the true terminal
+         */
+        private int allTrue(final int layer) {
+            if (allTrue[layer] == FALSE) {
+                final int[] arcs = new int[values[layer].length];
+                Arrays.fill(arcs, allTrue(layer + 1));
+                allTrue[layer] = intern(layer, arcs);
+            }
+            return allTrue[layer];
+        }
+
+        /**
+         * Returns the unique node of the given layer having the given arcs.
+         * The node is created when no such node exists yet.
+         *
+         * @param layer the layer of the node
+         * @param arcs the outgoing arcs of the node
+         * @return the identifier of the node
+         */
+        private int intern(final int layer, final int[] arcs) {
+            boolean dead = true;
+            for (int arc : arcs) {
+                dead &= arc == FALSE;
+            }
+            if (dead) {
+                return FALSE;
+            }
+
+            return unique.computeIfAbsent(new Signature(layer, arcs), sig -> {
+                children.add(arcs);
+                layerOf.add(layer);
+                return children.size() - 1;
+            });
+        }
+    }
+
+    /**
+     * The signature of some node: its layer and outgoing arcs. Two nodes
+     * having the same signature are isomorphic.
+     */
+    private static final class Signature {
+        /** The layer of the node. */
+        private final int layer;
+        /** The outgoing arcs of the node. */
+        private final int[] arcs;
+
+        /**
+         * Creates a new signature.
+         *
+         * @param layer the layer of the node
+         * @param arcs the outgoing arcs of the node
+         */
+        Signature(final int layer, final int[] arcs) {
+            this.layer = layer;
+            this.arcs  = arcs;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int hashCode() {
+            return 31 * layer + Arrays.hashCode(arcs);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean equals(final Object other) {
+            if (!(other instanceof Signature)) {
+                return false;
+            }
+            final Signature that = (Signature) other;
+            return layer == that.layer && Arrays.equals(arcs, that.arcs);
+        }
+    }
+}
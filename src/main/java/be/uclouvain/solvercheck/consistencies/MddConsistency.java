@@ -0,0 +1,66 @@
+package be.uclouvain.solvercheck.consistencies;
+
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Checker;
+import be.uclouvain.solvercheck.core.task.Filter;
+
+/**
+ * This class lets an user build an arc-consistent (GAC) Filter from some
+ * given Checker. Just like `TableConsistency`, it compiles the solutions of
+ * the checker the first time it is given some partial assignment (the root)
+ * and reuses that compiled form for all the partial assignments covered by
+ * that root. The difference lies in the compiled form: a reduced `Mdd`
+ * instead of a flat table of solutions.
+ *
+ * .. Note::
+ *    This is the filter to favor whenever the solutions of the checker share
+ *    many common prefixes and suffixes (which is typically the case of
+ *    counting and sequencing constraints such as sum, gcc or regular). In
+ *    that case, the MDD can be exponentially smaller than the table.
+ *
+ * @see Mdd
+ * @see TableConsistency
+ */
+public final class MddConsistency implements Filter {
+    /**
+     * The checker implementing a test to verify whether some constraint
+     * is satisfied.
+     */
+    private final Checker checker;
+
+    /** The MDD compiled for the last root that was encountered. */
+    private volatile Mdd mdd;
+
+    /**
+     * Creates a new compiled arc consistent filter from the given checker.
+     *
+     * @param checker the checker implementing a test to verify whether or not
+     *                some constraint is satisfied
+     */
+    public MddConsistency(final Checker checker) {
+        this.checker = checker;
+        this.mdd     = null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PartialAssignment filter(final PartialAssignment partial) {
+        return mddFor(partial).filter(partial);
+    }
+
+    /**
+     * Returns an MDD which covers the given partial assignment. The current
+     * MDD is reused whenever possible, otherwise a new one is compiled.
+     *
+     * @param partial the partial assignment that must be covered by the MDD
+     * @return an MDD covering `partial`.
+     */
+    public Mdd mddFor(final PartialAssignment partial) {
+        Mdd current = mdd;
+        if (current == null || !current.covers(partial)) {
+            current = Mdd.compile(checker, partial);
+            mdd     = current;
+        }
+        return current;
+    }
+}
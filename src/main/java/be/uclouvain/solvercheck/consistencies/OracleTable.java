@@ -0,0 +1,273 @@
+package be.uclouvain.solvercheck.consistencies;
+
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Filter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * An oracle table is the exhaustive, precomputed version of some (reference)
+ * filter over a tiny universe: a fixed number of variables whose values all
+ * range over some small interval [lo, hi]. The filter is evaluated once for
+ * every possible partial assignment in that universe and the results are
+ * stored in a dense array. Afterwards, filtering a partial assignment boils
+ * down to one array lookup.
+ *
+ * .. Encoding::
+ *    Each domain is encoded as a bitmask where bit `i` is set iff `lo + i`
+ *    belongs to the domain. The index of a partial assignment is the number
+ *    whose digits (in base 2^width) are the masks of its domains. The same
+ *    encoding is used to store the filtered domains.
+ *
+ * .. Note::
+ *    The partial assignments which do not belong to the universe (because of
+ *    their arity or of some out of range value) are simply passed on to the
+ *    original filter. Also note that the partial assignments comprising some
+ *    empty domain are mapped onto an error without evaluating the filter.
+ *
+ * .. Size::
+ *    The table comprises 2^(width * arity) entries. Hence, this oracle is only
+ *    meant to be used for really tiny universes (which is actually the case
+ *    of most test suites: e.g. four variables with values ranging from 0 to
+ *    3).
+ */
+public final class OracleTable implements Filter {
+    /** The maximum number of ints stored in one table (128 MB). */
+    private static final long MAX_CELLS = 1L << 25;
+    /** The magic number identifying a saved table. */
+    private static final int MAGIC = 0x5C0AC1E;
+
+    /** The filter that was precomputed (used as a fallback). */
+    private final Filter filter;
+    /** The number of variables. */
+    private final int arity;
+    /** The smallest value of the universe. */
+    private final int lo;
+    /** The number of values in the universe. */
+    private final int width;
+    /** The filtered masks: results[index * arity + var]. */
+    private final int[] results;
+    /** The domain corresponding to each possible mask. */
+    private final Domain[] domains;
+
+    /**
+     * Creates a new (empty) oracle table.
+     *
+     * @param filter the filter that is precomputed
+     * @param arity the number of variables
+     * @param lo the smallest value of the universe
+     * @param hi the largest value of the universe
+     */
+    private OracleTable(
+            final Filter filter,
+            final int arity,
+            final int lo,
+            final int hi) {
+
+        if (arity < 0) {
+            throw new IllegalArgumentException("Arity must be natural");
+        }
+        if (hi < lo) {
+            throw new IllegalArgumentException("The universe may not be empty");
+        }
+        final long width = (long) hi - lo + 1;
+        final long bits  = width * Math.max(1, arity);
+
+        if (bits >= Integer.SIZE - 1
+                || (1L << (width * arity)) > MAX_CELLS / Math.max(1, arity)) {
+            throw new IllegalArgumentException(String.format(
+               "The universe of %d variables ranging over [%d, %d] is too large",
+               arity, lo, hi));
+        }
+
+        this.filter  = filter;
+        this.arity   = arity;
+        this.lo      = lo;
+        this.width   = (int) width;
+        this.results = new int[(1 << (this.width * arity)) * arity];
+        this.domains = new Domain[1 << width];
+
+        for (int mask = 0; mask < domains.length; mask++) {
+            final int[] values = new int[Integer.bitCount(mask)];
+            int size = 0;
+            for (int i = 0; i < this.width; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    values[size++] = lo + i;
+                }
+            }
+            domains[mask] = Domain.from(values);
+        }
+    }
+
+    /**
+     * Evaluates the given filter on every partial assignment of `arity`
+     * variables whose values range over [lo, hi]. The evaluation is made in
+     * parallel: the given filter must thus be thread safe (which is the case
+     * of all the filters of this package).
+     *
+     * @param filter the filter to precompute
+     * @param arity the number of variables
+     * @param lo the smallest value of the universe
+     * @param hi the largest value of the universe
+     * @return the precomputed version of `filter`
+     */
+    public static OracleTable build(
+            final Filter filter,
+            final int arity,
+            final int lo,
+            final int hi) {
+
+        final OracleTable table = new OracleTable(filter, arity, lo, hi);
+        IntStream.range(0, table.nbEntries()).parallel().forEach(table::compute);
+        return table;
+    }
+
+    /**
+     * Loads a table that has been saved with `save`.
+     *
+     * @param filter the filter that was precomputed (used as a fallback for
+     *               the partial assignments lying outside of the universe)
+     * @param file the file where the table was saved
+     * @return the loaded table
+     * @throws IOException whenever the file cannot be read or does not hold
+     * a valid oracle table
+     */
+    public static OracleTable load(
+            final Filter filter,
+            final Path file) throws IOException {
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file)))) {
+
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " does not hold an oracle table");
+            }
+            final int arity = in.readInt();
+            final int lo    = in.readInt();
+            final int hi    = in.readInt();
+
+            final OracleTable table = new OracleTable(filter, arity, lo, hi);
+            for (int i = 0; i < table.results.length; i++) {
+                table.results[i] = in.readInt();
+            }
+            return table;
+        } catch (IllegalArgumentException e) {
+            throw new IOException(file + " does not hold an oracle table", e);
+        }
+    }
+
+    /**
+     * Saves this table to the given file.
+     *
+     * @param file the file where to save the table
+     * @throws IOException whenever the file cannot be written
+     */
+    public void save(final Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file)))) {
+
+            out.writeInt(MAGIC);
+            out.writeInt(arity);
+            out.writeInt(lo);
+            out.writeInt(lo + width - 1);
+            for (int mask : results) {
+                out.writeInt(mask);
+            }
+        }
+    }
+
+    /** @return the number of partial assignments in the universe. */
+    public int nbEntries() {
+        return arity == 0 ? 1 : results.length / arity;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PartialAssignment filter(final PartialAssignment partial) {
+        final int index = indexOf(partial);
+        if (index < 0) {
+            return filter.filter(partial);
+        }
+
+        final List<Domain> filtered = new ArrayList<>(arity);
+        for (int var = 0; var < arity; var++) {
+            filtered.add(domains[results[index * arity + var]]);
+        }
+        return PartialAssignment.from(filtered);
+    }
+
+    /**
+     * Evaluates the filter on the partial assignment having the given index
+     * and stores the result in the table.
+     *
+     * @param index the index of some partial assignment of the universe
+     */
+    private void compute(final int index) {
+        final List<Domain> partial = new ArrayList<>(arity);
+        boolean error = false;
+        for (int var = 0; var < arity; var++) {
+            final int mask = maskOf(index, var);
+            partial.add(domains[mask]);
+            error |= mask == 0;
+        }
+
+        if (error) {
+            return; // all masks are already 0
+        }
+
+        final PartialAssignment filtered =
+                filter.filter(PartialAssignment.from(partial));
+
+        for (int var = 0; var < arity; var++) {
+            int mask = 0;
+            for (int value : filtered.get(var)) {
+                mask |= 1 << (value - lo);
+            }
+            results[index * arity + var] = mask;
+        }
+    }
+
+    /**
+     * @param index the index of some partial assignment of the universe
+     * @param var some variable
+     * @return the mask encoding the domain of `var` in that partial assignment
+     */
+    private int maskOf(final int index, final int var) {
+        return (index >>> (var * width)) & ((1 << width) - 1);
+    }
+
+    /**
+     * @param partial some partial assignment
+     * @return the index of the given partial assignment in the table, or -1
+     * when it does not belong to the universe of this table.
+     */
+    private int indexOf(final PartialAssignment partial) {
+        if (partial.size() != arity) {
+            return -1;
+        }
+
+        int index = 0;
+        for (int var = 0; var < arity; var++) {
+            int mask = 0;
+            for (int value : partial.get(var)) {
+                final long offset = (long) value - lo;
+                if (offset < 0 || offset >= width) {
+                    return -1;
+                }
+                mask |= 1 << offset;
+            }
+            index |= mask << (var * width);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,358 @@
+package be.uclouvain.solvercheck.consistencies;
+
+import be.uclouvain.solvercheck.core.data.Assignment;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Checker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class implements a parallel search for the supports of the values of
+ * some domains. The cartesian product of the search space is split into
+ * ranges of tuple indices which are enumerated on a `ForkJoinPool`.
+ *
+ * .. Workers::
+ *    Each worker records the (variable, value) pairs it found to be supported
+ *    in a bitset of its own. The results of the workers are then merged with
+ *    a bitwise OR when the subtasks are joined.
+ *
+ * .. Cooperative Stop::
+ *    Whenever a worker discovers a support for some pair that was not known
+ *    to be supported by anyone, it publishes it to a shared bitset. This lets
+ *    the other workers skip the tuples that would not bring any new support
+ *    and, once every pair is supported, all workers stop at once.
+ *
+ * .. Note::
+ *    The search space and the targets are distinct. This is what makes it
+ *    possible to use one single class for the arc consistency (the targets
+ *    are the domains and the space is their product), for the range
+ *    consistency (the space is the product of the ranges spanned by the
+ *    domains) and for the bound consistencies (the only target is the bound
+ *    being probed).
+ */
+public final class ParallelSupport {
+    /** The smallest number of tuples that is worth forking a task for. */
+    private static final long MIN_CHUNK = 1024;
+    /** The number of chunks assigned (on average) to each worker. */
+    private static final int CHUNKS_PER_WORKER = 8;
+
+    /** The checker testing the satisfaction of the constraint. */
+    private final Checker checker;
+    /** The pool on which the enumeration is run. */
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a new instance running on the given pool.
+     *
+     * @param checker the checker testing the satisfaction of the constraint
+     * @param pool the pool on which the enumeration is run
+     */
+    public ParallelSupport(final Checker checker, final ForkJoinPool pool) {
+        this.checker = checker;
+        this.pool    = pool;
+    }
+
+    /**
+     * Makes the given domains arc consistent.
+     *
+     * @param domains the domains to filter
+     * @return the arc consistent version of the given domains (or an error
+     * when they hold no solution at all).
+     */
+    public PartialAssignment supports(final List<Domain> domains) {
+        final List<Domain> supported = supported(domains, domains);
+
+        if (supported.stream().anyMatch(Domain::isEmpty)) {
+            return PartialAssignment.error(domains.size());
+        }
+        return PartialAssignment.from(supported);
+    }
+
+    /**
+     * Tells whether the given value of the given variable has a support in
+     * the cartesian product of the given domains.
+     *
+     * @param domains the domains in which a support is looked for
+     * @param var the variable whose value must be supported
+     * @param value the value that must be supported
+     * @return true iff there exists an assignment in the cartesian product of
+     * the `domains` where `var` is assigned to `value` and which satisfies
+     * the checker.
+     */
+    public boolean hasSupport(
+            final List<Domain> domains,
+            final int var,
+            final int value) {
+
+        final List<Domain> space   = new ArrayList<>(domains);
+        final List<Domain> targets = new ArrayList<>(
+                Collections.nCopies(domains.size(), Domain.emptyDomain()));
+
+        space.set(var, Domain.singleton(value));
+        targets.set(var, Domain.singleton(value));
+
+        return !supported(space, targets).get(var).isEmpty();
+    }
+
+    /**
+     * Computes the values of the targets which are supported by some tuple
+     * of the search space. A tuple supports the value it assigns to some
+     * variable iff that value belongs to the target of the variable and the
+     * tuple satisfies the checker.
+     *
+     * @param space the domains whose cartesian product is enumerated
+     * @param targets the values that must be supported. Each target must be
+     *                a subset of the corresponding domain of the space.
+     * @return a list of domains where the ith domain comprises exactly the
+     * values of `targets.get(i)` having a support.
+     */
+    public List<Domain> supported(
+            final List<Domain> space,
+            final List<Domain> targets) {
+
+        final Job job = new Job(space, targets);
+        if (job.size == 0 || job.nbTargets == 0) {
+            return job.result(new long[job.shared.length()]);
+        }
+        return job.result(pool.invoke(job.new Chunk(0, job.size)));
+    }
+
+    /**
+     * The shared state of one parallel enumeration.
+     */
+    private final class Job {
+        /** The values of each domain of the search space. */
+        private final int[][] values;
+        /** The index of the first bit of each variable. */
+        private final int[] offset;
+        /** The target bits (all the other ones are never recorded). */
+        private final long[] targetBits;
+        /** The bits which are known to be supported by some worker. */
+        private final AtomicLongArray shared;
+        /** The number of target bits which are not known to be supported. */
+        private final AtomicInteger remaining;
+        /** The number of target bits. */
+        private final int nbTargets;
+        /** The number of tuples in the search space. */
+        private final long size;
+        /** The number of tuples below which a chunk is not split any more. */
+        private final long threshold;
+
+        /**
+         * Creates a new job.
+         *
+         * @param space the domains whose cartesian product is enumerated
+         * @param targets the values that must be supported
+         */
+        Job(final List<Domain> space, final List<Domain> targets) {
+            final int arity = space.size();
+
+            this.values = new int[arity][];
+            this.offset = new int[arity + 1];
+
+            long count = 1;
+            for (int var = 0; var < arity; var++) {
+                values[var]     = space.get(var).increasingStream()
+                                       .mapToInt(Integer::intValue).toArray();
+                offset[var + 1] = offset[var] + values[var].length;
+                count           = Math.multiplyExact(count, values[var].length);
+            }
+
+            this.size       = count;
+            this.targetBits = new long[words(offset[arity])];
+            this.shared     = new AtomicLongArray(targetBits.length);
+
+            int nbBits = 0;
+            for (int var = 0; var < arity; var++) {
+                for (int value : targets.get(var)) {
+                    final int bit = bit(var, value);
+                    targetBits[bit / Long.SIZE] |= 1L << bit;
+                    nbBits++;
+                }
+            }
+
+            this.nbTargets = nbBits;
+            this.remaining = new AtomicInteger(nbBits);
+            this.threshold = Math.max(MIN_CHUNK,
+                    size / ((long) pool.getParallelism() * CHUNKS_PER_WORKER));
+        }
+
+        /**
+         * @param nbBits a number of bits
+         * @return the number of words needed to store that many bits
+         */
+        private int words(final int nbBits) {
+            return (nbBits + Long.SIZE - 1) / Long.SIZE;
+        }
+
+        /**
+         * @param var some variable
+         * @param value some value of the domain of `var` in the search space
+         * @return the bit representing the given (variable, value) pair
+         */
+        private int bit(final int var, final int value) {
+            return offset[var] + Arrays.binarySearch(values[var], value);
+        }
+
+        /**
+         * Decodes the given bitset.
+         *
+         * @param bits the bits of the supported (variable, value) pairs
+         * @return a list of domains comprising the supported values
+         */
+        private List<Domain> result(final long[] bits) {
+            final List<Domain> result = new ArrayList<>(values.length);
+            for (int var = 0; var < values.length; var++) {
+                final int[] kept = new int[values[var].length];
+                int count = 0;
+                for (int pos = 0; pos < kept.length; pos++) {
+                    final int bit = offset[var] + pos;
+                    if ((bits[bit / Long.SIZE] & (1L << bit)) != 0L) {
+                        kept[count++] = values[var][pos];
+                    }
+                }
+                result.add(Domain.from(Arrays.copyOf(kept, count)));
+            }
+            return result;
+        }
+
+        /**
+         * A range [from, to[ of tuple indices which is either split in two
+         * halves or enumerated sequentially.
+         */
+        private final class Chunk extends RecursiveTask<long[]> {
+            /** Serialization id (tasks are serializable). */
+            private static final long serialVersionUID = 1L;
+
+            /** The index of the first tuple of this chunk. */
+            private final long from;
+            /** The index of the first tuple past this chunk. */
+            private final long to;
+
+            /**
+             * Creates a new chunk.
+             *
+             * @param from the index of the first tuple of this chunk
+             * @param to the index of the first tuple past this chunk
+             */
+            Chunk(final long from, final long to) {
+                this.from = from;
+                this.to   = to;
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            protected long[] compute() {
+                if (remaining.get() == 0) {
+                    return new long[targetBits.length];
+                }
+                if (to - from > threshold) {
+                    final long  mid   = (from + to) >>> 1;
+                    final Chunk right = new Chunk(mid, to);
+                    right.fork();
+
+                    final long[] bits = new Chunk(from, mid).compute();
+                    final long[] more = right.join();
+                    for (int i = 0; i < bits.length; i++) {
+                        bits[i] |= more[i];
+                    }
+                    return bits;
+                }
+                return enumerate();
+            }
+
+            /**
+             * Sequentially enumerates the tuples of this chunk.
+             *
+             * @return the bits of the pairs that were found to be supported
+             */
+            private long[] enumerate() {
+                final int    arity = values.length;
+                final long[] local = new long[targetBits.length];
+                final int[]  pos   = new int[arity];
+                final int[]  tuple = new int[arity];
+
+                // decode the first tuple of the chunk
+                long index = from;
+                for (int var = arity - 1; var >= 0; var--) {
+                    pos[var]   = (int) (index % values[var].length);
+                    tuple[var] = values[var][pos[var]];
+                    index     /= values[var].length;
+                }
+
+                for (long t = from; t < to && remaining.get() > 0; t++) {
+                    if (wouldSupportSomething(pos, local)
+                            && checker.test(Assignment.from(tuple))) {
+                        publish(pos, local);
+                    }
+
+                    // move on to the next tuple
+                    for (int var = arity - 1; var >= 0; var--) {
+                        if (++pos[var] < values[var].length) {
+                            tuple[var] = values[var][pos[var]];
+                            break;
+                        }
+                        pos[var]   = 0;
+                        tuple[var] = values[var][0];
+                    }
+                }
+                return local;
+            }
+
+            /**
+             * @param pos the positions of the values of some tuple
+             * @param local the bits already found by this worker
+             * @return true iff that tuple would support some target that is
+             * not known to be supported yet.
+             */
+            private boolean wouldSupportSomething(
+                    final int[] pos,
+                    final long[] local) {
+
+                for (int var = 0; var < pos.length; var++) {
+                    final int  bit  = offset[var] + pos[var];
+                    final int  word = bit / Long.SIZE;
+                    final long mask = 1L << bit;
+
+                    if ((targetBits[word] & mask) != 0L
+                            && (local[word] & mask) == 0L
+                            && (shared.get(word) & mask) == 0L) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            /**
+             * Records the targets of the given (satisfying) tuple in the local
+             * bitset and publishes those that were not known to anyone yet.
+             *
+             * @param pos the positions of the values of some tuple
+             * @param local the bits already found by this worker
+             */
+            private void publish(final int[] pos, final long[] local) {
+                for (int var = 0; var < pos.length; var++) {
+                    final int  bit  = offset[var] + pos[var];
+                    final int  word = bit / Long.SIZE;
+                    final long mask = 1L << bit;
+
+                    if ((targetBits[word] & mask) != 0L) {
+                        local[word] |= mask;
+                        final long before = shared.getAndUpdate(word, w -> w | mask);
+                        if ((before & mask) == 0L) {
+                            remaining.decrementAndGet();
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -1,18 +1,53 @@
 package be.uclouvain.solvercheck.consistencies;
 
+import be.uclouvain.solvercheck.core.data.Assignment;
 import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
 import be.uclouvain.solvercheck.core.task.Checker;
 import be.uclouvain.solvercheck.core.task.DomainFilter;
+import be.uclouvain.solvercheck.core.task.Filter;
+import be.uclouvain.solvercheck.core.task.PartialChecker;
 
-import static be.uclouvain.solvercheck.consistencies.ConsistencyUtil.boundSupport;
-import static be.uclouvain.solvercheck.consistencies.ConsistencyUtil.exists;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static be.uclouvain.solvercheck.consistencies.ConsistencyUtil.boundDomains;
 
 /**
  * This class lets a user build a Range consistent Filter from some given
  * Checker. This means that domains will be filtered to only contain values
  * belonging to some **bound support** of the constraint.
+ *
+ * .. Note::
+ *    Contrary to the other 'uniform' consistencies, this class does not
+ *    extend `AbstractUniformConsistency`. Indeed, the bound supports of all
+ *    the (variable, value) pairs live in one same space: the cartesian
+ *    product of the ranges spanned by the domains. Therefore, each round of
+ *    the fixpoint enumerates that product only once and collects the
+ *    supported values of all the variables in that single pass (which stops
+ *    as soon as every value has been found to be supported). When the range
+ *    of some domain is much wider than the domain itself, the bound supports
+ *    are rather searched lazily, value by value.
+ *
+ * .. Note::
+ *    When the given checker is a `PartialChecker`, the bound supports are
+ *    searched for depth-first (see SupportSearch). Otherwise, they can be
+ *    enumerated in parallel when the filter is given a `ForkJoinPool`
+ *    (see ParallelSupport).
+ *
+ * @see AbstractUniformConsistency
+ * @see ParallelSupport
  */
-public final class RangeConsistency extends AbstractUniformConsistency {
+public final class RangeConsistency implements Filter {
+    /**
+     * The checker implementing a test to verify whether some constraint
+     * is satisfied.
+     */
+    private final Checker checker;
+    /** The pool used to enumerate the bound supports in parallel (if any). */
+    private final ForkJoinPool pool;
 
     /**
      * Creates a new instance based on the given checker.
@@ -21,7 +56,48 @@ public final class RangeConsistency extends AbstractUniformConsistency {
      *                given constraint.
      */
     public RangeConsistency(final Checker checker) {
-        super(domainFilter(checker));
+        this(checker, null);
+    }
+
+    /**
+     * Creates a new instance based on the given checker which enumerates the
+     * bound supports in parallel on the given pool (see ParallelSupport).
+     *
+     * @param checker the predicate testing whether an assignment satisfies some
+     *                given constraint.
+     * @param pool the pool on which the bound supports are enumerated. A null
+     *             value means the enumeration is sequential.
+     */
+    public RangeConsistency(final Checker checker, final ForkJoinPool pool) {
+        this.checker = checker;
+        this.pool    = pool;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Filters the domains of the variables of the given partial assignment
+     * until the least fixpoint has been reached (one additional application
+     * of the filtering will not prune any additional value).
+     */
+    @Override
+    public PartialAssignment filter(final PartialAssignment partialAssignment) {
+        if (partialAssignment.isError()) {
+            return PartialAssignment.error(partialAssignment.size());
+        }
+
+        List<Domain> domains = partialAssignment;
+        while (true) {
+            final List<Domain> reduced = boundSupported(checker, pool, domains);
+
+            if (reduced.stream().anyMatch(Domain::isEmpty)) {
+                return PartialAssignment.error(partialAssignment.size());
+            }
+            if (reduced.equals(domains)) {
+                return PartialAssignment.from(reduced);
+            }
+            domains = reduced;
+        }
     }
 
     /**
@@ -35,15 +111,268 @@ public final class RangeConsistency extends AbstractUniformConsistency {
      * checker for some variable domain.
      */
     public static DomainFilter domainFilter(final Checker checker) {
-        return (var, domains) ->
-                domains.get(var)
-                    .stream()
-                    .filter(value ->
-                        exists(boundSupport(domains))
-                            .satisfying(checker)
-                            .forVariable(var)
-                            .assignedTo(value))
-                    .collect(Domain.collector());
+        return domainFilter(checker, null);
     }
 
+    /**
+     * Same as `domainFilter(checker)` except that the bound supports are
+     * enumerated in parallel on the given pool (see ParallelSupport).
+     *
+     * @param checker the checker testing the satisfaction of the constraint
+     * @param pool the pool on which the bound supports are enumerated. A null
+     *             value means the enumeration is sequential.
+     * @return a DomainFilter that ensures the Range consitency of the given
+     * checker for some variable domain.
+     */
+    public static DomainFilter domainFilter(
+            final Checker checker,
+            final ForkJoinPool pool) {
+        return (var, domains) -> boundSupported(checker, pool, domains).get(var);
+    }
+
+    /**
+     * Computes the values of all the given domains which have a bound support
+     * in the given domains. This is done with one single enumeration of the
+     * bound supports.
+     *
+     * @param checker the checker testing the satisfaction of the constraint
+     * @param pool the pool on which the bound supports are enumerated (or
+     *             null when the enumeration must be sequential)
+     * @param domains the domains to filter (none of which may be empty)
+     * @return a list of domains where the ith domain comprises exactly the
+     * values of `domains.get(i)` having a bound support.
+     */
+    private static List<Domain> boundSupported(
+            final Checker checker,
+            final ForkJoinPool pool,
+            final List<Domain> domains) {
+
+        if (checker instanceof PartialChecker) {
+            final PartialAssignment supported =
+                    new SupportSearch((PartialChecker) checker)
+                            .supports(boundDomains(domains));
+
+            final List<Domain> result = new ArrayList<>(domains.size());
+            for (int var = 0; var < domains.size(); var++) {
+                final Domain support = supported.get(var);
+                result.add(domains.get(var).stream()
+                        .filter(support::contains)
+                        .collect(Domain.collector()));
+            }
+            return result;
+        }
+
+        if (pool != null) {
+            return new ParallelSupport(checker, pool)
+                    .supported(boundDomains(domains), domains);
+        }
+
+        if (!BoundSupportScan.fits(domains)) {
+            final List<Domain> result = new ArrayList<>(domains.size());
+            for (int var = 0; var < domains.size(); var++) {
+                final int x = var;
+                result.add(domains.get(var).stream()
+                        .filter(value -> hasBoundSupport(checker, domains, x, value))
+                        .collect(Domain.collector()));
+            }
+            return result;
+        }
+
+        return new BoundSupportScan(checker, domains).run();
+    }
+
+    /**
+     * Lazily searches for one bound support of the given (variable, value)
+     * pair: the ranges of the other variables are walked with an odometer
+     * and nothing is ever materialized.
+     *
+     * @param checker the checker testing the satisfaction of the constraint
+     * @param domains the domains spanning the ranges (none of which is empty)
+     * @param var the variable whose value must be supported
+     * @param value the value to support
+     * @return true iff some bound support assigns `value` to `var`
+     */
+    private static boolean hasBoundSupport(
+            final Checker checker,
+            final List<Domain> domains,
+            final int var,
+            final int value) {
+
+        final int   arity = domains.size();
+        final int[] tuple = new int[arity];
+        for (int i = 0; i < arity; i++) {
+            tuple[i] = i == var ? value : domains.get(i).minimum();
+        }
+
+        while (true) {
+            if (checker.test(Assignment.from(tuple))) {
+                return true;
+            }
+
+            // move on to the next tuple
+            int i = arity - 1;
+            while (i >= 0 && (i == var || tuple[i] == domains.get(i).maximum())) {
+                if (i != var) {
+                    tuple[i] = domains.get(i).minimum();
+                }
+                i--;
+            }
+            if (i < 0) {
+                return false;
+            }
+            tuple[i]++;
+        }
+    }
+
+    /**
+     * One single enumeration of the bound supports of some list of domains.
+     * Every tuple of the cartesian product of the ranges is visited (in
+     * lexicographic order) and the checker is only called for those tuples
+     * which would support some value that has not been found to be supported
+     * yet.
+     */
+    private static final class BoundSupportScan {
+        /**
+         * The largest number of range values per domain value for which the
+         * domains are indexed by offset (wider ranges are searched lazily).
+         */
+        private static final long MAX_SPREAD = 64;
+
+        /** The checker testing the satisfaction of the constraint. */
+        private final Checker checker;
+        /** The domains whose values are to be supported. */
+        private final List<Domain> domains;
+        /** The lower bound of each domain. */
+        private final int[] lb;
+        /** The upper bound of each domain. */
+        private final int[] ub;
+        /** inDomain[var][value - lb[var]] iff the value belongs to the domain. */
+        private final boolean[][] inDomain;
+        /** supported[var][value - lb[var]] iff a bound support was found. */
+        private final boolean[][] supported;
+        /** The number of values for which no bound support was found yet. */
+        private int missing;
+
+        /**
+         * @param domains some non empty domains
+         * @return true iff the range of every domain is dense enough for its
+         * values to be indexed by their offset from the lower bound.
+         */
+        static boolean fits(final List<Domain> domains) {
+            for (Domain dom : domains) {
+                final long span = (long) dom.maximum() - dom.minimum() + 1;
+                if (span > MAX_SPREAD * dom.size()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Creates a new scan. The domains must fit (see `fits`).
+         *
+         * @param checker the checker testing the satisfaction of the constraint
+         * @param domains the domains whose values are to be supported
+         */
+        BoundSupportScan(final Checker checker, final List<Domain> domains) {
+            final int arity = domains.size();
+
+            this.checker   = checker;
+            this.domains   = domains;
+            this.lb        = new int[arity];
+            this.ub        = new int[arity];
+            this.inDomain  = new boolean[arity][];
+            this.supported = new boolean[arity][];
+            this.missing   = 0;
+
+            for (int var = 0; var < arity; var++) {
+                final Domain dom = domains.get(var);
+                lb[var]        = dom.minimum();
+                ub[var]        = dom.maximum();
+                inDomain[var]  = new boolean[(int) ((long) ub[var] - lb[var] + 1)];
+                supported[var] = new boolean[inDomain[var].length];
+                for (int value : dom) {
+                    inDomain[var][value - lb[var]] = true;
+                }
+                missing += dom.size();
+            }
+        }
+
+        /**
+         * Enumerates the bound supports.
+         *
+         * @return a list of domains where the ith domain comprises exactly the
+         * values of `domains.get(i)` having a bound support.
+         */
+        List<Domain> run() {
+            final int   arity = lb.length;
+            final int[] tuple = Arrays.copyOf(lb, arity);
+
+            while (missing > 0) {
+                if (wouldSupportSomething(tuple)
+                        && checker.test(Assignment.from(tuple))) {
+                    markSupported(tuple);
+                }
+
+                // move on to the next tuple
+                int var = arity - 1;
+                while (var >= 0 && tuple[var] == ub[var]) {
+                    tuple[var] = lb[var];
+                    var--;
+                }
+                if (var < 0) {
+                    break;
+                }
+                tuple[var]++;
+            }
+
+            final List<Domain> result = new ArrayList<>(arity);
+            for (int var = 0; var < arity; var++) {
+                if (missing == 0) {
+                    result.add(domains.get(var));
+                } else {
+                    final int[] kept = new int[supported[var].length];
+                    int size = 0;
+                    for (int i = 0; i < kept.length; i++) {
+                        if (supported[var][i]) {
+                            kept[size++] = lb[var] + i;
+                        }
+                    }
+                    result.add(Domain.from(Arrays.copyOf(kept, size)));
+                }
+            }
+            return result;
+        }
+
+        /**
+         * @param tuple some bound support candidate
+         * @return true iff the given tuple would support some value which has
+         * not been found to be supported yet.
+         */
+        private boolean wouldSupportSomething(final int[] tuple) {
+            for (int var = 0; var < tuple.length; var++) {
+                final int i = tuple[var] - lb[var];
+                if (inDomain[var][i] && !supported[var][i]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Marks all the values (belonging to the domains) of the given tuple
+         * as supported.
+         *
+         * @param tuple a bound support
+         */
+        private void markSupported(final int[] tuple) {
+            for (int var = 0; var < tuple.length; var++) {
+                final int i = tuple[var] - lb[var];
+                if (inDomain[var][i] && !supported[var][i]) {
+                    supported[var][i] = true;
+                    missing--;
+                }
+            }
+        }
+    }
 }
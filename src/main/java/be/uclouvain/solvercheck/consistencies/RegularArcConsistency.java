@@ -0,0 +1,283 @@
+package be.uclouvain.solvercheck.consistencies;
+
+import be.uclouvain.solvercheck.checkers.Automaton;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.Operator;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class implements an arc consistent (GAC) filter dedicated to the
+ * regular constraint. It works on the layered graph of the constraint (one
+ * layer of states per variable) and runs in O(n.|Q|.d) time for n variables,
+ * |Q| states and domains of size d.
+ *
+ * .. Algorithm::
+ *    A forward pass computes the states which can be reached from the
+ *    initial state at each layer, and a backward pass computes the states
+ *    from which some accepting state can be reached at the last layer. A
+ *    value v of the i-th variable is supported iff some forward state q of
+ *    layer i is such that next(q, v) is a backward state of layer i+1.
+ *
+ * .. Incrementality::
+ *    The `Layers` of some partial assignment can be restricted in place
+ *    (see `StatefulRegularConsistency`). After a restriction of the i-th
+ *    variable, the forward pass resumes at layer i+1 and the backward pass
+ *    at layer i; both stop as soon as a layer is left unchanged. Only the
+ *    variables whose layers have changed are revised.
+ *
+ * .. Note::
+ *    This filter is equivalent to
+ *    `new ArcConsitency(Checkers.regular(automaton))`.
+ */
+public final class RegularArcConsistency implements Filter {
+    /** The automaton recognizing the solutions. */
+    private final Automaton automaton;
+
+    /**
+     * Creates a new filter.
+     *
+     * @param automaton the automaton recognizing the solutions
+     */
+    public RegularArcConsistency(final Automaton automaton) {
+        this.automaton = automaton;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PartialAssignment filter(final PartialAssignment partial) {
+        return newLayers(partial).filtered();
+    }
+
+    /**
+     * @param partial some partial assignment
+     * @return the layered graph of the given partial assignment
+     */
+    public Layers newLayers(final PartialAssignment partial) {
+        return new Layers(partial);
+    }
+
+    /**
+     * The layered graph of the constraint over some partial assignment: the
+     * forward and backward reachable states of each layer. The layers are
+     * computed over the domains as they were restricted, without the values
+     * pruned by the filter (the pruned values lie on no accepting path, hence
+     * they do not alter the result).
+     */
+    public final class Layers {
+        /** The restricted (but not filtered) domains. */
+        private final List<Domain> domains;
+        /** forward[i][q] iff q is reached from the initial state at layer i. */
+        private final boolean[][] forward;
+        /** backward[i][q] iff some accepting state is reached from q. */
+        private final boolean[][] backward;
+        /** The filtered domains (null when the constraint is violated). */
+        private List<Domain> filtered;
+
+        /**
+         * Computes the layered graph of the given partial assignment.
+         *
+         * @param partial some partial assignment
+         */
+        private Layers(final PartialAssignment partial) {
+            final int n        = partial.size();
+            final int nbStates = automaton.nbStates();
+
+            this.domains  = new ArrayList<>(partial);
+            this.forward  = new boolean[n + 1][nbStates];
+            this.backward = new boolean[n + 1][nbStates];
+
+            if (partial.isError()) {
+                this.filtered = null;
+                return;
+            }
+
+            forward[0][automaton.initial()] = true;
+            for (int i = 0; i < n; i++) {
+                forward[i + 1] = forwardStep(forward[i], domains.get(i));
+            }
+            for (int q = 0; q < nbStates; q++) {
+                backward[n][q] = automaton.isAccepting(q);
+            }
+            for (int i = n - 1; i >= 0; i--) {
+                backward[i] = backwardStep(backward[i + 1], domains.get(i));
+            }
+
+            this.filtered = new ArrayList<>(domains);
+            reviseAll(0, n);
+        }
+
+        /**
+         * Creates a copy of the given layers.
+         *
+         * @param other the layers being copied
+         */
+        private Layers(final Layers other) {
+            this.domains  = new ArrayList<>(other.domains);
+            this.forward  = deepCopy(other.forward);
+            this.backward = deepCopy(other.backward);
+            this.filtered = other.filtered == null
+                    ? null : new ArrayList<>(other.filtered);
+        }
+
+        /** @return a copy of these layers (which can be restricted freely) */
+        public Layers copy() {
+            return new Layers(this);
+        }
+
+        /** @return the filtered partial assignment */
+        public PartialAssignment filtered() {
+            if (filtered == null) {
+                return PartialAssignment.error(domains.size());
+            }
+            return PartialAssignment.from(filtered);
+        }
+
+        /**
+         * Restricts the domain of some variable and incrementally updates
+         * the layers and the filtered domains.
+         *
+         * @param var the variable being restricted
+         * @param op the operator of the restriction
+         * @param value the value of the restriction
+         * @return the filtered partial assignment
+         */
+        public PartialAssignment restrict(
+                final int var,
+                final Operator op,
+                final int value) {
+
+            if (filtered == null) {
+                return filtered();
+            }
+
+            final Domain dom = Domain.restrict(domains.get(var), op, value);
+            if (dom.size() == domains.get(var).size()) {
+                return filtered();
+            }
+            domains.set(var, dom);
+
+            final int n = domains.size();
+
+            // forward pass: layers var+1 .. last
+            int lastForward = var;
+            for (int i = var + 1; i <= n; i++) {
+                final boolean[] layer = forwardStep(forward[i - 1], domains.get(i - 1));
+                if (Arrays.equals(layer, forward[i])) {
+                    break;
+                }
+                forward[i]  = layer;
+                lastForward = i;
+            }
+
+            // backward pass: layers var .. first
+            int firstBackward = var + 1;
+            for (int i = var; i >= 0; i--) {
+                final boolean[] layer = backwardStep(backward[i + 1], domains.get(i));
+                if (Arrays.equals(layer, backward[i])) {
+                    break;
+                }
+                backward[i]   = layer;
+                firstBackward = i;
+            }
+
+            // the variable i depends on forward[i] and backward[i+1]
+            reviseAll(Math.max(0, firstBackward - 1), Math.min(n, lastForward + 1));
+            return filtered();
+        }
+
+        /**
+         * Revises the filtered domains of the variables in [from, to).
+         *
+         * @param from the first variable to revise
+         * @param to the variable following the last one to revise
+         */
+        private void reviseAll(final int from, final int to) {
+            if (!backward[0][automaton.initial()]) {
+                filtered = null;
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                filtered.set(i, revise(i));
+            }
+        }
+
+        /**
+         * @param i some variable
+         * @return the values of the i-th variable having a support
+         */
+        private Domain revise(final int i) {
+            final int nbStates = automaton.nbStates();
+            final List<Integer> kept = new ArrayList<>();
+            for (int value : domains.get(i)) {
+                for (int q = 0; q < nbStates; q++) {
+                    if (!forward[i][q]) {
+                        continue;
+                    }
+                    final int target = automaton.next(q, value);
+                    if (target != Automaton.NONE && backward[i + 1][target]) {
+                        kept.add(value);
+                        break;
+                    }
+                }
+            }
+            return Domain.from(kept);
+        }
+    }
+
+    /**
+     * @param layer the states reached at some layer
+     * @param domain the domain of the variable of that layer
+     * @return the states reached at the next layer
+     */
+    private boolean[] forwardStep(final boolean[] layer, final Domain domain) {
+        final boolean[] next = new boolean[automaton.nbStates()];
+        for (int q = 0; q < layer.length; q++) {
+            if (!layer[q]) {
+                continue;
+            }
+            for (int value : domain) {
+                final int target = automaton.next(q, value);
+                if (target != Automaton.NONE) {
+                    next[target] = true;
+                }
+            }
+        }
+        return next;
+    }
+
+    /**
+     * @param layer the states reaching an accepting state from the next layer
+     * @param domain the domain of the variable of the current layer
+     * @return the states reaching an accepting state from the current layer
+     */
+    private boolean[] backwardStep(final boolean[] layer, final Domain domain) {
+        final boolean[] prev = new boolean[automaton.nbStates()];
+        for (int q = 0; q < prev.length; q++) {
+            for (int value : domain) {
+                final int target = automaton.next(q, value);
+                if (target != Automaton.NONE && layer[target]) {
+                    prev[q] = true;
+                    break;
+                }
+            }
+        }
+        return prev;
+    }
+
+    /**
+     * @param matrix some matrix
+     * @return a deep copy of the given matrix
+     */
+    private static boolean[][] deepCopy(final boolean[][] matrix) {
+        final boolean[][] copy = new boolean[matrix.length][];
+        for (int i = 0; i < matrix.length; i++) {
+            copy[i] = matrix[i].clone();
+        }
+        return copy;
+    }
+}
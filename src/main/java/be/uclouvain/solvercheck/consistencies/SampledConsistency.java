@@ -0,0 +1,280 @@
+package be.uclouvain.solvercheck.consistencies;
+
+import be.uclouvain.solvercheck.core.data.Assignment;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Checker;
+import be.uclouvain.solvercheck.core.task.Filter;
+import be.uclouvain.solvercheck.randomness.Randomness;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class provides an approximate (Monte Carlo) version of arc
+ * consistency, meant for the partial assignments whose supports are way too
+ * numerous to be enumerated (e.g. a few variables with domains ranging over
+ * thousands of values). Instead of enumerating the cartesian product of the
+ * domains, the supports of each value are looked for among a fixed number of
+ * randomly sampled tuples where the variable is fixed to that value.
+ *
+ * A value is only kept when an actual support was found for it. Hence, the
+ * filtered domains are always subsets of the arc consistent ones (and thus of
+ * the range, Bound(D) and Bound(Z) consistent ones too). This lets an user
+ * check one side of the propagation strength of a propagator:
+ *
+ * <pre>
+ *     a(propagator).isWeakerThan(sampled(checker, 1000))
+ * </pre>
+ *
+ * Any failure of that assertion is a definite bug: the propagator pruned a
+ * value for which a support was found.
+ *
+ * .. Confidence::
+ *    A value for which no support was found after `n` samples is not
+ *    necessarily unsupported. However, if a fraction `p` of the tuples
+ *    assigning that value to the variable were supports, the probability of
+ *    missing all of them would be (1-p)^n. Hence, with confidence `c`, that
+ *    fraction is lower than -ln(1-c)/n (about 3/n at 95%: the "rule of
+ *    three"). These figures are reported by `sample()`.
+ *
+ * .. Note::
+ *    The random generator is seeded with both the given seed and the partial
+ *    assignment being filtered. The filter is thus a pure (reproducible)
+ *    function of its input, which can safely be used from several threads.
+ */
+public final class SampledConsistency implements Filter {
+    /** The confidence level used by default (that of the rule of three). */
+    public static final double DEFAULT_CONFIDENCE = 0.95;
+
+    /** The checker whose supports are sampled. */
+    private final Checker checker;
+    /** The maximum number of tuples sampled for each value. */
+    private final int samplesPerValue;
+    /** The seed of the random generator. */
+    private final long seed;
+
+    /**
+     * Creates a new sampled filter.
+     *
+     * @param checker the checker whose supports are sampled
+     * @param samplesPerValue the maximum number of tuples sampled when
+     *                        looking for the support of one value
+     * @param seed the seed of the random generator
+     */
+    public SampledConsistency(
+            final Checker checker,
+            final int samplesPerValue,
+            final long seed) {
+
+        if (samplesPerValue <= 0) {
+            throw new IllegalArgumentException("samplesPerValue must be positive");
+        }
+        this.checker         = checker;
+        this.samplesPerValue = samplesPerValue;
+        this.seed            = seed;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PartialAssignment filter(final PartialAssignment partial) {
+        return sample(partial).supported();
+    }
+
+    /**
+     * Samples the supports of all the values of the given partial assignment.
+     *
+     * @param partial the partial assignment whose supports are sampled
+     * @return a report telling which values were found supported, and how
+     * confident one can be about the unsupported ones.
+     */
+    public Report sample(final PartialAssignment partial) {
+        final int arity = partial.size();
+        final Report report = new Report(partial);
+        if (partial.isError()) {
+            return report;
+        }
+
+        final Randomness rnd   = new Randomness(seed * 31 + partial.hashCode());
+        final int[]      tuple = new int[arity];
+
+        // Round robin over the values which are still unsupported, so that
+        // each of them gets the same share of the sampling budget.
+        for (int round = 0; round < samplesPerValue; round++) {
+            boolean done = true;
+
+            for (int var = 0; var < arity; var++) {
+                for (int idx = 0; idx < report.values[var].length; idx++) {
+                    if (report.supported[var][idx]) {
+                        continue;
+                    }
+                    done = false;
+
+                    for (int other = 0; other < arity; other++) {
+                        final int[] values = report.values[other];
+                        tuple[other] = values[rnd.nextInt(values.length)];
+                    }
+                    tuple[var] = report.values[var][idx];
+                    report.samples[var][idx]++;
+
+                    if (checker.test(Assignment.from(tuple))) {
+                        report.support(tuple);
+                    }
+                }
+            }
+
+            if (done) {
+                break;
+            }
+        }
+        return report;
+    }
+
+    /**
+     * The outcome of the sampling of the supports of some partial assignment.
+     */
+    public static final class Report {
+        /** The partial assignment whose supports were sampled. */
+        private final PartialAssignment partial;
+        /** The values of each domain (in increasing order). */
+        private final int[][] values;
+        /** Whether a support was found for each value. */
+        private final boolean[][] supported;
+        /** The number of tuples sampled for each value. */
+        private final int[][] samples;
+
+        /**
+         * Creates an empty report.
+         *
+         * @param partial the partial assignment whose supports are sampled
+         */
+        private Report(final PartialAssignment partial) {
+            final int arity = partial.size();
+
+            this.partial   = partial;
+            this.values    = new int[arity][];
+            this.supported = new boolean[arity][];
+            this.samples   = new int[arity][];
+
+            for (int var = 0; var < arity; var++) {
+                values[var]    = partial.get(var).increasingStream()
+                                        .mapToInt(Integer::intValue).toArray();
+                supported[var] = new boolean[values[var].length];
+                samples[var]   = new int[values[var].length];
+            }
+        }
+
+        /**
+         * Marks all the values of the given solution as supported.
+         *
+         * @param solution a solution of the checker
+         */
+        private void support(final int[] solution) {
+            for (int var = 0; var < solution.length; var++) {
+                supported[var][indexOf(var, solution[var])] = true;
+            }
+        }
+
+        /**
+         * @return the partial assignment where only the values for which a
+         * support was found are kept (an error when no support was found).
+         */
+        public PartialAssignment supported() {
+            if (partial.isError()) {
+                return PartialAssignment.error(partial.size());
+            }
+
+            final List<Domain> domains = new ArrayList<>(values.length);
+            for (int var = 0; var < values.length; var++) {
+                final List<Integer> kept = new ArrayList<>();
+                for (int idx = 0; idx < values[var].length; idx++) {
+                    if (supported[var][idx]) {
+                        kept.add(values[var][idx]);
+                    }
+                }
+                if (kept.isEmpty()) {
+                    return PartialAssignment.error(partial.size());
+                }
+                domains.add(Domain.from(kept));
+            }
+            return PartialAssignment.from(domains);
+        }
+
+        /**
+         * @param var some variable
+         * @param value some value of the domain of `var`
+         * @return true iff an actual support was found for `var = value`
+         */
+        public boolean isSupported(final int var, final int value) {
+            return supported[var][indexOf(var, value)];
+        }
+
+        /**
+         * @param var some variable
+         * @param value some value of the domain of `var`
+         * @return the number of tuples which were sampled to look for a
+         * support of `var = value`
+         */
+        public int nbSamples(final int var, final int value) {
+            return samples[var][indexOf(var, value)];
+        }
+
+        /**
+         * Same as `densityBound(var, value, DEFAULT_CONFIDENCE)`.
+         *
+         * @param var some variable
+         * @param value some value of the domain of `var`
+         * @return an upper bound on the fraction of the tuples assigning
+         * `value` to `var` which are supports (at 95% confidence)
+         */
+        public double densityBound(final int var, final int value) {
+            return densityBound(var, value, DEFAULT_CONFIDENCE);
+        }
+
+        /**
+         * Computes an upper bound on the fraction of the tuples assigning
+         * `value` to `var` which are actual supports of the checker. That
+         * bound holds with the given confidence level.
+         *
+         * .. Note::
+         *    When a support was found for `var = value`, nothing can be said
+         *    and 1.0 is returned.
+         *
+         * @param var some variable
+         * @param value some value of the domain of `var`
+         * @param confidence the desired confidence level (in ]0, 1[)
+         * @return an upper bound on the fraction of the tuples assigning
+         * `value` to `var` which are supports
+         */
+        public double densityBound(
+                final int var,
+                final int value,
+                final double confidence) {
+
+            if (confidence <= 0 || confidence >= 1) {
+                throw new IllegalArgumentException("confidence must be in ]0, 1[");
+            }
+
+            final int idx = indexOf(var, value);
+            if (supported[var][idx] || samples[var][idx] == 0) {
+                return 1.0;
+            }
+            return Math.min(1.0, -Math.log(1 - confidence) / samples[var][idx]);
+        }
+
+        /**
+         * @param var some variable
+         * @param value some value
+         * @return the index of `value` in the domain of `var`
+         */
+        private int indexOf(final int var, final int value) {
+            final int idx = Arrays.binarySearch(values[var], value);
+            if (idx < 0) {
+                throw new IllegalArgumentException(String.format(
+                   "%d does not belong to the domain of variable %d", value, var));
+            }
+            return idx;
+        }
+    }
+}
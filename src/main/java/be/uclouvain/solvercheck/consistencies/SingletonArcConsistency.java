@@ -0,0 +1,141 @@
+package be.uclouvain.solvercheck.consistencies;
+
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Checker;
+import be.uclouvain.solvercheck.core.task.Filter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import static be.uclouvain.solvercheck.consistencies.ConsistencyUtil.covers;
+import static be.uclouvain.solvercheck.core.data.Operator.EQ;
+import static be.uclouvain.solvercheck.core.data.Operator.NE;
+
+/**
+ * This class implements a singleton arc consistent (SAC) filter. A value
+ * `v` of some variable `x` is singleton arc consistent iff enforcing the arc
+ * consistency of the network where `x` is assigned to `v` does not lead to
+ * a failure. All the values that are not SAC are pruned, and the process is
+ * repeated until a fixpoint is reached.
+ *
+ * .. Incrementality::
+ *    The singleton tests never start from scratch:
+ *    <ul>
+ *      <li>the domains are kept arc consistent all along the process. Hence,
+ *      each singleton test only needs to propagate the constraints bearing
+ *      on the variable that was assigned;</li>
+ *      <li>the residual supports of the network are shared by all the
+ *      singleton tests (see ConstraintNetwork);</li>
+ *      <li>the arc consistent closure of each successful singleton test is
+ *      remembered. As long as that closure is still covered by the current
+ *      domains, the test is known to succeed again and is skipped.</li>
+ *    </ul>
+ *
+ * .. Note::
+ *    On one single checker, SAC is equivalent to arc consistency: a value
+ *    has a support iff its singleton test succeeds. SAC is only stronger than
+ *    arc consistency on networks of several constraints.
+ *
+ * @see ConstraintNetwork
+ */
+public final class SingletonArcConsistency implements Filter {
+    /** Provides the network to propagate for any given arity. */
+    private final IntFunction<ConstraintNetwork> networks;
+
+    /**
+     * Creates a SAC filter for the given network.
+     *
+     * @param network the network whose singleton arc consistency is enforced
+     */
+    public SingletonArcConsistency(final ConstraintNetwork network) {
+        this.networks = arity -> network;
+    }
+
+    /**
+     * Creates a SAC filter for the given checker (which bears on all the
+     * variables of the partial assignments).
+     *
+     * @param checker the checker whose singleton arc consistency is enforced
+     */
+    public SingletonArcConsistency(final Checker checker) {
+        final Map<Integer, ConstraintNetwork> cache = new ConcurrentHashMap<>();
+
+        this.networks = arity -> cache.computeIfAbsent(arity, n ->
+                new ConstraintNetwork().post(
+                        checker, IntStream.range(0, n).toArray()));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PartialAssignment filter(final PartialAssignment partial) {
+        final int arity = partial.size();
+        if (partial.isError()) {
+            return PartialAssignment.error(arity);
+        }
+        if (arity == 0) {
+            return partial;
+        }
+
+        final ConstraintNetwork          network  = networks.apply(arity);
+        final ConstraintNetwork.Residues residues = network.newResidues();
+        final Map<Long, PartialAssignment> closures = new HashMap<>();
+
+        PartialAssignment current = network.propagate(partial, residues);
+
+        boolean fixpoint = false;
+        while (!fixpoint && !current.isError()) {
+            fixpoint = true;
+
+            for (int var = 0; var < arity && !current.isError(); var++) {
+                if (current.get(var).size() == 1) {
+                    // the singleton test boils down to the current AC.
+                    continue;
+                }
+
+                for (int value : current.get(var)) {
+                    if (!current.get(var).contains(value)) {
+                        continue; // pruned by a previous removal
+                    }
+                    final long              key     = key(var, value);
+                    final PartialAssignment closure = closures.get(key);
+                    if (closure != null && covers(current, closure)) {
+                        continue;
+                    }
+
+                    final PartialAssignment test = network.propagate(
+                            PartialAssignment.restrict(current, var, EQ, value),
+                            residues,
+                            var);
+
+                    if (test.isError()) {
+                        closures.remove(key);
+                        current = network.propagate(
+                                PartialAssignment.restrict(current, var, NE, value),
+                                residues,
+                                var);
+                        fixpoint = false;
+                        if (current.isError()) {
+                            break;
+                        }
+                    } else {
+                        closures.put(key, test);
+                    }
+                }
+            }
+        }
+
+        return current.isError() ? PartialAssignment.error(arity) : current;
+    }
+
+    /**
+     * @param var some variable
+     * @param value some value
+     * @return the key identifying the singleton test of `var = value`
+     */
+    private static long key(final int var, final int value) {
+        return ((long) var << Integer.SIZE) | (value & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,20 @@
+package be.uclouvain.solvercheck.consistencies;
+
+/**
+ * This enumeration describes the strategies that can be used to compute some
+ * consistency level of a checker (see AdaptiveConsistency).
+ *
+ * @see AdaptiveConsistency
+ */
+public enum Strategy {
+    /** All the (bound) supports are enumerated sequentially. */
+    BRUTE_FORCE,
+    /** The supports are searched for depth-first (see SupportSearch). */
+    PRUNED_SEARCH,
+    /** Only the supports of the bounds are looked for, one value at a time. */
+    BOUND_PROBING,
+    /** The supports are enumerated in parallel (see ParallelSupport). */
+    PARALLEL,
+    /** The solutions are compiled into a table (see CompactTable). */
+    COMPILED_TABLE
+}
@@ -0,0 +1,83 @@
+package be.uclouvain.solvercheck.consistencies;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * This class computes the strongly connected components of a directed
+ * graph (iterative version of Tarjan's algorithm). It is shared by the
+ * matching and flow based filters (allDiff, gcc) which all tell whether an
+ * edge belongs to some solution by looking at the components of a residual
+ * graph.
+ */
+final class StronglyConnectedComponents {
+    /** A utility class has no public constructor. */
+    private StronglyConnectedComponents() { }
+
+    /**
+     * Computes the strongly connected components of some graph.
+     *
+     * @param size the number of nodes of the graph (nodes are [0, size))
+     * @param successors the function returning the successors of each node.
+     *                   It is called exactly once per node.
+     * @return the component of each node
+     */
+    static int[] of(final int size, final IntFunction<int[]> successors) {
+        final int[]     order     = new int[size];
+        final int[]     low       = new int[size];
+        final int[]     component = new int[size];
+        final boolean[] onStack   = new boolean[size];
+        final int[][]   succ      = new int[size][];
+        final int[]     next      = new int[size];
+
+        Arrays.fill(order, -1);
+        final ArrayDeque<Integer> stack = new ArrayDeque<>();
+        final ArrayDeque<Integer> calls = new ArrayDeque<>();
+        int counter = 0;
+        int nbComps = 0;
+
+        for (int root = 0; root < size; root++) {
+            if (order[root] >= 0) {
+                continue;
+            }
+            calls.push(root);
+            while (!calls.isEmpty()) {
+                final int node = calls.peek();
+                if (order[node] < 0) {
+                    order[node] = counter;
+                    low[node]   = counter++;
+                    succ[node]  = successors.apply(node);
+                    stack.push(node);
+                    onStack[node] = true;
+                }
+
+                if (next[node] < succ[node].length) {
+                    final int child = succ[node][next[node]++];
+                    if (order[child] < 0) {
+                        calls.push(child);
+                    } else if (onStack[child]) {
+                        low[node] = Math.min(low[node], order[child]);
+                    }
+                    continue;
+                }
+
+                calls.pop();
+                if (!calls.isEmpty()) {
+                    final int parent = calls.peek();
+                    low[parent] = Math.min(low[parent], low[node]);
+                }
+                if (low[node] == order[node]) {
+                    int member;
+                    do {
+                        member = stack.pop();
+                        onStack[member]   = false;
+                        component[member] = nbComps;
+                    } while (member != node);
+                    nbComps++;
+                }
+            }
+        }
+        return component;
+    }
+}
@@ -0,0 +1,365 @@
+package be.uclouvain.solvercheck.consistencies;
+
+import be.uclouvain.solvercheck.checkers.SumChecker;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.Operator;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.DomainFilter;
+import be.uclouvain.solvercheck.core.task.Filter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+import static be.uclouvain.solvercheck.consistencies.ConsistencyUtil.boundDomains;
+import static be.uclouvain.solvercheck.consistencies.ConsistencyUtil.shrinkBounds;
+
+/**
+ * This class implements the Bound(Z) and Bound(D) consistencies of a
+ * (weighted) linear sum without ever enumerating the supports of the
+ * constraint. It is used by `BoundZConsistency` and `BoundDConsistency`
+ * whenever they are given a `SumChecker`, which makes the sums over dozens of
+ * variables testable with the reference filters.
+ *
+ * .. Slack::
+ *    The smallest and largest values of the sum are maintained incrementally.
+ *    Given these, the smallest and largest contributions of all the variables
+ *    but one are known in O(1), and so is the support of any bound of that
+ *    variable as far as inequalities are concerned. A round over all the
+ *    variables thus costs O(n).
+ *
+ * .. Exact Probing::
+ *    When the constraint is an equality, the slack only tells that the
+ *    target lies between the smallest and largest sums of the other
+ *    variables. That suffices when these sums form an interval (unit weights
+ *    over ranges), but not when the domains have holes or the weights differ
+ *    from one. In that case, the probed bounds are checked against the exact
+ *    set of reachable sums, which is computed as a bitset.
+ *
+ * @see SumChecker
+ */
+public final class SumConsistency implements Filter {
+    /** The largest number of sums held by the bitset of reachable sums. */
+    private static final long MAX_REACHABLE = 1L << 26;
+    /** The number of bits in a word of the bitset. */
+    private static final int WORD = Long.SIZE;
+
+    /** The sum constraint being filtered. */
+    private final SumChecker sum;
+    /** True for Bound(Z), false for Bound(D). */
+    private final boolean relaxed;
+    /** The smallest admissible sum (Long.MIN_VALUE when unbounded). */
+    private final long lower;
+    /** The largest admissible sum (Long.MAX_VALUE when unbounded). */
+    private final long upper;
+
+    /**
+     * Creates a new filter.
+     *
+     * @param sum the sum constraint to filter
+     * @param relaxed true iff the bound supports are to be looked for in the
+     *                ranges of the domains (Bound(Z)) rather than in the
+     *                domains themselves (Bound(D))
+     */
+    public SumConsistency(final SumChecker sum, final boolean relaxed) {
+        this.sum     = sum;
+        this.relaxed = relaxed;
+
+        final long c = sum.constant();
+        switch (sum.operator()) {
+            case EQ: lower = c;              upper = c;              break;
+            case LE: lower = Long.MIN_VALUE; upper = c;              break;
+            case LT: lower = Long.MIN_VALUE; upper = c - 1;          break;
+            case GE: lower = c;              upper = Long.MAX_VALUE; break;
+            case GT: lower = c + 1;          upper = Long.MAX_VALUE; break;
+            case NE: lower = Long.MIN_VALUE; upper = Long.MAX_VALUE; break;
+            default:
+                throw new RuntimeException("This should be unreachable");
+        }
+    }
+
+    /**
+     * Returns a domain filter ensuring that the bounds of the filtered domain
+     * have a (bound) support. This costs O(n) per call.
+     *
+     * @param sum the sum constraint to filter
+     * @param relaxed true for Bound(Z), false for Bound(D)
+     * @return a DomainFilter that ensures the bound consistency of the sum
+     */
+    public static DomainFilter domainFilter(
+            final SumChecker sum,
+            final boolean relaxed) {
+
+        final SumConsistency filter = new SumConsistency(sum, relaxed);
+        return (var, domains) -> {
+            sum.checkArity(domains.size());
+
+            long othersMin = 0;
+            long othersMax = 0;
+            for (int j = 0; j < domains.size(); j++) {
+                if (j != var) {
+                    othersMin += filter.minContribution(j, domains.get(j));
+                    othersMax += filter.maxContribution(j, domains.get(j));
+                }
+            }
+            final boolean interval = filter.hasUnitWeights(domains.size())
+                    && (relaxed || allIntervals(domains));
+            return filter.revise(var, domains, othersMin, othersMax, interval);
+        };
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PartialAssignment filter(final PartialAssignment partial) {
+        final int arity = partial.size();
+        if (partial.isError()) {
+            return PartialAssignment.error(arity);
+        }
+        sum.checkArity(arity);
+
+        final List<Domain> domains = new ArrayList<>(partial);
+        final long[] minC = new long[arity];
+        final long[] maxC = new long[arity];
+        long smin = 0;
+        long smax = 0;
+        for (int var = 0; var < arity; var++) {
+            minC[var] = minContribution(var, domains.get(var));
+            maxC[var] = maxContribution(var, domains.get(var));
+            smin += minC[var];
+            smax += maxC[var];
+        }
+
+        final boolean unit = hasUnitWeights(arity);
+
+        boolean fixpoint = false;
+        while (!fixpoint) {
+            fixpoint = true;
+
+            // shrinking the bounds of an interval yields an interval: this
+            // remains true all along the round.
+            final boolean interval = unit && (relaxed || allIntervals(domains));
+
+            for (int var = 0; var < arity; var++) {
+                final Domain dom     = domains.get(var);
+                final Domain reduced = revise(
+                        var, domains, smin - minC[var], smax - maxC[var], interval);
+
+                if (reduced.isEmpty()) {
+                    return PartialAssignment.error(arity);
+                }
+                if (reduced.size() != dom.size()) {
+                    domains.set(var, reduced);
+                    smin     -= minC[var];
+                    smax     -= maxC[var];
+                    minC[var] = minContribution(var, reduced);
+                    maxC[var] = maxContribution(var, reduced);
+                    smin     += minC[var];
+                    smax     += maxC[var];
+                    fixpoint  = false;
+                }
+            }
+        }
+        return PartialAssignment.from(domains);
+    }
+
+    /**
+     * Shrinks the bounds of the domain of `var` until they have a (bound)
+     * support.
+     *
+     * @param var the variable whose domain is filtered
+     * @param domains the current domains
+     * @param othersMin the smallest sum of the other variables
+     * @param othersMax the largest sum of the other variables
+     * @param interval true when the sums of the other variables are known to
+     *                 form an interval
+     * @return the filtered domain of `var`
+     */
+    private Domain revise(
+            final int var,
+            final List<Domain> domains,
+            final long othersMin,
+            final long othersMax,
+            final boolean interval) {
+
+        final Domain dom    = domains.get(var);
+        final long   weight = sum.weight(var);
+
+        if (sum.operator() == Operator.NE) {
+            // the other variables can only avoid the constant when their sum
+            // is not fixed.
+            if (othersMin != othersMax) {
+                return dom;
+            }
+            return shrinkBounds(dom,
+                    v -> weight * v + othersMin != sum.constant());
+        }
+
+        final IntPredicate slack = v -> {
+            final long contribution = weight * v;
+            return (lower == Long.MIN_VALUE || contribution + othersMax >= lower)
+                && (upper == Long.MAX_VALUE || contribution + othersMin <= upper);
+        };
+
+        if (lower != upper || interval) {
+            return shrinkBounds(dom, slack);
+        }
+
+        // the reachable sums are only computed when some value passes the
+        // slack test.
+        final Reachable[] reachable = new Reachable[1];
+        return shrinkBounds(dom, v -> {
+            if (!slack.test(v)) {
+                return false;
+            }
+            if (reachable[0] == null) {
+                reachable[0] = new Reachable(var, domains, othersMin, othersMax);
+            }
+            return reachable[0].contains(lower - weight * v, v);
+        });
+    }
+
+    /**
+     * @param var some variable
+     * @param dom the domain of that variable
+     * @return the smallest contribution of `var` to the sum
+     */
+    private long minContribution(final int var, final Domain dom) {
+        final long weight = sum.weight(var);
+        return Math.min(weight * dom.minimum(), weight * dom.maximum());
+    }
+
+    /**
+     * @param var some variable
+     * @param dom the domain of that variable
+     * @return the largest contribution of `var` to the sum
+     */
+    private long maxContribution(final int var, final Domain dom) {
+        final long weight = sum.weight(var);
+        return Math.max(weight * dom.minimum(), weight * dom.maximum());
+    }
+
+    /**
+     * @param arity the number of variables
+     * @return true iff the sum only has weights -1 and 1 (in which case the
+     * sums of intervals form an interval).
+     */
+    private boolean hasUnitWeights(final int arity) {
+        if (!sum.isWeighted()) {
+            return true;
+        }
+        for (int var = 0; var < arity; var++) {
+            if (Math.abs(sum.weight(var)) != 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param domains some domains
+     * @return true iff none of the domains has a hole
+     */
+    private static boolean allIntervals(final List<Domain> domains) {
+        for (Domain dom : domains) {
+            if ((long) dom.maximum() - dom.minimum() + 1 != dom.size()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The set of sums which can be reached by all the variables but one.
+     */
+    private final class Reachable {
+        /** The variable which is excluded. */
+        private final int var;
+        /** The domains (or ranges) of the variables. */
+        private final List<Domain> domains;
+        /** The smallest sum (which is represented by bit 0). */
+        private final long base;
+        /** The reachable sums (null when there are too many of them). */
+        private final long[] bits;
+
+        /**
+         * Computes the sums reachable by the variables other than `var`.
+         *
+         * @param var the excluded variable
+         * @param domains the current domains
+         * @param othersMin the smallest sum of the other variables
+         * @param othersMax the largest sum of the other variables
+         */
+        Reachable(
+                final int var,
+                final List<Domain> domains,
+                final long othersMin,
+                final long othersMax) {
+
+            this.var     = var;
+            this.domains = relaxed ? boundDomains(domains) : domains;
+            this.base    = othersMin;
+
+            final long width = othersMax - othersMin + 1;
+            if (width > MAX_REACHABLE) {
+                this.bits = null;
+                return;
+            }
+
+            long[] current = new long[(int) ((width + WORD - 1) / WORD)];
+            current[0] = 1L;
+            for (int j = 0; j < this.domains.size(); j++) {
+                if (j == var) {
+                    continue;
+                }
+                final Domain dom    = this.domains.get(j);
+                final long   weight = sum.weight(j);
+                final long   offset = minContribution(j, dom);
+
+                final long[] next = new long[current.length];
+                for (int value : dom) {
+                    shiftOr(current, next, weight * value - offset);
+                }
+                current = next;
+            }
+            this.bits = current;
+        }
+
+        /**
+         * @param target some sum
+         * @param value the value of `var` being probed
+         * @return true iff the other variables can reach the given sum
+         */
+        boolean contains(final long target, final int value) {
+            if (bits == null) {
+                // too many sums: fall back onto a depth-first search
+                return new SupportSearch(sum).hasSupport(domains, var, value);
+            }
+
+            final long offset = target - base;
+            if (offset < 0 || offset >= (long) bits.length * WORD) {
+                return false;
+            }
+            return (bits[(int) (offset / WORD)] & (1L << (offset % WORD))) != 0;
+        }
+
+        /**
+         * Computes dst |= src << shift.
+         *
+         * @param src the source bitset
+         * @param dst the destination bitset
+         * @param shift the (non negative) shift
+         */
+        private void shiftOr(final long[] src, final long[] dst, final long shift) {
+            final int words = (int) (shift / WORD);
+            final int rest  = (int) (shift % WORD);
+
+            for (int i = dst.length - 1; i >= words; i--) {
+                long word = src[i - words] << rest;
+                if (rest != 0 && i - words - 1 >= 0) {
+                    word |= src[i - words - 1] >>> (WORD - rest);
+                }
+                dst[i] |= word;
+            }
+        }
+    }
+}
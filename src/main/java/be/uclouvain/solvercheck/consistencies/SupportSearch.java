@@ -0,0 +1,387 @@
+package be.uclouvain.solvercheck.consistencies;
+
+import be.uclouvain.solvercheck.core.data.Assignment;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.PartialChecker;
+import be.uclouvain.solvercheck.core.task.PartialChecker.PartialCheckResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * This class implements a depth-first search for the supports of some
+ * constraint. Instead of brute-forcing the complete cartesian product of the
+ * domains, it instantiates the variables one at a time and asks a
+ * `PartialChecker` whether the current node of the search tree is worth
+ * expanding. Whenever the partial checker rejects a node, the complete
+ * subtree rooted in that node is pruned. Whenever it accepts a node, all the
+ * values of the subtree are known to be supported without further
+ * exploration.
+ *
+ * .. Variable Ordering::
+ *    Variables are instantiated by increasing domain size (smallest domain
+ *    first). This is the classical first-fail heuristic: it keeps the tree
+ *    narrow at the top, where the pruning is the most rewarding.
+ *
+ * .. Note::
+ *    The search does not alter the domains it is given. Hence, one single
+ *    instance can be reused for many searches (and from many threads).
+ */
+public final class SupportSearch {
+    /** The checker used to prune the search tree and validate the leaves. */
+    private final PartialChecker checker;
+
+    /**
+     * Creates a new search engine for the given checker.
+     *
+     * @param checker the checker used to detect the dead ends of the search
+     *                and to validate the complete assignments.
+     */
+    public SupportSearch(final PartialChecker checker) {
+        this.checker = checker;
+    }
+
+    /**
+     * Computes the union of all the solutions of the constraint that can be
+     * built from the given domains. In other words, this method returns the
+     * arc consistent version of the given domains.
+     *
+     * @param domains the domains from which the supports are picked
+     * @return a partial assignment whose domains only contain the values
+     * that belong to some support. When no support exists, all its domains
+     * are empty.
+     */
+    public PartialAssignment supports(final List<Domain> domains) {
+        final Traversal root = new Traversal(domains, true);
+        root.explore(0);
+        return root.supported();
+    }
+
+    /**
+     * Tells whether there exists some support of the constraint in the given
+     * domains where `variable` is assigned to `value`.
+     *
+     * @param domains the domains from which the supports are picked
+     * @param variable the variable whose value must be supported
+     * @param value the value that must be supported
+     * @return true iff there exists a tuple $\tau$ of the product of the
+     * domains such that $\tau[variable] = value$ and $checker(\tau)$ holds.
+     */
+    public boolean hasSupport(
+            final List<Domain> domains,
+            final int variable,
+            final int value) {
+
+        if (!domains.get(variable).contains(value)) {
+            return false;
+        }
+
+        final List<Domain> fixed = new ArrayList<>(domains);
+        fixed.set(variable, Domain.singleton(value));
+
+        final Traversal root = new Traversal(fixed, false);
+        root.explore(0);
+        return root.found;
+    }
+
+    /**
+     * Looks for some support of the constraint in the given domains where
+     * `variable` is assigned to `value`.
+     *
+     * @param domains the domains from which the supports are picked
+     * @param variable the variable whose value must be supported
+     * @param value the value that must be supported
+     * @return a support $\tau$ of the product of the domains such that
+     * $\tau[variable] = value$, or null when there is no such support.
+     */
+    public int[] findSupport(
+            final List<Domain> domains,
+            final int variable,
+            final int value) {
+
+        if (!domains.get(variable).contains(value)) {
+            return null;
+        }
+
+        final List<Domain> fixed = new ArrayList<>(domains);
+        fixed.set(variable, Domain.singleton(value));
+
+        final Traversal root = new Traversal(fixed, false);
+        root.explore(0);
+        return root.witness;
+    }
+
+    /**
+     * Enumerates all the solutions of the constraint that can be built from
+     * the given domains. The subtrees rejected by the partial checker are
+     * pruned, and those it accepts are enumerated without any further check.
+     *
+     * @param domains the domains from which the solutions are picked
+     * @param action the action to perform on each solution. The ith item of
+     *               the array given to the action is the value of the ith
+     *               variable.
+     */
+    public void forEachSolution(
+            final List<Domain> domains,
+            final Consumer<int[]> action) {
+
+        final Traversal root = new Traversal(domains, action);
+        root.explore(0);
+    }
+
+    /**
+     * The state of one depth-first traversal of the search tree.
+     */
+    private final class Traversal {
+        /** The order in which the variables are instantiated. */
+        private final int[] order;
+        /** The values of the original domains, in increasing order. */
+        private final int[][] values;
+        /** The domains at the current node of the search. */
+        private final Domain[] current;
+        /** The position (in `values`) of the value of the assigned vars. */
+        private final int[] position;
+        /** Flags telling which (variable, value-position) are supported. */
+        private final boolean[][] supported;
+        /** Whether all supports must be found (or only the first one). */
+        private final boolean exhaustive;
+        /** The action to perform on each solution (when enumerating). */
+        private final Consumer<int[]> onSolution;
+        /** The number of (variable, value) pairs still lacking a support. */
+        private int missing;
+        /** Set to true as soon as one support has been found. */
+        private boolean found;
+        /** The first support that was found (null until then). */
+        private int[] witness;
+
+        /**
+         * Creates a new traversal.
+         *
+         * @param domains the domains at the root of the search tree
+         * @param exhaustive true iff all supported values must be collected.
+         *                   False when the first support suffices.
+         */
+        Traversal(final List<Domain> domains, final boolean exhaustive) {
+            this(domains, exhaustive, null);
+        }
+
+        /**
+         * Creates a new traversal enumerating all the solutions.
+         *
+         * @param domains the domains at the root of the search tree
+         * @param onSolution the action to perform on each solution
+         */
+        Traversal(final List<Domain> domains, final Consumer<int[]> onSolution) {
+            this(domains, true, onSolution);
+        }
+
+        /**
+         * Creates a new traversal.
+         *
+         * @param domains the domains at the root of the search tree
+         * @param exhaustive true iff all supported values must be collected.
+         *                   False when the first support suffices.
+         * @param onSolution the action to perform on each solution. Null
+         *                   when the solutions need not be enumerated.
+         */
+        private Traversal(
+                final List<Domain> domains,
+                final boolean exhaustive,
+                final Consumer<int[]> onSolution) {
+
+            final int arity = domains.size();
+
+            this.exhaustive = exhaustive;
+            this.onSolution = onSolution;
+            this.current    = domains.toArray(new Domain[0]);
+            this.position   = new int[arity];
+            this.values     = new int[arity][];
+            this.supported  = new boolean[arity][];
+            this.order      = IntStream.range(0, arity)
+                    .boxed()
+                    .sorted(Comparator.comparingInt(i -> current[i].size()))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+
+            for (int i = 0; i < arity; i++) {
+                values[i]    = current[i].stream().mapToInt(x -> x).sorted()
+                                         .toArray();
+                supported[i] = new boolean[values[i].length];
+                missing     += values[i].length;
+            }
+        }
+
+        /**
+         * Explores the subtree rooted in the current node.
+         *
+         * @param depth the number of variables already instantiated
+         */
+        void explore(final int depth) {
+            if (isDone() || !worthExploring(depth)) {
+                return;
+            }
+
+            if (depth == order.length) {
+                final int[] solution = currentValues();
+                if (checker.test(Assignment.from(solution))) {
+                    markAll(depth);
+                    if (onSolution != null) {
+                        onSolution.accept(solution);
+                    }
+                }
+                return;
+            }
+
+            final PartialCheckResult verdict =
+                    checker.test(PartialAssignment.from(current));
+
+            switch (verdict) {
+                case REJECT:
+                    return;
+                case ACCEPT:
+                    markAll(depth);
+                    if (onSolution != null) {
+                        enumerate(depth);
+                    }
+                    return;
+                default:
+                    break;
+            }
+
+            final int    var  = order[depth];
+            final Domain save = current[var];
+            for (int i = 0; i < values[var].length && !isDone(); i++) {
+                position[var] = i;
+                current[var]  = Domain.singleton(values[var][i]);
+                explore(depth + 1);
+            }
+            current[var] = save;
+        }
+
+        /**
+         * Enumerates all the extensions of the current node, knowing that
+         * these are all solutions.
+         *
+         * @param depth the number of variables already instantiated
+         */
+        private void enumerate(final int depth) {
+            if (depth == order.length) {
+                onSolution.accept(currentValues());
+                return;
+            }
+
+            final int var = order[depth];
+            for (int i = 0; i < values[var].length; i++) {
+                position[var] = i;
+                enumerate(depth + 1);
+            }
+        }
+
+        /** @return true iff the traversal may stop right away */
+        private boolean isDone() {
+            if (onSolution != null) {
+                return false;
+            }
+            return exhaustive ? missing == 0 : found;
+        }
+
+        /**
+         * Tells whether the exploration of the subtree could possibly teach
+         * us anything new. It is the case iff at least one value of that
+         * subtree has not been shown to be supported yet.
+         *
+         * @param depth the number of variables already instantiated
+         * @return true iff the current subtree may contain unknown supports
+         */
+        private boolean worthExploring(final int depth) {
+            if (!exhaustive || onSolution != null) {
+                return true;
+            }
+            for (int d = 0; d < order.length; d++) {
+                final int var = order[d];
+                if (d < depth) {
+                    if (!supported[var][position[var]]) {
+                        return true;
+                    }
+                } else {
+                    for (boolean s : supported[var]) {
+                        if (!s) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Marks all the values of the current subtree as being supported.
+         *
+         * @param depth the number of variables already instantiated
+         */
+        private void markAll(final int depth) {
+            if (!found) {
+                // any extension of the current node is a support
+                witness = new int[order.length];
+                for (int d = 0; d < order.length; d++) {
+                    final int var = order[d];
+                    witness[var]  = values[var][d < depth ? position[var] : 0];
+                }
+            }
+            found = true;
+            for (int d = 0; d < order.length; d++) {
+                final int var = order[d];
+                if (d < depth) {
+                    mark(var, position[var]);
+                } else {
+                    for (int i = 0; i < values[var].length; i++) {
+                        mark(var, i);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Marks one single value as being supported.
+         *
+         * @param var the variable
+         * @param pos the position of the supported value in `values[var]`
+         */
+        private void mark(final int var, final int pos) {
+            if (!supported[var][pos]) {
+                supported[var][pos] = true;
+                missing--;
+            }
+        }
+
+        /** @return the values of the (completely) assigned variables. */
+        private int[] currentValues() {
+            final int[] assigned = new int[order.length];
+            for (int i = 0; i < assigned.length; i++) {
+                assigned[i] = values[i][position[i]];
+            }
+            return assigned;
+        }
+
+        /**
+         * @return the partial assignment comprising all the values that have
+         * been shown to be supported
+         */
+        private PartialAssignment supported() {
+            final Domain[] result = new Domain[values.length];
+            for (int i = 0; i < values.length; i++) {
+                final int   var = i;
+                result[var] = Domain.from(IntStream.range(0, values[var].length)
+                        .filter(pos -> found && supported[var][pos])
+                        .map(pos -> values[var][pos])
+                        .toArray());
+            }
+            return PartialAssignment.from(Arrays.asList(result));
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package be.uclouvain.solvercheck.consistencies;
+
+import be.uclouvain.solvercheck.core.data.Assignment;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Checker;
+import be.uclouvain.solvercheck.core.task.PartialChecker;
+import be.uclouvain.solvercheck.core.task.PartialChecker.PartialCheckResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * This class computes the supports of a checker whose leading variables are
+ * interchangeable (see CheckerTraits) without enumerating the n! orderings
+ * of the same values. Instead, each multiset of values of the symmetric
+ * variables is checked once (in increasing order), together with every
+ * tuple of the remaining variables.
+ *
+ * .. Algorithm::
+ *    The multisets are enumerated as the non-decreasing sequences of values
+ *    picked in the union of the symmetric domains. A multiset which cannot
+ *    be spread over the symmetric variables (each variable taking one of
+ *    its values) is skipped, which is a bipartite matching problem. When a
+ *    multiset M (with some tuple of the remaining variables) is accepted by
+ *    the checker, value v of M is projected onto the symmetric variable x
+ *    iff v belongs to D(x) and M \ {v} can be spread over the other
+ *    symmetric variables.
+ *
+ * .. Note::
+ *    When the checker is a `PartialChecker`, the prefixes of the multisets
+ *    are pruned: the symmetric variables which are not part of the prefix
+ *    are given the union of the symmetric domains, which by symmetry is a
+ *    relaxation of every ordering of the prefix.
+ *
+ * .. Note::
+ *    When the checker is also value symmetric, its verdict only depends on
+ *    which variables share a value. Each tuple is thus relabeled (the values
+ *    of the symmetric variables are renamed 0, 1, ... by decreasing number
+ *    of occurrences, then those of the other variables in order of first
+ *    occurrence) and the checker is called once per relabeled tuple. For
+ *    allDiff, this means one call per partition of the number of variables.
+ *
+ * .. Complexity::
+ *    With k symmetric variables and u values in the union of their domains,
+ *    C(u + k - 1, k) multisets are checked instead of u^k tuples.
+ */
+public final class SymmetricSupport {
+    /** The checker whose supports are being computed. */
+    private final Checker checker;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param checker the checker whose supports are being computed. The
+     *                number of its interchangeable variables is given by its
+     *                traits.
+     */
+    public SymmetricSupport(final Checker checker) {
+        this.checker = checker;
+    }
+
+    /**
+     * Computes the union of all the solutions of the constraint that can be
+     * built from the given domains.
+     *
+     * @param domains the domains from which the supports are picked
+     * @return the arc consistent version of the given domains (an error when
+     * there is no support at all)
+     */
+    public PartialAssignment supports(final List<Domain> domains) {
+        final int arity = domains.size();
+        if (domains.stream().anyMatch(Domain::isEmpty)) {
+            return PartialAssignment.error(arity);
+        }
+        return new Enumeration(domains).run();
+    }
+
+    /** The state of the enumeration of the supports of some domains. */
+    private final class Enumeration {
+        /** The domains from which the supports are picked. */
+        private final List<Domain> domains;
+        /** The number of symmetric variables. */
+        private final int k;
+        /** The union of the domains of the symmetric variables. */
+        private final int[] union;
+        /** The values of the remaining variables, in increasing order. */
+        private final int[][] rest;
+        /** The supported values of each variable. */
+        private final List<TreeSet<Integer>> supported;
+        /** The number of values still lacking a support. */
+        private int missing;
+        /** The current multiset (indices in union, non decreasing). */
+        private final int[] multiset;
+        /** The current tuple of the remaining variables. */
+        private final int[] tuple;
+        /** The verdicts per relabeled tuple (null unless value symmetric). */
+        private final Map<List<Integer>, Boolean> verdicts;
+
+        /**
+         * Creates a new enumeration.
+         *
+         * @param domains the domains from which the supports are picked
+         */
+        Enumeration(final List<Domain> domains) {
+            final int arity = domains.size();
+
+            this.domains   = domains;
+            this.k         = checker.traits().nbSymmetricVariables(arity);
+            this.union     = domains.subList(0, k).stream()
+                    .flatMap(Domain::stream)
+                    .distinct()
+                    .mapToInt(Integer::intValue)
+                    .sorted()
+                    .toArray();
+            this.rest      = new int[arity - k][];
+            this.supported = new ArrayList<>(arity);
+            this.multiset  = new int[k];
+            this.tuple     = new int[arity];
+            this.verdicts  = checker.traits().isValueSymmetric()
+                    ? new HashMap<>()
+                    : null;
+
+            for (int var = 0; var < arity; var++) {
+                supported.add(new TreeSet<>());
+                missing += domains.get(var).size();
+                if (var >= k) {
+                    rest[var - k] = domains.get(var).stream()
+                            .mapToInt(Integer::intValue)
+                            .sorted()
+                            .toArray();
+                }
+            }
+        }
+
+        /** @return the supported values (an error if there is none) */
+        PartialAssignment run() {
+            enumerate(0, 0);
+
+            final List<Domain> result = new ArrayList<>(domains.size());
+            for (TreeSet<Integer> values : supported) {
+                if (values.isEmpty()) {
+                    return PartialAssignment.error(domains.size());
+                }
+                result.add(Domain.from(values));
+            }
+            return PartialAssignment.from(result);
+        }
+
+        /**
+         * Enumerates the multisets extending the current prefix.
+         *
+         * @param depth the size of the current prefix
+         * @param from the smallest index (in union) usable at this depth
+         */
+        private void enumerate(final int depth, final int from) {
+            if (missing == 0 || !worthExpanding(depth)) {
+                return;
+            }
+            if (depth == k) {
+                final int[] values = new int[k];
+                for (int i = 0; i < k; i++) {
+                    values[i] = union[multiset[i]];
+                }
+                if (spreads(values, -1)) {
+                    checkRest(values, 0, new boolean[] {false});
+                }
+                return;
+            }
+            for (int j = from; j < union.length && missing > 0; j++) {
+                multiset[depth] = j;
+                enumerate(depth + 1, j);
+            }
+        }
+
+        /**
+         * Tells whether the subtree rooted in the current prefix may hold
+         * some solution (only a `PartialChecker` may tell it does not).
+         *
+         * @param depth the size of the current prefix
+         * @return false iff the current prefix is known to be a dead end
+         */
+        private boolean worthExpanding(final int depth) {
+            if (!(checker instanceof PartialChecker) || depth == 0 || depth == k) {
+                return true;
+            }
+            final Domain all = Domain.from(union);
+            final List<Domain> relaxed = new ArrayList<>(domains);
+            for (int i = 0; i < k; i++) {
+                relaxed.set(i, i < depth ? Domain.singleton(union[multiset[i]]) : all);
+            }
+            return ((PartialChecker) checker).test(PartialAssignment.from(relaxed))
+                    != PartialCheckResult.REJECT;
+        }
+
+        /**
+         * Checks the current multiset with every tuple of the remaining
+         * variables.
+         *
+         * @param values the values of the current multiset
+         * @param index the remaining variable being assigned
+         * @param projected whether the multiset was already projected onto
+         *                  the symmetric variables
+         */
+        private void checkRest(
+                final int[] values,
+                final int index,
+                final boolean[] projected) {
+
+            if (index == rest.length) {
+                System.arraycopy(values, 0, tuple, 0, k);
+                if (accepts(tuple)) {
+                    for (int var = k; var < tuple.length; var++) {
+                        mark(var, tuple[var]);
+                    }
+                    if (!projected[0]) {
+                        project(values);
+                        projected[0] = true;
+                    }
+                }
+                return;
+            }
+            for (int value : rest[index]) {
+                tuple[k + index] = value;
+                checkRest(values, index + 1, projected);
+            }
+        }
+
+        /**
+         * @param values some complete tuple whose symmetric part is sorted
+         * @return true iff the checker accepts the given tuple
+         */
+        private boolean accepts(final int[] values) {
+            if (verdicts == null) {
+                return checker.test(Assignment.from(values));
+            }
+            // the most frequent values of the symmetric part come first
+            final Map<Integer, Integer> counts = new HashMap<>();
+            for (int i = 0; i < k; i++) {
+                counts.merge(values[i], 1, Integer::sum);
+            }
+            final List<Integer> distinct = new ArrayList<>(counts.keySet());
+            distinct.sort((a, b) -> counts.get(a).equals(counts.get(b))
+                    ? Integer.compare(a, b)
+                    : Integer.compare(counts.get(b), counts.get(a)));
+
+            final Map<Integer, Integer> labels  = new HashMap<>();
+            final List<Integer>         pattern = new ArrayList<>(values.length);
+            for (int v : distinct) {
+                final int label = labels.size();
+                labels.put(v, label);
+                pattern.addAll(Collections.nCopies(counts.get(v), label));
+            }
+            for (int i = k; i < values.length; i++) {
+                pattern.add(labels.computeIfAbsent(values[i], x -> labels.size()));
+            }
+            return verdicts.computeIfAbsent(pattern,
+                    x -> checker.test(Assignment.from(values)));
+        }
+
+        /**
+         * Projects a multiset accepted by the checker onto the symmetric
+         * variables.
+         *
+         * @param values the values of the multiset
+         */
+        private void project(final int[] values) {
+            for (int var = 0; var < k; var++) {
+                final Domain dom = domains.get(var);
+                for (int i = 0; i < k; i++) {
+                    final int v = values[i];
+                    if ((i > 0 && values[i - 1] == v)
+                            || !dom.contains(v)
+                            || supported.get(var).contains(v)) {
+                        continue;
+                    }
+                    final int[] others = new int[k - 1];
+                    System.arraycopy(values, 0, others, 0, i);
+                    System.arraycopy(values, i + 1, others, i, k - 1 - i);
+                    if (spreads(others, var)) {
+                        mark(var, v);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Tells whether the given values can be spread over the symmetric
+         * variables (but `excluded`), each variable taking at most one of
+         * them and only values of its domain (Kuhn's matching algorithm).
+         *
+         * @param values the values to spread
+         * @param excluded the symmetric variable that may not be used (-1
+         *                 when all of them may be used)
+         * @return true iff each value can be given to a distinct variable
+         */
+        private boolean spreads(final int[] values, final int excluded) {
+            final int[] owner = new int[k];
+            Arrays.fill(owner, -1);
+            for (int t = 0; t < values.length; t++) {
+                if (!augment(values, t, excluded, owner, new boolean[k])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Looks for an augmenting path starting at the t-th value.
+         *
+         * @param values the values to spread
+         * @param t the value being given to some variable
+         * @param excluded the symmetric variable that may not be used
+         * @param owner the value given to each variable (-1 if none)
+         * @param visited the variables already visited along the path
+         * @return true iff the t-th value could be given to some variable
+         */
+        private boolean augment(
+                final int[] values,
+                final int t,
+                final int excluded,
+                final int[] owner,
+                final boolean[] visited) {
+
+            for (int var = 0; var < k; var++) {
+                if (var == excluded || visited[var]
+                        || !domains.get(var).contains(values[t])) {
+                    continue;
+                }
+                visited[var] = true;
+                if (owner[var] < 0
+                        || augment(values, owner[var], excluded, owner, visited)) {
+                    owner[var] = t;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Marks one value of some variable as being supported.
+         *
+         * @param var the variable
+         * @param value the supported value
+         */
+        private void mark(final int var, final int value) {
+            if (supported.get(var).add(value)) {
+                missing--;
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package be.uclouvain.solvercheck.consistencies;
+
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Checker;
+import be.uclouvain.solvercheck.core.task.Filter;
+
+/**
+ * This class lets an user build an arc-consistent (GAC) Filter from some
+ * given Checker. Contrary to `ArcConsitency`, it does not enumerate the
+ * cartesian product of the domains upon each call. Instead, it compiles the
+ * solutions of the checker into a `CompactTable` the first time it is given
+ * some partial assignment (the root) and reuses that table for all the
+ * partial assignments covered by that root.
+ *
+ * .. Note::
+ *    This is especially interesting when the same root is filtered over and
+ *    over again in many slightly different states. This is typically the
+ *    case of the stateful dives, where all the states derive from the same
+ *    initial domains, and the case of the stateless properties checked on
+ *    shrinking inputs. Whenever a partial assignment is not covered by the
+ *    current root, the table is simply recompiled using that partial
+ *    assignment as new root.
+ *
+ * @see CompactTable
+ */
+public final class TableConsistency implements Filter {
+    /**
+     * The checker implementing a test to verify whether some constraint
+     * is satisfied.
+     */
+    private final Checker checker;
+
+    /** The table compiled for the last root that was encountered. */
+    private volatile CompactTable table;
+
+    /**
+     * Creates a new compiled arc consistent filter from the given checker.
+     *
+     * @param checker the checker implementing a test to verify whether or not
+     *                some constraint is satisfied
+     */
+    public TableConsistency(final Checker checker) {
+        this.checker = checker;
+        this.table   = null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PartialAssignment filter(final PartialAssignment partial) {
+        return tableFor(partial).filter(partial);
+    }
+
+    /**
+     * Tells whether the table that is currently compiled (if any) covers the
+     * given partial assignment. In other words, it tells whether filtering
+     * the given partial assignment will not require any compilation.
+     *
+     * @param partial some partial assignment
+     * @return true iff a compiled table covering `partial` is available
+     */
+    public boolean isCompiledFor(final PartialAssignment partial) {
+        final CompactTable current = table;
+        return current != null && current.covers(partial);
+    }
+
+    /**
+     * Returns a compact table which covers the given partial assignment.
+     * The current table is reused whenever possible, otherwise a new one is
+     * compiled.
+     *
+     * @param partial the partial assignment that must be covered by the table
+     * @return a compact table covering `partial`.
+     */
+    public CompactTable tableFor(final PartialAssignment partial) {
+        CompactTable current = table;
+        if (current == null || !current.covers(partial)) {
+            current = CompactTable.compile(checker, partial);
+            table   = current;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,225 @@
+package be.uclouvain.solvercheck.consistencies;
+
+import be.uclouvain.solvercheck.checkers.CumulativeChecker;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class implements the time-table filtering of a cumulative (or
+ * disjunctive) resource, based on the compulsory parts of the tasks. It is
+ * weaker than arc consistency. Each round builds the profile in
+ * O(n log n) time for n tasks, then derives the forbidden start times of each
+ * task from the O(n) segments of the profile. Because every value of the
+ * domain is then looked up among these forbidden intervals, revising a task
+ * costs O(n + |D| log n) per round, |D| being the size of its domain.
+ *
+ * .. Algorithm::
+ *    The compulsory part of a task spans from its latest start to its
+ *    earliest end (it is empty when the latter does not follow the former).
+ *    The compulsory parts of all the tasks form a profile: a step function
+ *    telling the least load of the resource at each point in time. A start
+ *    time `s` of some task is removed whenever the task would overload the
+ *    profile (from which its own compulsory part is deducted) somewhere in
+ *    [s, s + duration[. This is repeated until a fixpoint is reached since
+ *    the compulsory parts grow as the domains are filtered.
+ *
+ * .. Note::
+ *    Unlike the usual propagators, this filter removes every start time
+ *    which conflicts with the profile (not just the bounds). Hence, holes
+ *    may be created in the middle of the domains.
+ *
+ * @see CumulativeChecker
+ */
+public final class TimeTableConsistency implements Filter {
+    /** The resource being filtered. */
+    private final CumulativeChecker resource;
+
+    /**
+     * Creates a new filter.
+     *
+     * @param resource the resource (durations, demands and capacity) whose
+     *                 tasks are being filtered
+     */
+    public TimeTableConsistency(final CumulativeChecker resource) {
+        this.resource = resource;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PartialAssignment filter(final PartialAssignment partial) {
+        final int arity = partial.size();
+        if (partial.isError()) {
+            return PartialAssignment.error(arity);
+        }
+        resource.checkArity(arity);
+
+        final List<Domain> domains = new ArrayList<>(partial);
+
+        boolean fixpoint = false;
+        while (!fixpoint) {
+            fixpoint = true;
+
+            final Profile profile = new Profile(domains);
+            for (int task = 0; task < arity; task++) {
+                final Domain dom     = domains.get(task);
+                final Domain reduced = revise(task, dom, profile);
+
+                if (reduced.isEmpty()) {
+                    return PartialAssignment.error(arity);
+                }
+                if (reduced.size() != dom.size()) {
+                    domains.set(task, reduced);
+                    fixpoint = false;
+                }
+            }
+        }
+        return PartialAssignment.from(domains);
+    }
+
+    /**
+     * Removes the start times of the given task which overload the profile.
+     *
+     * @param task some task
+     * @param dom the domain of its start time
+     * @param profile the profile of the compulsory parts
+     * @return the filtered domain of the start time of the task
+     */
+    private Domain revise(final int task, final Domain dom, final Profile profile) {
+        final long duration = resource.duration(task);
+        final long demand   = resource.demand(task);
+        if (duration == 0 || demand == 0) {
+            return dom;
+        }
+        if (demand > resource.capacity()) {
+            return Domain.emptyDomain();
+        }
+
+        final long lst = dom.maximum();
+        final long ect = dom.minimum() + duration;
+
+        // the starts [a - duration + 1, b - 1] overlap segment [a, b[
+        final List<long[]> forbidden = new ArrayList<>();
+        for (int k = 0; k < profile.size(); k++) {
+            final long a = profile.time(k);
+            final long b = profile.time(k + 1);
+
+            long load = profile.height(k);
+            if (lst <= a && b <= ect) {
+                load -= demand;
+            }
+            if (load + demand > resource.capacity()) {
+                forbidden.add(new long[] {a - duration + 1, b - 1});
+            }
+        }
+        if (forbidden.isEmpty()) {
+            return dom;
+        }
+
+        final long[] from = new long[forbidden.size()];
+        final long[] to   = new long[forbidden.size()];
+        for (int i = 0; i < from.length; i++) {
+            from[i] = forbidden.get(i)[0];
+            to[i]   = forbidden.get(i)[1];
+        }
+
+        final List<Integer> kept = new ArrayList<>(dom.size());
+        for (int value : dom) {
+            if (!isForbidden(value, from, to)) {
+                kept.add(value);
+            }
+        }
+        return Domain.from(kept);
+    }
+
+    /**
+     * @param value some start time
+     * @param from the lower bounds of the forbidden intervals (increasing)
+     * @param to the upper bounds of the forbidden intervals (increasing)
+     * @return true iff the value belongs to some forbidden interval
+     */
+    private static boolean isForbidden(
+            final long value,
+            final long[] from,
+            final long[] to) {
+
+        // the last interval starting at or before value is the one which
+        // ends the latest among those starting at or before value.
+        int pos = Arrays.binarySearch(from, value);
+        if (pos < 0) {
+            pos = -pos - 2;
+        }
+        return pos >= 0 && value <= to[pos];
+    }
+
+    /**
+     * The profile of the compulsory parts of the tasks: a step function
+     * whose value on [time(k), time(k + 1)[ is height(k).
+     */
+    private final class Profile {
+        /** The points where the height of the profile changes. */
+        private final long[] times;
+        /** The height of the profile after each of the `times`. */
+        private final long[] heights;
+
+        /**
+         * Computes the profile of the given domains.
+         *
+         * @param domains the domains of the start times of the tasks
+         */
+        Profile(final List<Domain> domains) {
+            final List<long[]> events = new ArrayList<>();
+            for (int task = 0; task < domains.size(); task++) {
+                final long lst = domains.get(task).maximum();
+                final long ect = domains.get(task).minimum()
+                               + resource.duration(task);
+                final long demand = resource.demand(task);
+                if (lst < ect && demand > 0) {
+                    events.add(new long[] {lst,  demand});
+                    events.add(new long[] {ect, -demand});
+                }
+            }
+            events.sort((x, y) -> Long.compare(x[0], y[0]));
+
+            final long[] t = new long[events.size()];
+            final long[] h = new long[events.size()];
+            int  size = 0;
+            long load = 0;
+            for (int i = 0; i < events.size(); i++) {
+                load += events.get(i)[1];
+                if (i + 1 < events.size() && events.get(i + 1)[0] == events.get(i)[0]) {
+                    continue;
+                }
+                t[size]   = events.get(i)[0];
+                h[size++] = load;
+            }
+            this.times   = Arrays.copyOf(t, size);
+            this.heights = Arrays.copyOf(h, size);
+        }
+
+        /** @return the number of segments of the profile */
+        int size() {
+            return Math.max(0, times.length - 1);
+        }
+
+        /**
+         * @param k some segment
+         * @return the time where the k-th segment starts
+         */
+        long time(final int k) {
+            return times[k];
+        }
+
+        /**
+         * @param k some segment
+         * @return the height of the profile on the k-th segment
+         */
+        long height(final int k) {
+            return heights[k];
+        }
+    }
+}
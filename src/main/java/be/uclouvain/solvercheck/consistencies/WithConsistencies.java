@@ -1,9 +1,17 @@
 package be.uclouvain.solvercheck.consistencies;
 
+import be.uclouvain.solvercheck.checkers.Automaton;
+import be.uclouvain.solvercheck.checkers.CircuitChecker;
+import be.uclouvain.solvercheck.checkers.CumulativeChecker;
+import be.uclouvain.solvercheck.checkers.LexChecker;
+import be.uclouvain.solvercheck.checkers.MappedTable;
+import be.uclouvain.solvercheck.checkers.SumChecker;
 import be.uclouvain.solvercheck.core.task.Checker;
 import be.uclouvain.solvercheck.core.task.DomainFilter;
 import be.uclouvain.solvercheck.core.task.Filter;
 
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 
 /**
@@ -26,6 +34,20 @@ public interface WithConsistencies {
         return new ForwardChecking(checker);
     }
 
+    /**
+     * Same as `forwardChecking(checker)` except that the extensions of the
+     * fixed variables are enumerated in parallel on the given pool.
+     *
+     * @param checker the checker backing the desired FC Filter
+     * @param pool the pool on which the enumeration is run
+     * @return an FC filter that implements the given `checker` constraint.
+     */
+    default Filter forwardChecking(
+            final Checker checker,
+            final ForkJoinPool pool) {
+        return new ForwardChecking(checker, pool);
+    }
+
     /**
      * Lets an user build an arc-consistent (GAC) Filter from some
      * given Checker. This means that domains will be filtered to only contain
@@ -37,31 +59,91 @@ public interface WithConsistencies {
     default Filter arcConsistent(final Checker checker) {
         return new ArcConsitency(checker);
     }
+
+    /**
+     * Same as `arcConsistent(checker)` except that the supports are
+     * enumerated in parallel on the given pool.
+     *
+     * @param checker the checker backing the desired AC Filter
+     * @param pool the pool on which the enumeration is run
+     * @return an AC filter that implements the given `checker` constraint.
+     */
+    default Filter arcConsistent(
+            final Checker checker,
+            final ForkJoinPool pool) {
+        return new ArcConsitency(checker, pool);
+    }
     /**
      * lets an user build a Bound(D) consistent Filter from some given
      * Checker. This means that domains will be filtered to only contain values
      * between the bounds that actually belong to some support of the
      * constraint.
      *
+     * When the checker is a (weighted) sum, the filtering is made without
+     * enumerating any support (see SumConsistency).
+     *
      * @param checker the checker backing the desired Bound(D) Filter
      * @return a Bound(D) filter that implements the given `checker` constraint.
      */
     default Filter boundDConsistent(final Checker checker) {
+        if (checker instanceof SumChecker) {
+            return new SumConsistency((SumChecker) checker, false);
+        }
         return new BoundDConsistency(checker);
     }
+
+    /**
+     * Same as `boundDConsistent(checker)` except that the supports of the
+     * bounds are enumerated in parallel on the given pool.
+     *
+     * @param checker the checker backing the desired Bound(D) Filter
+     * @param pool the pool on which the enumeration is run
+     * @return a Bound(D) filter that implements the given `checker` constraint.
+     */
+    default Filter boundDConsistent(
+            final Checker checker,
+            final ForkJoinPool pool) {
+        if (checker instanceof SumChecker) {
+            return new SumConsistency((SumChecker) checker, false);
+        }
+        return new BoundDConsistency(checker, pool);
+    }
     /**
      * lets an user build a Bound(Z) consistent Filter from some given
      * Checker. This means that domains will be filtered to only contain values
      * between the bounds that actually belong to some bound support of the
      * constraint.
      *
+     * When the checker is a (weighted) sum, the filtering is made without
+     * enumerating any support (see SumConsistency).
+     *
      * @param checker the checker backing the desired Bound(Z) Filter
      * @return a Bound(Z) filter that implements the given `checker` constraint.
      */
     default Filter boundZConsistent(final Checker checker) {
+        if (checker instanceof SumChecker) {
+            return new SumConsistency((SumChecker) checker, true);
+        }
         return new BoundZConsistency(checker);
     }
 
+    /**
+     * Same as `boundZConsistent(checker)` except that the bound supports of
+     * the bounds are enumerated in parallel on the given pool.
+     *
+     * @param checker the checker backing the desired Bound(Z) Filter
+     * @param pool the pool on which the enumeration is run
+     * @return a Bound(Z) filter that implements the given `checker` constraint.
+     */
+    default Filter boundZConsistent(
+            final Checker checker,
+            final ForkJoinPool pool) {
+        if (checker instanceof SumChecker) {
+            return new SumConsistency((SumChecker) checker, true);
+        }
+        return new BoundZConsistency(checker, pool);
+    }
+
     /**
      * Lets an user build a Range consistent Filter from some given
      * Checker. This means that domains will be filtered to only contain values
@@ -75,6 +157,379 @@ public interface WithConsistencies {
         return new RangeConsistency(checker);
     }
 
+    /**
+     * Same as `rangeConsistent(checker)` except that the bound supports are
+     * enumerated in parallel on the given pool.
+     *
+     * @param checker the checker backing the desired range consistent Filter
+     * @param pool the pool on which the enumeration is run
+     * @return a range consistent filter that implements the given `checker`
+     * constraint.
+     */
+    default Filter rangeConsistent(
+            final Checker checker,
+            final ForkJoinPool pool) {
+        return new RangeConsistency(checker, pool);
+    }
+
+    /**
+     * Lets an user build an arc-consistent (GAC) Filter for the allDiff
+     * constraint. Unlike `arcConsistent(allDiff())`, this filter runs in
+     * polynomial time (bipartite matching and strongly connected components).
+     *
+     * @return an AC filter that implements the allDiff constraint.
+     */
+    default Filter allDiffArcConsistent() {
+        return new AllDiffArcConsistency();
+    }
+
+    /**
+     * Lets an user build a Bound(Z) consistent Filter for the allDiff
+     * constraint. Unlike `boundZConsistent(allDiff())`, this filter runs in
+     * polynomial time (Hall intervals).
+     *
+     * @return a Bound(Z) filter that implements the allDiff constraint.
+     */
+    default Filter allDiffBoundZConsistent() {
+        return new AllDiffBoundConsistency();
+    }
+
+    /**
+     * Lets an user build an arc-consistent (GAC) Filter for the element
+     * constraint (with the same structure as `element()`). Unlike
+     * `arcConsistent(element())`, this filter runs in time linear in the
+     * total size of the domains.
+     *
+     * @return an AC filter that implements the element constraint.
+     */
+    default Filter elementArcConsistent() {
+        return new ElementArcConsistency();
+    }
+
+    /**
+     * Lets an user build an arc-consistent (GAC) Filter for the regular
+     * constraint `regular(automaton)`. Unlike `arcConsistent(regular(...))`,
+     * this filter runs in time linear in the number of variables (layered
+     * graph). When used through `stateful()`, the layered graph is
+     * maintained incrementally along the dive.
+     *
+     * @param automaton the automaton recognizing the solutions
+     * @return an AC filter that implements the regular constraint.
+     */
+    default RegularArcConsistency regularArcConsistent(final Automaton automaton) {
+        return new RegularArcConsistency(automaton);
+    }
+
+    /**
+     * Lets an user build the time-table Filter (compulsory parts) of the
+     * constraint `cumulative(durations, demands, capacity)`. This filter is
+     * weaker than arc consistency but it runs in polynomial time, whatever
+     * the width of the start-time domains.
+     *
+     * @param durations the duration of each task
+     * @param demands the demand of each task
+     * @param capacity the capacity of the resource
+     * @return the time-table filter of the cumulative constraint.
+     */
+    default Filter timeTable(
+            final int[] durations,
+            final int[] demands,
+            final int capacity) {
+        return new TimeTableConsistency(
+                new CumulativeChecker(durations, demands, capacity));
+    }
+
+    /**
+     * Lets an user build the time-table Filter (compulsory parts) of the
+     * constraint `disjunctive(durations)`.
+     *
+     * @param durations the duration of each task
+     * @return the time-table filter of the disjunctive constraint.
+     */
+    default Filter timeTable(final int[] durations) {
+        return new TimeTableConsistency(CumulativeChecker.disjunctive(durations));
+    }
+
+    /**
+     * Lets an user build the reference Filter of the constraint `circuit()`.
+     * This filter is weaker than arc consistency (allDiff matching, strongly
+     * connected components and sub-tour elimination) but it runs in
+     * polynomial time, whatever the number of nodes.
+     *
+     * @return the reference filter of the circuit constraint.
+     */
+    default Filter circuitConsistent() {
+        return new CircuitConsistency(new CircuitChecker(false));
+    }
+
+    /**
+     * Lets an user build the reference Filter of the constraint
+     * `subcircuit()`. This filter is weaker than arc consistency but it runs
+     * in polynomial time, whatever the number of nodes.
+     *
+     * @return the reference filter of the subcircuit constraint.
+     */
+    default Filter subcircuitConsistent() {
+        return new CircuitConsistency(new CircuitChecker(true));
+    }
+
+    /**
+     * Lets an user build an arc-consistent (GAC) Filter for the constraint
+     * `lexLess(n)`. Unlike `arcConsistent(lexLess(n))`, this filter runs in
+     * time linear in the length of the vectors.
+     *
+     * @param n the length of each of the two vectors
+     * @return an AC filter that implements the lexLess constraint.
+     */
+    default Filter lexLessArcConsistent(final int n) {
+        return new LexArcConsistency(new LexChecker(n, true));
+    }
+
+    /**
+     * Lets an user build an arc-consistent (GAC) Filter for the constraint
+     * `lexLessEq(n)`. Unlike `arcConsistent(lexLessEq(n))`, this filter runs
+     * in time linear in the length of the vectors.
+     *
+     * @param n the length of each of the two vectors
+     * @return an AC filter that implements the lexLessEq constraint.
+     */
+    default Filter lexLessEqArcConsistent(final int n) {
+        return new LexArcConsistency(new LexChecker(n, false));
+    }
+
+    /**
+     * Lets an user build an arc-consistent (GAC) Filter for the global
+     * cardinality constraint `gcc(cardinalities, values)`. Unlike
+     * `arcConsistent(gcc(cardinalities, values))`, this filter runs in
+     * polynomial time (flow network).
+     *
+     * @param cardinalities the number of times each value[i] must occur
+     * @param values the values whose number of occurrences is constrained
+     * @return an AC filter that implements the gcc constraint.
+     */
+    default Filter gccArcConsistent(
+            final List<Integer> cardinalities,
+            final List<Integer> values) {
+        return new GccArcConsistency(cardinalities, values);
+    }
+
+    /**
+     * Lets an user build a Filter for the global cardinality constraint
+     * `gccVar(values)`, whose cardinalities are the last |values| variables.
+     * The plain variables are made arc consistent w.r.t. the ranges of the
+     * cardinality variables, and the bounds of the cardinality variables are
+     * shrunk to the feasible numbers of occurrences. This filter runs in
+     * polynomial time (flow network).
+     *
+     * @param values the values whose number of occurrences is constrained
+     * @return a filter that implements the gccVar constraint.
+     */
+    default Filter gccVarConsistent(final List<Integer> values) {
+        return new GccVarConsistency(values);
+    }
+
+    /**
+     * Lets an user build an arc-consistent (GAC) Filter from some given
+     * Checker. Unlike `arcConsistent`, the solutions of the checker are
+     * compiled into a compact table the first time some root partial
+     * assignment is filtered. All the partial assignments covered by that
+     * root are then filtered with a few bitwise operations.
+     *
+     * @param checker the checker backing the desired AC Filter
+     * @return a compiled AC filter that implements the given `checker`
+     * constraint.
+     */
+    default Filter tableConsistent(final Checker checker) {
+        return new TableConsistency(checker);
+    }
+
+    /**
+     * Lets an user build an arc-consistent (GAC) Filter for a table
+     * constraint whose rows are stored in a memory-mapped file. The rows are
+     * read straight from the mapped buffer, which keeps the heap usage flat
+     * whatever the size of the table.
+     *
+     * @param table the mapped table whose rows are the solutions of the
+     *              constraint
+     * @return an AC filter that implements the mapped table constraint.
+     */
+    default Filter mappedTableConsistent(final MappedTable table) {
+        return new MappedTableConsistency(table);
+    }
+
+    /**
+     * Lets an user build an arc-consistent (GAC) Filter from some given
+     * Checker. The solutions of the checker are compiled into a reduced
+     * multi-valued decision diagram (MDD) the first time some root partial
+     * assignment is filtered. All the partial assignments covered by that
+     * root are then filtered with two passes over the diagram.
+     *
+     * @param checker the checker backing the desired AC Filter
+     * @return a compiled AC filter that implements the given `checker`
+     * constraint.
+     */
+    default Filter mddConsistent(final Checker checker) {
+        return new MddConsistency(checker);
+    }
+
+    /**
+     * Lets an user build an oracle able to compute several consistency levels
+     * (FC, Bound(Z), Bound(D), range and arc consistency) of the given checker
+     * from one single enumeration of its bound supports. For instance:
+     *
+     * <pre>
+     *     ConsistencyOracle oracle = consistencyOracle(allDiff());
+     *
+     *     a(propagator).isStrongerThan(oracle.level(BOUND_Z))
+     *     a(propagator).isWeakerThan(oracle.level(ARC))
+     * </pre>
+     *
+     * @param checker the checker backing the oracle
+     * @return an oracle computing the consistency levels of `checker`.
+     */
+    default ConsistencyOracle consistencyOracle(final Checker checker) {
+        return new ConsistencyOracle(checker);
+    }
+
+    /**
+     * Lets an user build a Filter enforcing the given consistency level of
+     * the given checker, which estimates the cost of the available
+     * strategies (brute force, pruned search, bound probing, parallel
+     * enumeration, compiled table) before each call and uses the cheapest
+     * one.
+     *
+     * @param level the consistency level to enforce
+     * @param checker the checker backing the desired Filter
+     * @return an adaptive filter enforcing the given consistency level
+     */
+    default AdaptiveConsistency adaptive(
+            final ConsistencyLevel level,
+            final Checker checker) {
+        return new AdaptiveConsistency(level, checker);
+    }
+
+    /**
+     * Precomputes the given filter for every partial assignment of `arity`
+     * variables whose values range over [lo, hi]. The resulting filter
+     * answers all the queries lying in that universe with one array lookup
+     * (and delegates all the other ones to `filter`).
+     *
+     * @param filter the (reference) filter to precompute
+     * @param arity the number of variables
+     * @param lo the smallest value of the universe
+     * @param hi the largest value of the universe
+     * @return a filter equivalent to `filter` whose results have all been
+     * precomputed over the given universe
+     */
+    default OracleTable oracleTable(
+            final Filter filter,
+            final int arity,
+            final int lo,
+            final int hi) {
+        return OracleTable.build(filter, arity, lo, hi);
+    }
+
+    /**
+     * Decorates the given filter with a size-bounded (LRU) cache of its
+     * results. This is mostly useful to speed up the reference filters which
+     * are repeatedly called on the same partial assignments.
+     *
+     * @param filter the filter whose results are to be cached
+     * @param maxEntries the maximum number of results held by the cache
+     * @return a filter equivalent to `filter` which caches its results
+     */
+    default CachedFilter cached(final Filter filter, final int maxEntries) {
+        return new CachedFilter(filter, maxEntries);
+    }
+
+    /**
+     * Lets an user build an approximate (Monte Carlo) arc consistent Filter
+     * from some given Checker. The supports of each value are looked for
+     * among (at most) `samplesPerValue` random tuples, and only the values for
+     * which an actual support was found are kept. This is meant to test
+     * the propagators of wide domains in bounded time. For instance:
+     *
+     * <pre>
+     *     a(propagator).isWeakerThan(sampled(checker, 1000))
+     * </pre>
+     *
+     * @param checker the checker whose supports are sampled
+     * @param samplesPerValue the maximum number of tuples sampled for each
+     *                        value
+     * @return a sampled filter that under approximates the arc consistency
+     * of the given `checker`.
+     */
+    default SampledConsistency sampled(
+            final Checker checker,
+            final int samplesPerValue) {
+        return sampled(checker, samplesPerValue, 0L);
+    }
+
+    /**
+     * Same as `sampled(checker, samplesPerValue)` except that the random
+     * generator is seeded with the given `seed`.
+     *
+     * @param checker the checker whose supports are sampled
+     * @param samplesPerValue the maximum number of tuples sampled for each
+     *                        value
+     * @param seed the seed of the random generator
+     * @return a sampled filter that under approximates the arc consistency
+     * of the given `checker`.
+     */
+    default SampledConsistency sampled(
+            final Checker checker,
+            final int samplesPerValue,
+            final long seed) {
+        return new SampledConsistency(checker, samplesPerValue, seed);
+    }
+
+    /**
+     * Lets an user build a network of checkers, each of which bears on its own
+     * subset of the variables. The resulting filter propagates the arc
+     * consistency of all the constraints to a common fixpoint. For instance:
+     *
+     * <pre>
+     *     network()
+     *         .post(sum(EQ, 10), 0, 1, 2)
+     *         .post(allDiff(),   2, 3, 4)
+     * </pre>
+     *
+     * @return an empty network, to which constraints are posted with `post()`
+     */
+    default ConstraintNetwork network() {
+        return new ConstraintNetwork();
+    }
+
+    /**
+     * Lets an user build a singleton arc consistent (SAC) Filter from some
+     * given Checker. A value is kept iff the arc consistency of the checker
+     * where the variable is assigned to that value does not fail.
+     *
+     * .. Note::
+     *    On one single checker, SAC is equivalent to arc consistency. It is
+     *    only stronger on networks of constraints (see the overload accepting
+     *    a `ConstraintNetwork`).
+     *
+     * @param checker the checker backing the desired SAC Filter
+     * @return a SAC filter that implements the given `checker` constraint.
+     */
+    default Filter singletonArcConsistent(final Checker checker) {
+        return new SingletonArcConsistency(checker);
+    }
+
+    /**
+     * Lets an user build a singleton arc consistent (SAC) Filter from some
+     * given network of constraints. A value is kept iff the arc consistency
+     * of the network where the variable is assigned to that value does not
+     * fail.
+     *
+     * @param network the network backing the desired SAC Filter
+     * @return a SAC filter that implements the given constraint `network`.
+     */
+    default Filter singletonArcConsistent(final ConstraintNetwork network) {
+        return new SingletonArcConsistency(network);
+    }
+
     /**
      * An hybrid consistency is one that does not uniformly applies the same
      * DomainFilter to all of the variables. Instead, the hybrid consistency
@@ -16,4 +16,15 @@ public interface Checker extends Predicate<Assignment> {
     @Override
     boolean test(Assignment valuation);
 
+    /**
+     * Declares the structural properties of the constraint which the
+     * consistencies may exploit (see CheckerTraits). By default, a checker
+     * declares no trait at all.
+     *
+     * @return the traits of this checker
+     */
+    default CheckerTraits traits() {
+        return CheckerTraits.none();
+    }
+
 }
@@ -0,0 +1,392 @@
+package be.uclouvain.solvercheck.core.task;
+
+import be.uclouvain.solvercheck.core.data.Assignment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * The traits of a checker are the structural properties of the constraint it
+ * implements which the consistencies may exploit to avoid brute-forcing the
+ * cartesian product of the domains. A checker declares its traits by
+ * overriding `Checker#traits()`; by default, a checker declares no trait at
+ * all.
+ *
+ * - Variable symmetry: the leading variables of the assignment can be
+ *   permuted at will without changing the verdict of the checker (eg.
+ *   allDiff, sum, the variable part of gccVar).
+ * - Value symmetry: the values can be renamed by any bijection without
+ *   changing the verdict of the checker (eg. allDiff). It is only exploited
+ *   together with variable symmetry (see SymmetricSupport).
+ * - Monotonicity: the verdict of the checker is preserved when the value of
+ *   some variable increases (or decreases). (eg. sum(LE, c) is preserved when
+ *   any variable decreases).
+ * - Decomposition: the checker is the conjunction of some sub-checkers whose
+ *   scopes are disjoint.
+ *
+ * .. Note::
+ *    A wrong declaration silently yields wrong filterings. Use
+ *    `holdFor(checker, sample)` on a sample of assignments to validate the
+ *    traits declared by some checker.
+ *
+ * .. Example::
+ *    CheckerTraits.builder()
+ *        .variableSymmetric()
+ *        .monotone(Monotonicity.DECREASING)
+ *        .build();
+ */
+public final class CheckerTraits {
+    /** The traits of a checker which declares nothing. */
+    private static final CheckerTraits NONE = builder().build();
+
+    /** The ways the verdict of a checker may depend on one variable. */
+    public enum Monotonicity {
+        /** Nothing is known about the variable. */
+        NONE,
+        /** Increasing the value of the variable preserves the solutions. */
+        INCREASING,
+        /** Decreasing the value of the variable preserves the solutions. */
+        DECREASING
+    }
+
+    /** Maps an arity onto the number of leading interchangeable variables. */
+    private final IntUnaryOperator symmetricVariables;
+    /** True iff the values can be renamed at will. */
+    private final boolean valueSymmetric;
+    /** Maps a variable onto its monotonicity. */
+    private final IntFunction<Monotonicity> monotonicity;
+    /** The parts of the conjunction (empty when it is not decomposable). */
+    private final List<Part> parts;
+
+    /**
+     * Creates new traits from their builder.
+     *
+     * @param builder the builder describing the traits
+     */
+    private CheckerTraits(final Builder builder) {
+        this.symmetricVariables = builder.symmetricVariables;
+        this.valueSymmetric     = builder.valueSymmetric;
+        this.monotonicity       = builder.monotonicity;
+        this.parts              = Collections.unmodifiableList(
+                new ArrayList<>(builder.parts));
+    }
+
+    /** @return the traits of a checker which declares nothing */
+    public static CheckerTraits none() {
+        return NONE;
+    }
+
+    /** @return a builder to declare the traits of some checker */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @param arity the number of variables of some assignment
+     * @return the number of leading variables of that assignment which are
+     * interchangeable (0 when there is no variable symmetry)
+     */
+    public int nbSymmetricVariables(final int arity) {
+        final int k = symmetricVariables.applyAsInt(arity);
+        return k < 2 ? 0 : Math.min(k, arity);
+    }
+
+    /** @return true iff the values can be renamed at will */
+    public boolean isValueSymmetric() {
+        return valueSymmetric;
+    }
+
+    /**
+     * @param var some variable
+     * @return the monotonicity of the checker with respect to that variable
+     */
+    public Monotonicity monotonicity(final int var) {
+        return monotonicity.apply(var);
+    }
+
+    /**
+     * @param arity the number of variables of some assignment
+     * @return true iff the checker is monotonic with respect to some of the
+     * given number of variables
+     */
+    public boolean hasMonotoneVariables(final int arity) {
+        for (int var = 0; var < arity; var++) {
+            if (monotonicity(var) != Monotonicity.NONE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** @return true iff the checker is a conjunction of sub-checkers */
+    public boolean isDecomposable() {
+        return !parts.isEmpty();
+    }
+
+    /** @return the parts of the conjunction (empty if not decomposable) */
+    public List<Part> parts() {
+        return parts;
+    }
+
+    /**
+     * Cheaply validates these traits on one sample assignment. The sample is
+     * transformed by the permutations, renamings and shifts allowed by the
+     * traits, and the verdict of the checker must be preserved.
+     *
+     * @param checker the checker declaring these traits
+     * @param sample some sample assignment
+     * @return true iff no declared trait was contradicted by the sample
+     */
+    public boolean holdFor(final Checker checker, final Assignment sample) {
+        final int[]   values  = sample.stream().mapToInt(Integer::intValue).toArray();
+        final boolean verdict = checker.test(sample);
+        final int     arity   = values.length;
+
+        // a transposition and a cycle generate all the permutations
+        final int k = nbSymmetricVariables(arity);
+        if (k >= 2) {
+            final int[] swapped = values.clone();
+            swapped[0] = values[1];
+            swapped[1] = values[0];
+
+            final int[] rotated = values.clone();
+            for (int i = 0; i < k; i++) {
+                rotated[i] = values[(i + 1) % k];
+            }
+            if (checker.test(of(swapped)) != verdict
+                    || checker.test(of(rotated)) != verdict) {
+                return false;
+            }
+        }
+
+        // exchange two values, and rename one into a fresh value
+        if (valueSymmetric && arity > 0) {
+            final int a     = values[0];
+            final int b     = values[arity - 1];
+            final int min   = Arrays.stream(values).min().getAsInt();
+            final int fresh = min > Integer.MIN_VALUE
+                    ? min - 1
+                    : Arrays.stream(values).max().getAsInt() + 1;
+
+            final int[] exchanged = values.clone();
+            final int[] renamed   = values.clone();
+            for (int i = 0; i < arity; i++) {
+                exchanged[i] = values[i] == a ? b : values[i] == b ? a : values[i];
+                renamed[i]   = values[i] == a ? fresh : values[i];
+            }
+            if (checker.test(of(exchanged)) != verdict
+                    || checker.test(of(renamed)) != verdict) {
+                return false;
+            }
+        }
+
+        // the solutions must be preserved along the declared directions
+        if (verdict) {
+            for (int var = 0; var < arity; var++) {
+                final int[] moved = values.clone();
+                switch (monotonicity(var)) {
+                    case INCREASING:
+                        if (values[var] == Integer.MAX_VALUE) {
+                            continue;
+                        }
+                        moved[var]++;
+                        break;
+                    case DECREASING:
+                        if (values[var] == Integer.MIN_VALUE) {
+                            continue;
+                        }
+                        moved[var]--;
+                        break;
+                    default:
+                        continue;
+                }
+                if (!checker.test(of(moved))) {
+                    return false;
+                }
+            }
+        }
+
+        // the conjunction must agree with the checker
+        if (isDecomposable()) {
+            boolean conjunction = true;
+            for (Part part : parts) {
+                if (part.maxVariable() >= arity) {
+                    return false;
+                }
+                conjunction &= part.checker().test(Assignment.from(part.project(sample)));
+            }
+            if (conjunction != verdict) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param values some values
+     * @return the assignment of these values
+     */
+    private static Assignment of(final int[] values) {
+        return Assignment.from(Arrays.stream(values).boxed()
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * One part of a decomposable checker: a sub-checker applied to some of
+     * the variables (its scope).
+     */
+    public static final class Part {
+        /** The checker of this part. */
+        private final Checker checker;
+        /** The variables on which the checker is applied, in that order. */
+        private final int[] scope;
+
+        /**
+         * Creates a new part.
+         *
+         * @param checker the checker of this part
+         * @param scope the variables on which the checker is applied
+         * @throws IllegalArgumentException when the scope comprises some
+         *         negative or duplicate variable
+         */
+        public Part(final Checker checker, final int... scope) {
+            if (Arrays.stream(scope).anyMatch(v -> v < 0)
+                    || Arrays.stream(scope).distinct().count() != scope.length) {
+                throw new IllegalArgumentException(
+                        "The scope of a part must comprise distinct variables");
+            }
+            this.checker = checker;
+            this.scope   = scope.clone();
+        }
+
+        /** @return the checker of this part */
+        public Checker checker() {
+            return checker;
+        }
+
+        /** @return the variables on which the checker is applied */
+        public int[] scope() {
+            return scope.clone();
+        }
+
+        /** @return the largest variable of the scope (-1 when it is empty) */
+        public int maxVariable() {
+            return Arrays.stream(scope).max().orElse(-1);
+        }
+
+        /**
+         * @param items the items of all the variables (values or domains)
+         * @param <T> the type of the items
+         * @return the items of the variables of the scope, in scope order
+         */
+        public <T> List<T> project(final List<T> items) {
+            final List<T> projected = new ArrayList<>(scope.length);
+            for (int var : scope) {
+                projected.add(items.get(var));
+            }
+            return projected;
+        }
+    }
+
+    /** A builder to declare the traits of some checker. */
+    public static final class Builder {
+        /** Maps an arity onto the number of leading interchangeable vars. */
+        private IntUnaryOperator symmetricVariables = arity -> 0;
+        /** True iff the values can be renamed at will. */
+        private boolean valueSymmetric = false;
+        /** Maps a variable onto its monotonicity. */
+        private IntFunction<Monotonicity> monotonicity = var -> Monotonicity.NONE;
+        /** The parts of the conjunction. */
+        private final List<Part> parts = new ArrayList<>();
+
+        /** Builders are created through CheckerTraits.builder(). */
+        private Builder() { }
+
+        /**
+         * Declares that all the variables are interchangeable.
+         *
+         * @return this builder
+         */
+        public Builder variableSymmetric() {
+            return symmetricVariables(arity -> arity);
+        }
+
+        /**
+         * Declares that the leading variables are interchangeable.
+         *
+         * @param count maps the arity of an assignment onto the number of its
+         *              leading variables which are interchangeable
+         * @return this builder
+         */
+        public Builder symmetricVariables(final IntUnaryOperator count) {
+            this.symmetricVariables = count;
+            return this;
+        }
+
+        /**
+         * Declares that the values can be renamed at will.
+         *
+         * @return this builder
+         */
+        public Builder valueSymmetric() {
+            this.valueSymmetric = true;
+            return this;
+        }
+
+        /**
+         * Declares the same monotonicity for all the variables.
+         *
+         * @param direction the monotonicity of every variable
+         * @return this builder
+         */
+        public Builder monotone(final Monotonicity direction) {
+            return monotone(var -> direction);
+        }
+
+        /**
+         * Declares the monotonicity of each variable.
+         *
+         * @param directions maps a variable onto its monotonicity
+         * @return this builder
+         */
+        public Builder monotone(final IntFunction<Monotonicity> directions) {
+            this.monotonicity = directions;
+            return this;
+        }
+
+        /**
+         * Declares that the checker is the conjunction of the given parts.
+         *
+         * @param conjunction the parts of the conjunction
+         * @return this builder
+         * @throws IllegalArgumentException when the scopes of the parts are
+         *         not disjoint
+         */
+        public Builder conjunctionOf(final List<Part> conjunction) {
+            final Set<Integer> seen = new HashSet<>();
+            for (Part part : conjunction) {
+                for (int var : part.scope) {
+                    if (!seen.add(var)) {
+                        throw new IllegalArgumentException(
+                                "The scopes of the parts must be disjoint");
+                    }
+                }
+            }
+            this.parts.clear();
+            this.parts.addAll(conjunction);
+            return this;
+        }
+
+        /** @return the declared traits */
+        public CheckerTraits build() {
+            return new CheckerTraits(this);
+        }
+    }
+}
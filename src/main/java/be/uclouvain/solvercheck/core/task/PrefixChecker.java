@@ -0,0 +1,29 @@
+package be.uclouvain.solvercheck.core.task;
+
+/**
+ * A PrefixChecker is one that can summarize any prefix of an assignment by
+ * a state: all it needs to remember about the values of the first variables
+ * in order to judge the rest of the assignment. Two prefixes of the same
+ * length having the same state are completed into solutions by exactly the
+ * same suffixes.
+ *
+ * .. Example::
+ *    The state of a prefix is its (weighted) partial sum for a sum
+ *    constraint, and the state reached by the automaton after reading it for
+ *    a regular constraint.
+ *
+ * .. Note::
+ *    This lets the compilation of a decision diagram (see Mdd) explore each
+ *    (layer, state) pair once instead of each prefix of the solutions.
+ */
+public interface PrefixChecker extends Checker {
+
+    /**
+     * Summarizes a prefix of some assignment.
+     *
+     * @param prefix the values of (at least) the first `length` variables
+     * @param length the number of variables in the prefix
+     * @return the state of that prefix
+     */
+    long prefixState(int[] prefix, int length);
+}
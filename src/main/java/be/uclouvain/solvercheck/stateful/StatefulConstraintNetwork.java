@@ -0,0 +1,86 @@
+package be.uclouvain.solvercheck.stateful;
+
+import be.uclouvain.solvercheck.consistencies.ConstraintNetwork;
+import be.uclouvain.solvercheck.core.data.Operator;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.StatefulFilter;
+
+import java.util.Stack;
+
+/**
+ * This class turns a `ConstraintNetwork` into a StatefulFilter which
+ * propagates its constraints incrementally. Since each state of the dive is
+ * a fixpoint of the network, a branching decision only requires to queue the
+ * constraints bearing on the variable that was branched on. Moreover, the
+ * residual supports of the constraints are kept all along the dive (they are
+ * validated before being used, hence they never need to be restored upon
+ * `popState()`).
+ *
+ * @see ConstraintNetwork
+ */
+public final class StatefulConstraintNetwork implements StatefulFilter {
+    /** The network being propagated. */
+    private final ConstraintNetwork network;
+    /** The residual supports of the constraints of the network. */
+    private ConstraintNetwork.Residues residues;
+    /** The current value of variables domains. */
+    private PartialAssignment current;
+    /** The trail of partial assignments that has led to the `current` state. */
+    private final Stack<PartialAssignment> snapshots;
+
+    /**
+     * Creates a new stateful filter propagating the given network
+     * incrementally.
+     *
+     * @param network the network being adapted to a stateful filter.
+     */
+    public StatefulConstraintNetwork(final ConstraintNetwork network) {
+        this.network   = network;
+        this.snapshots = new Stack<>();
+        this.current   = null; // throw exception if not explicitly initialized
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setup(final PartialAssignment initialDomains) {
+        snapshots.clear();
+        residues = network.newResidues();
+        current  = network.propagate(initialDomains, residues);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void pushState() {
+        snapshots.push(current);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void popState() {
+        if (!snapshots.isEmpty()) {
+            current = snapshots.pop();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PartialAssignment currentState() {
+        if (current.isError()) {
+            return PartialAssignment.error(current.size());
+        } else {
+            return current;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void branchOn(final int variable, final Operator op, final int value) {
+        if (current.isError()) {
+            return;
+        }
+
+        final PartialAssignment restricted =
+                PartialAssignment.restrict(current, variable, op, value);
+        current = network.propagate(restricted, residues, variable);
+    }
+}
@@ -0,0 +1,70 @@
+package be.uclouvain.solvercheck.stateful;
+
+import be.uclouvain.solvercheck.consistencies.RegularArcConsistency;
+import be.uclouvain.solvercheck.core.data.Operator;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.StatefulFilter;
+
+import java.util.Stack;
+
+/**
+ * This class turns a `RegularArcConsistency` into a StatefulFilter which
+ * maintains the layered graph of the constraint incrementally. A branching
+ * decision only recomputes the layers that are affected by the restricted
+ * variable (instead of the complete forward and backward passes).
+ *
+ * @see RegularArcConsistency
+ */
+public final class StatefulRegularConsistency implements StatefulFilter {
+    /** The filter whose layered graph is maintained. */
+    private final RegularArcConsistency filter;
+    /** The layered graph of the current state. */
+    private RegularArcConsistency.Layers current;
+    /** The trail of layered graphs that has led to the `current` state. */
+    private final Stack<RegularArcConsistency.Layers> snapshots;
+
+    /**
+     * Creates a new stateful filter maintaining the layered graph of the
+     * given filter incrementally.
+     *
+     * @param filter the filter being adapted to a stateful filter.
+     */
+    public StatefulRegularConsistency(final RegularArcConsistency filter) {
+        this.filter    = filter;
+        this.snapshots = new Stack<>();
+        this.current   = null; // throw exception if not explicitly initialized
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setup(final PartialAssignment initialDomains) {
+        snapshots.clear();
+        current = filter.newLayers(initialDomains);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void pushState() {
+        snapshots.push(current.copy());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void popState() {
+        if (!snapshots.isEmpty()) {
+            current = snapshots.pop();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PartialAssignment currentState() {
+        return current.filtered();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void branchOn(final int variable, final Operator op, final int value) {
+        current.restrict(variable, op, value);
+    }
+}
@@ -0,0 +1,102 @@
+package be.uclouvain.solvercheck.stateful;
+
+import be.uclouvain.solvercheck.consistencies.CompactTable;
+import be.uclouvain.solvercheck.consistencies.TableConsistency;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.Operator;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.StatefulFilter;
+import be.uclouvain.solvercheck.utils.collections.ReversibleSparseBitSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Stack;
+
+/**
+ * This class turns a `TableConsistency` into a StatefulFilter which
+ * maintains its current table incrementally. Each branching decision only
+ * removes the tuples invalidated by the restricted domain from the current
+ * table, and each `popState()` restores the table from its trail. Neither
+ * operation ever needs to enumerate the cartesian product of the domains.
+ *
+ * @see CompactTable
+ * @see ReversibleSparseBitSet
+ */
+public final class StatefulTableConsistency implements StatefulFilter {
+    /** The filter providing the compiled tables. */
+    private final TableConsistency filter;
+    /** The table compiled for the current root. */
+    private CompactTable table;
+    /** The set of tuples that are still valid in the current state. */
+    private ReversibleSparseBitSet currentTable;
+    /** The current value of variables domains. */
+    private PartialAssignment current;
+    /** The trail of partial assignments that has led to the `current` state. */
+    private final Stack<PartialAssignment> snapshots;
+
+    /**
+     * Creates a new stateful filter maintaining the current table of the
+     * given filter incrementally.
+     *
+     * @param filter the filter being adapted to a stateful filter.
+     */
+    public StatefulTableConsistency(final TableConsistency filter) {
+        this.filter    = filter;
+        this.snapshots = new Stack<>();
+        this.current   = null; // throw exception if not explicitly initialized
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setup(final PartialAssignment initialDomains) {
+        snapshots.clear();
+        table        = filter.tableFor(initialDomains);
+        currentTable = table.newCurrentTable();
+
+        for (int var = 0; var < initialDomains.size(); var++) {
+            table.restrict(currentTable, var, initialDomains.get(var));
+        }
+        current = table.filter(currentTable, initialDomains);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void pushState() {
+        snapshots.push(current);
+        currentTable.pushState();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void popState() {
+        if (!snapshots.isEmpty()) {
+            current = snapshots.pop();
+            currentTable.popState();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PartialAssignment currentState() {
+        if (current.isError()) {
+            return PartialAssignment.error(current.size());
+        } else {
+            return current;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void branchOn(final int variable, final Operator op, final int value) {
+        if (current.isError()) {
+            return;
+        }
+
+        final Domain restricted = Domain.restrict(current.get(variable), op, value);
+        final List<Domain> domains = new ArrayList<>(current);
+        domains.set(variable, restricted);
+
+        table.restrict(currentTable, variable, restricted);
+        current = table.filter(currentTable, domains);
+    }
+}
@@ -1,5 +1,8 @@
 package be.uclouvain.solvercheck.stateful;
 
+import be.uclouvain.solvercheck.consistencies.ConstraintNetwork;
+import be.uclouvain.solvercheck.consistencies.RegularArcConsistency;
+import be.uclouvain.solvercheck.consistencies.TableConsistency;
 import be.uclouvain.solvercheck.core.task.Filter;
 import be.uclouvain.solvercheck.core.task.StatefulFilter;
 
@@ -19,11 +22,28 @@ public interface WithStateful {
      * you turn any Filter into a StatefulFilter which can be interacted with
      * so as to simulate the interaction with a solver.
      *
+     * .. Note::
+     *    When the given filter is a compiled `TableConsistency`, the returned
+     *    StatefulFilter maintains its current table incrementally instead of
+     *    filtering each state from scratch. Similarly, a `ConstraintNetwork`
+     *    only propagates the constraints bearing on the variable that was
+     *    branched on, and a `RegularArcConsistency` only recomputes the
+     *    layers of its layered graph that are affected by the branching.
+     *
      * @param filter the filter being adapted to a stateful filter.
      * @return a StatefulFilter adapting the given `filter` so as to be
      * useable from within a `Dive` check.
      */
     default StatefulFilter stateful(final Filter filter) {
+        if (filter instanceof TableConsistency) {
+            return new StatefulTableConsistency((TableConsistency) filter);
+        }
+        if (filter instanceof ConstraintNetwork) {
+            return new StatefulConstraintNetwork((ConstraintNetwork) filter);
+        }
+        if (filter instanceof RegularArcConsistency) {
+            return new StatefulRegularConsistency((RegularArcConsistency) filter);
+        }
         return new StatefulFilterAdapter(filter);
     }
 
@@ -0,0 +1,245 @@
+package be.uclouvain.solvercheck.utils.collections;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * This class implements the reversible sparse bitset which lies at the heart
+ * of the Compact-Table algorithm. It is a set of bits (tuples ids) which can
+ * only shrink, and whose previous states can be restored in a LIFO fashion.
+ *
+ * .. Sparsity::
+ *    The bitset keeps track of its non-zero words. Hence, all the operations
+ *    of this class only iterate over these words. As the set shrinks, these
+ *    operations become faster.
+ *
+ * .. Masks::
+ *    The bitset is meant to be intersected with a mask which is built as the
+ *    union of several other bitsets (the supports of the values remaining in
+ *    some domain). Hence, the typical usage pattern is:
+ *    <pre>
+ *        table.clearMask();
+ *        for (int value : domain) {
+ *            table.addToMask(supports[value]);
+ *        }
+ *        table.intersectWithMask();
+ *    </pre>
+ *
+ * .. Reference::
+ *    Demeulenaere, J., et al. "Compact-table: efficiently filtering table
+ *    constraints with reversible sparse bit-sets." CP 2016.
+ */
+public final class ReversibleSparseBitSet {
+    /** The number of bits per word. */
+    private static final int WORD_SIZE = Long.SIZE;
+
+    /** The actual bits. */
+    private final long[] words;
+    /** The indices of the non-zero words are stored in index[0..limit[. */
+    private final int[] index;
+    /** The temporary mask built with `clearMask` and `addToMask`. */
+    private final long[] mask;
+    /** The number of non-zero words. */
+    private int limit;
+
+    /** The (identifier of the) level at which each word was last saved. */
+    private final int[] savedAt;
+    /** The words whose value has been saved on the trail. */
+    private int[] trailWord;
+    /** The saved values of the words on the trail. */
+    private long[] trailValue;
+    /** The number of entries on the trail. */
+    private int trailSize;
+    /** The identifier of the current level. */
+    private int level;
+    /** The counter used to generate unique level identifiers. */
+    private int levels;
+    /** The saved states: {limit, trailSize, level} for each `pushState`. */
+    private final Deque<int[]> frames;
+
+    /**
+     * Creates a new bitset having all of its `nbBits` bits set.
+     *
+     * @param nbBits the number of bits in the set.
+     */
+    public ReversibleSparseBitSet(final int nbBits) {
+        if (nbBits < 0) {
+            throw new IllegalArgumentException("nbBits must be natural");
+        }
+        final int nbWords = nbWords(nbBits);
+
+        this.words = new long[nbWords];
+        this.index = new int[nbWords];
+        this.mask  = new long[nbWords];
+        this.limit = nbWords;
+
+        Arrays.fill(words, -1L);
+        if (nbBits % WORD_SIZE != 0) {
+            words[nbWords - 1] = (1L << (nbBits % WORD_SIZE)) - 1;
+        }
+        for (int i = 0; i < nbWords; i++) {
+            index[i] = i;
+        }
+
+        this.savedAt    = new int[nbWords];
+        this.trailWord  = new int[nbWords];
+        this.trailValue = new long[nbWords];
+        this.frames     = new ArrayDeque<>();
+    }
+
+    /**
+     * @param nbBits a number of bits
+     * @return the number of words needed to store `nbBits` bits.
+     */
+    public static int nbWords(final int nbBits) {
+        return (nbBits + WORD_SIZE - 1) / WORD_SIZE;
+    }
+
+    /**
+     * Creates a plain (non reversible) bitset having the given bits set.
+     *
+     * @param nbBits the total number of bits in the set
+     * @param bits the positions of the bits that need to be set
+     * @return an array of words having exactly the given bits set.
+     */
+    public static long[] wordsOf(final int nbBits, final int... bits) {
+        final long[] result = new long[nbWords(nbBits)];
+        for (int bit : bits) {
+            result[bit / WORD_SIZE] |= 1L << (bit % WORD_SIZE);
+        }
+        return result;
+    }
+
+    /** @return true iff no bit is set. */
+    public boolean isEmpty() {
+        return limit == 0;
+    }
+
+    /** @return the number of bits which are set. */
+    public int cardinality() {
+        int count = 0;
+        for (int i = 0; i < limit; i++) {
+            count += Long.bitCount(words[index[i]]);
+        }
+        return count;
+    }
+
+    /**
+     * @param bit the position of some bit
+     * @return true iff the given bit is set.
+     */
+    public boolean get(final int bit) {
+        return (words[bit / WORD_SIZE] & (1L << (bit % WORD_SIZE))) != 0;
+    }
+
+    /** Clears the temporary mask. */
+    public void clearMask() {
+        for (int i = 0; i < limit; i++) {
+            mask[index[i]] = 0L;
+        }
+    }
+
+    /**
+     * Adds the given bits to the temporary mask.
+     *
+     * @param bits the words of some bitset having the same size as this one.
+     */
+    public void addToMask(final long[] bits) {
+        for (int i = 0; i < limit; i++) {
+            final int offset = index[i];
+            mask[offset] |= bits[offset];
+        }
+    }
+
+    /**
+     * Intersects this bitset with the temporary mask.
+     *
+     * @return true iff this operation modified the set.
+     */
+    public boolean intersectWithMask() {
+        boolean changed = false;
+        for (int i = limit - 1; i >= 0; i--) {
+            final int  offset = index[i];
+            final long word   = words[offset] & mask[offset];
+            if (word != words[offset]) {
+                save(offset);
+                words[offset] = word;
+                changed       = true;
+
+                if (word == 0L) {
+                    index[i]         = index[limit - 1];
+                    index[limit - 1] = offset;
+                    limit--;
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Looks for a word where this bitset intersects with the given bits.
+     *
+     * @param bits the words of some bitset having the same size as this one.
+     * @param residue a hint: the index of the word that was last found to
+     *                intersect `bits`. (Use -1 when no such hint exists).
+     * @return the index of a word where this bitset and `bits` intersect, or
+     * -1 when they do not intersect at all.
+     */
+    public int intersectIndex(final long[] bits, final int residue) {
+        if (residue >= 0 && (words[residue] & bits[residue]) != 0L) {
+            return residue;
+        }
+        for (int i = 0; i < limit; i++) {
+            final int offset = index[i];
+            if ((words[offset] & bits[offset]) != 0L) {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    /** Saves the current state so that it can be restored with `popState`. */
+    public void pushState() {
+        frames.push(new int[] {limit, trailSize, level});
+        level = ++levels;
+    }
+
+    /**
+     * Restores the state as it was upon the last call to `pushState`.
+     * Nothing happens when there is no such saved state.
+     */
+    public void popState() {
+        if (frames.isEmpty()) {
+            return;
+        }
+
+        final int[] frame = frames.pop();
+        while (trailSize > frame[1]) {
+            trailSize--;
+            words[trailWord[trailSize]] = trailValue[trailSize];
+        }
+        limit = frame[0];
+        level = frame[2];
+    }
+
+    /**
+     * Saves the value of the given word on the trail (unless it was already
+     * saved since the last call to `pushState`).
+     *
+     * @param offset the index of the word to save
+     */
+    private void save(final int offset) {
+        if (frames.isEmpty() || savedAt[offset] == level) {
+            return;
+        }
+        if (trailSize == trailWord.length) {
+            trailWord  = Arrays.copyOf(trailWord,  2 * trailSize + 1);
+            trailValue = Arrays.copyOf(trailValue, 2 * trailSize + 1);
+        }
+        trailWord[trailSize]  = offset;
+        trailValue[trailSize] = words[offset];
+        trailSize++;
+        savedAt[offset] = level;
+    }
+}
@@ -2,12 +2,20 @@ package be.uclouvain.solvercheck.checkers;
 
 import be.uclouvain.solvercheck.WithSolverCheck;
 import be.uclouvain.solvercheck.core.data.Assignment;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Checker;
+import be.uclouvain.solvercheck.core.task.CheckerTraits;
+import be.uclouvain.solvercheck.core.task.CheckerTraits.Monotonicity;
+import be.uclouvain.solvercheck.core.task.PartialChecker;
+import be.uclouvain.solvercheck.utils.collections.CartesianProduct;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
 
 import static be.uclouvain.solvercheck.core.data.Operator.EQ;
 import static be.uclouvain.solvercheck.core.data.Operator.GE;
@@ -285,6 +293,273 @@ public class TestCheckers implements WithSolverCheck {
         );
     }
 
+    @Test
+    public void testWeightedSum(){
+        final int[] weights = {2, -1, 3};
+        assertThat(
+           forAll(assignment("ASN").withVariables(3), integer("RHS"))
+              .assertThat((a, c) -> randomness ->
+                 assertEquals(
+                    2L * a.get(0) - a.get(1) + 3L * a.get(2) == c,
+                    weightedSum(weights, EQ, c).test(a)
+                 )
+              )
+        );
+    }
+
+    @Test
+    public void testRegular(){
+        // no two consecutive ones
+        final Automaton automaton = Automaton.builder(2)
+           .accepting(0, 1)
+           .transition(0, 0, 0).transition(0, 1, 1).transition(0, 2, 0)
+           .transition(1, 0, 0).transition(1, 2, 0)
+           .build();
+
+        assertThat(
+           forAll(assignment().withValuesRanging(0, 3)).itIsTrueThat(a -> {
+              boolean expected = !a.contains(3);
+              for (int i = 1; i < a.size(); i++) {
+                  expected &= !(a.get(i - 1) == 1 && a.get(i) == 1);
+              }
+              return regular(automaton).test(a) == expected;
+           })
+        );
+    }
+
+    @Test
+    public void anAutomatonMustBeDeterministic() {
+        Assert.assertTrue(failsThrowing(
+           IllegalArgumentException.class,
+           () -> Automaton.builder(2).transition(0, 1, 0).transition(0, 1, 1)
+        ));
+    }
+
+    @Test
+    public void anAutomatonMayHaveASparseAlphabet() {
+        // alternates between the two extreme symbols, starting with the least
+        final Automaton automaton = Automaton.builder(2)
+           .accepting(0, 1)
+           .transition(0, Integer.MIN_VALUE, 1)
+           .transition(1, Integer.MAX_VALUE, 0)
+           .build();
+
+        Assert.assertTrue(regular(automaton).test(Assignment.from(
+                Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE)));
+        Assert.assertFalse(regular(automaton).test(Assignment.from(
+                Integer.MIN_VALUE, Integer.MIN_VALUE)));
+        Assert.assertFalse(regular(automaton).test(Assignment.from(0)));
+    }
+
+    @Test
+    public void testCumulative(){
+        final int[] durations = {2, 3, 1, 0};
+        final int[] demands   = {1, 2, 2, 5};
+        assertThat(
+           forAll(assignment().withVariables(4).withValuesRanging(-2, 6))
+           .itIsTrueThat(a -> {
+              boolean expected = true;
+              for (int t = -2; t < 10; t++) {
+                  int load = 0;
+                  for (int i = 0; i < 4; i++) {
+                      if (a.get(i) <= t && t < a.get(i) + durations[i]) {
+                          load += demands[i];
+                      }
+                  }
+                  expected &= load <= 3;
+              }
+              return cumulative(durations, demands, 3).test(a) == expected;
+           })
+        );
+    }
+
+    @Test
+    public void testDisjunctive(){
+        final int[] durations = {2, 3, 1};
+        assertThat(
+           forAll(assignment().withVariables(3).withValuesRanging(0, 6))
+           .itIsTrueThat(a -> {
+              boolean expected = true;
+              for (int i = 0; i < 3; i++) {
+                  for (int j = i + 1; j < 3; j++) {
+                      expected &= a.get(i) + durations[i] <= a.get(j)
+                                || a.get(j) + durations[j] <= a.get(i);
+                  }
+              }
+              return disjunctive(durations).test(a) == expected;
+           })
+        );
+    }
+
+    /**
+     * @return the number of cycles of length > 1 of the successor function,
+     * or -1 when it is not a permutation of 0 .. n-1
+     */
+    private static int nbLongCycles(final Assignment a) {
+        final int n = a.size();
+        if (a.stream().anyMatch(v -> v < 0 || v >= n)
+                || a.stream().distinct().count() != n) {
+            return -1;
+        }
+        final boolean[] seen = new boolean[n];
+        int cycles = 0;
+        for (int i = 0; i < n; i++) {
+            if (!seen[i] && a.get(i) != i) {
+                cycles++;
+            }
+            for (int j = i; !seen[j]; j = a.get(j)) {
+                seen[j] = true;
+            }
+        }
+        return cycles;
+    }
+
+    @Test
+    public void testCircuit(){
+        assertThat(
+           forAll(assignment().withVariablesBetween(1, 6).withValuesRanging(-1, 5))
+           .itIsTrueThat(a -> {
+              final int cycles = nbLongCycles(a);
+              final boolean expected = a.size() == 1
+                      ? cycles == 0
+                      : cycles == 1 && a.stream().noneMatch(v -> a.get(v) == v);
+              return circuit().test(a) == expected;
+           })
+        );
+    }
+
+    @Test
+    public void testSubcircuit(){
+        assertThat(
+           forAll(assignment().withVariablesBetween(1, 6).withValuesRanging(-1, 5))
+           .itIsTrueThat(a -> {
+              final int cycles = nbLongCycles(a);
+              return subcircuit().test(a) == (cycles == 0 || cycles == 1);
+           })
+        );
+    }
+
+    @Test
+    public void testLex(){
+        assertThat(
+           forAll(assignment().withVariables(6).withValuesRanging(0, 2))
+           .itIsTrueThat(a -> {
+              final String x = a.subList(0, 3).toString();
+              final String y = a.subList(3, 6).toString();
+              return lexLess(3).test(a) == (x.compareTo(y) < 0)
+                  && lexLessEq(3).test(a) == (x.compareTo(y) <= 0);
+           })
+        );
+    }
+
+    /** @return a table of (possibly duplicate) random rows */
+    private static List<Assignment> randomTable(final int rows, final int arity) {
+        final Random random = new Random(rows * 31L + arity);
+        final List<Assignment> table = new ArrayList<>();
+        for (int r = 0; r < rows; r++) {
+            final List<Integer> row = new ArrayList<>();
+            for (int i = 0; i < arity; i++) {
+                row.add(random.nextInt(4));
+            }
+            table.add(Assignment.from(row));
+        }
+        return table;
+    }
+
+    @Test
+    public void testTable(){
+        for (int rows : new int[] {0, 1, 10, 40}) {
+            final List<Assignment> table = randomTable(rows, 3);
+            assertThat(
+               forAll(assignment().withVariablesBetween(2, 4).withValuesRanging(-1, 4))
+               .itIsTrueThat(a -> table(table).test(a) == table.contains(a))
+            );
+        }
+    }
+
+    @Test
+    public void aTableRejectsThePrefixesMatchingNoRow() {
+        final List<Assignment> table   = randomTable(30, 4);
+        final PartialChecker   checker = table(table);
+        assertThat(
+           forAll(partialAssignment().withVariables(4).withValuesRanging(0, 3))
+           .itIsTrueThat(pa -> {
+              int prefix = 0;
+              while (prefix < pa.size() && pa.get(prefix).isFixed()) {
+                  prefix++;
+              }
+              final int length = prefix;
+              final boolean matches = table.stream().anyMatch(row -> {
+                  for (int i = 0; i < length; i++) {
+                      if (row.get(i) != pa.get(i).minimum()) {
+                          return false;
+                      }
+                  }
+                  return true;
+              });
+              return (checker.test(pa) == PartialChecker.PartialCheckResult.REJECT) == !matches;
+           })
+        );
+    }
+
+    @Test
+    public void theRowsOfATableMustHaveTheSameArity() {
+        Assert.assertTrue(failsThrowing(IllegalArgumentException.class,
+                () -> table(List.of(
+                        Assignment.from(List.of(1, 2)),
+                        Assignment.from(List.of(1, 2, 3))))));
+    }
+
+    @Test
+    public void testConjunction(){
+        final Checker conj = conjunction(part(allDiff(), 0, 2), part(sum(LE, 3), 3, 1));
+        assertThat(
+           forAll(assignment().withVariables(4).withValuesRanging(0, 3))
+           .itIsTrueThat(a -> conj.test(a)
+                   == (!a.get(0).equals(a.get(2)) && a.get(1) + a.get(3) <= 3))
+        );
+        Assert.assertFalse(conj.test(Assignment.from(List.of(1, 2, 3))));
+        Assert.assertTrue(failsThrowing(IllegalArgumentException.class,
+                () -> conjunction(part(allDiff(), 0, 1), part(allDiff(), 1, 2))));
+    }
+
+    @Test
+    public void theTraitsOfTheBuiltInCheckersHold() {
+        final List<Checker> checkers = List.of(
+                alwaysTrue(), alwaysFalse(), allDiff(),
+                sum(LE, 3), sum(GT, 1), sum(EQ, 2),
+                weightedSum(new int[] {2, -1, 0, 3}, GE, 1),
+                lexLess(2), lexLessEq(2),
+                gcc(List.of(1, 2), List.of(0, 1)), gccVar(List.of(0, 1)),
+                conjunction(part(allDiff(), 0, 1), part(sum(GE, 2), 2, 3)));
+
+        for (Checker checker : checkers) {
+            assertThat(
+               forAll(assignment().withVariables(4).withValuesRanging(-1, 3))
+               .itIsTrueThat(a -> checker.traits().holdFor(checker, a))
+            );
+        }
+    }
+
+    @Test
+    public void aWrongTraitDeclarationIsDetected() {
+        final Checker wrong = withTraits(sum(LE, 3),
+                CheckerTraits.builder().monotone(Monotonicity.INCREASING).build());
+        Assert.assertFalse(wrong.traits()
+                .holdFor(wrong, Assignment.from(List.of(3, 0))));
+
+        final Checker notSymmetric = withTraits(a -> a.get(0) < a.get(1),
+                CheckerTraits.builder().variableSymmetric().build());
+        Assert.assertFalse(notSymmetric.traits()
+                .holdFor(notSymmetric, Assignment.from(List.of(0, 1))));
+    }
+
+    @Test
+    public void aLexCheckerRequiresTwoVectorsOfTheSameLength() {
+        Assert.assertTrue(failsThrowing(IllegalArgumentException.class,
+                () -> lexLess(2).test(Assignment.from(List.of(1, 2, 3)))));
+    }
+
     @Test
     public void testSumLeIsNotSubjectToOverflows() {
         assertThat(
@@ -376,6 +651,54 @@ public class TestCheckers implements WithSolverCheck {
         );
     }
 
+    @Test
+    public void testAllDiffPartialCheckIsSound() {
+        assertThat(
+           forAll(partialAssignment().withValuesRanging(0, 4))
+              .itIsTrueThat(pa -> partialCheckIsSound(allDiff(), pa))
+        );
+    }
+
+    @Test
+    public void testSumPartialCheckIsSound() {
+        assertThat(
+           forAll(operator("OP"), integer("RHS").between(-10, 10))
+              .assertThat((op, rhs) -> randomness ->
+                 assertThat(
+                    forAll(partialAssignment().withValuesRanging(-5, 5))
+                       .itIsTrueThat(pa -> partialCheckIsSound(sum(op, rhs), pa))
+                 )
+              )
+        );
+    }
+
+    //
+    // A partial check is sound iff it only rejects partial assignments
+    // having no solution and it only accepts those whose extensions are all
+    // solutions.
+    //
+    // @param checker the partial checker being tested
+    // @param pa the partial assignment submitted to the checker
+    // @return true iff the verdict of the checker is sound for `pa`
+    //
+    private boolean partialCheckIsSound(
+            final PartialChecker checker,
+            final PartialAssignment pa) {
+
+        List<Boolean> outcomes = CartesianProduct.of(pa).stream()
+              .map(t -> checker.test(Assignment.from(t)))
+              .collect(Collectors.toList());
+
+        switch (checker.test(pa)) {
+            case REJECT:
+                return !outcomes.contains(true);
+            case ACCEPT:
+                return !outcomes.contains(false);
+            default:
+                return true;
+        }
+    }
+
     //
     // This assumption ensures that either an overflow or an underflow
     // underflow happens while summing up the values.
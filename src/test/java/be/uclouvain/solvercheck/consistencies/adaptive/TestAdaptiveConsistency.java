@@ -0,0 +1,126 @@
+package be.uclouvain.solvercheck.consistencies.adaptive;
+
+import be.uclouvain.solvercheck.WithSolverCheck;
+import be.uclouvain.solvercheck.consistencies.AdaptiveConsistency;
+import be.uclouvain.solvercheck.consistencies.ConsistencyLevel;
+import be.uclouvain.solvercheck.consistencies.Strategy;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Checker;
+import be.uclouvain.solvercheck.core.task.Filter;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static be.uclouvain.solvercheck.consistencies.ConsistencyLevel.ARC;
+import static be.uclouvain.solvercheck.consistencies.ConsistencyLevel.BOUND_D;
+import static be.uclouvain.solvercheck.core.data.Operator.EQ;
+import static be.uclouvain.solvercheck.core.data.Operator.LE;
+
+public class TestAdaptiveConsistency implements WithSolverCheck {
+
+    private static final ForkJoinPool SEQUENTIAL = new ForkJoinPool(1);
+    private static final ForkJoinPool PARALLEL   = new ForkJoinPool(4);
+
+    @AfterClass
+    public static void tearDown() {
+        SEQUENTIAL.shutdown();
+        PARALLEL.shutdown();
+    }
+
+    private Filter reference(final ConsistencyLevel level, final Checker checker) {
+        switch (level) {
+            case FORWARD_CHECKING: return forwardChecking(checker);
+            case BOUND_Z:          return boundZConsistent(checker);
+            case BOUND_D:          return boundDConsistent(checker);
+            case RANGE:            return rangeConsistent(checker);
+            case ARC:              return arcConsistent(checker);
+            default:               throw new RuntimeException("unreachable");
+        }
+    }
+
+    private static PartialAssignment uniform(final int arity, final int lo, final int hi) {
+        return PartialAssignment.from(Collections.nCopies(arity,
+                Domain.from(IntStream.rangeClosed(lo, hi)
+                        .toArray())));
+    }
+
+    @Test
+    public void itIsEquivalentToTheReferenceFilters() {
+        for (Checker checker : List.<Checker>of(allDiff(), a -> sum(EQ, 2).test(a))) {
+            for (ConsistencyLevel level : ConsistencyLevel.values()) {
+                assertThat(
+                   forAll(partialAssignment().withValuesRanging(-1, 3)).assertThat(
+                      a(adaptive(level, checker))
+                          .isEquivalentTo(reference(level, checker))
+                   )
+                );
+            }
+        }
+    }
+
+    @Test
+    public void smallProductsAreBruteForced() {
+        final AdaptiveConsistency filter = adaptive(ARC, allDiff());
+        final PartialAssignment   pa     = uniform(3, 0, 3);
+
+        Assert.assertEquals(Strategy.BRUTE_FORCE, filter.strategyFor(pa));
+        filter.filter(pa);
+        Assert.assertEquals(Strategy.BRUTE_FORCE, filter.lastStrategy());
+    }
+
+    @Test
+    public void largeProductsArePrunedWhenAPartialCheckerIsAvailable() {
+        final AdaptiveConsistency filter =
+                new AdaptiveConsistency(ARC, allDiff(), SEQUENTIAL);
+        final PartialAssignment pa = uniform(8, 0, 7);
+
+        Assert.assertEquals(Strategy.PRUNED_SEARCH, filter.strategyFor(pa));
+        Assert.assertEquals(arcConsistent(allDiff()).filter(pa), filter.filter(pa));
+        Assert.assertEquals(Strategy.PRUNED_SEARCH, filter.lastStrategy());
+    }
+
+    @Test
+    public void largeProductsAreEnumeratedInParallelOtherwise() {
+        final Checker plain = a -> allDiff().test(a);
+        final AdaptiveConsistency filter =
+                new AdaptiveConsistency(ARC, plain, PARALLEL);
+
+        Assert.assertEquals(Strategy.PARALLEL, filter.strategyFor(uniform(7, 0, 6)));
+    }
+
+    @Test
+    public void moderateProductsAreCompiledAndTheTableIsReused() {
+        final Checker plain = a -> sum(LE, 8).test(a);
+        final AdaptiveConsistency filter =
+                new AdaptiveConsistency(ARC, plain, SEQUENTIAL);
+        final PartialAssignment root = uniform(5, 0, 5);
+
+        Assert.assertEquals(Strategy.COMPILED_TABLE, filter.strategyFor(root));
+        filter.filter(root);
+
+        final PartialAssignment restricted =
+                PartialAssignment.restrict(root, 0, EQ, 3);
+        Assert.assertEquals(1.0,
+                filter.estimate(restricted).get(Strategy.COMPILED_TABLE), 0.0);
+        Assert.assertEquals(arcConsistent(plain).filter(restricted),
+                filter.filter(restricted));
+        Assert.assertEquals(Strategy.COMPILED_TABLE, filter.lastStrategy());
+    }
+
+    @Test
+    public void largeDomainsOnlyProbeTheirBounds() {
+        final Checker plain = a -> sum(LE, 10).test(a);
+        final AdaptiveConsistency filter =
+                new AdaptiveConsistency(BOUND_D, plain, SEQUENTIAL);
+        final PartialAssignment pa = uniform(4, 0, 19);
+
+        Assert.assertEquals(Strategy.BOUND_PROBING, filter.strategyFor(pa));
+        Assert.assertEquals(boundDConsistent(plain).filter(pa), filter.filter(pa));
+    }
+}
@@ -0,0 +1,135 @@
+package be.uclouvain.solvercheck.consistencies.alldiff;
+
+import be.uclouvain.solvercheck.WithSolverCheck;
+import be.uclouvain.solvercheck.core.data.Assignment;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static be.uclouvain.solvercheck.core.data.Operator.EQ;
+
+public class TestAllDiffConsistencies implements WithSolverCheck {
+
+    @Test
+    public void theMatchingBasedFilterIsArcConsistency() {
+        assertThat(
+           forAll(partialAssignment().withValuesRanging(-1, 4)).assertThat(
+              a(allDiffArcConsistent()).isEquivalentTo(arcConsistent(allDiff()))
+           )
+        );
+    }
+
+    @Test
+    public void theHallIntervalFilterIsBoundZConsistency() {
+        assertThat(
+           forAll(partialAssignment().withValuesRanging(-1, 4)).assertThat(
+              a(allDiffBoundZConsistent()).isEquivalentTo(boundZConsistent(allDiff()))
+           )
+        );
+    }
+
+    @Test
+    public void theyRemainEquivalentAlongADive() {
+        assertThat(
+           forAll(partialAssignment().withVariablesBetween(2, 5).withValuesRanging(0, 5))
+           .assertThat(
+              a(stateful(allDiffArcConsistent()))
+                .isEquivalentTo(stateful(arcConsistent(allDiff())))
+                .diving(10)
+           )
+        );
+        assertThat(
+           forAll(partialAssignment().withVariablesBetween(2, 5).withValuesRanging(0, 5))
+           .assertThat(
+              a(stateful(allDiffBoundZConsistent()))
+                .isEquivalentTo(stateful(boundZConsistent(allDiff())))
+                .diving(10)
+           )
+        );
+    }
+
+    @Test
+    public void arcConsistencyIsStrongerThanBoundZAtLargeArities() {
+        assertThat(
+           forAll(partialAssignment().withVariablesBetween(20, 40).withValuesRanging(0, 45))
+           .assertThat(
+              a(allDiffArcConsistent()).isStrongerThan(allDiffBoundZConsistent())
+           )
+        );
+    }
+
+    /**
+     * Some assignment of distinct values to the variables, found with plain
+     * augmenting paths independently of the filter (or null if there is none).
+     */
+    private static int[] distinctValues(final List<Domain> domains) {
+        final Map<Integer, Integer> owner = new HashMap<>();
+        for (int var = 0; var < domains.size(); var++) {
+            if (!augment(domains, var, owner, new HashSet<>())) {
+                return null;
+            }
+        }
+        final int[] witness = new int[domains.size()];
+        owner.forEach((value, var) -> witness[var] = value);
+        return witness;
+    }
+
+    private static boolean augment(final List<Domain> domains,
+                                   final int var,
+                                   final Map<Integer, Integer> owner,
+                                   final Set<Integer> visited) {
+        for (int value : domains.get(var)) {
+            if (visited.add(value)
+                    && (!owner.containsKey(value)
+                        || augment(domains, owner.get(value), owner, visited))) {
+                owner.put(value, var);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    public void aValueIsKeptIffItExtendsToASolutionAtLargeArities() {
+        assertThat(
+           forAll(partialAssignment().withVariablesBetween(20, 30).withValuesRanging(0, 35))
+           .assertThat(pa -> rnd -> {
+               final PartialAssignment filtered = allDiffArcConsistent().filter(pa);
+               for (int var = 0; var < pa.size(); var++) {
+                   for (int value : pa.get(var)) {
+                       final int[] witness = distinctValues(
+                               PartialAssignment.restrict(pa, var, EQ, value));
+                       final boolean kept = !filtered.isError()
+                               && filtered.get(var).contains(value);
+
+                       Assert.assertEquals(witness != null, kept);
+                       if (witness != null) {
+                           Assert.assertTrue(allDiff().test(Assignment.from(witness)));
+                       }
+                   }
+               }
+           })
+        );
+    }
+
+    @Test
+    public void hallIntervalsPushTheBoundsOfTheOtherVariables() {
+        final PartialAssignment pa = PartialAssignment.from(
+                Domain.from(1, 2),
+                Domain.from(1, 2),
+                Domain.from(1, 2, 3, 5),
+                Domain.from(0, 1, 2, 3, 4, 5));
+
+        final PartialAssignment filtered = allDiffBoundZConsistent().filter(pa);
+
+        Assert.assertEquals(Domain.from(3, 5), filtered.get(2));
+        Assert.assertEquals(Domain.from(0, 1, 2, 3, 4, 5), filtered.get(3));
+    }
+}
@@ -0,0 +1,83 @@
+package be.uclouvain.solvercheck.consistencies.cached;
+
+import be.uclouvain.solvercheck.WithSolverCheck;
+import be.uclouvain.solvercheck.consistencies.CachedFilter;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Filter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class TestCachedFilter implements WithSolverCheck {
+
+    @Test
+    public void itIsEquivalentToTheDecoratedFilter() {
+        assertThat(
+           forAll(partialAssignment().withValuesRanging(0, 4)).assertThat(
+              a(cached(arcConsistent(allDiff()), 64))
+                  .isEquivalentTo(arcConsistent(allDiff()))
+           )
+        );
+    }
+
+    @Test
+    public void itIsEquivalentToTheDecoratedFilterWhenDiving() {
+        assertThat(
+           forAll(partialAssignment().withValuesRanging(0, 3)).assertThat(
+              a(stateful(cached(arcConsistent(allDiff()), 64)))
+                .isEquivalentTo(stateful(arcConsistent(allDiff())))
+                .diving(10)
+           )
+        );
+    }
+
+    @Test
+    public void repeatedCallsAreAnsweredFromTheCache() {
+        final AtomicInteger calls  = new AtomicInteger();
+        final Filter        filter = pa -> {
+            calls.incrementAndGet();
+            return pa;
+        };
+        final CachedFilter cached = cached(filter, 10);
+
+        final PartialAssignment pa = PartialAssignment.from(
+                Domain.from(1, 2), Domain.from(3));
+        final PartialAssignment same = PartialAssignment.from(
+                Domain.from(2, 1), Domain.from(3));
+
+        Assert.assertEquals(pa, cached.filter(pa));
+        Assert.assertEquals(pa, cached.filter(same));
+        Assert.assertEquals(pa, cached.filter(pa));
+
+        Assert.assertEquals(1, calls.get());
+        Assert.assertEquals(1, cached.misses());
+        Assert.assertEquals(2, cached.hits());
+    }
+
+    @Test
+    public void itNeverHoldsMoreThanTheConfiguredNumberOfEntries() {
+        final CachedFilter cached = cached(pa -> pa, 20);
+
+        final List<PartialAssignment> inputs = IntStream.range(0, 1000)
+                .mapToObj(i -> PartialAssignment.from(
+                        Domain.from(i), Domain.from(i % 7, i % 13)))
+                .collect(Collectors.toList());
+
+        inputs.parallelStream().forEach(pa ->
+            Assert.assertEquals(pa, cached.filter(pa)));
+
+        Assert.assertTrue(cached.size() <= 20);
+        Assert.assertEquals(1000, cached.misses());
+        Assert.assertEquals(1000 - cached.size(), cached.evictions());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void itRejectsANonPositiveCapacity() {
+        cached(pa -> pa, 0);
+    }
+}
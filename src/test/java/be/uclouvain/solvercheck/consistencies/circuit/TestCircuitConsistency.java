@@ -0,0 +1,124 @@
+package be.uclouvain.solvercheck.consistencies.circuit;
+
+import be.uclouvain.solvercheck.WithSolverCheck;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Filter;
+import be.uclouvain.solvercheck.core.task.PartialChecker;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.stream.Collectors;
+
+import static be.uclouvain.solvercheck.core.data.Operator.EQ;
+import static be.uclouvain.solvercheck.core.data.Operator.NE;
+import static be.uclouvain.solvercheck.core.task.PartialChecker.PartialCheckResult.REJECT;
+
+public class TestCircuitConsistency implements WithSolverCheck {
+
+    @Test
+    public void itIsWeakerThanArcConsistency() {
+        assertThat(
+           forAll(partialAssignment().withVariablesBetween(1, 5).withValuesRanging(-1, 4))
+           .assertThat(
+              a(circuitConsistent()).isWeakerThan(arcConsistent(circuit()))
+           )
+        );
+        assertThat(
+           forAll(partialAssignment().withVariablesBetween(1, 5).withValuesRanging(-1, 4))
+           .assertThat(
+              a(subcircuitConsistent()).isWeakerThan(arcConsistent(subcircuit()))
+           )
+        );
+    }
+
+    @Test
+    public void itRejectsExactlyTheInvalidSuccessors() {
+        assertThat(
+           forAll(assignment().withVariablesBetween(1, 6).withValuesRanging(0, 5))
+           .itIsTrueThat(a -> {
+              final PartialAssignment fixed = PartialAssignment.from(
+                 a.stream().map(Domain::singleton).collect(Collectors.toList()));
+              return circuitConsistent().filter(fixed).isError() != circuit().test(a)
+                  && subcircuitConsistent().filter(fixed).isError() != subcircuit().test(a);
+           })
+        );
+    }
+
+    @Test
+    public void itsResultDoesNotDependOnThePathToTheRestriction() {
+        for (Filter filter : new Filter[] {circuitConsistent(), subcircuitConsistent()}) {
+            assertThat(
+               forAll(partialAssignment().withVariablesBetween(1, 6).withValuesRanging(0, 5))
+               .assertThat(pa -> rnd -> {
+                   final PartialAssignment filtered = filter.filter(pa);
+                   Assert.assertEquals(filtered, filter.filter(filtered));
+                   if (filtered.isError()) {
+                       return;
+                   }
+                   for (int var = 0; var < pa.size(); var++) {
+                       for (int value : filtered.get(var)) {
+                           Assert.assertEquals(
+                              filter.filter(PartialAssignment.restrict(pa, var, EQ, value)),
+                              filter.filter(PartialAssignment.restrict(filtered, var, EQ, value)));
+                           Assert.assertEquals(
+                              filter.filter(PartialAssignment.restrict(pa, var, NE, value)),
+                              filter.filter(PartialAssignment.restrict(filtered, var, NE, value)));
+                       }
+                   }
+               })
+            );
+        }
+    }
+
+    @Test
+    public void itCanBeUsedStatefully() {
+        assertThat(
+           forAll(partialAssignment().withVariablesBetween(1, 5).withValuesRanging(0, 4))
+           .assertThat(
+              a(stateful(circuitConsistent()))
+                .isWeakerThan(stateful(arcConsistent(circuit())))
+                .diving(15)
+           )
+        );
+    }
+
+    @Test
+    public void itEliminatesThePrematureSubTours() {
+        final Domain all = Domain.from(0, 1, 2);
+        final PartialAssignment pa = PartialAssignment.from(Domain.from(1), all, all);
+
+        Assert.assertEquals(
+           PartialAssignment.from(Domain.from(1), Domain.from(2), Domain.from(0)),
+           circuitConsistent().filter(pa));
+
+        // closing 0 -> 1 -> 0 leaves 2 out of the subcircuit
+        final PartialAssignment closed = PartialAssignment.from(
+                Domain.from(1), Domain.from(0), all);
+        Assert.assertTrue(circuitConsistent().filter(closed).isError());
+        Assert.assertEquals(
+           PartialAssignment.from(Domain.from(1), Domain.from(0), Domain.from(2)),
+           subcircuitConsistent().filter(closed));
+    }
+
+    @Test
+    public void itHandlesLargeGraphs() {
+        for (boolean sub : new boolean[] {false, true}) {
+            final Filter         filter  = sub ? subcircuitConsistent() : circuitConsistent();
+            final PartialChecker checker = sub ? subcircuit() : circuit();
+
+            assertThat(
+               forAll(partialAssignment().withVariables(30).withValuesRanging(0, 29))
+               .assertThat(pa -> rnd -> {
+                   final PartialAssignment filtered = filter.filter(pa);
+                   if (!filtered.isError()) {
+                       for (int node = 0; node < pa.size(); node++) {
+                           Assert.assertTrue(pa.get(node).containsAll(filtered.get(node)));
+                       }
+                       Assert.assertNotEquals(REJECT, checker.test(filtered));
+                   }
+               })
+            );
+        }
+    }
+}
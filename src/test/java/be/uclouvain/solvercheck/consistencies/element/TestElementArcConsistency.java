@@ -0,0 +1,106 @@
+package be.uclouvain.solvercheck.consistencies.element;
+
+import be.uclouvain.solvercheck.WithSolverCheck;
+import be.uclouvain.solvercheck.core.data.Assignment;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+import static be.uclouvain.solvercheck.core.data.Operator.EQ;
+
+public class TestElementArcConsistency implements WithSolverCheck {
+
+    @Test
+    public void itIsEquivalentToArcConsistency() {
+        assertThat(
+           forAll(partialAssignment().withVariablesBetween(2, 5).withValuesRanging(-1, 4))
+           .assertThat(
+              a(elementArcConsistent()).isEquivalentTo(arcConsistent(element()))
+           )
+        );
+    }
+
+    @Test
+    public void itRemainsEquivalentAlongADive() {
+        assertThat(
+           forAll(partialAssignment().withVariablesBetween(2, 5).withValuesRanging(0, 4))
+           .assertThat(
+              a(stateful(elementArcConsistent()))
+                .isEquivalentTo(stateful(arcConsistent(element())))
+                .diving(10)
+           )
+        );
+    }
+
+    /**
+     * Builds some solution of element(xs, index, value) straight from its
+     * definition: pick a valid index whose entry shares a value with the
+     * value variable, and any value for the other entries (null if none).
+     */
+    private static int[] elementWitness(final List<Domain> domains) {
+        final int n = domains.size() - 2;
+        if (domains.stream().anyMatch(Domain::isEmpty)) {
+            return null;
+        }
+        for (int i : domains.get(n)) {
+            if (i < 0 || i >= n) {
+                continue;
+            }
+            for (int v : domains.get(i)) {
+                if (domains.get(n + 1).contains(v)) {
+                    final int[] witness = new int[n + 2];
+                    for (int j = 0; j < n; j++) {
+                        witness[j] = domains.get(j).minimum();
+                    }
+                    witness[i]     = v;
+                    witness[n]     = i;
+                    witness[n + 1] = v;
+                    return witness;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void aValueIsKeptIffItExtendsToASolutionOfALargeArray() {
+        assertThat(
+           forAll(partialAssignment().withVariablesBetween(50, 60).withValuesRanging(0, 55))
+           .assertThat(pa -> rnd -> {
+               final PartialAssignment filtered = elementArcConsistent().filter(pa);
+               for (int var = 0; var < pa.size(); var++) {
+                   for (int value : pa.get(var)) {
+                       final int[] witness = elementWitness(
+                               PartialAssignment.restrict(pa, var, EQ, value));
+                       final boolean kept = !filtered.isError()
+                               && filtered.get(var).contains(value);
+
+                       Assert.assertEquals(witness != null, kept);
+                       if (witness != null) {
+                           Assert.assertTrue(element().test(Assignment.from(witness)));
+                       }
+                   }
+               }
+           })
+        );
+    }
+
+    @Test
+    public void theArrayEntryIsFilteredOnceTheIndexIsFixed() {
+        final PartialAssignment pa = PartialAssignment.from(
+                Domain.from(1, 2, 3),
+                Domain.from(4, 6),
+                Domain.from(0, 1, 7),
+                Domain.from(2, 3, 5));
+
+        final PartialAssignment filtered = elementArcConsistent().filter(pa);
+
+        Assert.assertEquals(Domain.from(2, 3),    filtered.get(0));
+        Assert.assertEquals(Domain.from(4, 6),    filtered.get(1));
+        Assert.assertEquals(Domain.from(0),       filtered.get(2));
+        Assert.assertEquals(Domain.from(2, 3),    filtered.get(3));
+    }
+}
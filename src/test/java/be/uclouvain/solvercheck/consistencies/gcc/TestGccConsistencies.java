@@ -0,0 +1,206 @@
+package be.uclouvain.solvercheck.consistencies.gcc;
+
+import be.uclouvain.solvercheck.WithSolverCheck;
+import be.uclouvain.solvercheck.core.data.Assignment;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Filter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static be.uclouvain.solvercheck.consistencies.ConsistencyUtil.boundDomains;
+import static be.uclouvain.solvercheck.core.data.Operator.EQ;
+
+public class TestGccConsistencies implements WithSolverCheck {
+
+    /** Fills the holes of the last `k` domains before filtering. */
+    private static Filter withRangedCardinalities(final Filter filter, final int k) {
+        return pa -> {
+            if (pa.isError()) {
+                return filter.filter(pa);
+            }
+            final int n = pa.size() - k;
+            final List<Domain> domains = new ArrayList<>(pa.subList(0, n));
+            domains.addAll(boundDomains(pa.subList(n, pa.size())));
+            return filter.filter(PartialAssignment.from(domains));
+        };
+    }
+
+    @Test
+    public void theFlowBasedFilterIsArcConsistency() {
+        final List<List<Integer>> cardinalities = List.of(
+                List.of(1, 2), List.of(0, 1, 1), List.of(2), List.of(0));
+        final List<List<Integer>> values = List.of(
+                List.of(0, 1), List.of(0, 2, 3), List.of(5), List.of(1));
+
+        for (int i = 0; i < values.size(); i++) {
+            final List<Integer> cards = cardinalities.get(i);
+            final List<Integer> vals  = values.get(i);
+            assertThat(
+               forAll(partialAssignment().withVariablesBetween(1, 5).withValuesRanging(-1, 3))
+               .assertThat(
+                  a(gccArcConsistent(cards, vals)).isEquivalentTo(arcConsistent(gcc(cards, vals)))
+               )
+            );
+        }
+    }
+
+    @Test
+    public void itRemainsArcConsistentAlongADive() {
+        final List<Integer> cards = List.of(1, 1);
+        final List<Integer> vals  = List.of(0, 2);
+
+        assertThat(
+           forAll(partialAssignment().withVariablesBetween(2, 5).withValuesRanging(0, 3))
+           .assertThat(
+              a(stateful(gccArcConsistent(cards, vals)))
+                .isEquivalentTo(stateful(arcConsistent(gcc(cards, vals))))
+                .diving(10)
+           )
+        );
+    }
+
+    @Test
+    public void withRangedCardinalitiesTheGccVarFilterIsArcConsistency() {
+        final List<Integer> vals = List.of(0, 1);
+
+        assertThat(
+           forAll(partialAssignment().withVariablesBetween(2, 6).withValuesRanging(-1, 3))
+           .assertThat(
+              a(withRangedCardinalities(gccVarConsistent(vals), 2))
+                .isEquivalentTo(withRangedCardinalities(arcConsistent(gccVar(vals)), 2))
+           )
+        );
+    }
+
+    @Test
+    public void theGccVarFilterLiesBetweenBoundZAndArcConsistency() {
+        final List<Integer> vals = List.of(0, 2);
+
+        assertThat(
+           forAll(partialAssignment().withVariablesBetween(2, 6).withValuesRanging(-1, 3))
+           .assertThat(
+              a(gccVarConsistent(vals)).isWeakerThan(arcConsistent(gccVar(vals)))
+           )
+        );
+        assertThat(
+           forAll(partialAssignment().withVariablesBetween(2, 6).withValuesRanging(-1, 3))
+           .assertThat(
+              a(gccVarConsistent(vals)).isStrongerThan(boundZConsistent(gccVar(vals)))
+           )
+        );
+    }
+
+    /**
+     * Some solution of gcc(cards, vals), found independently of the flow
+     * network (or null if there is none). Each value vals[j] offers cards[j]
+     * slots and the remaining slots accept any unconstrained value: the gcc
+     * holds iff the variables perfectly match these slots.
+     */
+    private static int[] gccWitness(final List<Domain> domains,
+                                    final List<Integer> cards,
+                                    final List<Integer> vals) {
+        final int n = domains.size();
+        final List<Integer> slots = new ArrayList<>();
+        for (int j = 0; j < vals.size(); j++) {
+            slots.addAll(Collections.nCopies(cards.get(j), vals.get(j)));
+        }
+        if (slots.size() > n) {
+            return null;
+        }
+        slots.addAll(Collections.nCopies(n - slots.size(), (Integer) null));
+
+        final int[] owner = new int[n];
+        Arrays.fill(owner, -1);
+        for (int var = 0; var < n; var++) {
+            if (!augment(domains, vals, slots, var, owner, new boolean[n])) {
+                return null;
+            }
+        }
+
+        final int[] witness = new int[n];
+        for (int slot = 0; slot < n; slot++) {
+            final Domain dom = domains.get(owner[slot]);
+            witness[owner[slot]] = slots.get(slot) != null
+                    ? slots.get(slot)
+                    : dom.stream().filter(v -> !vals.contains(v)).findFirst().get();
+        }
+        return witness;
+    }
+
+    private static boolean augment(final List<Domain> domains,
+                                   final List<Integer> vals,
+                                   final List<Integer> slots,
+                                   final int var,
+                                   final int[] owner,
+                                   final boolean[] visited) {
+        final Domain dom = domains.get(var);
+        for (int slot = 0; slot < slots.size(); slot++) {
+            final Integer value = slots.get(slot);
+            final boolean fits  = value != null
+                    ? dom.contains(value)
+                    : dom.stream().anyMatch(v -> !vals.contains(v));
+            if (fits && !visited[slot]) {
+                visited[slot] = true;
+                if (owner[slot] < 0
+                        || augment(domains, vals, slots, owner[slot], owner, visited)) {
+                    owner[slot] = var;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Test
+    public void aValueIsKeptIffItExtendsToASolutionAtLargeArities() {
+        final List<Integer> cards = List.of(3, 3, 3, 3, 3);
+        final List<Integer> vals  = List.of(0, 1, 2, 3, 4);
+        final Filter        gcc   = gccArcConsistent(cards, vals);
+
+        assertThat(
+           forAll(partialAssignment().withVariablesBetween(20, 30).withValuesRanging(0, 9))
+           .assertThat(pa -> rnd -> {
+               final PartialAssignment filtered = gcc.filter(pa);
+               for (int var = 0; var < pa.size(); var++) {
+                   for (int value : pa.get(var)) {
+                       final int[] witness = gccWitness(
+                               PartialAssignment.restrict(pa, var, EQ, value), cards, vals);
+                       final boolean kept = !filtered.isError()
+                               && filtered.get(var).contains(value);
+
+                       Assert.assertEquals(witness != null, kept);
+                       if (witness != null) {
+                           Assert.assertTrue(gcc(cards, vals).test(Assignment.from(witness)));
+                       }
+                   }
+               }
+           })
+        );
+    }
+
+    @Test
+    public void theCardinalitiesAreBoundedByTheFeasibleFlows() {
+        final PartialAssignment pa = PartialAssignment.from(
+                Domain.from(0, 1),
+                Domain.from(0),
+                Domain.from(1, 2),
+                Domain.from(0, 1, 2, 3, 4),
+                Domain.from(0, 1, 2, 3, 4));
+
+        final PartialAssignment filtered = gccVarConsistent(List.of(0, 1)).filter(pa);
+
+        Assert.assertEquals(Domain.from(1, 2),    filtered.get(3));
+        Assert.assertEquals(Domain.from(0, 1, 2), filtered.get(4));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void theValuesMustBeDistinct() {
+        gccArcConsistent(List.of(1, 1), List.of(2, 2));
+    }
+}
@@ -0,0 +1,132 @@
+package be.uclouvain.solvercheck.consistencies.lex;
+
+import be.uclouvain.solvercheck.WithSolverCheck;
+import be.uclouvain.solvercheck.core.data.Assignment;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Checker;
+import be.uclouvain.solvercheck.core.task.Filter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static be.uclouvain.solvercheck.core.data.Operator.EQ;
+import static be.uclouvain.solvercheck.utils.Utils.failsThrowing;
+
+public class TestLexArcConsistency implements WithSolverCheck {
+
+    @Test
+    public void itIsEquivalentToArcConsistency() {
+        for (int n = 1; n <= 3; n++) {
+            assertThat(
+               forAll(partialAssignment().withVariables(2 * n).withValuesRanging(-1, 3))
+               .assertThat(
+                  a(lexLessArcConsistent(n)).isEquivalentTo(arcConsistent(lexLess(n)))
+               )
+            );
+            assertThat(
+               forAll(partialAssignment().withVariables(2 * n).withValuesRanging(-1, 3))
+               .assertThat(
+                  a(lexLessEqArcConsistent(n)).isEquivalentTo(arcConsistent(lexLessEq(n)))
+               )
+            );
+        }
+    }
+
+    @Test
+    public void itRemainsEquivalentAlongADive() {
+        assertThat(
+           forAll(partialAssignment().withVariables(6).withValuesRanging(0, 3))
+           .assertThat(
+              a(stateful(lexLessArcConsistent(3)))
+                .isEquivalentTo(stateful(arcConsistent(lexLess(3))))
+                .diving(10)
+           )
+        );
+    }
+
+    /**
+     * Some solution of x <lex y (or x <=lex y when not strict) built from the
+     * definition of the ordering: x and y share a common value up to some
+     * position i where x_i < y_i (or up to the end). Null if there is none.
+     */
+    private static int[] lexWitness(final List<Domain> domains, final boolean strict) {
+        final int n = domains.size() / 2;
+        if (domains.stream().anyMatch(Domain::isEmpty)) {
+            return null;
+        }
+        final int[] witness = new int[2 * n];
+        for (int j = 0; j < 2 * n; j++) {
+            witness[j] = domains.get(j).minimum();
+        }
+        for (int i = 0; i < n; i++) {
+            final Domain x = domains.get(i);
+            final Domain y = domains.get(n + i);
+            if (x.minimum() < y.maximum()) {
+                witness[i]     = x.minimum();
+                witness[n + i] = y.maximum();
+                return witness;
+            }
+            final Optional<Integer> common = x.stream().filter(y::contains).findFirst();
+            if (!common.isPresent()) {
+                return null;
+            }
+            witness[i]     = common.get();
+            witness[n + i] = common.get();
+        }
+        return strict ? null : witness;
+    }
+
+    @Test
+    public void aValueIsKeptIffItExtendsToASolutionOfLongVectors() {
+        for (boolean strict : new boolean[] {true, false}) {
+            final Filter  filter  = strict ? lexLessArcConsistent(200) : lexLessEqArcConsistent(200);
+            final Checker checker = strict ? lexLess(200) : lexLessEq(200);
+
+            assertThat(
+               forAll(partialAssignment().withVariables(400).withValuesRanging(0, 3))
+               .assertThat(pa -> rnd -> {
+                   final PartialAssignment filtered = filter.filter(pa);
+                   for (int var = 0; var < pa.size(); var++) {
+                       for (int value : pa.get(var)) {
+                           final int[] witness = lexWitness(
+                                   PartialAssignment.restrict(pa, var, EQ, value), strict);
+                           final boolean kept = !filtered.isError()
+                                   && filtered.get(var).contains(value);
+
+                           Assert.assertEquals(witness != null, kept);
+                           if (witness != null) {
+                               Assert.assertTrue(checker.test(Assignment.from(witness)));
+                           }
+                       }
+                   }
+               })
+            );
+        }
+    }
+
+    @Test
+    public void theFirstPositionsAreFilteredUntilTheOrderingCanBeDecided() {
+        final PartialAssignment pa = PartialAssignment.from(
+                Domain.from(2), Domain.from(2, 5), Domain.from(0, 4),
+                Domain.from(2), Domain.from(1, 2), Domain.from(0, 4));
+
+        // x_1 = y_1 since x_1 > y_1 is forbidden, then x_2 < y_2 is required
+        Assert.assertEquals(
+           PartialAssignment.from(
+                Domain.from(2), Domain.from(2), Domain.from(0),
+                Domain.from(2), Domain.from(2), Domain.from(4)),
+           lexLessArcConsistent(3).filter(pa));
+    }
+
+    @Test
+    public void itRequiresTwoVectorsOfTheSameLength() {
+        final PartialAssignment pa = PartialAssignment.from(
+                Domain.from(1), Domain.from(2), Domain.from(3));
+
+        Assert.assertTrue(failsThrowing(IllegalArgumentException.class,
+                () -> lexLessArcConsistent(2).filter(pa)));
+    }
+}
@@ -0,0 +1,111 @@
+package be.uclouvain.solvercheck.consistencies.mdd;
+
+import be.uclouvain.solvercheck.WithSolverCheck;
+import be.uclouvain.solvercheck.consistencies.ArcConsitency;
+import be.uclouvain.solvercheck.consistencies.Mdd;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Checker;
+import be.uclouvain.solvercheck.core.task.Filter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static be.uclouvain.solvercheck.core.data.Operator.EQ;
+import static be.uclouvain.solvercheck.core.data.Operator.GE;
+import static be.uclouvain.solvercheck.core.data.Operator.LE;
+import static be.uclouvain.solvercheck.core.data.Operator.NE;
+
+public class TestMddConsistency implements WithSolverCheck {
+
+    @Test
+    public void itIsEquivalentToArcConsistency() {
+        assertThat(
+           forAll(partialAssignment().withValuesRanging(0, 4)).assertThat(
+              a(mddConsistent(allDiff())).isEquivalentTo(arcConsistent(allDiff()))
+           )
+        );
+        assertThat(
+           forAll(partialAssignment().withValuesRanging(-2, 2)).assertThat(
+              a(mddConsistent(sum(EQ, 1))).isEquivalentTo(arcConsistent(sum(EQ, 1)))
+           )
+        );
+        assertThat(
+           forAll(partialAssignment().withVariablesBetween(3, 5).withValuesRanging(0, 3))
+           .assertThat(
+              a(mddConsistent(element())).isEquivalentTo(arcConsistent(element()))
+           )
+        );
+    }
+
+    @Test
+    public void itFiltersAllTheRestrictionsOfItsRoot() {
+        final Checker checker = element();
+        final Filter  arc     = new ArcConsitency(checker);
+
+        assertThat(
+           forAll(partialAssignment().withVariablesBetween(3, 5).withValuesRanging(0, 3))
+           .assertThat(root -> rnd -> {
+               Mdd mdd = Mdd.compile(checker, root);
+
+               for (int var = 0; var < root.size(); var++) {
+                   for (int value : root.get(var)) {
+                       for (PartialAssignment pa : new PartialAssignment[] {
+                               PartialAssignment.restrict(root, var, EQ, value),
+                               PartialAssignment.restrict(root, var, NE, value),
+                               PartialAssignment.restrict(root, var, LE, value),
+                               PartialAssignment.restrict(root, var, GE, value)}) {
+
+                           Assert.assertTrue(mdd.covers(pa));
+                           Assert.assertEquals(arc.filter(pa), mdd.filter(pa));
+                       }
+                   }
+               }
+           })
+        );
+    }
+
+    @Test
+    public void itIsEquivalentToArcConsistencyWhenDiving() {
+        assertThat(
+           forAll(partialAssignment().withValuesRanging(-2, 2)).assertThat(
+              a(stateful(mddConsistent(sum(LE, 0))))
+                .isEquivalentTo(stateful(arcConsistent(sum(LE, 0))))
+                .diving(10)
+           )
+        );
+    }
+
+    @Test
+    public void isomorphicNodesAreMerged() {
+        final PartialAssignment root = PartialAssignment.from(
+           Collections.nCopies(8, Domain.from(0, 1, 2, 3)));
+
+        // one node per layer: every path is a solution
+        Assert.assertEquals(8, Mdd.compile(alwaysTrue(), root).size());
+        // no node at all: no path is a solution
+        Assert.assertEquals(0, Mdd.compile(alwaysFalse(), root).size());
+
+        // the nodes of layer k only need to remember the sum of the prefix
+        // which means there are at most 1 + 3k nodes in that layer.
+        final Mdd sum = Mdd.compile(sum(EQ, 12), root);
+        Assert.assertTrue(sum.size() <= 8 * 22);
+    }
+
+    @Test(timeout = 10000)
+    public void thePrefixStatesAreCompiledOnce() {
+        // 4^40 prefixes, but no more than 1 + 3k partial sums in layer k
+        final PartialAssignment root = PartialAssignment.from(
+           Collections.nCopies(40, Domain.from(0, 1, 2, 3)));
+
+        final Mdd sum = Mdd.compile(sum(EQ, 60), root);
+        Assert.assertTrue(sum.size() <= 40 * 121);
+        Assert.assertEquals(root, sum.filter(root));
+
+        final PartialAssignment fixed = PartialAssignment.restrict(
+           PartialAssignment.restrict(root, 0, EQ, 0), 1, EQ, 0);
+        Assert.assertEquals(
+           arcConsistent(sum(EQ, 60)).filter(fixed), sum.filter(fixed));
+    }
+}
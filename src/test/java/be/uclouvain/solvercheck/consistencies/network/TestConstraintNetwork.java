@@ -0,0 +1,123 @@
+package be.uclouvain.solvercheck.consistencies.network;
+
+import be.uclouvain.solvercheck.WithSolverCheck;
+import be.uclouvain.solvercheck.consistencies.ConstraintNetwork;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Checker;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static be.uclouvain.solvercheck.core.data.Operator.EQ;
+
+public class TestConstraintNetwork implements WithSolverCheck {
+
+    private static final Checker LESS     = a -> a.get(0) < a.get(1);
+    private static final Checker NOT_EQ   = a -> !a.get(0).equals(a.get(1));
+    private static final Checker SUM_3    = a -> a.get(0) + a.get(1) == 3;
+    private static final Checker CONJUNCT =
+            a -> a.get(0) < a.get(1) && a.get(1) + a.get(2) == 3;
+
+    @Test
+    public void aSingleConstraintOnAllVariablesIsArcConsistency() {
+        final ConstraintNetwork network = network().post(allDiff(), 0, 1, 2);
+
+        assertThat(
+           forAll(partialAssignment().withVariables(3).withValuesRanging(-1, 3))
+           .assertThat(
+              a(network).isEquivalentTo(arcConsistent(allDiff()))
+           )
+        );
+    }
+
+    @Test
+    public void anAcyclicNetworkIsArcConsistentOnTheConjunction() {
+        final ConstraintNetwork network = network()
+                .post(LESS, 0, 1)
+                .post(SUM_3, 1, 2);
+
+        assertThat(
+           forAll(partialAssignment().withVariables(3).withValuesRanging(-1, 4))
+           .assertThat(
+              a(network).isEquivalentTo(arcConsistent(CONJUNCT))
+           )
+        );
+    }
+
+    @Test
+    public void theDecompositionOfAllDiffIsWeakerThanItsArcConsistency() {
+        ConstraintNetwork network = network();
+        for (int i = 0; i < 4; i++) {
+            for (int j = i + 1; j < 4; j++) {
+                network = network.post(NOT_EQ, i, j);
+            }
+        }
+
+        assertThat(
+           forAll(partialAssignment().withVariables(4).withValuesRanging(0, 3))
+           .assertThat(
+              a(network).isWeakerThan(arcConsistent(allDiff()))
+           )
+        );
+        assertThat(
+           forAll(partialAssignment().withVariables(4).withValuesRanging(0, 3))
+           .assertThat(
+              a(network).isStrongerThan(forwardChecking(allDiff()))
+           )
+        );
+    }
+
+    @Test
+    public void theStatefulNetworkIsEquivalentToTheStatelessOne() {
+        final ConstraintNetwork network = network()
+                .post(sum(EQ, 4), 0, 1, 2)
+                .post(allDiff(), 2, 3, 4)
+                .post(LESS, 0, 4);
+
+        assertThat(
+           forAll(partialAssignment().withVariables(5).withValuesRanging(0, 4))
+           .assertThat(
+              a(stateful(network))
+                .isEquivalentTo(stateful(pa -> network.filter(pa)))
+                .diving(10)
+           )
+        );
+    }
+
+    @Test
+    public void residualSupportsAreReusedBetweenRounds() {
+        final AtomicInteger calls   = new AtomicInteger();
+        final Checker       counted = a -> {
+            calls.incrementAndGet();
+            return NOT_EQ.test(a);
+        };
+        final ConstraintNetwork network = network()
+                .post(counted, 0, 1)
+                .post(NOT_EQ, 1, 2);
+
+        final Domain dom = Domain.from(0, 1, 2, 3);
+        final PartialAssignment pa =
+                PartialAssignment.from(dom, dom, Domain.singleton(0));
+
+        final PartialAssignment filtered = network.filter(pa);
+        Assert.assertEquals(Domain.from(1, 2, 3), filtered.get(1));
+
+        // the first revision finds one support per value of each variable.
+        // The second one (triggered by the removal of 0 from x1) only has
+        // to look for a new support of the values that were supported by 0.
+        Assert.assertTrue(calls.get() < 2 * 16);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void aScopeCannotMentionAVariableTwice() {
+        network().post(NOT_EQ, 1, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void aScopeMustFitInThePartialAssignment() {
+        final Domain dom = Domain.from(0, 1);
+        network().post(NOT_EQ, 0, 5).filter(PartialAssignment.from(dom, dom));
+    }
+}
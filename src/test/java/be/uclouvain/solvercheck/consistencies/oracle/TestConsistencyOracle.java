@@ -0,0 +1,112 @@
+package be.uclouvain.solvercheck.consistencies.oracle;
+
+import be.uclouvain.solvercheck.WithSolverCheck;
+import be.uclouvain.solvercheck.consistencies.ConsistencyLevel;
+import be.uclouvain.solvercheck.consistencies.ConsistencyOracle;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Checker;
+import be.uclouvain.solvercheck.core.task.Filter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static be.uclouvain.solvercheck.consistencies.ConsistencyLevel.ARC;
+import static be.uclouvain.solvercheck.consistencies.ConsistencyLevel.BOUND_Z;
+import static be.uclouvain.solvercheck.core.data.Operator.EQ;
+
+public class TestConsistencyOracle implements WithSolverCheck {
+
+    private Filter reference(final ConsistencyLevel level, final Checker checker) {
+        switch (level) {
+            case FORWARD_CHECKING: return forwardChecking(checker);
+            case BOUND_Z:          return boundZConsistent(checker);
+            case BOUND_D:          return boundDConsistent(checker);
+            case RANGE:            return rangeConsistent(checker);
+            case ARC:              return arcConsistent(checker);
+            default:               throw new RuntimeException("unreachable");
+        }
+    }
+
+    @Test
+    public void eachLevelIsEquivalentToItsReferenceFilter() {
+        final List<Checker> checkers = List.of(
+                allDiff(), a -> allDiff().test(a), sum(EQ, 3), a -> sum(EQ, 3).test(a));
+
+        for (Checker checker : checkers) {
+            final ConsistencyOracle oracle = consistencyOracle(checker);
+
+            for (ConsistencyLevel level : ConsistencyLevel.values()) {
+                assertThat(
+                   forAll(partialAssignment().withValuesRanging(-1, 3)).assertThat(
+                      a(oracle.level(level)).isEquivalentTo(reference(level, checker))
+                   )
+                );
+            }
+        }
+    }
+
+    @Test
+    public void itIsEquivalentToElementReferenceFilters() {
+        final ConsistencyOracle oracle = consistencyOracle(element());
+
+        for (ConsistencyLevel level : ConsistencyLevel.values()) {
+            assertThat(
+               forAll(partialAssignment().withVariablesBetween(3, 5).withValuesRanging(0, 3))
+               .assertThat(
+                  a(oracle.level(level)).isEquivalentTo(reference(level, element()))
+               )
+            );
+        }
+    }
+
+    @Test
+    public void allTheLevelsAreComputedFromOneSingleEnumeration() {
+        final AtomicInteger calls   = new AtomicInteger();
+        final Checker       checker = a -> {
+            calls.incrementAndGet();
+            return allDiff().test(a);
+        };
+        final ConsistencyOracle oracle = consistencyOracle(checker);
+
+        assertThat(
+           forAll(partialAssignment().withVariablesBetween(1, 4).withValuesRanging(0, 3))
+           .assertThat(pa -> rnd -> {
+               calls.set(0);
+               final Map<ConsistencyLevel, PartialAssignment> results =
+                       oracle.filter(pa);
+
+               Assert.assertEquals(ConsistencyLevel.values().length, results.size());
+               for (ConsistencyLevel level : ConsistencyLevel.values()) {
+                   Assert.assertEquals(results.get(level), oracle.level(level).filter(pa));
+               }
+
+               // one call per tuple of the bound support (at most)
+               final long size = pa.isError() ? 0 : pa.stream()
+                       .mapToLong(d -> d.maximum() - d.minimum() + 1L)
+                       .reduce(1L, (x, y) -> x * y);
+               Assert.assertTrue(calls.get() <= size);
+           })
+        );
+    }
+
+    @Test
+    public void onlyTheRequestedLevelsAreReturned() {
+        final PartialAssignment pa = partialAssignmentOf(3);
+        final Map<ConsistencyLevel, PartialAssignment> results =
+                consistencyOracle(allDiff()).filter(pa, BOUND_Z, ARC);
+
+        Assert.assertEquals(2, results.size());
+        Assert.assertEquals(boundZConsistent(allDiff()).filter(pa), results.get(BOUND_Z));
+        Assert.assertEquals(arcConsistent(allDiff()).filter(pa), results.get(ARC));
+    }
+
+    private PartialAssignment partialAssignmentOf(final int arity) {
+        return PartialAssignment.from(
+           Collections.nCopies(arity, Domain.from(0, 1, 3)));
+    }
+}
@@ -0,0 +1,127 @@
+package be.uclouvain.solvercheck.consistencies.oracle;
+
+import be.uclouvain.solvercheck.WithSolverCheck;
+import be.uclouvain.solvercheck.consistencies.OracleTable;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Filter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static be.uclouvain.solvercheck.core.data.Operator.LE;
+
+public class TestOracleTable implements WithSolverCheck {
+
+    @Test
+    public void itIsEquivalentToThePrecomputedFilter() {
+        final Filter reference = arcConsistent(allDiff());
+        final Filter oracle    = oracleTable(reference, 3, 0, 3);
+
+        assertThat(
+           forAll(partialAssignment().withVariablesBetween(1, 4).withValuesRanging(-1, 4))
+           .assertThat(a(oracle).isEquivalentTo(reference))
+        );
+    }
+
+    @Test
+    public void itIsEquivalentToThePrecomputedFilterWhenDiving() {
+        final Filter reference = boundZConsistent(sum(LE, 3));
+        final Filter oracle    = oracleTable(reference, 3, 0, 3);
+
+        assertThat(
+           forAll(partialAssignment().withVariablesBetween(3, 3).withValuesRanging(0, 3))
+           .assertThat(
+              a(stateful(oracle)).isEquivalentTo(stateful(reference)).diving(10)
+           )
+        );
+    }
+
+    @Test
+    public void itNeverCallsTheFilterAgainWithinTheUniverse() {
+        final AtomicInteger calls  = new AtomicInteger();
+        final Filter        filter = pa -> {
+            calls.incrementAndGet();
+            return arcConsistent(allDiff()).filter(pa);
+        };
+        final OracleTable oracle = oracleTable(filter, 2, 0, 2);
+
+        // one call per pa of the universe not comprising any empty domain
+        Assert.assertEquals(7 * 7, calls.get());
+        Assert.assertEquals(8 * 8, oracle.nbEntries());
+
+        oracle.filter(PartialAssignment.from(Domain.from(0, 1), Domain.from(1)));
+        Assert.assertEquals(7 * 7, calls.get());
+
+        oracle.filter(PartialAssignment.from(Domain.from(0, 3), Domain.from(1)));
+        Assert.assertEquals(7 * 7 + 1, calls.get());
+    }
+
+    @Test
+    public void itCanBeSavedAndLoaded() throws IOException {
+        final Filter      reference = rangeConsistent(allDiff());
+        final OracleTable oracle    = oracleTable(reference, 3, 1, 3);
+        final Path        file      = Files.createTempFile("oracle", ".bin");
+        try {
+            oracle.save(file);
+            final Filter loaded = OracleTable.load(reference, file);
+
+            assertThat(
+               forAll(partialAssignment().withVariablesBetween(3, 3).withValuesRanging(1, 3))
+               .assertThat(a(loaded).isEquivalentTo(oracle))
+            );
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void itRefusesFilesWhoseHeaderIsCorrupt() throws IOException {
+        final Filter reference = arcConsistent(allDiff());
+        final Path   file      = Files.createTempFile("oracle", ".bin");
+        try {
+            oracleTable(reference, 2, 0, 2).save(file);
+            final byte[] bytes = Files.readAllBytes(file);
+
+            // a negative arity
+            final ByteBuffer header = ByteBuffer.wrap(bytes);
+            header.putInt(Integer.BYTES, -1);
+            Files.write(file, bytes);
+            Assert.assertTrue(isRefused(reference, file));
+
+            // an empty universe
+            header.putInt(Integer.BYTES, 2);
+            header.putInt(2 * Integer.BYTES, 3);
+            Files.write(file, bytes);
+            Assert.assertTrue(isRefused(reference, file));
+
+            // a universe that is too large
+            header.putInt(2 * Integer.BYTES, 0);
+            header.putInt(3 * Integer.BYTES, 99);
+            Files.write(file, bytes);
+            Assert.assertTrue(isRefused(reference, file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /** True iff loading the given file fails with an IOException. */
+    private static boolean isRefused(final Filter filter, final Path file) {
+        try {
+            OracleTable.load(filter, file);
+            return false;
+        } catch (IOException expected) {
+            return true;
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void itRejectsUniversesThatAreTooLarge() {
+        oracleTable(arcConsistent(allDiff()), 10, 0, 9);
+    }
+}
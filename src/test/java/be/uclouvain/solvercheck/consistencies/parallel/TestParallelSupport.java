@@ -0,0 +1,89 @@
+package be.uclouvain.solvercheck.consistencies.parallel;
+
+import be.uclouvain.solvercheck.WithSolverCheck;
+import be.uclouvain.solvercheck.consistencies.ArcConsitency;
+import be.uclouvain.solvercheck.consistencies.ParallelSupport;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Checker;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static be.uclouvain.solvercheck.core.data.Operator.EQ;
+import static be.uclouvain.solvercheck.core.data.Operator.LE;
+
+public class TestParallelSupport implements WithSolverCheck {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @AfterClass
+    public static void tearDown() {
+        POOL.shutdown();
+    }
+
+    /** hides the partial checking abilities of the given checker. */
+    private static Checker plain(final Checker checker) {
+        return a -> checker.test(a);
+    }
+
+    @Test
+    public void parallelFiltersAreEquivalentToTheirSequentialCounterpart() {
+        for (Checker checker : List.of(plain(allDiff()), plain(sum(LE, 2)))) {
+            assertThat(
+               forAll(partialAssignment().withValuesRanging(-2, 3)).assertThat(
+                  a(arcConsistent(checker, POOL)).isEquivalentTo(arcConsistent(checker))
+               )
+            );
+            assertThat(
+               forAll(partialAssignment().withValuesRanging(-2, 3)).assertThat(
+                  a(forwardChecking(checker, POOL)).isEquivalentTo(forwardChecking(checker))
+               )
+            );
+            assertThat(
+               forAll(partialAssignment().withValuesRanging(-2, 3)).assertThat(
+                  a(boundDConsistent(checker, POOL)).isEquivalentTo(boundDConsistent(checker))
+               )
+            );
+            assertThat(
+               forAll(partialAssignment().withValuesRanging(-2, 3)).assertThat(
+                  a(boundZConsistent(checker, POOL)).isEquivalentTo(boundZConsistent(checker))
+               )
+            );
+            assertThat(
+               forAll(partialAssignment().withValuesRanging(-2, 3)).assertThat(
+                  a(rangeConsistent(checker, POOL)).isEquivalentTo(rangeConsistent(checker))
+               )
+            );
+        }
+    }
+
+    @Test
+    public void largeProductsAreSplitAcrossTheWorkers() {
+        final PartialAssignment domains = PartialAssignment.from(
+                Collections.nCopies(7, Domain.from(0, 1, 2, 3, 4, 5)));
+
+        for (Checker checker : List.of(plain(sum(EQ, 30)), plain(sum(EQ, 40)),
+                                       plain(allDiff()), alwaysFalse())) {
+            Assert.assertEquals(
+                new ArcConsitency(checker).filter(domains),
+                new ParallelSupport(checker, POOL).supports(domains));
+        }
+    }
+
+    @Test
+    public void hasSupportOnlyLooksAtTheGivenValue() {
+        final PartialAssignment domains = PartialAssignment.from(
+                Collections.nCopies(6, Domain.from(0, 1, 2, 3, 4, 5)));
+        final ParallelSupport support =
+                new ParallelSupport(plain(sum(EQ, 3)), POOL);
+
+        for (int value = 0; value < 6; value++) {
+            Assert.assertEquals(value <= 3, support.hasSupport(domains, 2, value));
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package be.uclouvain.solvercheck.consistencies.range;
 
 import be.uclouvain.solvercheck.WithSolverCheck;
+import be.uclouvain.solvercheck.consistencies.AbstractUniformConsistency;
 import be.uclouvain.solvercheck.core.data.Assignment;
 import be.uclouvain.solvercheck.core.data.Domain;
 import be.uclouvain.solvercheck.core.data.PartialAssignment;
@@ -15,6 +16,9 @@ import org.junit.Test;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import static be.uclouvain.solvercheck.consistencies.ConsistencyUtil.boundSupport;
+import static be.uclouvain.solvercheck.consistencies.ConsistencyUtil.exists;
+import static be.uclouvain.solvercheck.core.data.Operator.EQ;
 import static be.uclouvain.solvercheck.utils.relations.PartialOrdering.EQUIVALENT;
 import static be.uclouvain.solvercheck.utils.relations.PartialOrdering.STRONGER;
 
@@ -133,4 +137,54 @@ public class TestRangeConsistency implements WithSolverCheck {
             })
         );
     }
+
+    /**
+     * 5. The single-pass enumeration of the bound supports must reach the
+     * same fixpoint as the value-by-value filtering of each variable.
+     */
+    @Test
+    public void itIsEquivalentToTheValueByValueFiltering() {
+        for (Checker plain : List.<Checker>of(
+                 a -> allDiff().test(a),
+                 a -> sum(EQ, 2).test(a),
+                 a -> element().test(a))) {
+
+            final Filter reference = new AbstractUniformConsistency(
+               (var, domains) -> domains.get(var).stream()
+                   .filter(value -> exists(boundSupport(domains))
+                         .satisfying(plain)
+                         .forVariable(var)
+                         .assignedTo(value))
+                   .collect(Domain.collector())) { };
+
+            assertThat(
+               forAll(partialAssignment()
+                   .withVariablesBetween(3, 4)
+                   .withValuesRanging(-2, 3))
+               .assertThat(
+                  a(rangeConsistent(plain)).isEquivalentTo(reference)
+               )
+            );
+        }
+    }
+
+    /**
+     * 6. Domains whose range is much wider than the domain itself must
+     * neither overflow nor be indexed by offset.
+     */
+    @Test
+    public void itCopesWithSparseDomains() {
+        final Checker lessEq = a -> a.get(0) <= a.get(1);
+
+        Assert.assertEquals(
+           PartialAssignment.from(Domain.from(0), Domain.from(3, 400)),
+           rangeConsistent(lessEq).filter(PartialAssignment.from(
+                   Domain.from(0, 500), Domain.from(3, 400))));
+
+        Assert.assertEquals(
+           PartialAssignment.from(Domain.from(Integer.MIN_VALUE), Domain.from(0)),
+           rangeConsistent(lessEq).filter(PartialAssignment.from(
+                   Domain.from(Integer.MIN_VALUE, Integer.MAX_VALUE),
+                   Domain.from(0))));
+    }
 }
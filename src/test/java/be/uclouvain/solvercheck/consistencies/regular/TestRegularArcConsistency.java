@@ -0,0 +1,153 @@
+package be.uclouvain.solvercheck.consistencies.regular;
+
+import be.uclouvain.solvercheck.WithSolverCheck;
+import be.uclouvain.solvercheck.checkers.Automaton;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Checker;
+import be.uclouvain.solvercheck.core.task.Filter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestRegularArcConsistency implements WithSolverCheck {
+
+    /** Accepts the words of the form 0* 1 0*. */
+    private static final Automaton EXACTLY_ONE = Automaton.builder(2)
+            .accepting(1)
+            .transition(0, 0, 0).transition(0, 1, 1)
+            .transition(1, 0, 1)
+            .build();
+
+    /** Accepts the words having no two consecutive ones (over 0, 1, 2). */
+    private static final Automaton NO_CONSECUTIVE_ONES = Automaton.builder(2)
+            .accepting(0, 1)
+            .transition(0, 0, 0).transition(0, 1, 1).transition(0, 2, 0)
+            .transition(1, 0, 0).transition(1, 2, 0)
+            .build();
+
+    /** Accepts the words (over 0..3) whose sum is a multiple of three. */
+    private static final Automaton SUM_MOD_THREE = sumModThree();
+
+    private static Automaton sumModThree() {
+        final Automaton.Builder builder = Automaton.builder(3).accepting(0);
+        for (int q = 0; q < 3; q++) {
+            for (int v = 0; v <= 3; v++) {
+                builder.transition(q, v, (q + v) % 3);
+            }
+        }
+        return builder.build();
+    }
+
+    private static final List<Automaton> AUTOMATA =
+            List.of(EXACTLY_ONE, NO_CONSECUTIVE_ONES, SUM_MOD_THREE);
+
+    @Test
+    public void itIsEquivalentToArcConsistency() {
+        for (Automaton automaton : AUTOMATA) {
+            final Checker hidden = regular(automaton)::test;
+            assertThat(
+               forAll(partialAssignment().withValuesRanging(-1, 3)).assertThat(
+                  a(regularArcConsistent(automaton)).isEquivalentTo(arcConsistent(hidden))
+               )
+            );
+        }
+    }
+
+    @Test
+    public void theIncrementalLayersRemainArcConsistentAlongADive() {
+        for (Automaton automaton : AUTOMATA) {
+            assertThat(
+               forAll(partialAssignment().withVariablesBetween(1, 6).withValuesRanging(0, 3))
+               .assertThat(
+                  a(stateful(regularArcConsistent(automaton)))
+                    .isEquivalentTo(stateful(arcConsistent(regular(automaton))))
+                    .diving(15)
+               )
+            );
+        }
+    }
+
+    /**
+     * The arc consistent domains of "the sum is a multiple of three",
+     * computed without the automaton: a value is kept iff adding it to the
+     * residue of the sum of some prefix and of some suffix yields zero.
+     */
+    private static PartialAssignment sumModThreeSupports(final PartialAssignment pa) {
+        final int   n      = pa.size();
+        final int[] prefix = new int[n + 1];
+        final int[] suffix = new int[n + 1];
+        prefix[0] = 1;
+        suffix[n] = 1;
+        for (int i = 0; i < n; i++) {
+            prefix[i + 1] = residues(prefix[i], pa.get(i));
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            suffix[i] = residues(suffix[i + 1], pa.get(i));
+        }
+
+        final List<Domain> domains = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            final int others = sumOfResidues(prefix[i], suffix[i + 1]);
+            final Domain kept = pa.get(i).stream()
+                    .filter(v -> (others & (1 << Math.floorMod(-v, 3))) != 0)
+                    .collect(Domain.collector());
+            if (kept.isEmpty()) {
+                return PartialAssignment.error(n);
+            }
+            domains.add(kept);
+        }
+        return PartialAssignment.from(domains);
+    }
+
+    /** The residues (as a bit set) of r + v for r in `set` and v in `dom`. */
+    private static int residues(final int set, final Domain dom) {
+        int out = 0;
+        for (int v : dom) {
+            out |= sumOfResidues(set, 1 << Math.floorMod(v, 3));
+        }
+        return out;
+    }
+
+    /** The residues (as a bit set) of r + s for r in `a` and s in `b`. */
+    private static int sumOfResidues(final int a, final int b) {
+        int out = 0;
+        for (int r = 0; r < 3; r++) {
+            for (int t = 0; t < 3; t++) {
+                if ((a & (1 << r)) != 0 && (b & (1 << t)) != 0) {
+                    out |= 1 << ((r + t) % 3);
+                }
+            }
+        }
+        return out;
+    }
+
+    @Test
+    public void itKeepsExactlyTheValuesCompletingAMultipleOfThree() {
+        final Filter filter = regularArcConsistent(SUM_MOD_THREE);
+
+        assertThat(
+           forAll(partialAssignment().withVariablesBetween(100, 120).withValuesRanging(0, 3))
+           .assertThat(pa -> rnd ->
+               Assert.assertEquals(sumModThreeSupports(pa), filter.filter(pa))
+           )
+        );
+    }
+
+    @Test
+    public void fixingTheOneRemovesItEverywhereElse() {
+        final Domain binary = Domain.from(0, 1);
+        final PartialAssignment pa = PartialAssignment.from(
+                binary, binary, Domain.from(1), binary);
+
+        final PartialAssignment filtered =
+                regularArcConsistent(EXACTLY_ONE).filter(pa);
+
+        Assert.assertEquals(
+                PartialAssignment.from(
+                        Domain.from(0), Domain.from(0), Domain.from(1), Domain.from(0)),
+                filtered);
+    }
+}
@@ -0,0 +1,110 @@
+package be.uclouvain.solvercheck.consistencies.sac;
+
+import be.uclouvain.solvercheck.WithSolverCheck;
+import be.uclouvain.solvercheck.consistencies.ConstraintNetwork;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Checker;
+import be.uclouvain.solvercheck.core.task.Filter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static be.uclouvain.solvercheck.core.data.Operator.EQ;
+import static be.uclouvain.solvercheck.core.data.Operator.NE;
+
+public class TestSingletonArcConsistency implements WithSolverCheck {
+
+    private static final Checker NOT_EQ = a -> !a.get(0).equals(a.get(1));
+    private static final Checker LESS   = a -> a.get(0) < a.get(1);
+
+    private ConstraintNetwork clique(final int n) {
+        ConstraintNetwork network = network();
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                network = network.post(NOT_EQ, i, j);
+            }
+        }
+        return network;
+    }
+
+    /** SAC-1 where every singleton test propagates from scratch. */
+    private Filter naive(final ConstraintNetwork network) {
+        return pa -> {
+            PartialAssignment current = network.filter(pa);
+            boolean fixpoint = false;
+            while (!fixpoint && !current.isError()) {
+                fixpoint = true;
+                for (int var = 0; var < current.size(); var++) {
+                    for (int value : current.get(var)) {
+                        final PartialAssignment test = network.filter(
+                                PartialAssignment.restrict(current, var, EQ, value));
+                        if (test.isError()) {
+                            current = network.filter(
+                                    PartialAssignment.restrict(current, var, NE, value));
+                            fixpoint = false;
+                            break;
+                        }
+                    }
+                    if (!fixpoint) {
+                        break;
+                    }
+                }
+            }
+            return current.isError() ? PartialAssignment.error(pa.size()) : current;
+        };
+    }
+
+    @Test
+    public void onASingleCheckerItIsArcConsistency() {
+        assertThat(
+           forAll(partialAssignment().withValuesRanging(-1, 3)).assertThat(
+              a(singletonArcConsistent(allDiff())).isEquivalentTo(arcConsistent(allDiff()))
+           )
+        );
+    }
+
+    @Test
+    public void itIsEquivalentToTheNaiveFixpoint() {
+        final ConstraintNetwork network = network()
+                .post(sum(EQ, 4), 0, 1, 2)
+                .post(NOT_EQ, 2, 3)
+                .post(LESS, 3, 0)
+                .post(NOT_EQ, 1, 3);
+
+        assertThat(
+           forAll(partialAssignment().withVariables(4).withValuesRanging(0, 4))
+           .assertThat(
+              a(singletonArcConsistent(network)).isEquivalentTo(naive(network))
+           )
+        );
+    }
+
+    @Test
+    public void itIsStrongerThanArcConsistencyOnANetwork() {
+        final ConstraintNetwork network = clique(4);
+
+        assertThat(
+           forAll(partialAssignment().withVariables(4).withValuesRanging(0, 3))
+           .assertThat(
+              a(singletonArcConsistent(network)).isStrongerThan(network)
+           )
+        );
+        assertThat(
+           forAll(partialAssignment().withVariables(4).withValuesRanging(0, 3))
+           .assertThat(
+              a(singletonArcConsistent(network)).isWeakerThan(arcConsistent(allDiff()))
+           )
+        );
+    }
+
+    @Test
+    public void itDetectsThePigeonHolesThatArcConsistencyMisses() {
+        final ConstraintNetwork network = clique(3);
+        final Domain            binary  = Domain.from(0, 1);
+        final PartialAssignment pa      =
+                PartialAssignment.from(binary, binary, binary);
+
+        Assert.assertEquals(pa, network.filter(pa));
+        Assert.assertTrue(singletonArcConsistent(network).filter(pa).isError());
+    }
+}
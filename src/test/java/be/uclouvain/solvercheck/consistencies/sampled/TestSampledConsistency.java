@@ -0,0 +1,123 @@
+package be.uclouvain.solvercheck.consistencies.sampled;
+
+import be.uclouvain.solvercheck.WithSolverCheck;
+import be.uclouvain.solvercheck.consistencies.SampledConsistency;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Checker;
+import be.uclouvain.solvercheck.core.task.Filter;
+import be.uclouvain.solvercheck.utils.relations.PartialOrdering;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static be.uclouvain.solvercheck.core.data.Operator.EQ;
+
+public class TestSampledConsistency implements WithSolverCheck {
+
+    @Test
+    public void itIsAlwaysStrongerThanArcConsistency() {
+        final List<Checker> checkers = List.<Checker>of(allDiff(), sum(EQ, 3));
+
+        for (Checker checker : checkers) {
+            assertThat(
+               forAll(partialAssignment().withValuesRanging(-1, 3)).assertThat(
+                  a(arcConsistent(checker)).isWeakerThan(sampled(checker, 10))
+               )
+            );
+        }
+    }
+
+    @Test
+    public void itMatchesArcConsistencyWhenTheBudgetIsLarge() {
+        final List<Checker> checkers = List.<Checker>of(allDiff(), sum(EQ, 3));
+
+        for (Checker checker : checkers) {
+            assertThat(
+               forAll(partialAssignment().withVariablesBetween(1, 3).withValuesRanging(0, 3))
+               .assertThat(
+                  a(sampled(checker, 2000)).isEquivalentTo(arcConsistent(checker))
+               )
+            );
+        }
+    }
+
+    @Test
+    public void itIsAPureFunctionOfItsInput() {
+        final SampledConsistency sampled = sampled(sum(EQ, 0), 5, 42L);
+
+        assertThat(
+           forAll(partialAssignment().withValuesRanging(-5, 5)).assertThat(pa -> rnd ->
+              sampled.filter(pa).equals(sampled.filter(pa))
+           )
+        );
+    }
+
+    @Test
+    public void itOnlyKeepsActuallySupportedValuesOfWideDomains() {
+        final Domain wide = Domain.from(
+                IntStream.rangeClosed(-1000, 1000).boxed().collect(Collectors.toList()));
+        final PartialAssignment pa = PartialAssignment.from(wide, wide, wide);
+
+        final PartialAssignment filtered = sampled(sum(EQ, 1500), 200).filter(pa);
+
+        Assert.assertFalse(filtered.isError());
+        for (Domain domain : filtered) {
+            // x + y + z = 1500 is only satisfiable for x >= -500
+            Assert.assertTrue(domain.minimum() >= -500);
+        }
+    }
+
+    @Test
+    public void aPropagatorPruningASupportedValueIsCaught() {
+        // wrongly removes the maximum of every unfixed domain
+        final Filter buggy = pa -> PartialAssignment.from(
+                pa.stream()
+                  .map(d -> d.size() > 1 ? Domain.from(d.stream()
+                          .filter(v -> v < d.maximum())
+                          .collect(Collectors.toList())) : d)
+                  .collect(Collectors.toList()));
+
+        final PartialAssignment pa = PartialAssignment.from(
+                Domain.from(0, 1, 2), Domain.from(0, 1, 2), Domain.from(0, 1, 2));
+
+        final PartialOrdering comparison =
+                buggy.filter(pa).compareWith(sampled(allDiff(), 100).filter(pa));
+
+        Assert.assertNotEquals(PartialOrdering.WEAKER, comparison);
+        Assert.assertNotEquals(PartialOrdering.EQUIVALENT, comparison);
+    }
+
+    @Test
+    public void unsupportedValuesComeWithTheRuleOfThree() {
+        final Checker unsat = a -> false;
+        final PartialAssignment pa = PartialAssignment.from(
+                Domain.from(0, 1), Domain.from(0, 1, 2));
+
+        final SampledConsistency.Report report = sampled(unsat, 300).sample(pa);
+
+        Assert.assertTrue(report.supported().isError());
+        Assert.assertFalse(report.isSupported(1, 2));
+        Assert.assertEquals(300, report.nbSamples(1, 2));
+        Assert.assertEquals(3.0 / 300, report.densityBound(1, 2), 1e-4);
+        Assert.assertEquals(
+                -Math.log(0.01) / 300, report.densityBound(1, 2, 0.99), 1e-9);
+    }
+
+    @Test
+    public void supportedValuesStopBeingSampled() {
+        final Checker all = a -> true;
+        final PartialAssignment pa = PartialAssignment.from(
+                Domain.from(0, 1), Domain.from(0, 1, 2));
+
+        final SampledConsistency.Report report = sampled(all, 300).sample(pa);
+
+        Assert.assertEquals(pa, report.supported());
+        Assert.assertTrue(report.isSupported(0, 1));
+        Assert.assertEquals(1.0, report.densityBound(0, 1), 0.0);
+        Assert.assertTrue(report.nbSamples(0, 1) <= 1);
+    }
+}
@@ -0,0 +1,138 @@
+package be.uclouvain.solvercheck.consistencies.scheduling;
+
+import be.uclouvain.solvercheck.WithSolverCheck;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Filter;
+import be.uclouvain.solvercheck.core.task.PartialChecker;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static be.uclouvain.solvercheck.core.task.PartialChecker.PartialCheckResult.REJECT;
+
+public class TestTimeTableConsistency implements WithSolverCheck {
+
+    private static final int[] DURATIONS = {2, 3, 1, 4};
+    private static final int[] DEMANDS   = {1, 2, 2, 1};
+    private static final int   CAPACITY  = 3;
+
+    /** Time-tabling where the profile is evaluated at every point in time. */
+    private static Filter naive(
+            final int[] durations,
+            final int[] demands,
+            final int capacity) {
+
+        return pa -> {
+            if (pa.isError()) {
+                return pa;
+            }
+            final List<Domain> domains = new ArrayList<>(pa);
+            boolean fixpoint = false;
+            while (!fixpoint) {
+                fixpoint = true;
+                final List<Domain> before = new ArrayList<>(domains);
+                for (int task = 0; task < domains.size(); task++) {
+                    final int own = task;
+                    final Domain reduced = domains.get(task).stream()
+                       .filter(s -> {
+                           for (int t = s; t < s + durations[own]; t++) {
+                               int load = demands[own];
+                               for (int i = 0; i < before.size(); i++) {
+                                   final int lst = before.get(i).maximum();
+                                   final int ect = before.get(i).minimum() + durations[i];
+                                   if (i != own && lst <= t && t < ect) {
+                                       load += demands[i];
+                                   }
+                               }
+                               if (load > capacity) {
+                                   return false;
+                               }
+                           }
+                           return true;
+                       })
+                       .collect(Domain.collector());
+
+                    if (reduced.isEmpty()) {
+                        return PartialAssignment.error(pa.size());
+                    }
+                    if (reduced.size() != domains.get(task).size()) {
+                        domains.set(task, reduced);
+                        fixpoint = false;
+                    }
+                }
+            }
+            return PartialAssignment.from(domains);
+        };
+    }
+
+    @Test
+    public void itIsEquivalentToThePointwiseTimeTable() {
+        assertThat(
+           forAll(partialAssignment().withVariables(4).withValuesRanging(0, 8))
+           .assertThat(
+              a(timeTable(DURATIONS, DEMANDS, CAPACITY))
+                .isEquivalentTo(naive(DURATIONS, DEMANDS, CAPACITY))
+           )
+        );
+    }
+
+    @Test
+    public void itIsWeakerThanArcConsistency() {
+        assertThat(
+           forAll(partialAssignment().withVariables(4).withValuesRanging(0, 6))
+           .assertThat(
+              a(timeTable(DURATIONS, DEMANDS, CAPACITY))
+                .isWeakerThan(arcConsistent(cumulative(DURATIONS, DEMANDS, CAPACITY)))
+           )
+        );
+        assertThat(
+           forAll(partialAssignment().withVariables(3).withValuesRanging(0, 6))
+           .assertThat(
+              a(timeTable(new int[] {2, 3, 1}))
+                .isWeakerThan(arcConsistent(disjunctive(new int[] {2, 3, 1})))
+           )
+        );
+    }
+
+    @Test
+    public void itRejectsExactlyTheInfeasibleSchedules() {
+        assertThat(
+           forAll(assignment().withVariables(4).withValuesRanging(0, 8))
+           .itIsTrueThat(a -> {
+              final PartialAssignment fixed = PartialAssignment.from(
+                 a.stream().map(Domain::singleton).collect(Collectors.toList()));
+              return timeTable(DURATIONS, DEMANDS, CAPACITY).filter(fixed).isError()
+                  != cumulative(DURATIONS, DEMANDS, CAPACITY).test(a);
+           })
+        );
+    }
+
+    @Test
+    public void itHandlesWideStartTimeDomains() {
+        final int[] durations = new int[30];
+        final int[] demands   = new int[30];
+        for (int i = 0; i < 30; i++) {
+            durations[i] = 50 + i;
+            demands[i]   = 1 + i % 3;
+        }
+        final PartialChecker resource = cumulative(durations, demands, 6);
+        final Filter         filter   = timeTable(durations, demands, 6);
+
+        assertThat(
+           forAll(partialAssignment().withVariables(30).withValuesRanging(0, 5000))
+           .assertThat(pa -> rnd -> {
+               final PartialAssignment filtered = filter.filter(pa);
+               if (!filtered.isError()) {
+                   for (int task = 0; task < pa.size(); task++) {
+                       Assert.assertTrue(pa.get(task).containsAll(filtered.get(task)));
+                   }
+                   Assert.assertNotEquals(REJECT, resource.test(filtered));
+               }
+           })
+        );
+    }
+}
@@ -0,0 +1,107 @@
+package be.uclouvain.solvercheck.consistencies.search;
+
+import be.uclouvain.solvercheck.WithSolverCheck;
+import be.uclouvain.solvercheck.consistencies.ArcConsitency;
+import be.uclouvain.solvercheck.consistencies.SupportSearch;
+import be.uclouvain.solvercheck.core.data.Assignment;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Checker;
+import be.uclouvain.solvercheck.core.task.PartialChecker;
+import be.uclouvain.solvercheck.utils.collections.CartesianProduct;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static be.uclouvain.solvercheck.core.data.Operator.EQ;
+import static be.uclouvain.solvercheck.core.data.Operator.LE;
+
+public class TestSupportSearch implements WithSolverCheck {
+
+    @Test
+    public void supportsAreTheArcConsistentDomainsForAllDiff() {
+        supportsAreTheArcConsistentDomains(allDiff());
+    }
+
+    @Test
+    public void supportsAreTheArcConsistentDomainsForSumEq() {
+        supportsAreTheArcConsistentDomains(sum(EQ, 5));
+    }
+
+    @Test
+    public void supportsAreTheArcConsistentDomainsForSumLe() {
+        supportsAreTheArcConsistentDomains(sum(LE, 0));
+    }
+
+    @Test
+    public void hasSupportIffSomeSolutionAssignsTheValue() {
+        final PartialChecker checker = allDiff();
+        final SupportSearch  search  = new SupportSearch(checker);
+
+        assertThat(
+           forAll(partialAssignment().withValuesRanging(0, 5))
+           .assertThat(pa -> rnd -> {
+               for (int var = 0; var < pa.size(); var++) {
+                   for (int value : pa.get(var)) {
+                       final int x = var;
+                       final int v = value;
+                       boolean expected = CartesianProduct.of(pa).stream()
+                            .anyMatch(t -> t.get(x) == v
+                                        && checker.test(Assignment.from(t)));
+
+                       Assert.assertEquals(expected, search.hasSupport(pa, x, v));
+                   }
+               }
+           })
+        );
+    }
+
+    @Test
+    public void arcConsistencyIsTheSameWithOrWithoutPartialChecks() {
+        assertThat(
+           forAll(partialAssignment().withValuesRanging(0, 5)).assertThat(
+              an(arcConsistent(allDiff()))
+                .isEquivalentTo(arcConsistent(plain(allDiff())))
+           )
+        );
+    }
+
+    @Test
+    public void boundConsistenciesAreTheSameWithOrWithoutPartialChecks() {
+        assertThat(
+           forAll(partialAssignment().withValuesRanging(-3, 3)).assertThat(
+              a(boundDConsistent(sum(EQ, 2)))
+                .isEquivalentTo(boundDConsistent(plain(sum(EQ, 2))))
+           )
+        );
+        assertThat(
+           forAll(partialAssignment().withValuesRanging(-3, 3)).assertThat(
+              a(boundZConsistent(sum(EQ, 2)))
+                .isEquivalentTo(boundZConsistent(plain(sum(EQ, 2))))
+           )
+        );
+        assertThat(
+           forAll(partialAssignment().withValuesRanging(0, 3)).assertThat(
+              a(rangeConsistent(allDiff()))
+                .isEquivalentTo(rangeConsistent(plain(allDiff())))
+           )
+        );
+    }
+
+    private void supportsAreTheArcConsistentDomains(final PartialChecker checker) {
+        final SupportSearch search = new SupportSearch(checker);
+        final ArcConsitency bruteForce = new ArcConsitency(plain(checker));
+
+        assertThat(
+           forAll(partialAssignment().withValuesRanging(-3, 3))
+           .itIsTrueThat(pa -> {
+               PartialAssignment expected = bruteForce.filter(pa);
+               PartialAssignment actual   = search.supports(pa);
+               return expected.equals(actual);
+           })
+        );
+    }
+
+    /** @return a checker that hides the partial checking capabilities */
+    private static Checker plain(final Checker checker) {
+        return assignment -> checker.test(assignment);
+    }
+}
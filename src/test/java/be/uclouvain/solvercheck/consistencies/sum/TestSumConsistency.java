@@ -0,0 +1,135 @@
+package be.uclouvain.solvercheck.consistencies.sum;
+
+import be.uclouvain.solvercheck.WithSolverCheck;
+import be.uclouvain.solvercheck.consistencies.BoundDConsistency;
+import be.uclouvain.solvercheck.consistencies.BoundZConsistency;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.Operator;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Checker;
+import be.uclouvain.solvercheck.core.task.PartialChecker;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+import static be.uclouvain.solvercheck.core.data.Operator.EQ;
+import static be.uclouvain.solvercheck.core.data.Operator.LE;
+
+public class TestSumConsistency implements WithSolverCheck {
+
+    /** Hides the type of the checker so that the generic filters are used. */
+    private static Checker hidden(final Checker checker) {
+        return checker::test;
+    }
+
+    @Test
+    public void itIsEquivalentToTheGenericBoundZConsistency() {
+        for (Operator op : Operator.values()) {
+            final PartialChecker sum = sum(op, 3);
+            assertThat(
+               forAll(partialAssignment().withValuesRanging(-1, 3)).assertThat(
+                  a(boundZConsistent(sum))
+                    .isEquivalentTo(new BoundZConsistency(hidden(sum)))
+               )
+            );
+        }
+    }
+
+    @Test
+    public void itIsEquivalentToTheGenericBoundDConsistency() {
+        for (Operator op : Operator.values()) {
+            final PartialChecker sum = sum(op, 3);
+            assertThat(
+               forAll(partialAssignment().withValuesRanging(-1, 3)).assertThat(
+                  a(boundDConsistent(sum))
+                    .isEquivalentTo(new BoundDConsistency(hidden(sum)))
+               )
+            );
+        }
+    }
+
+    @Test
+    public void itHandlesWeightedSums() {
+        final List<int[]> allWeights = List.of(
+                new int[] {2, -1, 3},
+                new int[] {1, -1, 1},
+                new int[] {0, 4, -3});
+
+        for (int[] weights : allWeights) {
+            for (Operator op : Operator.values()) {
+                final PartialChecker sum = weightedSum(weights, op, 2);
+                assertThat(
+                   forAll(partialAssignment().withVariables(3).withValuesRanging(-2, 3))
+                   .assertThat(
+                      a(boundZConsistent(sum))
+                        .isEquivalentTo(new BoundZConsistency(hidden(sum)))
+                   )
+                );
+                assertThat(
+                   forAll(partialAssignment().withVariables(3).withValuesRanging(-2, 3))
+                   .assertThat(
+                      a(boundDConsistent(sum))
+                        .isEquivalentTo(new BoundDConsistency(hidden(sum)))
+                   )
+                );
+            }
+        }
+    }
+
+    @Test
+    public void theHybridFiltersUseTheDedicatedDomainFilter() {
+        for (Operator op : Operator.values()) {
+            final PartialChecker sum = sum(op, 2);
+            assertThat(
+               forAll(partialAssignment().withValuesRanging(-1, 3)).assertThat(
+                  a(new BoundZConsistency(sum))
+                    .isEquivalentTo(new BoundZConsistency(hidden(sum)))
+               )
+            );
+            assertThat(
+               forAll(partialAssignment().withValuesRanging(-1, 3)).assertThat(
+                  a(new BoundDConsistency(sum))
+                    .isEquivalentTo(new BoundDConsistency(hidden(sum)))
+               )
+            );
+        }
+    }
+
+    @Test
+    public void itScalesToLargeArities() {
+        assertThat(
+           forAll(partialAssignment().withVariablesBetween(30, 40).withValuesRanging(0, 9))
+           .assertThat(
+              a(boundDConsistent(sum(EQ, 150))).isStrongerThan(boundZConsistent(sum(EQ, 150)))
+           )
+        );
+        assertThat(
+           forAll(partialAssignment().withVariablesBetween(30, 40).withValuesRanging(0, 9))
+           .assertThat(
+              a(boundZConsistent(sum(LE, 100))).isWeakerThan(sampled(sum(LE, 100), 5))
+           )
+        );
+    }
+
+    @Test
+    public void equalitiesPruneTheBoundsWhoseComplementFallsInAHole() {
+        // the first two variables sum to 0, 10 or 20: the third one must be 10
+        final PartialAssignment pa = PartialAssignment.from(
+                Domain.from(0, 10),
+                Domain.from(0, 10),
+                Domain.from(5, 6, 7, 8, 9, 10));
+
+        final PartialAssignment filtered = boundDConsistent(sum(EQ, 20)).filter(pa);
+        Assert.assertEquals(Domain.from(0, 10), filtered.get(0));
+        Assert.assertEquals(Domain.from(10), filtered.get(2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void aWeightedSumRejectsAssignmentsOfTheWrongArity() {
+        final PartialAssignment pa = PartialAssignment.from(
+                Domain.from(0, 1), Domain.from(0, 1));
+
+        boundZConsistent(weightedSum(new int[] {1, 2, 3}, EQ, 0)).filter(pa);
+    }
+}
@@ -0,0 +1,196 @@
+package be.uclouvain.solvercheck.consistencies.table;
+
+import be.uclouvain.solvercheck.WithSolverCheck;
+import be.uclouvain.solvercheck.checkers.MappedTable;
+import be.uclouvain.solvercheck.core.data.Assignment;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Filter;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static be.uclouvain.solvercheck.core.task.PartialChecker.PartialCheckResult.REJECT;
+import static be.uclouvain.solvercheck.utils.Utils.failsThrowing;
+
+public class TestMappedTable implements WithSolverCheck {
+
+    private static final List<Assignment> ROWS = randomRows(80, 3, -1, 3);
+    private static Path        file;
+    private static MappedTable table;
+
+    private static List<Assignment> randomRows(
+            final int nbRows, final int arity, final int lo, final int hi) {
+        final Random random = new Random(nbRows);
+        final List<Assignment> rows = new ArrayList<>(nbRows);
+        for (int r = 0; r < nbRows; r++) {
+            final List<Integer> row = new ArrayList<>(arity);
+            for (int i = 0; i < arity; i++) {
+                row.add(lo + random.nextInt(hi - lo + 1));
+            }
+            rows.add(Assignment.from(row));
+        }
+        return rows;
+    }
+
+    @BeforeClass
+    public static void writeTable() throws IOException {
+        file = Files.createTempFile("table", ".bin");
+        MappedTable.write(file, ROWS);
+        table = MappedTable.open(file);
+    }
+
+    @AfterClass
+    public static void deleteTable() throws IOException {
+        Files.delete(file);
+    }
+
+    @Test
+    public void itHoldsTheDistinctRowsOfTheTable() {
+        Assert.assertEquals(3, table.arity());
+        Assert.assertEquals(new HashSet<>(ROWS).size(), table.nbRows());
+        assertThat(
+           forAll(assignment().withVariablesBetween(2, 4).withValuesRanging(-2, 4))
+           .itIsTrueThat(a -> table.test(a) == ROWS.contains(a))
+        );
+    }
+
+    @Test
+    public void itNeverRejectsAPartialAssignmentHavingSomeSupport() {
+        final Filter arc = arcConsistent(table(ROWS));
+        assertThat(
+           forAll(partialAssignment().withVariables(3).withValuesRanging(-2, 4))
+           .itIsTrueThat(pa ->
+               table.test(pa) != REJECT || arc.filter(pa).isError())
+        );
+    }
+
+    @Test
+    public void itIsEquivalentToArcConsistency() {
+        assertThat(
+           forAll(partialAssignment().withVariables(3).withValuesRanging(-2, 4))
+           .assertThat(
+              a(mappedTableConsistent(table)).isEquivalentTo(arcConsistent(table(ROWS)))
+           )
+        );
+    }
+
+    @Test
+    public void itRemainsEquivalentAlongADive() {
+        assertThat(
+           forAll(partialAssignment().withVariables(3).withValuesRanging(-1, 3))
+           .assertThat(
+              a(stateful(mappedTableConsistent(table)))
+                .isEquivalentTo(stateful(arcConsistent(table(ROWS))))
+                .diving(10)
+           )
+        );
+    }
+
+    @Test
+    public void itFiltersLargeTablesWithoutEnumeratingTheDomains() throws IOException {
+        final List<Assignment> rows  = randomRows(100_000, 4, 0, 49);
+        final Path             large = Files.createTempFile("large", ".bin");
+        try {
+            MappedTable.write(large, rows);
+            final Filter filter = mappedTableConsistent(MappedTable.open(large));
+
+            assertThat(
+               forAll(partialAssignment().withVariables(4).withValuesRanging(0, 49))
+               .assertThat(pa -> rnd -> {
+                   final List<Set<Integer>> supported = new ArrayList<>();
+                   for (int c = 0; c < 4; c++) {
+                       supported.add(new HashSet<>());
+                   }
+                   for (Assignment row : rows) {
+                       boolean valid = true;
+                       for (int c = 0; c < 4; c++) {
+                           valid &= pa.get(c).contains(row.get(c));
+                       }
+                       for (int c = 0; c < 4 && valid; c++) {
+                           supported.get(c).add(row.get(c));
+                       }
+                   }
+
+                   final PartialAssignment filtered = filter.filter(pa);
+                   if (supported.get(0).isEmpty()) {
+                       Assert.assertTrue(filtered.isError());
+                   } else {
+                       for (int c = 0; c < 4; c++) {
+                           Assert.assertEquals(Domain.from(supported.get(c)), filtered.get(c));
+                       }
+                   }
+               })
+            );
+        } finally {
+            Files.delete(large);
+        }
+    }
+
+    @Test
+    public void itRefusesFilesWhichDoNotHoldATable() throws IOException {
+        final Path other = Files.createTempFile("other", ".bin");
+        try {
+            Files.write(other, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+            try {
+                MappedTable.open(other);
+                Assert.fail("A file without the magic number was accepted");
+            } catch (IOException expected) {
+                // the file holds no mapped table
+            }
+        } finally {
+            Files.delete(other);
+        }
+    }
+
+    @Test
+    public void itRefusesFilesWhoseHeaderIsCorrupt() throws IOException {
+        final Path other = Files.createTempFile("corrupt", ".bin");
+        try {
+            // the magic number followed by a negative arity
+            try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(other))) {
+                out.writeInt(0x5C7AB1E);
+                out.writeInt(-1);
+                out.writeInt(0);
+            }
+            Assert.assertTrue(isRefused(other));
+
+            // a valid table missing its last row
+            MappedTable.write(other, ROWS);
+            final byte[] bytes = Files.readAllBytes(other);
+            Files.write(other, Arrays.copyOf(bytes, bytes.length - 3 * Integer.BYTES));
+            Assert.assertTrue(isRefused(other));
+        } finally {
+            Files.delete(other);
+        }
+    }
+
+    /** True iff opening the given file fails with an IOException. */
+    private static boolean isRefused(final Path file) {
+        try {
+            MappedTable.open(file);
+            return false;
+        } catch (IOException expected) {
+            return true;
+        }
+    }
+
+    @Test
+    public void itRequiresTheArityOfTheTable() {
+        final PartialAssignment pa = PartialAssignment.from(Domain.from(1), Domain.from(2));
+        Assert.assertTrue(failsThrowing(IllegalArgumentException.class,
+                () -> mappedTableConsistent(table).filter(pa)));
+    }
+}
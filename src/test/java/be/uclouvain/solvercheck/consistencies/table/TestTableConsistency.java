@@ -0,0 +1,77 @@
+package be.uclouvain.solvercheck.consistencies.table;
+
+import be.uclouvain.solvercheck.WithSolverCheck;
+import be.uclouvain.solvercheck.consistencies.ArcConsitency;
+import be.uclouvain.solvercheck.consistencies.CompactTable;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Checker;
+import be.uclouvain.solvercheck.core.task.Filter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static be.uclouvain.solvercheck.core.data.Operator.EQ;
+import static be.uclouvain.solvercheck.core.data.Operator.GE;
+import static be.uclouvain.solvercheck.core.data.Operator.LE;
+import static be.uclouvain.solvercheck.core.data.Operator.NE;
+
+public class TestTableConsistency implements WithSolverCheck {
+
+    @Test
+    public void itIsEquivalentToArcConsistency() {
+        assertThat(
+           forAll(partialAssignment().withValuesRanging(0, 4)).assertThat(
+              a(tableConsistent(allDiff())).isEquivalentTo(arcConsistent(allDiff()))
+           )
+        );
+        assertThat(
+           forAll(partialAssignment().withValuesRanging(-2, 2)).assertThat(
+              a(tableConsistent(sum(EQ, 1))).isEquivalentTo(arcConsistent(sum(EQ, 1)))
+           )
+        );
+    }
+
+    @Test
+    public void itFiltersAllTheRestrictionsOfItsRoot() {
+        final Checker checker = element();
+        final Filter  arc     = new ArcConsitency(checker);
+
+        assertThat(
+           forAll(partialAssignment().withVariablesBetween(3, 5).withValuesRanging(0, 3))
+           .assertThat(root -> rnd -> {
+               CompactTable table = CompactTable.compile(checker, root);
+
+               for (int var = 0; var < root.size(); var++) {
+                   for (int value : root.get(var)) {
+                       for (PartialAssignment pa : new PartialAssignment[] {
+                               PartialAssignment.restrict(root, var, EQ, value),
+                               PartialAssignment.restrict(root, var, NE, value),
+                               PartialAssignment.restrict(root, var, LE, value),
+                               PartialAssignment.restrict(root, var, GE, value)}) {
+
+                           Assert.assertTrue(table.covers(pa));
+                           Assert.assertEquals(arc.filter(pa), table.filter(pa));
+                       }
+                   }
+               }
+           })
+        );
+    }
+
+    @Test
+    public void itIsEquivalentToArcConsistencyWhenDiving() {
+        assertThat(
+           forAll(partialAssignment().withValuesRanging(0, 3)).assertThat(
+              a(stateful(tableConsistent(allDiff())))
+                .isEquivalentTo(stateful(arcConsistent(allDiff())))
+                .diving(10)
+           )
+        );
+        assertThat(
+           forAll(partialAssignment().withValuesRanging(-2, 2)).assertThat(
+              a(stateful(tableConsistent(sum(LE, 0))))
+                .isEquivalentTo(stateful(arcConsistent(sum(LE, 0))))
+                .diving(10)
+           )
+        );
+    }
+}
@@ -0,0 +1,83 @@
+package be.uclouvain.solvercheck.consistencies.traits;
+
+import be.uclouvain.solvercheck.WithSolverCheck;
+import be.uclouvain.solvercheck.checkers.Checkers;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Checker;
+import be.uclouvain.solvercheck.core.task.CheckerTraits;
+import be.uclouvain.solvercheck.core.task.CheckerTraits.Monotonicity;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static be.uclouvain.solvercheck.core.data.Operator.LE;
+
+public class TestCheckerTraits implements WithSolverCheck {
+
+    /** x0 * 2 + x1 - x2 <= 3 (with no trait declared). */
+    private static final Checker LINEAR =
+            a -> 2 * a.get(0) + a.get(1) - a.get(2) <= 3;
+
+    /** The same constraint, declaring its monotonicity. */
+    private static final Checker MONOTONE = Checkers.withTraits(LINEAR,
+            CheckerTraits.builder()
+                .monotone(var -> var == 2 ? Monotonicity.INCREASING : Monotonicity.DECREASING)
+                .build());
+
+    @Test
+    public void theMonotoneCornersPreserveTheBoundConsistencies() {
+        assertThat(
+           forAll(partialAssignment().withVariables(3).withValuesRanging(-2, 4))
+           .assertThat(a(boundZConsistent(MONOTONE)).isEquivalentTo(boundZConsistent(LINEAR)))
+        );
+        assertThat(
+           forAll(partialAssignment().withVariables(3).withValuesRanging(-2, 4))
+           .assertThat(a(boundDConsistent(MONOTONE)).isEquivalentTo(boundDConsistent(LINEAR)))
+        );
+        assertThat(
+           forAll(partialAssignment().withVariables(4).withValuesRanging(-1, 3))
+           .assertThat(a(boundZConsistent(lexLessEq(2)))
+                   .isEquivalentTo(boundZConsistent(lexLessEq(2)::test)))
+        );
+    }
+
+    @Test
+    public void theMonotoneCornersCheckOneTuplePerProbedValue() {
+        final AtomicInteger calls   = new AtomicInteger();
+        final Checker       counted = withTraits(a -> {
+            calls.incrementAndGet();
+            return LINEAR.test(a);
+        }, MONOTONE.traits());
+
+        final Domain wide = Domain.from(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        boundZConsistent(counted).filter(PartialAssignment.from(wide, wide, wide));
+
+        // without the trait, every probe enumerates the 100 tuples of the box
+        Assert.assertTrue(calls.get() < 100);
+    }
+
+    @Test
+    public void theConjunctionsAreFilteredPartByPart() {
+        final Checker decomposed =
+                conjunction(part(allDiff(), 0, 2, 4), part(sum(LE, 3), 1, 3));
+        final Checker plain = decomposed::test;
+
+        assertThat(
+           forAll(partialAssignment().withVariables(5).withValuesRanging(0, 3))
+           .assertThat(a(arcConsistent(decomposed)).isEquivalentTo(arcConsistent(plain)))
+        );
+    }
+
+    @Test
+    public void theVariablesOutOfTheConjunctionAreLeftUntouched() {
+        final Checker decomposed = conjunction(part(sum(LE, 1), 0, 1));
+        final PartialAssignment pa = PartialAssignment.from(
+                Domain.from(0, 1), Domain.from(1, 2), Domain.from(5, 6));
+
+        Assert.assertEquals(
+           PartialAssignment.from(Domain.from(0), Domain.from(1), Domain.from(5, 6)),
+           arcConsistent(decomposed).filter(pa));
+    }
+}
@@ -0,0 +1,93 @@
+package be.uclouvain.solvercheck.consistencies.traits;
+
+import be.uclouvain.solvercheck.WithSolverCheck;
+import be.uclouvain.solvercheck.core.data.Domain;
+import be.uclouvain.solvercheck.core.data.PartialAssignment;
+import be.uclouvain.solvercheck.core.task.Checker;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static be.uclouvain.solvercheck.core.data.Operator.EQ;
+import static be.uclouvain.solvercheck.core.data.Operator.LE;
+
+public class TestSymmetricSupport implements WithSolverCheck {
+
+    @Test
+    public void theMultisetsYieldTheSameSupportsAsTheTuples() {
+        assertThat(
+           forAll(partialAssignment().withVariablesBetween(2, 5).withValuesRanging(0, 4))
+           .assertThat(a(arcConsistent(allDiff())).isEquivalentTo(arcConsistent(allDiff()::test)))
+        );
+        assertThat(
+           forAll(partialAssignment().withVariablesBetween(2, 5).withValuesRanging(-2, 3))
+           .assertThat(a(arcConsistent(sum(EQ, 2))).isEquivalentTo(arcConsistent(sum(EQ, 2)::test)))
+        );
+        assertThat(
+           forAll(partialAssignment().withVariables(5).withValuesRanging(0, 3))
+           .assertThat(a(arcConsistent(gcc(Arrays.asList(2, 1), Arrays.asList(1, 2))))
+                   .isEquivalentTo(arcConsistent(gcc(Arrays.asList(2, 1), Arrays.asList(1, 2))::test)))
+        );
+        assertThat(
+           forAll(partialAssignment().withVariables(5).withValuesRanging(0, 3))
+           .assertThat(a(arcConsistent(gccVar(Arrays.asList(1, 2))))
+                   .isEquivalentTo(arcConsistent(gccVar(Arrays.asList(1, 2))::test)))
+        );
+    }
+
+    @Test
+    public void theSupportsAreOnlyProjectedOntoTheVariablesThatCanHoldThem() {
+        final PartialAssignment pa = PartialAssignment.from(
+                Domain.from(1, 2), Domain.from(1), Domain.from(1, 2, 3));
+
+        Assert.assertEquals(
+           PartialAssignment.from(Domain.from(2), Domain.from(1), Domain.from(3)),
+           arcConsistent(allDiff()).filter(pa));
+    }
+
+    @Test
+    public void eachMultisetIsCheckedOnce() {
+        final AtomicInteger calls   = new AtomicInteger();
+        final Checker       counted = withTraits(a -> {
+            calls.incrementAndGet();
+            return sum(LE, -1).test(a);
+        }, sum(LE, -1).traits());
+
+        final Domain six = Domain.from(0, 1, 2, 3, 4, 5);
+        final PartialAssignment pa =
+                PartialAssignment.from(six, six, six, six, six, six);
+
+        Assert.assertTrue(arcConsistent(counted).filter(pa).isError());
+        // C(11, 6) multisets rather than the 6^6 = 46656 tuples
+        Assert.assertEquals(462, calls.get());
+    }
+
+    @Test
+    public void theValueSymmetricCheckersAreCalledOncePerPattern() {
+        final AtomicInteger calls   = new AtomicInteger();
+        final Checker       counted = withTraits(a -> {
+            calls.incrementAndGet();
+            return a.stream().distinct().count() > a.size();
+        }, allDiff().traits());
+
+        final Domain ten = Domain.from(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        final PartialAssignment pa =
+                PartialAssignment.from(ten, ten, ten, ten, ten, ten);
+
+        Assert.assertTrue(arcConsistent(counted).filter(pa).isError());
+        // one call per partition of 6 rather than per multiset (C(15, 6))
+        Assert.assertEquals(11, calls.get());
+    }
+
+    @Test
+    public void theValueSymmetryPreservesTheSupports() {
+        final Checker counted = withTraits(allDiff()::test, allDiff().traits());
+
+        assertThat(
+           forAll(partialAssignment().withVariablesBetween(2, 5).withValuesRanging(0, 4))
+           .assertThat(a(arcConsistent(counted)).isEquivalentTo(arcConsistent(allDiff()::test)))
+        );
+    }
+}
@@ -8,11 +8,15 @@ import be.uclouvain.solvercheck.core.data.PartialAssignment;
 import be.uclouvain.solvercheck.generators.WithGenerators;
 import be.uclouvain.solvercheck.utils.collections.CartesianProduct;
 import be.uclouvain.solvercheck.utils.collections.Range;
+import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -130,6 +134,90 @@ public class TestConsistencyUtil implements WithSolverCheck, WithGenerators {
         });
     }
 
+    @Test
+    public void shrinkBoundsProbesEachValueAtMostOnce() {
+        assertThat(
+           forAll(partialAssignment().withVariablesBetween(2, 2))
+           .assertThat(pa -> rnd -> {
+               final Domain original  = pa.get(0);
+               final Domain supported = pa.get(1);
+               final List<Integer> probed = new ArrayList<>();
+
+               final Domain shrunk = ConsistencyUtil.shrinkBounds(
+                   original,
+                   value -> probed.add(value) && supported.contains(value));
+
+               final Domain expected = original.increasingStream()
+                   .dropWhile(v -> !supported.contains(v))
+                   .collect(Domain.collector())
+                   .decreasingStream()
+                   .dropWhile(v -> !supported.contains(v))
+                   .collect(Domain.collector());
+
+               Assert.assertEquals(expected, shrunk);
+               Assert.assertEquals(probed.size(), Set.copyOf(probed).size());
+               Assert.assertTrue(
+                   probed.size() <= original.size() - shrunk.size() + 2);
+           })
+        );
+    }
+
+    @Test
+    public void hasSupportOnlyLooksAtTheGivenValue() {
+        forAnyPartialAssignment(partialAssignment -> {
+            boolean ok = true;
+            int arity = partialAssignment.size();
+
+            Collection<List<Integer>> supports =
+                    ConsistencyUtil.support(partialAssignment);
+
+            for (int var = 0; ok && var < arity; var++) {
+                for (int val : partialAssignment.get(var)) {
+                    ok &= ConsistencyUtil.hasSupport(
+                                allDiff(), partialAssignment, var, val)
+                       == ConsistencyUtil.exists(supports)
+                            .satisfying(allDiff())
+                            .forVariable(var)
+                            .assignedTo(val);
+                }
+            }
+            return ok;
+        });
+    }
+
+    @Test
+    public void findSupportReturnsAWitnessIffThereIsASupport() {
+        forAnyPartialAssignment(partialAssignment -> {
+            boolean ok = true;
+            int arity = partialAssignment.size();
+
+            for (int var = 0; ok && var < arity; var++) {
+                for (int val : partialAssignment.get(var)) {
+                    final boolean expected = ConsistencyUtil.hasSupport(
+                            allDiff(), partialAssignment, var, val);
+
+                    // both with and without the partial checking abilities
+                    for (int[] witness : Arrays.asList(
+                          ConsistencyUtil.findSupport(allDiff(), partialAssignment, var, val),
+                          ConsistencyUtil.findSupport(a -> allDiff().test(a), partialAssignment, var, val))) {
+                        ok &= expected == (witness != null);
+                    }
+
+                    final int[] witness = ConsistencyUtil.findSupport(
+                            allDiff(), partialAssignment, var, val);
+                    if (witness != null) {
+                        ok &= witness[var] == val
+                           && allDiff().test(Assignment.from(witness));
+                        for (int i = 0; i < arity; i++) {
+                            ok &= partialAssignment.get(i).contains(witness[i]);
+                        }
+                    }
+                }
+            }
+            return ok;
+        });
+    }
+
     private void forAnyPartialAssignment(final Predicate<PartialAssignment> actual) {
         forAnyPartialAssignment(x -> true, actual);
     }
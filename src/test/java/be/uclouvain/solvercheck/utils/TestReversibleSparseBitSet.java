@@ -0,0 +1,86 @@
+package be.uclouvain.solvercheck.utils;
+
+import be.uclouvain.solvercheck.WithSolverCheck;
+import be.uclouvain.solvercheck.utils.collections.ReversibleSparseBitSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+
+public class TestReversibleSparseBitSet implements WithSolverCheck {
+
+    @Test
+    public void initiallyAllBitsAreSet() {
+        assertThat(
+           forAll(integer().between(0, 500)).itIsTrueThat(n -> {
+               ReversibleSparseBitSet set = new ReversibleSparseBitSet(n);
+               return set.cardinality() == n && set.isEmpty() == (n == 0);
+           })
+        );
+    }
+
+    @Test
+    public void itBehavesLikeABitSetWithASnapshotStack() {
+        assertThat(
+           forAll(integer("NBITS").between(1, 300),
+                  listOf("OPS", integer().between(0, 2)).ofSizeUpTo(50))
+           .assertThat((n, ops) -> rnd -> {
+               ReversibleSparseBitSet actual   = new ReversibleSparseBitSet(n);
+               BitSet                 expected = new BitSet();
+               expected.set(0, n);
+               Deque<BitSet>          saved    = new ArrayDeque<>();
+
+               for (int op : ops) {
+                   switch (op) {
+                       case 0:
+                           actual.pushState();
+                           saved.push((BitSet) expected.clone());
+                           break;
+                       case 1:
+                           actual.popState();
+                           if (!saved.isEmpty()) {
+                               expected = saved.pop();
+                           }
+                           break;
+                       default:
+                           int[] bits = rnd.intsBetween(0, n - 1).limit(n / 2 + 1).toArray();
+                           BitSet mask = new BitSet();
+                           for (int b : bits) {
+                               mask.set(b);
+                           }
+                           actual.clearMask();
+                           actual.addToMask(ReversibleSparseBitSet.wordsOf(n, bits));
+                           actual.intersectWithMask();
+                           expected.and(mask);
+                           break;
+                   }
+
+                   Assert.assertEquals(expected.cardinality(), actual.cardinality());
+                   Assert.assertEquals(expected.isEmpty(), actual.isEmpty());
+                   for (int i = 0; i < n; i++) {
+                       Assert.assertEquals(expected.get(i), actual.get(i));
+                   }
+               }
+           })
+        );
+    }
+
+    @Test
+    public void intersectIndexFindsAWordWhereBothSetsIntersect() {
+        assertThat(
+           forAll(integer("NBITS").between(1, 300), integer("BIT").between(0, 299))
+           .assuming((n, bit) -> bit < n)
+           .itIsTrueThat((n, bit) -> {
+               ReversibleSparseBitSet set = new ReversibleSparseBitSet(n);
+               set.clearMask();
+               set.addToMask(ReversibleSparseBitSet.wordsOf(n, bit));
+               set.intersectWithMask();
+
+               return set.intersectIndex(ReversibleSparseBitSet.wordsOf(n, bit), -1) == bit / 64
+                   && set.intersectIndex(ReversibleSparseBitSet.wordsOf(n), -1) == -1;
+           })
+        );
+    }
+}